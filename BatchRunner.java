@@ -0,0 +1,223 @@
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Evaluates a stream of polynomial operations, one per line, and writes one result per line in the same order.
+ *
+ * Every line holds two polynomials in parentheses with an operator between them, such as "(x^2 + 1) * (x - 1)". The
+ * operator is +, - or *. The parentheses are needed since the polynomials themselves are written with + and -. The
+ * result line is the toString() of the result, or "error: " followed by the message when the line can't be evaluated,
+ * so one bad line doesn't stop the rest of the job. The bad lines are counted where they fail, so a result is never
+ * taken for an error because of how it is written.
+ *
+ * The lines are read one at a time and parsed, computed and formatted on the threads of the executor. At most window
+ * lines are in flight at once: once that many are waiting, the oldest one is written before the next line is read.
+ * The memory used is bounded by the window no matter how large the input is, and the results come out in input order
+ * since they are always written from the oldest line.
+ *
+ * The counters can be read from other threads while a run is going on to follow its progress.
+ */
+public final class BatchRunner {
+    private final ExecutorService executor;
+    private final int window;
+    private final Function<String, String> operation; // Computes the result line of an input line, or throws
+    private final AtomicLong read = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+    private final AtomicLong nanos = new AtomicLong();
+
+    /**
+     * Creates a runner that evaluates the lines on the given executor.
+     *
+     * @param executor the executor that evaluates the lines, which the runner doesn't shut down
+     * @param window the most lines that are read but not written yet
+     * @throws NullPointerException if executor is null
+     * @throws IllegalArgumentException if window is less than 1
+     */
+    public BatchRunner(ExecutorService executor, int window){
+        this(executor, window, BatchRunner::compute);
+    }
+
+    /**
+     * Creates a runner that turns every line into its result with the given function, so tests can make a line fail
+     * in any way.
+     */
+    BatchRunner(ExecutorService executor, int window, Function<String, String> operation){
+        if(executor == null || operation == null)
+            throw new NullPointerException();
+        if(window < 1)
+            throw new IllegalArgumentException("Window must be at least 1");
+        this.executor = executor;
+        this.window = window;
+        this.operation = operation;
+    }
+
+    /**
+     * Reads the operations from the input file and writes their results into the output file, both in UTF-8.
+     *
+     * @param input the file with one operation per line
+     * @param output the file the results are written to, replaced if it exists
+     * @throws IOException if reading or writing fails
+     */
+    public void run(Path input, Path output) throws IOException{
+        try(BufferedReader in = Files.newBufferedReader(input, StandardCharsets.UTF_8);
+            BufferedWriter out = Files.newBufferedWriter(output, StandardCharsets.UTF_8)){
+            run(in, out);
+        }
+    }
+
+    /**
+     * Reads the operations from in and writes their results into out. Neither is closed.
+     *
+     * @param in the operations, one per line
+     * @param out receives the results, one per line
+     * @throws IOException if reading or writing fails
+     */
+    public void run(Reader in, Writer out) throws IOException{
+        long start = System.nanoTime();
+        BufferedReader reader = in instanceof BufferedReader ? (BufferedReader) in : new BufferedReader(in);
+        ArrayDeque<Future<String>> pending = new ArrayDeque<>();
+        try{
+            String line;
+            while((line = reader.readLine()) != null){
+                if(pending.size() == window)
+                    write(pending.poll(), out);
+                String input = line;
+                pending.add(executor.submit(() -> evaluate(operation, input, errors)));
+                read.incrementAndGet();
+            }
+            while(!pending.isEmpty())
+                write(pending.poll(), out);
+            out.flush();
+        }finally{
+            for(Future<String> f: pending)
+                f.cancel(true);
+            nanos.addAndGet(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * @return the number of lines read so far
+     */
+    public long linesRead(){
+        return read.get();
+    }
+
+    /**
+     * @return the number of results written so far
+     */
+    public long linesWritten(){
+        return written.get();
+    }
+
+    /**
+     * @return the number of lines that couldn't be evaluated
+     */
+    public long errors(){
+        return errors.get();
+    }
+
+    /**
+     * @return the number of results written per second over the runs that have finished
+     */
+    public double throughput(){
+        long time = nanos.get();
+        return time == 0 ? 0 : written.get() * 1e9 / time;
+    }
+
+    /**
+     * Waits for the result of the oldest line and writes it.
+     */
+    private void write(Future<String> result, Writer out) throws IOException{
+        String str;
+        try{
+            str = result.get();
+        }catch(InterruptedException e){
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for a result", e);
+        }catch(ExecutionException e){
+            throw new IOException(e.getCause());
+        }
+        out.write(str);
+        out.write('\n');
+        written.incrementAndGet();
+    }
+
+    /**
+     * Evaluates a single line.
+     *
+     * @return the result as a string, or "error: " followed by the message if the line can't be evaluated
+     */
+    static String evaluate(String line){
+        return evaluate(BatchRunner::compute, line, null);
+    }
+
+    /**
+     * Evaluates a single line and counts it in errors when it can't be evaluated. Any RuntimeException of the
+     * operation becomes the error line, so that one bad line never stops the rest of the job.
+     *
+     * @param errors the counter of the lines that couldn't be evaluated, or null to not count them
+     * @return the result as a string, or the error line of error() if the line can't be evaluated
+     */
+    private static String evaluate(Function<String, String> operation, String line, AtomicLong errors){
+        try{
+            return operation.apply(line);
+        }catch(RuntimeException e){
+            if(errors != null)
+                errors.incrementAndGet();
+            return error(e);
+        }
+    }
+
+    /**
+     * Computes the result of a single line.
+     *
+     * @return the result as a string
+     * @throws IllegalArgumentException if the line is not two polynomials in parentheses with an operator between them
+     * @throws RuntimeException if the operation fails
+     */
+    private static String compute(String line){
+        int first = line.indexOf('(');
+        int firstEnd = line.indexOf(')', first + 1);
+        int second = line.indexOf('(', firstEnd + 1);
+        int secondEnd = line.indexOf(')', second + 1);
+        if(first < 0 || firstEnd < 0 || second < 0 || secondEnd < 0 || !line.substring(0, first).trim().isEmpty()
+                || !line.substring(secondEnd + 1).trim().isEmpty())
+            throw new IllegalArgumentException("Expected (p) op (q) but found \"" + line + "\"");
+        String op = line.substring(firstEnd + 1, second).trim();
+        Polynomial p = Polynomials.parse(line.substring(first + 1, firstEnd));
+        Polynomial q = Polynomials.parse(line.substring(second + 1, secondEnd));
+        // DensePolynomial doesn't take a sparse operand with negative exponents, so the sparse one goes first
+        boolean swap = p instanceof DensePolynomial && q instanceof SparsePolynomial;
+        Polynomial result;
+        if(op.equals("+"))
+            result = swap ? q.add(p) : p.add(q);
+        else if(op.equals("-"))
+            result = swap ? q.subtract(p).minus() : p.subtract(q);
+        else if(op.equals("*"))
+            result = swap ? q.multiply(p) : p.multiply(q);
+        else
+            throw new IllegalArgumentException("Unknown operator \"" + op + "\"");
+        return result.toString();
+    }
+
+    /**
+     * @return "error: " followed by the message of e, or by the name of its class if it has no message
+     */
+    static String error(RuntimeException e){
+        String message = e.getMessage();
+        return "error: " + (message == null ? e.getClass().getSimpleName() : message);
+    }
+}
@@ -0,0 +1,71 @@
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+class BatchRunnerTest {
+
+    @Test
+    void evaluate() {
+        assertEquals("x^3 + -x^2 + x + -1", BatchRunner.evaluate("(x^2 + 1) * (x - 1)"));
+        assertEquals("x^2 + x", BatchRunner.evaluate("(x^2 + 1)+(x - 1)"));
+        assertEquals("x^2 + -x + 2", BatchRunner.evaluate("(x^2 + 1) - (x - 1)"));
+        assertEquals("x^2 + x^-1", BatchRunner.evaluate("  (x^2) - (-x^-1)  "));
+        assertEquals("3x^1000 + 3x^-2", BatchRunner.evaluate("(3) * (x^1000 + x^-2)"));
+        assertTrue(BatchRunner.evaluate("(x^2 + 1) / (x)").startsWith("error: "));
+        assertTrue(BatchRunner.evaluate("x^2 + 1 * x").startsWith("error: "));
+        assertTrue(BatchRunner.evaluate("(x^2 + + 1) * (x)").startsWith("error: "));
+        assertTrue(BatchRunner.evaluate("").startsWith("error: "));
+        assertEquals("error: Overflow", BatchRunner.error(new ArithmeticException("Overflow")));
+        assertEquals("error: ArithmeticException", BatchRunner.error(new ArithmeticException()));
+    }
+
+    @Test
+    void run() throws IOException {
+        Random random = new Random(17);
+        StringBuilder input = new StringBuilder();
+        StringBuilder expected = new StringBuilder();
+        String[] ops = {"+", "-", "*"};
+        for(int n = 0; n < 2000; n++){
+            String p = (2 + random.nextInt(98)) + "x^" + (2 + random.nextInt(50)) + " + " + (1 + random.nextInt(9));
+            String q = "x^" + (2 + random.nextInt(50)) + " - " + (1 + random.nextInt(9)) + "x";
+            String line = n == 1000 ? "(x^2) % (x)" : "(" + p + ") " + ops[n % 3] + " (" + q + ")";
+            input.append(line).append('\n');
+            expected.append(BatchRunner.evaluate(line)).append('\n');
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try{
+            BatchRunner runner = new BatchRunner(executor, 16);
+            StringWriter out = new StringWriter();
+            runner.run(new StringReader(input.toString()), out);
+            assertEquals(expected.toString(), out.toString());
+            assertEquals(2000, runner.linesRead());
+            assertEquals(2000, runner.linesWritten());
+            assertEquals(1, runner.errors());
+            assertTrue(runner.throughput() > 0);
+        }finally{
+            executor.shutdown();
+        }
+        ExecutorService failing = Executors.newFixedThreadPool(2);
+        try{
+            BatchRunner runner = new BatchRunner(failing, 4, line -> {
+                if(line.equals("(x) * (null)"))
+                    throw new IllegalStateException(); // Any failure of one line, not only a bad polynomial
+                return BatchRunner.evaluate(line);
+            });
+            StringWriter out = new StringWriter();
+            runner.run(new StringReader("(x) + (1)\n(x) * (null)\n(x) - (1)\n"), out);
+            assertEquals("x + 1\nerror: IllegalStateException\nx + -1\n", out.toString());
+            assertEquals(1, runner.errors());
+        }finally{
+            failing.shutdown();
+        }
+        assertThrows(IllegalArgumentException.class, () -> new BatchRunner(executor, 0));
+        assertThrows(NullPointerException.class, () -> new BatchRunner(null, 1));
+    }
+}
@@ -0,0 +1,150 @@
+import java.util.Arrays;
+
+/**
+ * Division kernels for the coefficient arrays used by DensePolynomial, stored from the lowest exponent to the highest.
+ * The divisor must have an odd leading coefficient, which is the case for the monic polynomials of the subproduct tree
+ * of MultipointEvaluator.
+ *
+ * The coefficients are ints that wrap around on overflow, so the arithmetic is modulo 2^32. Every odd number has an
+ * inverse modulo 2^32, which is why the leading coefficient only has to be odd. The quotient and the remainder are the
+ * exact ones modulo 2^32, the same way the products of DenseMultiplier are exact modulo 2^32.
+ *
+ * Short quotients or divisors are found with long division. Otherwise the reversed divisor is inverted as a power
+ * series with Newton's iteration, which doubles the number of correct terms with two multiplications every step, and
+ * the quotient is a single multiplication by that inverse. This makes the division as fast as the multiplication of
+ * DenseMultiplier.
+ */
+final class DenseDivision {
+    /**
+     * Divisions where the quotient or the divisor has at most this many coefficients use long division.
+     */
+    static final int NEWTON_THRESHOLD = 64;
+
+    private DenseDivision(){
+    }
+
+    /**
+     * Finds the quotient of the first aLen coefficients of a divided by the first bLen coefficients of b.
+     *
+     * @param a coefficients of the dividend
+     * @param aLen number of coefficients of a to use
+     * @param b coefficients of the divisor
+     * @param bLen number of coefficients of b to use, b[bLen-1] must be odd
+     * @return a new array of length aLen - bLen + 1 holding the quotient, or an empty array if aLen < bLen
+     */
+    static int[] quotient(int[] a, int aLen, int[] b, int bLen){
+        int k = aLen - bLen + 1; // Number of coefficients of the quotient
+        if(k <= 0)
+            return new int[0];
+        if(Math.min(k, bLen) <= NEWTON_THRESHOLD)
+            return longDivision(a, aLen, b, bLen, null);
+        int[] revA = new int[k]; // The highest k coefficients of a, reversed
+        for(int i = 0; i < k; i++)
+            revA[i] = a[aLen - 1 - i];
+        int[] revB = new int[Math.min(bLen, k)];
+        for(int i = 0; i < revB.length; i++)
+            revB[i] = b[bLen - 1 - i];
+        int[] inv = inverse(revB, revB.length, k);
+        int[] revQ = DenseMultiplier.multiply(revA, k, inv, k);
+        int[] q = new int[k];
+        for(int i = 0; i < k; i++)
+            q[i] = revQ[k - 1 - i];
+        return q;
+    }
+
+    /**
+     * Finds the remainder of the first aLen coefficients of a divided by the first bLen coefficients of b.
+     *
+     * @param a coefficients of the dividend
+     * @param aLen number of coefficients of a to use
+     * @param b coefficients of the divisor
+     * @param bLen number of coefficients of b to use, b[bLen-1] must be odd
+     * @return a new array of length bLen - 1 holding the remainder, which can end in zeros
+     */
+    static int[] remainder(int[] a, int aLen, int[] b, int bLen){
+        int[] r = new int[bLen - 1];
+        if(aLen < bLen){
+            System.arraycopy(a, 0, r, 0, aLen);
+            return r;
+        }
+        int k = aLen - bLen + 1;
+        if(Math.min(k, bLen) <= NEWTON_THRESHOLD){
+            longDivision(a, aLen, b, bLen, r);
+            return r;
+        }
+        int[] q = quotient(a, aLen, b, bLen);
+        // Only the lowest bLen - 1 coefficients of q * b are needed, the higher ones cancel with a
+        int[] qb = DenseMultiplier.multiply(q, Math.min(k, bLen - 1), b, bLen - 1);
+        for(int i = 0; i < r.length; i++)
+            r[i] = a[i] - qb[i];
+        return r;
+    }
+
+    /**
+     * Inverts the first hLen coefficients of h as a power series, giving the first k coefficients of 1 / h. Starting
+     * from the inverse of the constant term, every step of Newton's iteration g = g * (2 - h * g) doubles the number of
+     * correct coefficients.
+     *
+     * When g has len correct coefficients h * g starts with 1 followed by len - 1 zeros, so only the coefficients of
+     * h * g from len up are found, with a cyclic product that lets the unused high coefficients wrap onto the known
+     * ones. The new coefficients of g are then the lowest len coefficients of g times those, negated.
+     *
+     * @param h coefficients of the series, h[0] must be odd
+     * @param hLen number of coefficients of h to use
+     * @param k number of coefficients of the inverse to find
+     * @return a new array of length k holding the inverse
+     */
+    static int[] inverse(int[] h, int hLen, int k){
+        int[] g = {inverse(h[0])};
+        int len = 1;
+        while(len < k){
+            int newLen = Math.min(2 * len, k);
+            int size = NttMultiplier.transformSize(Math.max(newLen, 2 * len));
+            int[] hg = DenseMultiplier.multiplyCyclic(h, Math.min(hLen, newLen), g, len, size);
+            int[] e = new int[newLen - len]; // Coefficients len .. newLen of h * g
+            System.arraycopy(hg, len, e, 0, e.length);
+            int[] correction = DenseMultiplier.multiply(g, Math.min(len, e.length), e, e.length);
+            g = Arrays.copyOf(g, newLen);
+            for(int i = 0; i < e.length; i++)
+                g[len + i] = -correction[i];
+            len = newLen;
+        }
+        return g;
+    }
+
+    /**
+     * Inverts an odd number modulo 2^32. Every step of Newton's iteration doubles the number of correct bits, and an
+     * odd number is its own inverse modulo 8, so four steps give all 32 bits.
+     */
+    static int inverse(int c){
+        int x = c;
+        for(int i = 0; i < 4; i++)
+            x *= 2 - c * x;
+        return x;
+    }
+
+    /**
+     * Divides with the schoolbook method, which takes the leading term of the remainder away in every step.
+     *
+     * @param r receives the lowest bLen - 1 coefficients of the remainder when it is not null
+     * @return the quotient
+     */
+    private static int[] longDivision(int[] a, int aLen, int[] b, int bLen, int[] r){
+        int[] rem = new int[aLen];
+        System.arraycopy(a, 0, rem, 0, aLen);
+        int[] q = new int[aLen - bLen + 1];
+        int lead = inverse(b[bLen - 1]);
+        int shift = bLen - 1;
+        for(int i = aLen - 1; i >= shift; i--){
+            int c = rem[i] * lead;
+            if(c == 0)
+                continue;
+            q[i - shift] = c;
+            for(int j = 0; j < bLen; j++)
+                rem[i - shift + j] -= c * b[j];
+        }
+        if(r != null)
+            System.arraycopy(rem, 0, r, 0, r.length);
+        return q;
+    }
+}
@@ -0,0 +1,188 @@
+import java.util.Arrays;
+
+/**
+ * Multiplication kernels for the coefficient arrays used by DensePolynomial. Coefficients are stored from the lowest
+ * exponent to the highest, the same way as the intPoly array of DensePolynomial.
+ *
+ * Products are computed with Karatsuba's method and fall back on the schoolbook method once the operands get smaller
+ * than KARATSUBA_THRESHOLD. Every step only uses int additions, subtractions and multiplications so the result is
+ * exactly the same as the one the schoolbook method gives, including when the coefficients overflow.
+ *
+ * When both operands are longer than NttMultiplier.THRESHOLD the number theoretic transform of NttMultiplier is used
+ * instead, which gives the same result.
+ */
+final class DenseMultiplier {
+    /**
+     * Operands shorter than this are multiplied with the schoolbook method.
+     */
+    static final int KARATSUBA_THRESHOLD = 32;
+
+    private DenseMultiplier(){
+    }
+
+    /**
+     * Multiplies the first aLen coefficients of a with the first bLen coefficients of b.
+     *
+     * @param a coefficients of the first polynomial
+     * @param aLen number of coefficients of a to use, must be at least 1
+     * @param b coefficients of the second polynomial
+     * @param bLen number of coefficients of b to use, must be at least 1
+     * @return a new array of length aLen + bLen - 1 holding the coefficients of the product
+     */
+    static int[] multiply(int[] a, int aLen, int[] b, int bLen){
+        if(NttMultiplier.suitable(aLen, bLen))
+            return NttMultiplier.multiply(a, aLen, b, bLen);
+        int[] result = new int[aLen + bLen - 1];
+        if(a == b && aLen == bLen)
+            squareAdd(a, 0, aLen, result, 0);
+        else
+            multiplyAdd(a, 0, aLen, b, 0, bLen, result, 0);
+        return result;
+    }
+
+    /**
+     * Multiplies the first aLen coefficients of a with the first bLen coefficients of b, adding every coefficient of
+     * the product past size back onto the start. Large operands use the cyclic transform of NttMultiplier, which is
+     * half the size of the one a full product needs.
+     *
+     * @param size a power of two that is at least aLen and bLen
+     * @return a new array of length size holding the cyclic convolution
+     */
+    static int[] multiplyCyclic(int[] a, int aLen, int[] b, int bLen, int size){
+        if(NttMultiplier.suitable(aLen, bLen))
+            return NttMultiplier.multiplyCyclic(a, aLen, b, bLen, size);
+        int[] product = multiply(a, aLen, b, bLen);
+        if(product.length <= size)
+            return Arrays.copyOf(product, size);
+        int[] result = Arrays.copyOf(product, size);
+        for(int i = size; i < product.length; i++)
+            result[i - size] += product[i];
+        return result;
+    }
+
+    /**
+     * Adds the product of a[ao .. ao+al) and b[bo .. bo+bl) into r starting at ro.
+     */
+    static void multiplyAdd(int[] a, int ao, int al, int[] b, int bo, int bl, int[] r, int ro){
+        if(al < bl){ // Keeps a as the longer operand
+            int[] tempArr = a;
+            a = b;
+            b = tempArr;
+            int temp = ao;
+            ao = bo;
+            bo = temp;
+            temp = al;
+            al = bl;
+            bl = temp;
+        }
+        if(bl < KARATSUBA_THRESHOLD){
+            schoolbook(a, ao, al, b, bo, bl, r, ro);
+            return;
+        }
+        int m = (al + 1) / 2;
+        if(bl <= m){ // Unbalanced operands, multiplies b with every bl sized chunk of a
+            for(int i = 0; i < al; i += bl)
+                multiplyAdd(a, ao + i, Math.min(bl, al - i), b, bo, bl, r, ro + i);
+            return;
+        }
+        int a1Len = al - m;
+        int b1Len = bl - m;
+        int[] low = new int[2 * m - 1];
+        int[] high = new int[a1Len + b1Len - 1];
+        multiplyAdd(a, ao, m, b, bo, m, low, 0);
+        multiplyAdd(a, ao + m, a1Len, b, bo + m, b1Len, high, 0);
+        int[] aSum = new int[m];
+        int[] bSum = new int[m];
+        for(int i = 0; i < m; i++){
+            aSum[i] = a[ao + i] + (i < a1Len ? a[ao + m + i] : 0);
+            bSum[i] = b[bo + i] + (i < b1Len ? b[bo + m + i] : 0);
+        }
+        int[] middle = new int[2 * m - 1];
+        multiplyAdd(aSum, 0, m, bSum, 0, m, middle, 0);
+        for(int i = 0; i < low.length; i++){
+            r[ro + i] += low[i];
+            middle[i] -= low[i];
+        }
+        for(int i = 0; i < high.length; i++){
+            r[ro + 2 * m + i] += high[i];
+            middle[i] -= high[i];
+        }
+        for(int i = 0; i < middle.length; i++)
+            r[ro + m + i] += middle[i];
+    }
+
+    /**
+     * Adds the square of a[ao .. ao+al) into r starting at ro. Karatsuba's method only needs the squares of the low
+     * half, the high half and their sum, and the schoolbook method computes every product of two different
+     * coefficients once and doubles it, so both take about half the multiplications of a general product.
+     */
+    static void squareAdd(int[] a, int ao, int al, int[] r, int ro){
+        if(al < KARATSUBA_THRESHOLD){
+            for(int i = 0; i < al; i++){
+                int coef = a[ao + i];
+                if(coef == 0)
+                    continue;
+                r[ro + 2 * i] += coef * coef;
+                int twice = 2 * coef;
+                for(int j = i + 1; j < al; j++)
+                    r[ro + i + j] += twice * a[ao + j];
+            }
+            return;
+        }
+        int m = (al + 1) / 2;
+        int highLen = al - m;
+        int[] low = new int[2 * m - 1];
+        int[] high = new int[2 * highLen - 1];
+        int[] sum = new int[m];
+        for(int i = 0; i < m; i++)
+            sum[i] = a[ao + i] + (i < highLen ? a[ao + m + i] : 0);
+        int[] middle = new int[2 * m - 1];
+        squareAdd(a, ao, m, low, 0);
+        squareAdd(a, ao + m, highLen, high, 0);
+        squareAdd(sum, 0, m, middle, 0);
+        for(int i = 0; i < low.length; i++){
+            r[ro + i] += low[i];
+            middle[i] -= low[i];
+        }
+        for(int i = 0; i < high.length; i++){
+            r[ro + 2 * m + i] += high[i];
+            middle[i] -= high[i];
+        }
+        for(int i = 0; i < middle.length; i++)
+            r[ro + m + i] += middle[i];
+    }
+
+    /**
+     * Adds the product of a[ao .. ao+al) and b[bo .. bo+bl) into r starting at ro using the schoolbook method.
+     */
+    static void schoolbook(int[] a, int ao, int al, int[] b, int bo, int bl, int[] r, int ro){
+        for(int i = 0; i < al; i++){
+            int coef = a[ao + i];
+            if(coef == 0)
+                continue;
+            int position = ro + i;
+            for(int j = 0; j < bl; j++)
+                r[position + j] += coef * b[bo + j];
+        }
+    }
+
+    /**
+     * Multiplies long coefficients with the schoolbook method. The caller must know that every coefficient of the
+     * product fits in a long, for example from a bound on the coefficients, since the sums wrap around like ints do.
+     *
+     * @param a coefficients of the first polynomial, at least one
+     * @param b coefficients of the second polynomial, at least one
+     * @return a new array of length a.length + b.length - 1 holding the coefficients of the product
+     */
+    static long[] multiplyLong(long[] a, long[] b){
+        long[] r = new long[a.length + b.length - 1];
+        for(int i = 0; i < a.length; i++){
+            long coef = a[i];
+            if(coef == 0)
+                continue;
+            for(int j = 0; j < b.length; j++)
+                r[i + j] += coef * b[j];
+        }
+        return r;
+    }
+}
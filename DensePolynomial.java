@@ -1,84 +1,290 @@
+import java.math.BigInteger;
 import java.util.Arrays;
-import java.util.HashMap;
-import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 
+/**
+ * A polynomial stored as an array of coefficients where the position of each coefficient is its exponent.
+ *
+ * The coefficients are kept in the narrowest of three tiers that holds all of them: an int array while every
+ * coefficient fits in an int, a long array once one of them doesn't and a BigInteger array once one of them doesn't
+ * fit in a long. Exactly one of the three arrays is set. The operations stay on ints and detect when a result would
+ * overflow, either with the Math.*Exact methods while adding or with a bound on the coefficients before multiplying,
+ * and only then move the result to a wider tier. Results that fit in an int again go back to the int tier.
+ */
 public class DensePolynomial implements Polynomial {
     private String strPoly;
-    private int[] intPoly;
+    private int[] intPoly; // Always trimmed so the last position is the degree, the zero polynomial is {0}
+    private long[] longPoly; // Used instead of intPoly once a coefficient doesn't fit in an int, trimmed the same way
+    private BigInteger[] bigPoly; // Used instead of longPoly once a coefficient doesn't fit in a long
+    private int terms = -1; // Number of non-zero coefficients, counted the first time it is needed
+    private double magnitude = -1; // Largest absolute value of the coefficients, found the first time it is needed
+    private int hash; // Cached hash code, 0 until it is computed
+    private boolean interned; // True for the instance PolynomialPool shares among the equal polynomials
+    private static final int BLOCK = 256; // Number of points evaluated together by the batch evaluate
+    private static final int MULTIPOINT_THRESHOLD = 1 << 17; // Fewer points or coefficients are evaluated with Horner
 
     /**
      * Constructor of the class. Creates a Densepolynomial object with the given polynomial as a string in the parameter
-     * and puts it in the array, separating the string by the exponent and inputting the coefficient in the array.
+     * and puts it in the array, inputting the coefficient of each term at the position of its exponent.
      *
-     * Calls on wellformed the check if the polynomial given the string is valid If it is not wellformed then
-     * throws an illegalargument exception
+     * The string is read once by PolynomialParser, which checks the class invariant while reading. The first term has
+     * the largest exponent so the array is created as soon as it is read and is never longer than the degree plus one.
+     * If the string is not wellformed then throws a PolynomialFormatException, which is an illegalargument exception
+     * that has the position of the error.
      *
      * @param str Takes in polynomial which is written as a string
      * @throws IllegalArgumentException when the class invariant doesn't hold true
      */
     public DensePolynomial (String str){
-        str = str.replaceAll("- ", "+-");
-        str = str.replaceAll("\\s", "");
+        long start = OperationMetrics.ENABLED ? System.nanoTime() : 0;
         strPoly = str;
-        if(!wellFormed())
+        PolynomialParser.parse(str, false, (exponent, coef) -> {
+            if(intPoly == null)
+                intPoly = new int[exponent+1];
+            intPoly[exponent] = coef;
+        });
+        if(OperationMetrics.ENABLED)
+            OperationMetrics.record(OperationMetrics.Operation.PARSE, this, start, str.length());
+    }
+
+    /**
+     * Constructor used by the other classes of the package. Initializes the array with the array given in the parameter
+     * to construct a polynomial. The zero coefficients at the end of the array are cut off so that every polynomial is
+     * stored in the same way and the degree is the last position of the array. The array is only copied when it has to
+     * be trimmed, so the caller must not modify it afterwards.
+     *
+     * @param arr Takes in an int array of coefficient that represents a polynomial
+     */
+    DensePolynomial (int [] arr){
+        int length = arr.length;
+        while(length > 1 && arr[length-1] == 0)
+            length--;
+        if(length == 0)
+            intPoly = new int[1];
+        else if(length < arr.length)
+            intPoly = Arrays.copyOf(arr, length);
+        else
+            intPoly = arr;
+    }
+
+    /**
+     * Constructor used by the other classes of the package for coefficients that can be larger than an int. The array
+     * is trimmed in the same way and the coefficients are kept as ints when they all fit in one.
+     *
+     * @param arr Takes in a long array of coefficient that represents a polynomial
+     */
+    DensePolynomial (long[] arr){
+        int length = arr.length;
+        while(length > 1 && arr[length-1] == 0)
+            length--;
+        boolean fitsInt = true;
+        for(int i = 0; i < length && fitsInt; i++)
+            fitsInt = arr[i] == (int) arr[i];
+        if(fitsInt){
+            intPoly = new int[Math.max(1, length)];
+            for(int i = 0; i < length; i++)
+                intPoly[i] = (int) arr[i];
+        }else
+            longPoly = length < arr.length ? Arrays.copyOf(arr, length) : arr;
+    }
+
+    /**
+     * Constructor used by the other classes of the package for coefficients of any size. The array is trimmed in the
+     * same way and the coefficients are kept in the narrowest tier they all fit in.
+     *
+     * @param arr Takes in a BigInteger array of coefficient that represents a polynomial
+     */
+    DensePolynomial (BigInteger[] arr){
+        int length = arr.length;
+        while(length > 1 && arr[length-1].signum() == 0)
+            length--;
+        int bits = 0;
+        for(int i = 0; i < length; i++)
+            bits = Math.max(bits, arr[i].bitLength());
+        if(bits < 64){
+            long[] longs = new long[Math.max(1, length)];
+            for(int i = 0; i < length; i++)
+                longs[i] = arr[i].longValue();
+            if(bits < 32){
+                intPoly = new int[longs.length];
+                for(int i = 0; i < longs.length; i++)
+                    intPoly[i] = (int) longs[i];
+            }else
+                longPoly = longs;
+        }else
+            bigPoly = length < arr.length ? Arrays.copyOf(arr, length) : arr;
+    }
+
+    /**
+     * Converts the given polynomial into a DensePolynomial. The parameter is returned when it already is one.
+     *
+     * @param q the polynomial to convert
+     * @return a DensePolynomial equal to q
+     * @throws NullPointerException if q is null
+     * @throws IllegalArgumentException if q has a negative exponent
+     */
+    static DensePolynomial of(Polynomial q){
+        if(q == null)
+            throw new NullPointerException();
+        if(q instanceof DensePolynomial)
+            return (DensePolynomial) q;
+        if(Polynomials.wide(q)){
+            WideTerms terms = WideTerms.of(q);
+            if(terms.exponents[0] < 0)
+                throw new IllegalArgumentException();
+            BigInteger[] arr = new BigInteger[q.degree() + 1];
+            Arrays.fill(arr, BigInteger.ZERO);
+            for(int i = 0; i < terms.exponents.length; i++)
+                arr[terms.exponents[i]] = terms.coefficients[i];
+            return new DensePolynomial(arr);
+        }
+        SortedSparsePolynomial sorted = SortedSparsePolynomial.of(q);
+        int[] exponents = sorted.exponents();
+        int[] coefficients = sorted.coefficients();
+        if(exponents.length > 0 && exponents[0] < 0)
             throw new IllegalArgumentException();
-        String[] newString = strPoly.split("\\+");
-        int position;// Gets the greatest exponential value from the list
-        for (String temp : newString) {
-            if (temp.contains("x")) {
-                if(temp.contains("^")){
-                    int x = temp.indexOf("^");
-                    position = Integer.parseInt(temp.substring(x+1));
-                }else
-                    position = 1;
-                int indexofX = temp.indexOf("x");
-                if(indexofX != 0) {
-                    String tempString = temp.substring(0, indexofX);
-                    int coef;
-                    if(tempString.equals("-")){
-                        coef = -1;
-                    }else {
-                        coef = Integer.parseInt(tempString);
-                    }
-                    intPoly[position] = coef;
-                }else
-                    intPoly[position] = 1;
+        int[] arr = new int[q.degree() + 1];
+        for(int i = 0; i < exponents.length; i++)
+            arr[exponents[i]] = coefficients[i];
+        return new DensePolynomial(arr);
+    }
+
+    /**
+     * @return a copy of the coefficients, where the position of each coefficient is its exponent
+     * @throws ArithmeticException if a coefficient doesn't fit in an int
+     */
+    public int[] getIntPoly(){
+        if(intPoly == null)
+            throw new ArithmeticException("Coefficient doesn't fit in an int");
+        return intPoly.clone();
+    }
+
+    /**
+     * @return the coefficients of the polynomial without copying them, which the caller must not modify, or null if
+     * a coefficient doesn't fit in an int
+     */
+    int[] coefficients(){
+        return intPoly;
+    }
+
+    /**
+     * @return the coefficients without copying them when they are stored as longs, which the caller must not modify,
+     * otherwise null
+     */
+    long[] storedLongs(){
+        return longPoly;
+    }
+
+    /**
+     * @return the number of coefficients, which is the degree plus one
+     */
+    private int length(){
+        if(intPoly != null)
+            return intPoly.length;
+        return longPoly != null ? longPoly.length : bigPoly.length;
+    }
+
+    /**
+     * @return the coefficients as longs, which are exact unless a coefficient doesn't fit in a long, in which case
+     * each one is the lowest 64 bits of the coefficient
+     */
+    private long[] longCoefficients(){
+        if(longPoly != null)
+            return longPoly;
+        long[] result = new long[length()];
+        for(int i = 0; i < result.length; i++)
+            result[i] = intPoly != null ? intPoly[i] : bigPoly[i].longValue();
+        return result;
+    }
+
+    /**
+     * @return a new array of the given length holding the exact coefficients, padded with zeros
+     */
+    private BigInteger[] bigCoefficients(int length){
+        BigInteger[] result = new BigInteger[length];
+        for(int i = 0; i < length; i++)
+            result[i] = getBigCoefficient(i);
+        return result;
+    }
+
+    /**
+     * Finds the largest absolute value of the coefficients the first time it is called. Coefficients that don't fit
+     * in a long are rounded up to the next power of two.
+     *
+     * @return the largest absolute value of the coefficients
+     */
+    double magnitude(){
+        if(magnitude < 0){
+            double max = 0;
+            if(intPoly != null)
+                max = Polynomials.magnitude(intPoly);
+            else if(longPoly != null){
+                for(long x: longPoly)
+                    max = Math.max(max, Math.abs((double) x));
             }else{
-                int coef = Integer.parseInt(temp);
-                intPoly[0] = coef;
+                for(BigInteger x: bigPoly)
+                    max = Math.max(max, Math.scalb(1.0, x.bitLength()));
             }
+            magnitude = max;
         }
+        return magnitude;
     }
 
     /**
-     * Private constructor of the class. Initializes the array with the array given in the parameter to construct a
-     * polynomial.
+     * Compares the coefficients with the coefficients of another DensePolynomial. Both keep their coefficients in the
+     * narrowest tier that holds them, so equal polynomials always use the same tier.
      *
-     * @param arr Takes in an int array of coefficient that represents a polynomial
+     * @return true if both have the same coefficients
      */
-    private DensePolynomial (int [] arr){
-        intPoly = arr;
+    boolean sameCoefficients(DensePolynomial q){
+        if(intPoly != null)
+            return Arrays.equals(intPoly, q.intPoly);
+        if(longPoly != null)
+            return Arrays.equals(longPoly, q.longPoly);
+        return Arrays.equals(bigPoly, q.bigPoly);
     }
 
-    public int[] getIntPoly(){
-        return intPoly;
+    /**
+     * @return true if this is the instance PolynomialPool shares among the equal dense polynomials
+     */
+    boolean interned(){
+        return interned;
+    }
+
+    /**
+     * Marks this as the instance PolynomialPool shares, which is only done once no equal instance is shared.
+     */
+    void markInterned(){
+        interned = true;
     }
 
     /**
-     * Find the largest exponent of the current instance and returns the degree of the polynomial.
+     * Counts the non-zero coefficients the first time it is called.
+     *
+     * @return the number of terms of the polynomial
+     */
+    int terms(){
+        if(terms < 0){
+            int count = 0;
+            int length = length();
+            for(int i = 0; i < length; i++){
+                if(!isZeroAt(i))
+                    count++;
+            }
+            terms = count;
+        }
+        return terms;
+    }
+
+    /**
+     * Returns the degree of the polynomial. The array is trimmed when the polynomial is created so the degree is the
+     * last position of the array.
      *
      * @return the largest exponent with a non-zero coefficient.  If all terms have zero exponents, it returns 0.
      */
     @Override
     public int degree() {
-        int i = 0;
-        int exponent = 0;
-        for(int x: intPoly){
-            if(x != 0)
-                exponent = i;
-            i++;
-        }
-        return exponent;
+        return length() - 1;
     }
 
     /**
@@ -88,54 +294,81 @@ public class DensePolynomial implements Polynomial {
      *
      * @param d the exponent whose coefficient is returned.
      * @return the coefficient of the term of whose exponent is d.
+     * @throws ArithmeticException if the coefficient doesn't fit in an int
      */
     @Override
     public int getCoefficient(int d) {
-        if(d > intPoly.length-1 || d < 0)
+        if(d > length()-1 || d < 0)
             return 0;
-        return intPoly[d];
+        if(intPoly != null)
+            return intPoly[d];
+        return longPoly != null ? Math.toIntExact(longPoly[d]) : bigPoly[d].intValueExact();
+    }
+
+    /**
+     * Returns the exact coefficient of the given exponent from the tier the coefficients are stored in.
+     *
+     * @param d the exponent whose coefficient is returned.
+     * @return the coefficient of the term of whose exponent is d.
+     */
+    @Override
+    public BigInteger getBigCoefficient(int d) {
+        if(d > length()-1 || d < 0)
+            return BigInteger.ZERO;
+        if(intPoly != null)
+            return BigInteger.valueOf(intPoly[d]);
+        return longPoly != null ? BigInteger.valueOf(longPoly[d]) : bigPoly[d];
     }
 
     /**
-     * Checks if the current instance is only contains zero. If it only contains 0 as the coefficient then it returns
-     * true otherwise false.
+     * Checks if the current instance is only contains zero. Since the array is trimmed this is only the case when the
+     * array holds a single 0.
      *
      * @return true if the polynomial represents the zero constant otherwise false.
      */
     @Override
     public boolean isZero() {
-        for(int x: intPoly){
-            if(x != 0)
-                return false;
-        }
-        return true;
+        return intPoly != null && intPoly.length == 1 && intPoly[0] == 0;
     }
 
     /**
      * Takes in a polynomial in the parameter and adds the coefficient based on if the exponents are the same.
      * This is added into a new int array to prevent any changes to the current instance nor the parameter.
      * This method is able to intake a SparsePolynomials however if the an exception is thrown when there is a negative
-     * exponent an error is thrown.
+     * exponent an error is thrown. A SparsePolynomial whose sum with the current instance would be mostly zeros in an
+     * array, as decided by Polynomials.sumPrefersDense(), is added as sparse and the sum is a SparsePolynomial.
      *
      * Returns a polynomial by adding the the parameter to the current instance, Neither the current instance nor the
-     * parameter are modified.
+     * parameter are modified. While an OperationCache is installed the sum is looked up in it first.
      *
      * @param q the non-null polynomial to add to <code>this</code>
      * @return <code>this + </code>q
      * @throws NullPointerException if q is null
      * @throws IllegalArgumentException if there is an negative exponent
      */
-    @Override // Add in a loop to check if there are any negatives in q
+    @Override
     public Polynomial add(Polynomial q) {
+        long start = OperationMetrics.ENABLED ? System.nanoTime() : 0;
+        OperationCache cache = OperationCache.installed();
+        Polynomial sum = cache != null ? cache.get(OperationCache.Operation.ADD, this, q, this::sum) : sum(q);
+        if(OperationMetrics.ENABLED)
+            OperationMetrics.record(OperationMetrics.Operation.ADD, this, q, start);
+        return sum;
+    }
+
+    /**
+     * Adds q without going through the OperationCache.
+     */
+    Polynomial sum(Polynomial q) { // Add in a loop to check if there are any negatives in q
         if(q == null){
             throw new NullPointerException();
-        }if(q instanceof SparsePolynomial){
-            Set<Integer> tempSet = ((SparsePolynomial) q).getIntPoly().keySet();
-            for(int i: tempSet){
-                if(i < 0)
-                    throw new IllegalArgumentException(); // If there is an negative exponent in sparse polynomial
-            }
+        }if(Polynomials.lowestExponent(q) < 0){
+            throw new IllegalArgumentException(); // If there is an negative exponent in a sparse polynomial
         }
+        if(q instanceof SparsePolynomial && !Polynomials.sumPrefersDense(this, q))
+            return SparsePolynomial.of(this).sum(q); // The sum would be mostly zeros in an array
+        if(intPoly == null || Polynomials.wide(q))
+            return addWide(q);
         int pDegree = this.degree();
         int qDegree = q.degree();
         int[] newPoly;
@@ -154,8 +387,12 @@ public class DensePolynomial implements Polynomial {
                 difference = pDegree - qDegree;
             }else
                 difference = qDegree - pDegree;
-            for(int i =0; i <= (greatest-difference); i++){
-                newPoly[i] = this.getCoefficient(i) + q.getCoefficient(i);
+            try {
+                for(int i =0; i <= (greatest-difference); i++){
+                    newPoly[i] = Math.addExact(this.getCoefficient(i), q.getCoefficient(i));
+                }
+            }catch(ArithmeticException e){ // The sum of two coefficients doesn't fit in an int
+                return addWide(q);
             }int newPosition = greatest - difference + 1;
             while(difference != 0){
                 if(thisGreater)
@@ -169,14 +406,43 @@ public class DensePolynomial implements Polynomial {
     }
 
     /**
-     * Takes in a polynomial as a parameter and iterates through the coefficient in each of the instances and multiplies
-     * them and adds the exponent to set the new position of the coefficient. Then it calls add to compile the multiplied
-     * values into one simple polynomial.
+     * Adds q when the sum can have coefficients that don't fit in an int. Two dense polynomials without BigInteger
+     * coefficients are added as longs, and anything else or a sum that overflows a long is added as BigIntegers.
+     * sum() has already rejected a q with negative exponents.
+     */
+    private Polynomial addWide(Polynomial q){
+        if(bigPoly == null && q instanceof DensePolynomial && ((DensePolynomial) q).bigPoly == null){
+            long[] a = longCoefficients();
+            long[] b = ((DensePolynomial) q).longCoefficients();
+            long[] newPoly = Arrays.copyOf(a, Math.max(a.length, b.length));
+            try {
+                for(int i = 0; i < b.length; i++)
+                    newPoly[i] = Math.addExact(newPoly[i], b[i]);
+                return new DensePolynomial(newPoly);
+            }catch(ArithmeticException e){ // The sum doesn't fit in a long either
+            }
+        }
+        BigInteger[] newPoly = bigCoefficients(Math.max(degree(), q.degree()) + 1);
+        WideTerms terms = WideTerms.of(q);
+        for(int i = 0; i < terms.exponents.length; i++){
+            int exponent = terms.exponents[i];
+            if(exponent >= 0)
+                newPoly[exponent] = newPoly[exponent].add(terms.coefficients[i]);
+        }
+        return new DensePolynomial(newPoly);
+    }
+
+    /**
+     * Takes in a polynomial as a parameter and multiplies the coefficients of the two instances with the Karatsuba
+     * method of DenseMultiplier, which falls back on the schoolbook method for small polynomials. The coefficients
+     * are multiplied directly from the arrays into one new array so no intermediate polynomials are created.
      * This method is able to intake a SparsePolynomial object and multiply it with a Densepolynomial object. However
-     * if an negative exponent occurs an IllegalArgumentException exception is thrown
+     * if an negative exponent occurs an IllegalArgumentException exception is thrown. When the product with a
+     * SparsePolynomial would be mostly zeros in an array, as decided by Polynomials.productPrefersDense(), it is
+     * computed as sparse and returned as a SparsePolynomial.
      *
      * Returns a polynomial by multiplying the parameter with the current instance.  Neither the current instance nor
-     * the parameter are modified.
+     * the parameter are modified. While an OperationCache is installed the product is looked up in it first.
      *
      * @param q the polynomial to multiply with <code>this</code>
      * @return <code>this * </code>q
@@ -185,44 +451,250 @@ public class DensePolynomial implements Polynomial {
      */
     @Override
     public Polynomial multiply(Polynomial q) {
+        long start = OperationMetrics.ENABLED ? System.nanoTime() : 0;
+        OperationCache cache = OperationCache.installed();
+        Polynomial product = cache != null
+                ? cache.get(OperationCache.Operation.MULTIPLY, this, q, p -> product(p, null, 0))
+                : product(q, null, 0);
+        if(OperationMetrics.ENABLED)
+            OperationMetrics.record(OperationMetrics.Operation.MULTIPLY, this, q, start);
+        return product;
+    }
+
+    /**
+     * Multiplies the parameter with the current instance in the same way as multiply(q), running the product on the
+     * threads of the given pool. The parallelism of the pool decides how many tasks the product is split into, see
+     * ParallelMultiplier. Products of polynomials shorter than ParallelMultiplier.THRESHOLD coefficients are computed
+     * on the calling thread. The result is exactly the same as the one of multiply(q).
+     *
+     * @param q the polynomial to multiply with <code>this</code>
+     * @param pool the pool that runs the product
+     * @return <code>this * </code>q
+     * @throws NullPointerException if q or pool is null
+     * @throws IllegalArgumentException if the exponent added together is negative
+     */
+    public Polynomial multiply(Polynomial q, ForkJoinPool pool) {
+        return multiply(q, pool, ParallelMultiplier.THRESHOLD);
+    }
+
+    /**
+     * Multiplies the parameter with the current instance on the threads of the given pool, with the given number of
+     * coefficients below which the product stays on the calling thread.
+     *
+     * @param q the polynomial to multiply with <code>this</code>
+     * @param pool the pool that runs the product
+     * @param threshold products where either polynomial has fewer coefficients than this are not split into tasks
+     * @return <code>this * </code>q
+     * @throws NullPointerException if q or pool is null
+     * @throws IllegalArgumentException if threshold is smaller than 1 or the exponent added together is negative
+     */
+    public Polynomial multiply(Polynomial q, ForkJoinPool pool, int threshold) {
+        if(pool == null)
+            throw new NullPointerException();
+        if(threshold < 1)
+            throw new IllegalArgumentException();
+        return product(q, pool, threshold);
+    }
+
+    /**
+     * Multiplies the arrays with ParallelMultiplier when a pool is given, otherwise with DenseMultiplier.
+     */
+    private static int[] product(int[] a, int aLen, int[] b, int bLen, ForkJoinPool pool, int threshold){
+        if(pool == null)
+            return DenseMultiplier.multiply(a, aLen, b, bLen);
+        return ParallelMultiplier.multiply(a, aLen, b, bLen, pool, threshold);
+    }
+
+    /**
+     * Multiplies the parameter with the current instance, on the threads of the pool when it is not null. The
+     * coefficients of the product are bounded before it is computed, and products that could overflow an int are
+     * computed exactly by exactProduct() on the calling thread.
+     */
+    Polynomial product(Polynomial q, ForkJoinPool pool, int threshold) {
         if(q == null)
             throw new NullPointerException();
         int pDegree = this.degree();
-        int qDegree = Math.abs(q.degree());
-        int[] temp = new int[pDegree * qDegree + 1];
-        Polynomial newDensePoly = new DensePolynomial(temp);
-        if(q instanceof DensePolynomial) {
-            for (int i = 0; i <= pDegree; i++) {
-                temp = new int[i+qDegree+1];
-                for(int j = 0; j <= qDegree; j++){
-                    int coef = this.getCoefficient(i)*q.getCoefficient(j);
-                    int position = i+j;
-                    temp[position] = coef;
-                }
-                Polynomial tempDense = new DensePolynomial(temp);
-                newDensePoly = newDensePoly.add(tempDense);
-            }
+        if(this.isZero() || q.isZero())
+            return new DensePolynomial(new int[1]);
+        if(q instanceof SparsePolynomial && !Polynomials.productPrefersDense(this, q)){
+            if(lowestExponent() + ((SparsePolynomial) q).lowestExponent() < 0)
+                throw new IllegalArgumentException(); // The product would contain a negative exponent
+            return SparsePolynomial.of(this).product(q); // The product would be mostly zeros in an array
+        }
+        boolean fitsInt = intPoly != null && Polynomials.productBound(this, q) <= Integer.MAX_VALUE;
+        if(q instanceof DensePolynomial){
+            if(!fitsInt)
+                return exactProduct((DensePolynomial) q);
+            return new DensePolynomial(product(intPoly, pDegree+1, ((DensePolynomial) q).intPoly, q.degree()+1,
+                    pool, threshold));
+        }
+        if(!fitsInt)
+            return exactProduct(WideTerms.of(q));
+        int[] qExponent, qCoefficient;
+        if(q instanceof SparsePolynomial){
+            IntIntMap SparsePoly = ((SparsePolynomial) q).terms();
+            qExponent = SparsePoly.keys();
+            qCoefficient = SparsePoly.values();
         }else{
-            HashMap<Integer, Integer> SparsePoly = ((SparsePolynomial) q).getIntPoly();
-            Set<Integer> tempSet = SparsePoly.keySet();
-            for(int i =0; i <= pDegree; i++){
-                temp = new int[i + Math.abs(q.degree()) +1];
-                for(int j: tempSet){
-                    int position = i+j;
-                    int coef = this.getCoefficient(i)*q.getCoefficient(j);
-                    if(position >= 0) {
-                    temp[position] = coef;
-                    }else if(position < 0 && coef == 0)
-                        continue;
-                    else{
-                        throw new IllegalArgumentException();
-                    }
-                }
-                Polynomial tempDense = new DensePolynomial(temp);
-                newDensePoly = newDensePoly.add(tempDense);
-            }
+            qExponent = ((SortedSparsePolynomial) q).exponents();
+            qCoefficient = ((SortedSparsePolynomial) q).coefficients();
+        }
+        int qLowest = Integer.MAX_VALUE;
+        for(int j: qExponent){
+            if(j < qLowest)
+                qLowest = j;
+        }
+        if(lowestExponent() + qLowest < 0)
+            throw new IllegalArgumentException(); // The product would contain a negative exponent
+        int[] qArr = new int[q.degree() - qLowest + 1]; // Shifts q so that its lowest term is at position 0
+        for(int j = 0; j < qExponent.length; j++)
+            qArr[qExponent[j] - qLowest] = qCoefficient[j];
+        int shift = qLowest; // Moves the product back to the exponents of q
+        int[] product = product(intPoly, pDegree+1, qArr, qArr.length, pool, threshold);
+        int[] newPoly = new int[pDegree + q.degree() + 1];
+        for(int i = Math.max(0, -shift); i < product.length; i++)
+            newPoly[i + shift] = product[i];
+        return new DensePolynomial(newPoly);
+    }
+
+    /**
+     * Multiplies two dense polynomials whose product can have coefficients that don't fit in an int. Large int
+     * operands use the transform of NttMultiplier, which rebuilds the exact coefficients as longs or BigIntegers.
+     * Short operands whose product fits in a long use the schoolbook method on longs, and everything else is
+     * multiplied as BigIntegers by KroneckerMultiplier.
+     */
+    private Polynomial exactProduct(DensePolynomial q){
+        int aLen = degree() + 1;
+        int bLen = q.degree() + 1;
+        boolean fitsLong = Polynomials.productBound(this, q) < 0x1p63;
+        if(intPoly != null && q.intPoly != null && NttMultiplier.suitable(aLen, bLen)){
+            if(fitsLong)
+                return new DensePolynomial(NttMultiplier.multiplyLong(intPoly, aLen, q.intPoly, bLen));
+            return new DensePolynomial(NttMultiplier.multiplyBig(intPoly, aLen, q.intPoly, bLen));
         }
-        return newDensePoly;
+        if(fitsLong && Math.min(aLen, bLen) < DenseMultiplier.KARATSUBA_THRESHOLD)
+            return new DensePolynomial(DenseMultiplier.multiplyLong(longCoefficients(), q.longCoefficients()));
+        BigInteger[] a = bigCoefficients(aLen);
+        return new DensePolynomial(KroneckerMultiplier.multiply(a, q == this ? a : q.bigCoefficients(bLen)));
+    }
+
+    /**
+     * Multiplies with the terms of a sparse polynomial whose product can have coefficients that don't fit in an int.
+     * The terms are shifted so the lowest one is at position 0 in the same way as the int product does it, and the
+     * product is computed as BigIntegers by KroneckerMultiplier.
+     */
+    private Polynomial exactProduct(WideTerms q){
+        int qLowest = q.exponents[0];
+        if(lowestExponent() + qLowest < 0)
+            throw new IllegalArgumentException(); // The product would contain a negative exponent
+        int qDegree = q.exponents[q.exponents.length - 1];
+        BigInteger[] qArr = new BigInteger[qDegree - qLowest + 1];
+        Arrays.fill(qArr, BigInteger.ZERO);
+        for(int j = 0; j < q.exponents.length; j++)
+            qArr[q.exponents[j] - qLowest] = q.coefficients[j];
+        BigInteger[] product = KroneckerMultiplier.multiply(bigCoefficients(length()), qArr);
+        BigInteger[] newPoly = new BigInteger[degree() + qDegree + 1];
+        for(int i = 0; i < newPoly.length; i++){
+            int position = i - qLowest;
+            newPoly[i] = position >= 0 ? product[position] : BigInteger.ZERO;
+        }
+        return new DensePolynomial(newPoly);
+    }
+
+    /**
+     * Multiplies the current instance with itself. The coefficients are passed to the kernels as the same array, which
+     * they take as a square: DenseMultiplier only computes each product of two different coefficients once, the
+     * transform of NttMultiplier transforms the operand once, and KroneckerMultiplier squares one BigInteger. A square
+     * that could overflow an int is computed exactly in the same way as multiply(this).
+     *
+     * Returns a polynomial by multiplying the current instance with itself. The current instance is not modified.
+     *
+     * @return <code>this * this</code>
+     */
+    @Override
+    public Polynomial square() {
+        return product(this, null, 0);
+    }
+
+    /**
+     * Raises the current instance to the given power with Polynomials.pow(), which squares once for every bit of n
+     * and multiplies by the current instance for every bit that is set.
+     *
+     * @param n the power, at least 0
+     * @return <code>this</code> to the power of n, which is 1 when n is 0
+     * @throws IllegalArgumentException if n is negative
+     */
+    @Override
+    public Polynomial pow(int n) {
+        return Polynomials.pow(this, n);
+    }
+
+    /**
+     * Divides the current instance by the parameter with Polynomials.divideAndRemainder(). The division stays on the
+     * int arrays with the Newton division of DenseDivision when the divisor has an odd leading coefficient and the
+     * quotient fits in an int, uses the Newton division of ModularPolynomial modulo a few primes for other leading
+     * coefficients and wider quotients, and is done exactly on the terms otherwise. A polynomial with a negative
+     * exponent can't divide a DensePolynomial so an IllegalArgumentException is thrown.
+     *
+     * @param q the non-zero polynomial to divide <code>this</code> by
+     * @return an array holding the quotient followed by the remainder
+     * @throws NullPointerException if q is null
+     * @throws ArithmeticException if q is zero or the quotient doesn't have integer coefficients
+     * @throws IllegalArgumentException if q has a negative exponent
+     */
+    @Override
+    public Polynomial[] divideAndRemainder(Polynomial q) {
+        if(q == null)
+            throw new NullPointerException();
+        if(Polynomials.lowestExponent(q) < 0)
+            throw new IllegalArgumentException(); // If there is an negative exponent in a sparse polynomial
+        return Polynomials.divideAndRemainder(this, q);
+    }
+
+    /**
+     * Returns the remainder of divideAndRemainder(q).
+     *
+     * @param q the non-zero polynomial to divide <code>this</code> by
+     * @return <code>this mod </code>q
+     * @throws NullPointerException if q is null
+     * @throws ArithmeticException if q is zero or the quotient doesn't have integer coefficients
+     * @throws IllegalArgumentException if q has a negative exponent
+     */
+    @Override
+    public Polynomial mod(Polynomial q) {
+        return divideAndRemainder(q)[1];
+    }
+
+    /**
+     * Finds the greatest common divisor with Polynomials.gcd().
+     *
+     * @param q the non-null polynomial
+     * @return gcd(<code>this</code>, q)
+     * @throws NullPointerException if q is null
+     * @throws IllegalArgumentException if q has a negative exponent
+     */
+    @Override
+    public Polynomial gcd(Polynomial q) {
+        return Polynomials.gcd(this, q);
+    }
+
+    /**
+     * @return the lowest exponent with a non-zero coefficient
+     */
+    private int lowestExponent(){
+        int lowest = 0;
+        while(lowest < length() - 1 && isZeroAt(lowest))
+            lowest++;
+        return lowest;
+    }
+
+    /**
+     * @return true if the coefficient of the given exponent, which must be at most the degree, is 0
+     */
+    private boolean isZeroAt(int i){
+        if(intPoly != null)
+            return intPoly[i] == 0;
+        return longPoly != null ? longPoly[i] == 0 : bigPoly[i].signum() == 0;
     }
 
     /**
@@ -241,185 +713,254 @@ public class DensePolynomial implements Polynomial {
     public Polynomial subtract(Polynomial q) {
         if(q == null)
             throw new NullPointerException();
-        if(q instanceof SparsePolynomial){
-            Set<Integer> tempSet = ((SparsePolynomial) q).getIntPoly().keySet();
-            for(int i: tempSet){
-                if(i < 0)
-                    throw new IllegalArgumentException(); // If there is an negative exponent in sparse polynomial
-            }
-        }
-        return this.add(q.minus());
+        if(Polynomials.lowestExponent(q) < 0)
+            throw new IllegalArgumentException(); // If there is an negative exponent in a sparse polynomial
+        long start = OperationMetrics.ENABLED ? System.nanoTime() : 0;
+        Polynomial difference = sum(Polynomials.negate(q)); // Subtracting doesn't go through the OperationCache
+        if(OperationMetrics.ENABLED)
+            OperationMetrics.record(OperationMetrics.Operation.SUBTRACT, this, q, start);
+        return difference;
     }
 
     /**
      * Takes the current instance and negates the whole polynomial, creating a new polynomial with it
      * Returns a polynomial by negating the current instance. The current instance is not modified.
+     * The negation of the smallest int or long doesn't fit in the same type, so the result moves to the next tier.
      *
      * @return -this
      */
     @Override
     public Polynomial minus() {
-        int[] newPoly = new int[intPoly.length];
-        int i = 0;
-        for(int x : intPoly){
-            newPoly[i] = x * -1;
-            i++;
+        long start = OperationMetrics.ENABLED ? System.nanoTime() : 0;
+        Polynomial negation = negate();
+        if(OperationMetrics.ENABLED)
+            OperationMetrics.record(OperationMetrics.Operation.MINUS, this, null, start);
+        return negation;
+    }
+
+    /**
+     * Negates the coefficients in the lowest tier the negation fits in, without being counted by OperationMetrics.
+     */
+    Polynomial negate() {
+        if(intPoly != null){
+            int[] newPoly = new int[intPoly.length];
+            try {
+                int i = 0;
+                for(int x : intPoly){
+                    newPoly[i] = Math.negateExact(x);
+                    i++;
+                }
+                return PolynomialPool.common(new DensePolynomial(newPoly));
+            }catch(ArithmeticException e){ // A coefficient is Integer.MIN_VALUE
+            }
+        }
+        if(bigPoly == null){
+            long[] arr = longCoefficients();
+            long[] newPoly = new long[arr.length];
+            try {
+                for(int i = 0; i < arr.length; i++)
+                    newPoly[i] = Math.negateExact(arr[i]);
+                return new DensePolynomial(newPoly);
+            }catch(ArithmeticException e){ // A coefficient is Long.MIN_VALUE
+            }
         }
+        BigInteger[] newPoly = bigCoefficients(length());
+        for(int i = 0; i < newPoly.length; i++)
+            newPoly[i] = newPoly[i].negate();
         return new DensePolynomial(newPoly);
     }
 
+    /**
+     * Evaluates the polynomial with Horner's method, starting from the coefficient of the degree and multiplying by x
+     * before adding each lower coefficient. The result wraps around on overflow like any long multiplication, so the
+     * lowest 64 bits of coefficients that don't fit in a long are all that is needed.
+     *
+     * @param x the point at which the polynomial is evaluated
+     * @return the value of the polynomial at x modulo 2^64
+     */
+    @Override
+    public long evaluate(long x) {
+        long result = 0;
+        if(intPoly == null){
+            long[] arr = longCoefficients();
+            for(int i = arr.length - 1; i >= 0; i--)
+                result = result * x + arr[i];
+            return result;
+        }
+        for(int i = intPoly.length - 1; i >= 0; i--)
+            result = result * x + intPoly[i];
+        return result;
+    }
+
+    /**
+     * Evaluates the polynomial with Horner's method, which needs one multiplication and one addition per coefficient.
+     *
+     * @param x the point at which the polynomial is evaluated
+     * @return the value of the polynomial at x
+     */
+    @Override
+    public double evaluate(double x) {
+        double result = 0;
+        if(intPoly == null){
+            for(int i = length() - 1; i >= 0; i--)
+                result = result * x + (longPoly != null ? longPoly[i] : bigPoly[i].doubleValue());
+            return result;
+        }
+        for(int i = intPoly.length - 1; i >= 0; i--)
+            result = result * x + intPoly[i];
+        return result;
+    }
+
+    /**
+     * Evaluates the polynomial at every point with Horner's method. The points are taken in blocks and every
+     * coefficient is applied to the whole block before moving to the next one, so the coefficients are read once per
+     * block instead of once per point and the inner loop over the points has no dependency between its iterations.
+     * Coefficients that don't fit in an int are evaluated one point at a time with evaluate(double).
+     *
+     * @param xs the points at which the polynomial is evaluated
+     * @param out receives the values, it must be at least as long as xs
+     * @throws NullPointerException if xs or out is null
+     * @throws IllegalArgumentException if out is shorter than xs
+     */
+    @Override
+    public void evaluate(double[] xs, double[] out) {
+        if(out.length < xs.length)
+            throw new IllegalArgumentException();
+        if(intPoly == null){
+            for(int i = 0; i < xs.length; i++)
+                out[i] = evaluate(xs[i]);
+            return;
+        }
+        double[] acc = new double[Math.min(BLOCK, xs.length)];
+        double[] points = new double[acc.length];
+        int last = intPoly.length - 1;
+        for(int start = 0; start < xs.length; start += BLOCK){
+            int size = Math.min(BLOCK, xs.length - start);
+            System.arraycopy(xs, start, points, 0, size);
+            Arrays.fill(acc, 0, size, intPoly[last]);
+            for(int i = last - 1; i >= 0; i--){
+                double coef = intPoly[i];
+                for(int j = 0; j < size; j++)
+                    acc[j] = acc[j] * points[j] + coef;
+            }
+            System.arraycopy(acc, 0, out, start, size);
+        }
+    }
+
+    /**
+     * Evaluates the polynomial at every integer point with Horner's method, applied to a block of points at a time in
+     * the same way as the batch evaluate(double[], double[]). The inner loop over the points is vectorized by the JIT,
+     * so this is faster than the subproduct tree of MultipointEvaluator until both the number of points and the number
+     * of coefficients reach MULTIPOINT_THRESHOLD. Past that the O(n log^2 n) time of the tree beats the O(n^2) time of
+     * Horner's method. Coefficients that don't fit in an int are reduced to their lowest 32 bits first.
+     *
+     * @param points the points at which the polynomial is evaluated
+     * @return a new array holding the value at every point modulo 2^32
+     * @throws NullPointerException if points is null
+     */
+    @Override
+    public int[] evaluate(int[] points) {
+        int[] coefficients = intPoly;
+        if(coefficients == null){
+            long[] arr = longCoefficients();
+            coefficients = new int[arr.length];
+            for(int i = 0; i < arr.length; i++)
+                coefficients[i] = (int) arr[i];
+        }
+        return evaluate(coefficients, points);
+    }
+
+    /**
+     * Evaluates the coefficients at every integer point, see evaluate(int[]).
+     */
+    private static int[] evaluate(int[] intPoly, int[] points) {
+        if(Math.min(points.length, intPoly.length) >= MULTIPOINT_THRESHOLD)
+            return MultipointEvaluator.evaluate(intPoly, points);
+        int[] values = new int[points.length];
+        int last = intPoly.length - 1;
+        for(int start = 0; start < points.length; start += BLOCK){
+            int end = Math.min(points.length, start + BLOCK);
+            Arrays.fill(values, start, end, intPoly[last]);
+            for(int i = last - 1; i >= 0; i--){
+                int coef = intPoly[i];
+                for(int j = start; j < end; j++)
+                    values[j] = values[j] * points[j] + coef;
+            }
+        }
+        return values;
+    }
+
     /**
      * Checks if the class invariant holds for the current instance. Checks the string of polynomial that was passed
      * in the constructor parameter for if the exponents are in descending order and if there are any 0 or 1 in front
      * of the variable "x". Additionally, it checks for is there is a 0 coefficient added in the polynomial.
-     * The numbers in the string must be integers and double or else it would false to hold the class invariant.
+     * The numbers in the string must be integers or else it would false to hold the class invariant.
      * If there are 0 and 1 coefficient in front of the variable or 0 coefficients or exponent isn't in descending order
-     * then it would return false. Additionally, checks if there are any 1 or 0 in the exponent or negative exponents.
-     * Otherwise true.
+     * then it would return false. Additionally, checks if there are any 0 or negative exponents.
+     * Otherwise true. Polynomials created by the operations of the class have no string and always hold the invariant.
      *
-     * This is unable to verify fractions as integer even if the fraction does divide perfectly into an integer.
-     *
-     * It would initialize the size of the array once finding that the invariant holds true
+     * The string is checked by PolynomialParser with the same rules that the constructor uses.
      *
      * @return {@literal true} if the class invariant holds, and {@literal false} otherwise.
      */
     @Override
     public boolean wellFormed() {
-        if(strPoly.contains("."))
-            return false;
-        String[] newString = strPoly.split("\\+");
-        String temp = newString[0];
-        int tracker = 0;
-        int StartingExponent = 0;
-        if (temp.contains("x")) {
-            tracker = temp.indexOf("^");
-            if (tracker == -1) // Checks if it is just an coefficient
-                StartingExponent = 1;
-            else {
-                StartingExponent = Integer.parseInt(temp.substring(tracker + 1)); // Gets starting exponent value
-                if (StartingExponent < newString.length-1) // Checks if the amount of elements is less than the exponent value
-                    return false;
-            }
-        }else{// If the starting value is an coefficient and there is only one value in the array
-            if(newString.length > 1)
-                return false;
-        }
-        intPoly = new int[StartingExponent+1];
-        int tempTracker = 1; // Goes through the index
-        int ExponentValue = 0;
-        while(tempTracker < newString.length){ // Loops through the whole array of values and checks if it is in decreasing order
-            temp = newString[tempTracker];
-            if(temp.contains("x")) {
-                tracker = temp.indexOf("^");
-                if (tracker == -1)
-                    ExponentValue = 1;
-                else
-                    ExponentValue = Integer.parseInt(temp.substring(tracker+1));
-                if(ExponentValue == 0) // If there is an coefficent with exponent of 0
-                    return false;
-            } else
-                ExponentValue = 0;
-            if(ExponentValue < 0) // Negative Exponents
-                return false;
-            if(ExponentValue >= StartingExponent)
-                return false;
-            else
-                StartingExponent = ExponentValue;
-            tempTracker++;
-        }try {
-            for (String s : newString) {
-                if (s.contains("x")) {
-                    int indexofX = s.indexOf("x");
-                    if(indexofX != 0) {
-                        String tempString = s.substring(0, indexofX);
-                        if(tempString.equals("-"))
-                            continue;
-                        int coef = Integer.parseInt(tempString);
-                        if (coef == 0 || coef == 1)
-                            return false;
-                    }
-                }else{
-                    int coef = Integer.parseInt(s);
-                    if(coef == 0 && intPoly.length != 1)
-                        return false;
-                }
-            }
-        }catch(Exception e){
-            return false;
-        }
-        return true;
+        if(strPoly == null)
+            return true;
+        return PolynomialParser.errorIndex(strPoly, false) == -1;
     }
 
     /**
      * The current instance is written out as a string. Then returns the string representation of the polynomial.
+     * The terms are written by PolynomialFormatter into a StringBuilder presized for the number of non-zero terms.
      *
      * @return the String representation of the polynomial in descending order
      */
     @Override
     public String toString() {
-        String str = "";
-        int polySize = intPoly.length - 1;
-        for(int i = polySize; i >= 0; i--){
-            if(i == 0 && intPoly[i] != 0)
-                str = str + intPoly[i];
-            else if(i == 1 && intPoly[i] == 1)
-                str = str + "x" + " + ";
-            else if(i == 1 && intPoly[i] == -1)
-                str = str + "-x" + " + ";
-            else if(intPoly[i] == -1)
-                str = str  +"-x^" + i + " + ";
-            else if(i == 1 && intPoly[i] != 0)
-                str = str + intPoly[i] +"x" + " + ";
-            else if(intPoly[i] != 0 && intPoly[i] != 1)
-                str = str + intPoly[i] +"x^" + i + " + ";
-            else if(intPoly[i] == 1)
-                str = str + "x^" + i + " + ";
-//            if(i > 1 && intPoly[i] != 0)
-//                str = str + " + ";
-        }if(str.isEmpty()){
-            str = "0";
-        }if(str.length() > 3) {
-            String temp = str.substring(str.length() - 2);
-            String tempFront = str.substring(0, 2);
-            if (temp.contains("+"))
-                str = str.substring(0, str.length() - 3);
-            else if(tempFront.contains("+"))
-                str = str.substring(3);
-        }
+        long start = OperationMetrics.ENABLED ? System.nanoTime() : 0;
+        String str = PolynomialFormatter.toString(this, terms());
+        if(OperationMetrics.ENABLED)
+            OperationMetrics.record(OperationMetrics.Operation.TO_STRING, this, null, start);
         return str;
     }
 
     /**
      * This method checks if the two object the current instance and the object passed in the parameter are equal to
-     * each other by checking the type and if the contents are equal. If they are not false, otherwise true.
+     * each other by checking if they have the same terms. A SparsePolynomial or a SortedSparsePolynomial with the same
+     * terms is equal as well. The degree, the number of terms and the hash codes are compared before the coefficients.
      *
      * @param q A polynomial object that is either DensePolynomial or SparsePolynomial or any object
      * @return True or false if the parameter object is equal to the current instance
      */
+    @Override
     public boolean equals(Object q){
-        if(q instanceof DensePolynomial){
-            boolean first = false;
-            int greatest = this.degree();
-            if(greatest > ((DensePolynomial) q).degree()) {
-                first = true;
-                greatest = ((DensePolynomial) q).degree();
-            }
-            for(int i= 0; i < greatest; i++){
-                if(this.getCoefficient(i) != ((DensePolynomial) q).getCoefficient(i))
-                    return false;
-            }if(first){
-                for(int i = greatest; i < this.degree(); i++){
-                    if(this.getCoefficient(i) != 0)
-                        return false;
-                }
-            }else {
-                for (int i = greatest; i < ((DensePolynomial) q).degree(); i++) {
-                    if (((DensePolynomial) q).getCoefficient(i) != 0)
-                        return false;
-                }
+        return Polynomials.equals(this, q);
+    }
+
+    /**
+     * Adds up the hash codes of the non-zero terms, which gives the same hash code as any equal polynomial of the
+     * other classes. The hash code is computed once and kept since the polynomial never changes.
+     *
+     * @return the hash code of the polynomial
+     */
+    @Override
+    public int hashCode(){
+        int h = hash;
+        if(h == 0){
+            int length = length();
+            for(int i = 0; i < length; i++){
+                if(isZeroAt(i))
+                    continue;
+                if(intPoly != null)
+                    h += Polynomials.termHash(i, intPoly[i]);
+                else if(longPoly != null)
+                    h += Polynomials.termHash(i, longPoly[i]);
+                else
+                    h += Polynomials.termHash(i, bigPoly[i]);
             }
-            return true;
+            hash = h;
         }
-        return false;
+        return h;
     }
 }
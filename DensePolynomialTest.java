@@ -1,5 +1,11 @@
 import static org.junit.jupiter.api.Assertions.*;
 import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
 public class DensePolynomialTest {
 
     @Test
@@ -46,6 +52,9 @@ public class DensePolynomialTest {
         assertThrows(IllegalArgumentException.class, () -> w.add(x));
         Polynomial r = new DensePolynomial("2");
         assertEquals(r, p.add(r));
+        Polynomial y = new SortedSparsePolynomial("3x^-1");
+        assertThrows(IllegalArgumentException.class, () -> new DensePolynomial("x^2 + 1").add(y));
+        assertEquals(new DensePolynomial("x^2 + 3x + 1"), new DensePolynomial("x^2 + 1").add(new SortedSparsePolynomial("3x")));
     }
 
     @Test
@@ -65,6 +74,252 @@ public class DensePolynomialTest {
         assertThrows(IllegalArgumentException.class, () -> z.multiply(t));
     }
 
+    @Test
+    void multiplyLarge() {
+        Random random = new Random(4);
+        int[][] sizes = {{31, 11}, {32, 12}, {33, 12}, {100, 34}, {257, 86}, {700, 234}, {1024, 1024}, {3000, 1500}};
+        for(int[] size: sizes){
+            int[] a = randomCoefficients(random, size[0]);
+            int[] b = randomCoefficients(random, size[1]);
+            a[0] = Integer.MIN_VALUE;
+            b[0] = Integer.MIN_VALUE;
+            BigInteger[] expected = new BigInteger[a.length + b.length - 1];
+            java.util.Arrays.fill(expected, BigInteger.ZERO);
+            for(int i = 0; i < a.length; i++){
+                for(int j = 0; j < b.length; j++)
+                    expected[i + j] = expected[i + j].add(BigInteger.valueOf((long) a[i] * b[j]));
+            }
+            Polynomial product = new DensePolynomial(a).multiply(new DensePolynomial(b));
+            for(int i = 0; i < expected.length; i++)
+                assertEquals(expected[i], product.getBigCoefficient(i));
+            assertEquals(product, new DensePolynomial(b).multiply(new DensePolynomial(a)));
+        }
+    }
+
+    @Test
+    void multiplyUnbalanced() {
+        Random random = new Random(13);
+        int[][] shapes = {{190, 110, 970, 10}, {57, 300, 12, 2000}, {40, 40, 700, 1}};
+        for(int[] shape: shapes){
+            BigInteger[] a = new BigInteger[shape[0]];
+            BigInteger[] b = new BigInteger[shape[1]];
+            for(int i = 0; i < a.length; i++)
+                a[i] = new BigInteger(shape[2], random).subtract(BigInteger.ONE.shiftLeft(shape[2] - 1));
+            for(int i = 0; i < b.length; i++)
+                b[i] = new BigInteger(shape[3], random).subtract(BigInteger.ONE.shiftLeft(shape[3] - 1));
+            a[a.length - 1] = BigInteger.ONE.shiftLeft(shape[2]).negate();
+            b[b.length - 1] = BigInteger.ONE.shiftLeft(shape[3]);
+            BigInteger[] expected = new BigInteger[a.length + b.length - 1];
+            java.util.Arrays.fill(expected, BigInteger.ZERO);
+            for(int i = 0; i < a.length; i++){
+                for(int j = 0; j < b.length; j++)
+                    expected[i + j] = expected[i + j].add(a[i].multiply(b[j]));
+            }
+            assertArrayEquals(expected, KroneckerMultiplier.multiply(a, b));
+            assertArrayEquals(expected, KroneckerMultiplier.multiply(b, a));
+            Polynomial product = new DensePolynomial(a).multiply(new DensePolynomial(b));
+            for(int i = 0; i < expected.length; i++)
+                assertEquals(expected[i], product.getBigCoefficient(i));
+        }
+    }
+
+    @Test
+    void multiplyLong() {
+        Random random = new Random(6);
+        for(int size: new int[]{20, 1100}){
+            int[] a = new int[size];
+            int[] b = new int[size];
+            for(int i = 0; i < size; i++){
+                a[i] = random.nextInt(1 << 24) + 2;
+                b[i] = random.nextInt(1 << 24) + 2;
+            }
+            Polynomial product = new DensePolynomial(a).multiply(new DensePolynomial(b));
+            for(int k = 0; k < 2 * size - 1; k++){
+                long expected = 0;
+                for(int i = Math.max(0, k - size + 1); i <= Math.min(k, size - 1); i++)
+                    expected += (long) a[i] * b[k - i];
+                assertEquals(BigInteger.valueOf(expected), product.getBigCoefficient(k));
+            }
+        }
+    }
+
+    @Test
+    void square() {
+        Random random = new Random(8);
+        for(int size: new int[]{1, 31, 33, 100, 1100}){
+            int[] small = new int[size];
+            for(int i = 0; i < size; i++)
+                small[i] = random.nextInt(100) + 2;
+            Polynomial p = new DensePolynomial(small);
+            assertEquals(p.multiply(new DensePolynomial(small.clone())), p.square());
+            int[] large = randomCoefficients(random, size); // Squares as longs or BigIntegers
+            Polynomial q = new DensePolynomial(large);
+            assertEquals(q.multiply(new DensePolynomial(large.clone())), q.square());
+        }
+        assertTrue(new DensePolynomial("0").square().isZero());
+    }
+
+    @Test
+    void pow() {
+        Polynomial p = new DensePolynomial("x + 1");
+        Polynomial expected = new DensePolynomial("1");
+        for(int n = 0; n <= 40; n++){
+            assertEquals(expected, p.pow(n));
+            expected = expected.multiply(p);
+        }
+        Polynomial high = p.pow(100); // The binomial coefficients of 100 don't fit in an int
+        BigInteger binomial = BigInteger.ONE;
+        for(int k = 0; k <= 100; k++){
+            assertEquals(binomial, high.getBigCoefficient(k));
+            binomial = binomial.multiply(BigInteger.valueOf(100 - k)).divide(BigInteger.valueOf(k + 1));
+        }
+        assertEquals(new DensePolynomial("1"), new DensePolynomial("0").pow(0));
+        assertThrows(IllegalArgumentException.class, () -> p.pow(-1));
+    }
+
+    @Test
+    void divideAndRemainder() {
+        Random random = new Random(10);
+        int[][] sizes = {{1, 1}, {20, 7}, {300, 100}, {700, 240}};
+        for(int[] size: sizes){
+            int[] a = new int[size[0]];
+            int[] b = new int[size[1]];
+            for(int i = 0; i < a.length; i++)
+                a[i] = random.nextInt(1000) + 2;
+            for(int i = 0; i < b.length; i++)
+                b[i] = random.nextInt(1000) + 2;
+            b[b.length - 1] = -1;
+            Polynomial p = new DensePolynomial(a);
+            Polynomial q = new DensePolynomial(b);
+            Polynomial[] qr = p.divideAndRemainder(q);
+            assertEquals(p, qr[0].multiply(q).add(qr[1]));
+            assertTrue(qr[1].isZero() || qr[1].degree() < q.degree());
+            assertEquals(qr[1], p.mod(q));
+            Polynomial product = p.multiply(q); // Divides exactly with a quotient that doesn't fit in an int
+            assertEquals(p, product.divideAndRemainder(q)[0]);
+            assertTrue(product.mod(q).isZero());
+        }
+        Polynomial p = new DensePolynomial("2x^3 + x^2 + 6x + 3");
+        Polynomial q = new DensePolynomial("2x + 1"); // Even leading coefficient
+        Polynomial[] qr = p.divideAndRemainder(q);
+        assertEquals(new DensePolynomial("x^2 + 3"), qr[0]);
+        assertTrue(qr[1].isZero());
+        assertEquals(new DensePolynomial("1"), p.add(new DensePolynomial("1")).mod(q));
+        assertThrows(ArithmeticException.class, () -> new DensePolynomial("x^2").divideAndRemainder(q));
+        assertThrows(ArithmeticException.class, () -> p.divideAndRemainder(new DensePolynomial("0")));
+        assertThrows(NullPointerException.class, () -> p.divideAndRemainder(null));
+        assertThrows(IllegalArgumentException.class, () -> p.mod(new SparsePolynomial("x^-1")));
+        assertEquals(p, p.mod(new DensePolynomial("x^5")));
+    }
+
+    @Test
+    void divideNonMonic() {
+        Random random = new Random(12);
+        for(int[] size: new int[][]{{30, 10}, {400, 150}}){
+            int[] a = new int[size[0]];
+            int[] b = new int[size[1]];
+            for(int i = 0; i < a.length; i++)
+                a[i] = random.nextInt(2001) - 1000;
+            for(int i = 0; i < b.length; i++)
+                b[i] = random.nextInt(2001) - 1000;
+            b[b.length - 1] = 6; // Even, so the quotient is found modulo the primes of NttMultiplier
+            Polynomial p = new DensePolynomial(a);
+            Polynomial q = new DensePolynomial(b);
+            Polynomial r = new DensePolynomial(java.util.Arrays.copyOf(a, b.length - 1));
+            Polynomial product = p.multiply(q).add(r);
+            Polynomial[] qr = product.divideAndRemainder(q);
+            assertEquals(p, qr[0]);
+            assertEquals(r, qr[1]);
+            Polynomial wide = p.pow(5); // A quotient wider than a long
+            assertEquals(wide, wide.multiply(q).divideAndRemainder(q)[0]);
+            assertThrows(ArithmeticException.class, () -> product.add(new DensePolynomial("x^" + (size[0] + size[1])))
+                    .divideAndRemainder(q));
+        }
+        OperationCache cache = new OperationCache(1000);
+        OperationCache.install(cache);
+        try {
+            Polynomial p = new DensePolynomial("4x^3 + 2x^2 + 12x + 7");
+            Polynomial[] qr = p.divideAndRemainder(new DensePolynomial("2x + 1"));
+            assertEquals(new DensePolynomial("2x^2 + 6"), qr[0]);
+            assertEquals(new DensePolynomial("1"), qr[1]);
+            assertEquals(0, cache.size()); // The quotient is checked without the public operations
+            assertEquals(0, cache.misses());
+        }finally {
+            OperationCache.install(null);
+        }
+    }
+
+    @Test
+    void gcd() {
+        Polynomial g = new DensePolynomial("6x^2 - 4");
+        Polynomial p = g.multiply(new DensePolynomial("x^3 + 2x + 7"));
+        Polynomial q = g.multiply(new DensePolynomial("3x^2 - 5x + 1"));
+        assertEquals(g, p.gcd(q));
+        assertEquals(g, q.gcd(p));
+        assertEquals(g, g.minus().gcd(new DensePolynomial("0")));
+        assertEquals(new DensePolynomial("1"), new DensePolynomial("x + 1").gcd(new DensePolynomial("x - 1")));
+        assertEquals(new DensePolynomial("2"), new DensePolynomial("2x + 2").gcd(new DensePolynomial("4x")));
+        assertTrue(new DensePolynomial("0").gcd(new DensePolynomial("0")).isZero());
+    }
+
+    @Test
+    void overflow() {
+        Polynomial p = new DensePolynomial("2147483647x^2 + 5");
+        Polynomial q = new DensePolynomial("x^2 + 1");
+        Polynomial sum = p.add(q);
+        assertEquals(BigInteger.valueOf(2147483648L), sum.getBigCoefficient(2));
+        assertThrows(ArithmeticException.class, () -> sum.getCoefficient(2));
+        assertEquals(6, sum.getCoefficient(0));
+        assertEquals("2147483648x^2 + 6", sum.toString());
+        assertEquals(p, sum.subtract(q));
+        assertEquals(sum, p.add(new SparsePolynomial("x^2 + 1")));
+
+        Polynomial square = sum.multiply(sum).multiply(sum);
+        assertEquals(BigInteger.valueOf(2).pow(93), square.getBigCoefficient(6));
+        assertEquals(BigInteger.valueOf(6).pow(3), square.getBigCoefficient(0));
+        assertEquals(square.multiply(q), q.multiply(square));
+        assertEquals(new DensePolynomial("0"), square.subtract(square));
+        assertEquals(sum.hashCode(), new SparsePolynomial("2147483647x^2 + 5").add(q).hashCode());
+        assertEquals(sum, new SparsePolynomial("2147483647x^2 + 5").add(q));
+
+        Polynomial min = new DensePolynomial("-2147483648x + 3");
+        assertEquals(BigInteger.valueOf(2147483648L), min.minus().getBigCoefficient(1));
+        assertEquals(min, min.minus().minus());
+        assertEquals(-2147483648L * 2 + 3, min.minus().minus().evaluate(2L));
+        assertEquals(2147483648.0 * 2 - 3, min.minus().evaluate(2.0));
+        assertArrayEquals(new int[]{-3, (int) (2147483648L * 2 - 3)}, min.minus().evaluate(new int[]{0, 2}));
+    }
+
+    private static int[] randomCoefficients(Random random, int size){
+        int[] arr = new int[size];
+        for(int i = 0; i < size; i++)
+            arr[i] = random.nextInt(3) == 0 ? 0 : random.nextInt();
+        arr[size - 1] = 5;
+        return arr;
+    }
+
+    @Test
+    void multiplyParallel() {
+        Random random = new Random(5);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            int[][] sizes = {{3000, 3000}, {5000, 1200}, {4000, 3500}, {20, 5000}};
+            for(int[] size: sizes){
+                DensePolynomial p = new DensePolynomial(randomCoefficients(random, size[0]));
+                Polynomial q = new DensePolynomial(randomCoefficients(random, size[1]));
+                assertEquals(p.multiply(q), p.multiply(q, pool, 64));
+                assertEquals(p.multiply(q), p.multiply(q, pool));
+            }
+            Polynomial a = new DensePolynomial("2x^10 + 5x^7 - x^2");
+            Polynomial b = new SparsePolynomial("x^3 + x^-2");
+            assertEquals(a.multiply(b), ((DensePolynomial) a).multiply(b, pool, 1));
+            assertThrows(NullPointerException.class, () -> ((DensePolynomial) a).multiply(b, null));
+            assertThrows(IllegalArgumentException.class, () -> ((DensePolynomial) a).multiply(b, pool, 0));
+        }finally{
+            pool.shutdown();
+        }
+    }
+
     @Test
     void subtract() {
         Polynomial p = new DensePolynomial("0");
@@ -76,7 +331,13 @@ public class DensePolynomialTest {
         assertThrows(NullPointerException.class, () -> p.multiply(null));
         assertEquals(p, q.subtract(q));
         assertThrows(IllegalArgumentException.class, () -> p.subtract(x));
+        assertThrows(IllegalArgumentException.class, () -> p.subtract(new SortedSparsePolynomial("3x^-1")));
+        assertThrows(IllegalArgumentException.class, () -> p.divideAndRemainder(new SortedSparsePolynomial("x^-1")));
         assertEquals(a, s.subtract(z));
+        Polynomial min = new SortedSparsePolynomial(new int[]{0, 3}, new int[]{1, Integer.MIN_VALUE});
+        Polynomial difference = p.subtract(min); // Negated exactly, not modulo 2^32
+        assertEquals(BigInteger.valueOf(2147483648L), difference.getBigCoefficient(3));
+        assertEquals(-1, difference.getCoefficient(0));
     }
 
     @Test
@@ -88,6 +349,41 @@ public class DensePolynomialTest {
         assertEquals(v, s.minus());
     }
 
+    @Test
+    void evaluate() {
+        Polynomial p = new DensePolynomial("0");
+        Polynomial q = new DensePolynomial("2x^10 + 5x^7 - x - 1");
+        assertEquals(0, p.evaluate(7L));
+        assertEquals(2 * 1024 + 5 * 128 - 2 - 1, q.evaluate(2L));
+        assertEquals(2 - 5 + 1 - 1, q.evaluate(-1L));
+        assertEquals(2 * Math.pow(1.5, 10) + 5 * Math.pow(1.5, 7) - 1.5 - 1, q.evaluate(1.5), 1e-9);
+        assertEquals(Long.MIN_VALUE, new DensePolynomial("x^63").evaluate(2L)); // Wraps around like long arithmetic
+        double[] xs = new double[1000];
+        for(int i = 0; i < xs.length; i++)
+            xs[i] = (i - 500) / 250.0;
+        double[] out = new double[xs.length];
+        q.evaluate(xs, out);
+        for(int i = 0; i < xs.length; i++)
+            assertEquals(q.evaluate(xs[i]), out[i]);
+        q.evaluate(xs, xs);
+        assertArrayEquals(out, xs);
+        assertThrows(IllegalArgumentException.class, () -> q.evaluate(new double[2], new double[1]));
+        assertThrows(NullPointerException.class, () -> q.evaluate(null, out));
+    }
+
+    @Test
+    void evaluatePoints() {
+        Polynomial q = new DensePolynomial("2x^10 + 5x^7 - x - 1");
+        int[] points = new int[1000];
+        for(int i = 0; i < points.length; i++)
+            points[i] = (i - 500) * 100003;
+        int[] values = q.evaluate(points);
+        for(int i = 0; i < points.length; i++)
+            assertEquals((int) q.evaluate((long) points[i]), values[i]);
+        assertEquals(0, q.evaluate(new int[0]).length);
+        assertArrayEquals(new int[]{0, 0}, new DensePolynomial("0").evaluate(new int[]{4, 5}));
+    }
+
     @Test
     void wellFormed() {
         Polynomial p = new DensePolynomial("0");
@@ -107,7 +403,27 @@ public class DensePolynomialTest {
         Polynomial x = new SparsePolynomial("x^50 + 3x^40 + x^35 + 65x^10 + 75x + 100");
         Polynomial y = new DensePolynomial("x^50 + 3x^40 + x^35 + 65x^10 + 75x + 100");
         assertFalse(q.equals(a));
-        assertFalse(q.equals(x));
+        assertTrue(q.equals(x));
         assertTrue(q.equals(y));
+        assertTrue(x.equals(q));
+        assertTrue(q.equals(new SortedSparsePolynomial("x^50 + 3x^40 + x^35 + 65x^10 + 75x + 100")));
+        assertFalse(q.equals(new SparsePolynomial("x^50 + 3x^40 + x^35 + 65x^10 + 75x + 100 + x^-1")));
+        assertTrue(new DensePolynomial("0").equals(new SparsePolynomial("0")));
+    }
+
+    @Test
+    void testHashCode() {
+        Polynomial q = new DensePolynomial("x^50 + 3x^40 + x^35 + 65x^10 + 75x + 100");
+        assertEquals(q.hashCode(), new DensePolynomial("x^50 + 3x^40 + x^35 + 65x^10 + 75x + 100").hashCode());
+        assertEquals(q.hashCode(), new SparsePolynomial("x^50 + 3x^40 + x^35 + 65x^10 + 75x + 100").hashCode());
+        assertEquals(q.hashCode(), new SortedSparsePolynomial("x^50 + 3x^40 + x^35 + 65x^10 + 75x + 100").hashCode());
+        assertNotEquals(q.hashCode(), new DensePolynomial("x^50 + 3x^40 + x^35 + 65x^10 + 75x + 99").hashCode());
+        Map<Polynomial, String> map = new HashMap<>();
+        map.put(q, "q");
+        assertEquals("q", map.get(new SparsePolynomial("x^50 + 3x^40 + x^35 + 65x^10 + 75x + 100")));
+        Polynomial r = q.subtract(new DensePolynomial("x^50 + 3x^40"));
+        assertEquals(35, r.degree());
+        assertEquals(new DensePolynomial("x^35 + 65x^10 + 75x + 100"), r);
+        assertEquals(new DensePolynomial("x^35 + 65x^10 + 75x + 100").hashCode(), r.hashCode());
     }
 }
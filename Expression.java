@@ -0,0 +1,330 @@
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A lazy polynomial expression. The operations only record a node of a directed acyclic graph over the polynomials,
+ * and nothing is computed until evaluate() is called.
+ *
+ * Evaluating the graph does less work than calling the operations of the polynomials one by one:
+ *
+ * - Expressions with the same structure over equal polynomials are equal, and every distinct subexpression is computed
+ *   once, so p.add(q).multiply(r).subtract(p.add(q)) computes p + q only once.
+ * - A chain of add(), subtract() and minus() is flattened into a list of terms with an integer multiplier each, which
+ *   are summed in a single pass into one PolynomialBuilder. No intermediate sum and no negated copy is created, and
+ *   the same subexpression added and subtracted cancels out without being computed.
+ * - A subexpression used in more than one place is computed once and reused instead of being flattened into every
+ *   sum that uses it.
+ *
+ * The results of evaluate() are cached in the nodes, so evaluating an expression again or a larger expression built
+ * on top of it reuses them. Expressions are immutable apart from the cache, which only ever holds the same value.
+ */
+public final class Expression {
+    private static final int LEAF = 0;
+    private static final int ADD = 1;
+    private static final int SUBTRACT = 2;
+    private static final int NEGATE = 3;
+    private static final int MULTIPLY = 4;
+
+    private final int kind;
+    private final Polynomial value; // The polynomial of a leaf, null otherwise
+    private final Expression left, right; // The operands, right is null for NEGATE and both are null for a leaf
+    private final int hash;
+    private final int depth; // The longest path down to a leaf, which equal expressions share
+    private volatile Polynomial result; // Cached result of evaluate()
+
+    private Expression(int kind, Polynomial value, Expression left, Expression right){
+        this.kind = kind;
+        this.value = value;
+        this.left = left;
+        this.right = right;
+        depth = kind == LEAF ? 0 : 1 + Math.max(left.depth, right == null ? 0 : right.depth);
+        if(kind == LEAF)
+            hash = value.hashCode();
+        else // Mixed rather than 31 * h + ..., which loses a bit for every level of x - x and repeats in long chains
+            hash = Polynomials.termHash(Polynomials.termHash(kind, left.hash), right == null ? 0 : right.hash);
+    }
+
+    /**
+     * Creates an expression that is just the given polynomial. A SortedSparsePolynomial is converted with
+     * Polynomials.of() first.
+     *
+     * @param p a DensePolynomial, SparsePolynomial or SortedSparsePolynomial
+     * @return the expression of p
+     * @throws NullPointerException if p is null
+     */
+    public static Expression of(Polynomial p){
+        return new Expression(LEAF, Polynomials.of(p), null, null);
+    }
+
+    /**
+     * @return the expression of this plus q
+     * @throws NullPointerException if q is null
+     */
+    public Expression add(Expression q){
+        if(q == null)
+            throw new NullPointerException();
+        return new Expression(ADD, null, this, q);
+    }
+
+    /**
+     * @return the expression of this minus q
+     * @throws NullPointerException if q is null
+     */
+    public Expression subtract(Expression q){
+        if(q == null)
+            throw new NullPointerException();
+        return new Expression(SUBTRACT, null, this, q);
+    }
+
+    /**
+     * @return the expression of this negated
+     */
+    public Expression minus(){
+        return new Expression(NEGATE, null, this, null);
+    }
+
+    /**
+     * @return the expression of this times q
+     * @throws NullPointerException if q is null
+     */
+    public Expression multiply(Expression q){
+        if(q == null)
+            throw new NullPointerException();
+        return new Expression(MULTIPLY, null, this, q);
+    }
+
+    /**
+     * Computes the expression, or returns the result of an earlier call.
+     *
+     * @return the polynomial of the expression
+     * @throws IllegalArgumentException if an operation of the polynomials throws it
+     */
+    public Polynomial evaluate(){
+        Polynomial r = result;
+        if(r == null){
+            Map<Expression, Integer> uses = new HashMap<>();
+            count(this, uses);
+            r = compute(this, uses);
+        }
+        return r;
+    }
+
+    /**
+     * Counts how many distinct expressions use every distinct subexpression, going down once into each of them. The
+     * graph is walked with a stack of its own, so a long chain of operations doesn't overflow the call stack.
+     */
+    private static void count(Expression root, Map<Expression, Integer> uses){
+        Set<Expression> visited = new HashSet<>();
+        Deque<Expression> stack = new ArrayDeque<>();
+        stack.push(root);
+        while(!stack.isEmpty()){
+            Expression e = stack.pop();
+            if(e.kind == LEAF || e.result != null || !visited.add(e))
+                continue;
+            uses.merge(e.left, 1, Integer::sum);
+            stack.push(e.left);
+            if(e.right != null){
+                uses.merge(e.right, 1, Integer::sum);
+                stack.push(e.right);
+            }
+        }
+    }
+
+    /**
+     * Computes root, reusing the result of an equal expression that was already computed. An expression stays on the
+     * stack until the terms or operands it needs are computed, so every expression is computed after them.
+     */
+    private static Polynomial compute(Expression root, Map<Expression, Integer> uses){
+        Map<Expression, Polynomial> done = new HashMap<>();
+        Map<Expression, Map<Expression, Integer>> sums = new HashMap<>(); // The terms of the sums on the stack
+        Deque<Expression> stack = new ArrayDeque<>();
+        stack.push(root);
+        while(!stack.isEmpty()){
+            Expression e = stack.peek();
+            if(known(e, done) != null){
+                stack.pop();
+                continue;
+            }
+            Map<Expression, Integer> terms = null;
+            boolean ready;
+            if(e.kind == MULTIPLY){
+                ready = need(e.left, done, stack) & need(e.right, done, stack);
+            }else{
+                terms = sums.get(e);
+                if(terms == null){
+                    terms = new LinkedHashMap<>();
+                    collect(e, uses, terms);
+                    sums.put(e, terms);
+                }
+                ready = true;
+                for(Map.Entry<Expression, Integer> term: terms.entrySet()){
+                    if(term.getValue() != 0)
+                        ready &= need(term.getKey(), done, stack);
+                }
+            }
+            if(!ready)
+                continue;
+            stack.pop();
+            Polynomial r;
+            if(e.kind == MULTIPLY){
+                Polynomial p = known(e.left, done);
+                Polynomial q = known(e.right, done);
+                // DensePolynomial doesn't take a sparse operand with negative exponents, so the sparse one goes first
+                r = p instanceof DensePolynomial && q instanceof SparsePolynomial ? q.multiply(p) : p.multiply(q);
+            }else{
+                PolynomialBuilder builder = new PolynomialBuilder();
+                for(Map.Entry<Expression, Integer> term: terms.entrySet()){
+                    int multiplier = term.getValue();
+                    if(multiplier == 0)
+                        continue;
+                    Polynomial p = known(term.getKey(), done);
+                    if(multiplier == 1)
+                        builder.addInPlace(p);
+                    else if(multiplier == -1)
+                        builder.subtractInPlace(p);
+                    else
+                        builder.addProduct(p, new DensePolynomial(new int[]{multiplier}));
+                }
+                r = builder.build();
+                sums.remove(e);
+            }
+            done.put(e, r);
+            e.result = r;
+        }
+        return known(root, done);
+    }
+
+    /**
+     * @return the polynomial of e if it is a leaf or was already computed, otherwise null
+     */
+    private static Polynomial known(Expression e, Map<Expression, Polynomial> done){
+        if(e.kind == LEAF)
+            return e.value;
+        Polynomial r = e.result;
+        if(r == null){
+            r = done.get(e);
+            if(r != null)
+                e.result = r;
+        }
+        return r;
+    }
+
+    /**
+     * Pushes e unless it is already known.
+     *
+     * @return true if e is already known
+     */
+    private static boolean need(Expression e, Map<Expression, Polynomial> done, Deque<Expression> stack){
+        if(known(e, done) != null)
+            return true;
+        stack.push(e);
+        return false;
+    }
+
+    /**
+     * Collects the terms of the sum or negation root with an integer multiplier each. Sums and negations that are only
+     * used by this sum and weren't computed yet are flattened into it, everything else becomes a single term. The
+     * terms keep the order from left to right.
+     */
+    private static void collect(Expression root, Map<Expression, Integer> uses, Map<Expression, Integer> terms){
+        Deque<Expression> stack = new ArrayDeque<>();
+        Deque<Integer> multipliers = new ArrayDeque<>();
+        if(root.right != null){
+            stack.push(root.right);
+            multipliers.push(root.kind == SUBTRACT ? -1 : 1);
+        }
+        stack.push(root.left);
+        multipliers.push(root.kind == NEGATE ? -1 : 1);
+        while(!stack.isEmpty()){
+            Expression e = stack.pop();
+            int multiplier = multipliers.pop();
+            boolean additive = e.kind == ADD || e.kind == SUBTRACT || e.kind == NEGATE;
+            if(!additive || e.result != null || uses.getOrDefault(e, 0) > 1){
+                terms.merge(e, multiplier, Integer::sum);
+                continue;
+            }
+            if(e.right != null){ // Pushed first so the left operand is collected first
+                stack.push(e.right);
+                multipliers.push(e.kind == SUBTRACT ? -multiplier : multiplier);
+            }
+            stack.push(e.left);
+            multipliers.push(e.kind == NEGATE ? -multiplier : multiplier);
+        }
+    }
+
+    /**
+     * Compares the two graphs with a stack of their own. A pair of nodes that shows up again through a shared
+     * subexpression is only compared once, so graphs that share their subexpressions are compared in time linear in
+     * their number of distinct nodes rather than in the number of paths through them.
+     *
+     * @return true if o is an expression with the same structure over equal polynomials
+     */
+    @Override
+    public boolean equals(Object o){
+        if(this == o)
+            return true;
+        if(!(o instanceof Expression))
+            return false;
+        Set<Pair> compared = new HashSet<>();
+        Deque<Expression> stack = new ArrayDeque<>();
+        stack.push(this);
+        stack.push((Expression) o);
+        while(!stack.isEmpty()){
+            Expression b = stack.pop();
+            Expression a = stack.pop();
+            if(a == b)
+                continue;
+            if(a.kind != b.kind || a.hash != b.hash || a.depth != b.depth)
+                return false;
+            if(a.kind == LEAF){
+                if(!a.value.equals(b.value))
+                    return false;
+                continue;
+            }
+            if(!compared.add(new Pair(a, b)))
+                continue;
+            stack.push(a.left);
+            stack.push(b.left);
+            if(a.right != null){
+                stack.push(a.right);
+                stack.push(b.right);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return a hash code that depends on the structure and the polynomials of the expression
+     */
+    @Override
+    public int hashCode(){
+        return hash;
+    }
+
+    /**
+     * Two nodes compared by equals(), told apart by identity.
+     */
+    private static final class Pair {
+        private final Expression a, b;
+
+        Pair(Expression a, Expression b){
+            this.a = a;
+            this.b = b;
+        }
+
+        @Override
+        public boolean equals(Object o){
+            return o instanceof Pair && ((Pair) o).a == a && ((Pair) o).b == b;
+        }
+
+        @Override
+        public int hashCode(){
+            return 31 * System.identityHashCode(a) + System.identityHashCode(b);
+        }
+    }
+}
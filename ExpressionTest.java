@@ -0,0 +1,80 @@
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+class ExpressionTest {
+
+    @Test
+    void evaluate() {
+        Polynomial p = new DensePolynomial("3x^4 - 2x^2 + x + 7");
+        Polynomial q = new SparsePolynomial("x^1000 + 5x^-2");
+        Polynomial r = new DensePolynomial("x - 1");
+        Expression ep = Expression.of(p), eq = Expression.of(q), er = Expression.of(r);
+        Expression e = ep.add(eq).multiply(er).subtract(ep.add(eq));
+        Polynomial sum = q.add(p);
+        assertEquals(sum.multiply(r).subtract(sum), e.evaluate());
+        assertSame(e.evaluate(), e.evaluate());
+        assertEquals(r.minus(), er.minus().evaluate());
+        assertEquals(q.subtract(r), eq.subtract(er).evaluate());
+        assertThrows(NullPointerException.class, () -> Expression.of(null));
+        assertThrows(NullPointerException.class, () -> ep.add(null));
+    }
+
+    @Test
+    void chains() {
+        Polynomial p = new DensePolynomial("x^2 + 1");
+        Polynomial q = new DensePolynomial("2x - 3");
+        Expression ep = Expression.of(p), eq = Expression.of(q);
+        Expression e = ep;
+        Polynomial expected = p;
+        for(int i = 0; i < 1000; i++){
+            e = i % 3 == 0 ? e.add(eq) : i % 3 == 1 ? e.subtract(ep).minus() : e.add(ep);
+            expected = i % 3 == 0 ? expected.add(q) : i % 3 == 1 ? expected.subtract(p).minus() : expected.add(p);
+        }
+        assertEquals(expected, e.evaluate());
+        assertTrue(ep.subtract(ep).evaluate().isZero());
+        Expression shared = ep.add(eq);
+        assertEquals(p.add(q).multiply(p.add(q)).add(p).add(q),
+                shared.multiply(shared).add(shared).evaluate());
+    }
+
+    @Test
+    void equality() {
+        Polynomial p = new DensePolynomial("x^2 + 1");
+        Expression a = Expression.of(p).add(Expression.of(new SparsePolynomial("3x")));
+        Expression b = Expression.of(new DensePolynomial("x^2 + 1")).add(Expression.of(new DensePolynomial("3x")));
+        assertEquals(a, b);
+        assertEquals(a.hashCode(), b.hashCode());
+        assertNotEquals(a, a.minus());
+        assertNotEquals(a, Expression.of(new DensePolynomial("3x")).add(Expression.of(p)));
+    }
+
+    @Test
+    void deepChain() {
+        Polynomial p = new DensePolynomial("x + 1");
+        Expression ep = Expression.of(p);
+        Expression e = ep, f = Expression.of(new DensePolynomial("x + 1"));
+        for(int i = 0; i < 20000; i++){
+            e = e.add(ep);
+            f = f.add(Expression.of(new DensePolynomial("x + 1")));
+        }
+        assertEquals(e, f);
+        assertEquals(new DensePolynomial("20001x + 20001"), e.evaluate());
+        Expression g = ep.multiply(ep);
+        for(int i = 0; i < 20000; i++)
+            g = g.multiply(ep).subtract(g.multiply(ep)).add(ep);
+        assertEquals(p, g.evaluate());
+    }
+
+    @Test
+    void sharedEquality() {
+        Expression a = Expression.of(new DensePolynomial("x + 1"));
+        Expression b = Expression.of(new DensePolynomial("x + 1"));
+        for(int i = 0; i < 60; i++){
+            a = a.add(a);
+            b = b.add(b);
+        }
+        assertEquals(a, b);
+        assertNotEquals(a, b.add(b));
+        assertNotEquals(a.minus(), b.add(Expression.of(new DensePolynomial("x + 1"))).minus());
+    }
+}
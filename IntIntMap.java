@@ -0,0 +1,279 @@
+import java.util.Arrays;
+
+/**
+ * Map from int keys to int values stored in two primitive arrays with open addressing and linear probing. It is used
+ * by SparsePolynomial to map the exponents to their coefficients without boxing either of them.
+ *
+ * Values of 0 are never stored. Putting a 0 removes the key and getting a missing key returns 0, which is the same
+ * as a missing term of a polynomial. Removed keys are not marked with tombstones, instead the following entries of the
+ * probe sequence are shifted back so lookups never have to skip over deleted slots.
+ */
+public final class IntIntMap {
+    private static final int FREE = 0; // Marks an empty slot, the key 0 is kept outside of the arrays
+    private static final int MIN_CAPACITY = 8;
+
+    private int[] keys;
+    private int[] values;
+    private int mask;
+    private int size; // Number of keys in the arrays
+    private boolean hasZeroKey;
+    private int zeroValue;
+
+    /**
+     * Creates an empty map.
+     */
+    public IntIntMap(){
+        this(MIN_CAPACITY / 2);
+    }
+
+    /**
+     * Creates an empty map that holds the given number of keys without resizing.
+     *
+     * @param expectedSize the number of keys expected to be put in the map
+     */
+    public IntIntMap(int expectedSize){
+        int capacity = MIN_CAPACITY;
+        while(capacity < expectedSize * 2L && capacity < (1 << 30))
+            capacity <<= 1;
+        keys = new int[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+    }
+
+    /**
+     * Creates a copy of the given map.
+     *
+     * @param other the map to copy
+     */
+    public IntIntMap(IntIntMap other){
+        keys = other.keys.clone();
+        values = other.values.clone();
+        mask = other.mask;
+        size = other.size;
+        hasZeroKey = other.hasZeroKey;
+        zeroValue = other.zeroValue;
+    }
+
+    /**
+     * @return the number of keys in the map
+     */
+    public int size(){
+        return hasZeroKey ? size + 1 : size;
+    }
+
+    /**
+     * @return true if the map has no keys
+     */
+    public boolean isEmpty(){
+        return size() == 0;
+    }
+
+    /**
+     * Returns the value of the given key.
+     *
+     * @param key the key whose value is returned
+     * @return the value of the key or 0 if the key is not in the map
+     */
+    public int get(int key){
+        if(key == FREE)
+            return hasZeroKey ? zeroValue : 0;
+        int slot = slot(key);
+        while(keys[slot] != FREE){
+            if(keys[slot] == key)
+                return values[slot];
+            slot = (slot + 1) & mask;
+        }
+        return 0;
+    }
+
+    /**
+     * @param key the key to look for
+     * @return true if the key is in the map
+     */
+    public boolean containsKey(int key){
+        if(key == FREE)
+            return hasZeroKey;
+        int slot = slot(key);
+        while(keys[slot] != FREE){
+            if(keys[slot] == key)
+                return true;
+            slot = (slot + 1) & mask;
+        }
+        return false;
+    }
+
+    /**
+     * Sets the value of the given key. A value of 0 removes the key from the map.
+     *
+     * @param key the key to set
+     * @param value the new value of the key
+     */
+    public void put(int key, int value){
+        if(value == 0){
+            remove(key);
+            return;
+        }
+        if(key == FREE){
+            hasZeroKey = true;
+            zeroValue = value;
+            return;
+        }
+        int slot = slot(key);
+        while(keys[slot] != FREE){
+            if(keys[slot] == key){
+                values[slot] = value;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        size++;
+        if(size * 2 > keys.length)
+            resize(keys.length * 2);
+    }
+
+    /**
+     * Adds the given amount to the value of the key. The key is removed if its value becomes 0.
+     *
+     * @param key the key whose value is increased
+     * @param amount the amount added to the value
+     */
+    public void add(int key, int amount){
+        if(amount != 0)
+            put(key, get(key) + amount);
+    }
+
+    /**
+     * Removes the given key from the map and shifts back the entries that were probed past it.
+     *
+     * @param key the key to remove
+     */
+    public void remove(int key){
+        if(key == FREE){
+            hasZeroKey = false;
+            zeroValue = 0;
+            return;
+        }
+        int slot = slot(key);
+        while(keys[slot] != key){
+            if(keys[slot] == FREE)
+                return;
+            slot = (slot + 1) & mask;
+        }
+        int next = slot;
+        while(true){
+            next = (next + 1) & mask;
+            int nextKey = keys[next];
+            if(nextKey == FREE)
+                break;
+            int ideal = slot(nextKey);
+            // Moves the entry back unless its ideal slot lies cyclically between the hole and its current slot
+            boolean between = slot <= next ? (slot < ideal && ideal <= next) : (slot < ideal || ideal <= next);
+            if(!between){
+                keys[slot] = nextKey;
+                values[slot] = values[next];
+                slot = next;
+            }
+        }
+        keys[slot] = FREE;
+        values[slot] = 0;
+        size--;
+    }
+
+    /**
+     * Number of slots that the loops of the package go over with isUsed(), keyAt() and valueAt(), which read the map
+     * without allocating arrays as keys() and values() do. The last slot holds the key 0.
+     *
+     * @return one more than the length of the arrays
+     */
+    int capacity(){
+        return keys.length + 1;
+    }
+
+    /**
+     * @param slot a slot below capacity()
+     * @return true if the slot holds a key
+     */
+    boolean isUsed(int slot){
+        return slot < keys.length ? keys[slot] != FREE : hasZeroKey;
+    }
+
+    /**
+     * @param slot a slot below capacity() for which isUsed() is true
+     * @return the key of the slot
+     */
+    int keyAt(int slot){
+        return slot < keys.length ? keys[slot] : FREE;
+    }
+
+    /**
+     * @param slot a slot below capacity() for which isUsed() is true
+     * @return the value of the slot
+     */
+    int valueAt(int slot){
+        return slot < keys.length ? values[slot] : zeroValue;
+    }
+
+    /**
+     * @return a new array with all the keys of the map, in the same order as values()
+     */
+    public int[] keys(){
+        int[] result = new int[size()];
+        int i = 0;
+        if(hasZeroKey)
+            result[i++] = FREE;
+        for(int key: keys){
+            if(key != FREE)
+                result[i++] = key;
+        }
+        return result;
+    }
+
+    /**
+     * @return a new array with all the values of the map, in the same order as keys()
+     */
+    public int[] values(){
+        int[] result = new int[size()];
+        int i = 0;
+        if(hasZeroKey)
+            result[i++] = zeroValue;
+        for(int slot = 0; slot < keys.length; slot++){
+            if(keys[slot] != FREE)
+                result[i++] = values[slot];
+        }
+        return result;
+    }
+
+    /**
+     * @return a new array with all the keys of the map in ascending order
+     */
+    public int[] sortedKeys(){
+        int[] result = keys();
+        Arrays.sort(result);
+        return result;
+    }
+
+    private int slot(int key){
+        int h = key * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    private void resize(int capacity){
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new int[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+        for(int i = 0; i < oldKeys.length; i++){
+            int key = oldKeys[i];
+            if(key != FREE){
+                int slot = slot(key);
+                while(keys[slot] != FREE)
+                    slot = (slot + 1) & mask;
+                keys[slot] = key;
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+}
@@ -0,0 +1,82 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IntIntMapTest {
+
+    @Test
+    void get() {
+        IntIntMap map = new IntIntMap();
+        assertEquals(0, map.get(5));
+        map.put(5, 3);
+        map.put(0, -2);
+        map.put(-7, 9);
+        assertEquals(3, map.get(5));
+        assertEquals(-2, map.get(0));
+        assertEquals(9, map.get(-7));
+        assertEquals(0, map.get(6));
+        assertEquals(3, map.size());
+    }
+
+    @Test
+    void put() {
+        IntIntMap map = new IntIntMap();
+        map.put(2, 4);
+        map.put(2, 0);
+        map.put(0, 0);
+        assertTrue(map.isEmpty());
+        assertFalse(map.containsKey(2));
+        map.add(3, 5);
+        map.add(3, -5);
+        assertTrue(map.isEmpty());
+    }
+
+    @Test
+    void remove() {
+        Random random = new Random(7);
+        IntIntMap map = new IntIntMap();
+        HashMap<Integer, Integer> expected = new HashMap<>();
+        for(int i = 0; i < 20000; i++){
+            int key = random.nextInt(200) - 100;
+            if(random.nextBoolean()){
+                int value = random.nextInt(5);
+                map.put(key, value);
+                if(value == 0)
+                    expected.remove(key);
+                else
+                    expected.put(key, value);
+            }else{
+                map.remove(key);
+                expected.remove(key);
+            }
+        }
+        assertEquals(expected.size(), map.size());
+        for(int key = -100; key < 100; key++)
+            assertEquals(expected.getOrDefault(key, 0), map.get(key));
+        int[] keys = map.keys();
+        int[] values = map.values();
+        for(int i = 0; i < keys.length; i++)
+            assertEquals(expected.get(keys[i]), values[i]);
+    }
+
+    @Test
+    void slots() {
+        IntIntMap map = new IntIntMap();
+        HashMap<Integer, Integer> expected = new HashMap<>();
+        for(int key = -40; key <= 40; key += 3){
+            map.put(key, key * 2 + 1);
+            expected.put(key, key * 2 + 1);
+        }
+        map.put(0, 7);
+        expected.put(0, 7);
+        HashMap<Integer, Integer> found = new HashMap<>();
+        for(int slot = 0; slot < map.capacity(); slot++){
+            if(map.isUsed(slot))
+                assertNull(found.put(map.keyAt(slot), map.valueAt(slot)));
+        }
+        assertEquals(expected, found);
+    }
+}
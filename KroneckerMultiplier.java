@@ -0,0 +1,195 @@
+import java.math.BigInteger;
+
+/**
+ * Multiplies coefficient arrays with exact BigInteger coefficients by Kronecker substitution. Every coefficient is
+ * given a slot of the same number of bytes in one large integer, which is the value of the polynomial at 2^(8 * slot).
+ * The two integers are multiplied with BigInteger.multiply(), which uses the Karatsuba and Toom-Cook methods for large
+ * numbers, and the coefficients of the product are read back from the slots of the result.
+ *
+ * The slots are wide enough for every coefficient of the product, so no slot carries into the next one. Negative
+ * coefficients borrow from the slot above, which is undone while reading the slots from the lowest one up. A single
+ * large multiplication is much faster than multiplying every pair of coefficients as BigIntegers, and it is how the
+ * long and BigInteger coefficients of DensePolynomial are multiplied.
+ *
+ * The slots of both operands are as wide as the widest coefficient of the product. When the coefficients of one
+ * operand are much wider than the other's, the narrow operand would mostly be padding, so the wide operand is cut into
+ * limbs of about the width of the narrow coefficients instead. Every limb is multiplied with the narrow operand by its
+ * own substitution with small slots, and the products are added back at the position of their limb.
+ */
+final class KroneckerMultiplier {
+
+    /**
+     * The wide operand is cut into limbs when its coefficients are at least this many times as wide as the slots the
+     * narrow operand needs on its own. Below that, the separate products cost more than padding the narrow operand.
+     */
+    static final int SPLIT_RATIO = 8;
+
+    /**
+     * Limbs are this many times as wide as the slots the narrow operand needs. Fewer and larger products spend less
+     * time reading the slots back, which measured faster than limbs of the narrow width.
+     */
+    private static final int LIMB_SCALE = 4;
+
+    private KroneckerMultiplier(){
+    }
+
+    /**
+     * Multiplies the coefficients of a with the coefficients of b.
+     *
+     * @param a coefficients of the first polynomial from the lowest exponent to the highest, at least one
+     * @param b coefficients of the second polynomial, at least one
+     * @return a new array of length a.length + b.length - 1 holding the exact coefficients of the product
+     */
+    static BigInteger[] multiply(BigInteger[] a, BigInteger[] b){
+        int length = a.length + b.length - 1;
+        int aBits = bitLength(a);
+        int bBits = a == b ? aBits : bitLength(b);
+        int lengthBits = 32 - Integer.numberOfLeadingZeros(Math.min(a.length, b.length));
+        // The bits a coefficient of the narrow operand and the length add to a product, plus a sign bit
+        int narrowBytes = (Math.min(aBits, bBits) + lengthBits + 1 + 7) / 8;
+        if(Math.max(aBits, bBits) >= SPLIT_RATIO * 8 * narrowBytes)
+            return aBits > bBits ? multiplySplit(a, aBits, b, narrowBytes, length)
+                    : multiplySplit(b, bBits, a, narrowBytes, length);
+        // The product has coefficients below min(a.length, b.length) * 2^bits(a) * 2^bits(b), plus a sign bit
+        int bits = aBits + bBits + lengthBits + 1;
+        int slot = (bits + 7) / 8;
+        BigInteger x = pack(a, slot);
+        // BigInteger.multiply() squares a number multiplied with itself, which takes about half the work
+        BigInteger product = a == b ? x.multiply(x) : x.multiply(pack(b, slot));
+        return unpack(product, slot, length);
+    }
+
+    /**
+     * Multiplies by cutting every coefficient of wide into limbs of limbBytes bytes. Limb j of every coefficient of
+     * wide, with the sign of the coefficient, makes up a polynomial that is multiplied with narrow in slots of
+     * limbBytes + narrowBytes bytes, which are wide enough for its product. Coefficient i of that product counts
+     * 2^(8 * limbBytes * j) times in coefficient i of the whole product.
+     *
+     * The products of two neighbouring limbs overlap, so the even and the odd limbs are gathered separately, each into
+     * slots of 2 * limbBytes bytes per coefficient of the product that don't overlap. The two are added at the end.
+     */
+    private static BigInteger[] multiplySplit(BigInteger[] wide, int wideBits, BigInteger[] narrow, int narrowBytes,
+                                              int length){
+        int limbBytes = LIMB_SCALE * narrowBytes;
+        int slot = limbBytes + narrowBytes;
+        int limbs = (wideBits + 8 * limbBytes - 1) / (8 * limbBytes);
+        int width = (limbs + 1) / 2 * 2 * limbBytes; // Bytes for the even or the odd limbs of a coefficient
+        byte[][] magnitudes = new byte[wide.length][];
+        for(int i = 0; i < wide.length; i++)
+            magnitudes[i] = wide[i].abs().toByteArray();
+        BigInteger y = pack(narrow, slot);
+        byte[][][] positive = new byte[2][length][width];
+        byte[][][] negative = new byte[2][length][width];
+        for(int j = 0; j < limbs; j++){
+            BigInteger x = packLimb(wide, magnitudes, j, limbBytes, slot);
+            if(x.signum() == 0)
+                continue;
+            BigInteger[] product = unpack(x.multiply(y), slot, length);
+            int end = width - j / 2 * 2 * limbBytes; // Limb j goes just before end in the even or the odd bytes
+            for(int i = 0; i < length; i++){
+                int sign = product[i].signum();
+                if(sign == 0)
+                    continue;
+                byte[] bytes = product[i].abs().toByteArray();
+                int start = bytes[0] == 0 ? 1 : 0;
+                System.arraycopy(bytes, start, (sign > 0 ? positive : negative)[j % 2][i],
+                        end - (bytes.length - start), bytes.length - start);
+            }
+        }
+        BigInteger[] result = new BigInteger[length];
+        for(int i = 0; i < length; i++){
+            BigInteger even = new BigInteger(1, positive[0][i]).subtract(new BigInteger(1, negative[0][i]));
+            BigInteger odd = new BigInteger(1, positive[1][i]).subtract(new BigInteger(1, negative[1][i]));
+            result[i] = even.add(odd.shiftLeft(8 * limbBytes));
+        }
+        return result;
+    }
+
+    /**
+     * Puts limb j of every coefficient into its slot in the same way as pack().
+     *
+     * @param magnitudes the big endian bytes of the absolute values of arr
+     */
+    private static BigInteger packLimb(BigInteger[] arr, byte[][] magnitudes, int j, int limbBytes, int slot){
+        byte[] positive = new byte[arr.length * slot];
+        byte[] negative = new byte[arr.length * slot];
+        boolean hasNegative = false;
+        for(int i = 0; i < arr.length; i++){
+            byte[] bytes = magnitudes[i];
+            int last = bytes.length - j * limbBytes; // Limb j is the bytes just before last
+            int first = Math.max(0, last - limbBytes);
+            if(last <= 0)
+                continue;
+            int sign = arr[i].signum();
+            int end = positive.length - i * slot;
+            System.arraycopy(bytes, first, sign > 0 ? positive : negative, end - (last - first), last - first);
+            hasNegative |= sign < 0;
+        }
+        BigInteger value = new BigInteger(1, positive);
+        return hasNegative ? value.subtract(new BigInteger(1, negative)) : value;
+    }
+
+    /**
+     * @return the number of bits of the largest absolute value in the array
+     */
+    private static int bitLength(BigInteger[] arr){
+        int bits = 0;
+        for(BigInteger x: arr)
+            bits = Math.max(bits, x.abs().bitLength());
+        return bits;
+    }
+
+    /**
+     * Puts every coefficient into its slot. The positive and the negative coefficients are packed separately as
+     * magnitudes and subtracted at the end.
+     */
+    private static BigInteger pack(BigInteger[] arr, int slot){
+        byte[] positive = new byte[arr.length * slot];
+        byte[] negative = new byte[arr.length * slot];
+        boolean hasNegative = false;
+        for(int i = 0; i < arr.length; i++){
+            int sign = arr[i].signum();
+            if(sign == 0)
+                continue;
+            byte[] bytes = arr[i].abs().toByteArray(); // Big endian, may start with a 0 byte for the sign
+            int start = bytes[0] == 0 ? 1 : 0;
+            int end = positive.length - i * slot; // Slot i holds the bytes just before end
+            System.arraycopy(bytes, start, sign > 0 ? positive : negative, end - (bytes.length - start),
+                    bytes.length - start);
+            hasNegative |= sign < 0;
+        }
+        BigInteger value = new BigInteger(1, positive);
+        return hasNegative ? value.subtract(new BigInteger(1, negative)) : value;
+    }
+
+    /**
+     * Reads the coefficients back from the slots. A slot whose value is at least half its range stands for a negative
+     * coefficient that borrowed one from the slot above.
+     */
+    private static BigInteger[] unpack(BigInteger value, int slot, int length){
+        byte[] bytes = value.toByteArray(); // Two's complement, the sign extends past the highest byte
+        byte fill = (byte) (value.signum() < 0 ? -1 : 0);
+        BigInteger[] result = new BigInteger[length];
+        BigInteger range = BigInteger.ONE.shiftLeft(8 * slot);
+        byte[] digit = new byte[slot];
+        int carry = 0;
+        for(int i = 0; i < length; i++){
+            int end = bytes.length - i * slot;
+            for(int k = 0; k < slot; k++){
+                int position = end - slot + k;
+                digit[k] = position >= 0 ? bytes[position] : fill;
+            }
+            BigInteger d = new BigInteger(1, digit);
+            if(carry != 0)
+                d = d.add(BigInteger.ONE);
+            if(d.bitLength() >= 8 * slot){ // At least half the range of the slot
+                result[i] = d.subtract(range);
+                carry = 1;
+            }else{
+                result[i] = d;
+                carry = 0;
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,693 @@
+import java.math.BigInteger;
+import java.util.Arrays;
+
+/**
+ * A polynomial with coefficients modulo a prime, stored as an array of residues in [0, p) where the position of each
+ * residue is its exponent. The modulus is an odd prime below 2^30, the same range as the primes of NttMultiplier, so
+ * coefficients never overflow and every non-zero coefficient has an inverse, which makes the division exact.
+ *
+ * The products in the hot loops use the Montgomery multiplication of NttMultiplier with R = 2^32, which replaces the
+ * division by p with two multiplications and a shift. One operand is moved into Montgomery form (multiplied by R) once
+ * per row, so montgomery() gives the normal form of each product right away. Short products use the schoolbook method
+ * this way and longer ones the transform of NttMultiplier, which takes a single convolution when p is one of its
+ * primes. Long divisions invert the reversed divisor with Newton's iteration in the same way as DenseDivision.
+ *
+ * The operations take any polynomial of the package as their parameter and reduce its coefficients modulo p, but two
+ * ModularPolynomial objects must have the same modulus.
+ */
+public class ModularPolynomial implements Polynomial {
+    private String strPoly;
+    private final int modulus;
+    private final int pInv; // -1 / modulus modulo 2^32, used by NttMultiplier.montgomery()
+    private final long r2; // R^2 modulo the modulus, which moves a residue into Montgomery form
+    private int[] coefficients; // Residues in [0, modulus), trimmed so the last position is the degree, zero is {0}
+    private int hash; // Cached hash code, 0 until it is computed
+    private static final int NTT_THRESHOLD = 64; // Products where both operands are at least this long use the transform
+    private static final int HALF_GCD_THRESHOLD = 1024; // Divisors of at least this degree use halfGcd() in gcd()
+    private static final long R = 1L << 32; // Montgomery radix
+
+    /**
+     * Creates a ModularPolynomial from a polynomial written as a string with the same rules as DensePolynomial, with
+     * every coefficient reduced modulo the given prime.
+     *
+     * @param str Takes in a polynomial written as a string
+     * @param modulus an odd prime below 2^30
+     * @throws IllegalArgumentException when the class invariant doesn't hold true or modulus is not such a prime
+     */
+    public ModularPolynomial(String str, int modulus){
+        this(modulus);
+        strPoly = str;
+        PolynomialParser.parse(str, false, (exponent, coef) -> {
+            if(coefficients == null)
+                coefficients = new int[exponent+1];
+            coefficients[exponent] = Math.floorMod(coef, modulus);
+        });
+        coefficients = trim(coefficients == null ? new int[1] : coefficients);
+    }
+
+    /**
+     * Constructor used by of() and the operations of the class. The array holds residues in [0, modulus) and is
+     * trimmed without copying it unless it ends in zeros, so the caller must not modify it. The modulus isn't checked
+     * again, since testing it for primality would cost more than most operations.
+     *
+     * @param arr the residues, where the position of each residue is its exponent
+     * @param modulus a modulus that has already been checked
+     */
+    private ModularPolynomial(int[] arr, int modulus){
+        this.modulus = modulus;
+        pInv = NttMultiplier.montgomeryInverse(modulus);
+        r2 = R % modulus * (R % modulus) % modulus;
+        coefficients = trim(arr);
+    }
+
+    /**
+     * Checks the modulus and sets up the constants of the Montgomery multiplication.
+     */
+    private ModularPolynomial(int modulus){
+        checkModulus(modulus);
+        this.modulus = modulus;
+        pInv = NttMultiplier.montgomeryInverse(modulus);
+        r2 = R % modulus * (R % modulus) % modulus;
+    }
+
+    /**
+     * @throws IllegalArgumentException if modulus is not an odd prime below 2^30
+     */
+    private static void checkModulus(int modulus){
+        if(modulus < 3 || modulus >= 1 << 30 || (modulus & 1) == 0 || !BigInteger.valueOf(modulus).isProbablePrime(30))
+            throw new IllegalArgumentException("Modulus must be an odd prime below 2^30: " + modulus);
+    }
+
+    /**
+     * Reduces the coefficients of the given polynomial modulo the given prime. The parameter is returned when it
+     * already is a ModularPolynomial with that modulus.
+     *
+     * @param q a polynomial of one of the classes of the package
+     * @param modulus an odd prime below 2^30
+     * @return a ModularPolynomial whose coefficients are those of q modulo the prime
+     * @throws NullPointerException if q is null
+     * @throws IllegalArgumentException if q has a negative exponent, is a ModularPolynomial with another modulus or
+     * modulus is not an odd prime below 2^30
+     */
+    public static ModularPolynomial of(Polynomial q, int modulus){
+        if(q == null)
+            throw new NullPointerException();
+        if(q instanceof ModularPolynomial){
+            ModularPolynomial m = (ModularPolynomial) q;
+            if(m.modulus != modulus)
+                throw new IllegalArgumentException("Different moduli " + m.modulus + " and " + modulus);
+            return m;
+        }
+        checkModulus(modulus);
+        if(q instanceof DensePolynomial && ((DensePolynomial) q).coefficients() != null){
+            int[] arr = ((DensePolynomial) q).coefficients();
+            int[] residues = new int[arr.length];
+            for(int i = 0; i < arr.length; i++)
+                residues[i] = Math.floorMod(arr[i], modulus);
+            return new ModularPolynomial(residues, modulus);
+        }
+        WideTerms terms = WideTerms.of(q);
+        if(terms.exponents.length > 0 && terms.exponents[0] < 0)
+            throw new IllegalArgumentException();
+        int[] residues = new int[q.degree() + 1];
+        BigInteger p = BigInteger.valueOf(modulus);
+        for(int i = 0; i < terms.exponents.length; i++)
+            residues[terms.exponents[i]] = terms.coefficients[i].mod(p).intValue();
+        return new ModularPolynomial(residues, modulus);
+    }
+
+    /**
+     * @return the modulus of the coefficients
+     */
+    public int getModulus(){
+        return modulus;
+    }
+
+    /**
+     * @return a copy of the residues, where the position of each residue is its exponent
+     */
+    public int[] getIntPoly(){
+        return coefficients.clone();
+    }
+
+    /**
+     * @return the residues without copying them, which the caller must not modify
+     */
+    int[] coefficients(){
+        return coefficients;
+    }
+
+    /**
+     * Cuts off the zeros at the end of the array, keeping at least one position.
+     */
+    private static int[] trim(int[] arr){
+        int length = arr.length;
+        while(length > 1 && arr[length-1] == 0)
+            length--;
+        if(length == 0)
+            return new int[1];
+        return length < arr.length ? Arrays.copyOf(arr, length) : arr;
+    }
+
+    /**
+     * @return x * R modulo the modulus, the Montgomery form of the residue x
+     */
+    private long toMontgomery(int x){
+        return NttMultiplier.montgomery(x, r2, modulus, pInv);
+    }
+
+    /**
+     * @return the inverse of the non-zero residue x, which is x^(p-2) by Fermat's little theorem
+     */
+    private int inverse(int x){
+        return (int) NttMultiplier.power(x, modulus - 2, modulus);
+    }
+
+    /**
+     * @return the same polynomial reduced with the modulus of the class
+     * @throws IllegalArgumentException if q is a ModularPolynomial with another modulus or has a negative exponent
+     */
+    private ModularPolynomial reduce(Polynomial q){
+        return of(q, modulus);
+    }
+
+    /**
+     * @return the largest exponent with a non-zero coefficient.  If all terms have zero exponents, it returns 0.
+     */
+    @Override
+    public int degree() {
+        return coefficients.length - 1;
+    }
+
+    /**
+     * @param d the exponent whose coefficient is returned.
+     * @return the residue in [0, modulus) of the term whose exponent is d, or 0 if there is no such term
+     */
+    @Override
+    public int getCoefficient(int d) {
+        if(d > coefficients.length-1 || d < 0)
+            return 0;
+        return coefficients[d];
+    }
+
+    /**
+     * @param d the exponent whose coefficient is returned.
+     * @return the residue of the term whose exponent is d as a BigInteger
+     */
+    @Override
+    public BigInteger getBigCoefficient(int d) {
+        return BigInteger.valueOf(getCoefficient(d));
+    }
+
+    /**
+     * @return true if the polynomial represents the zero constant otherwise false.
+     */
+    @Override
+    public boolean isZero() {
+        return coefficients.length == 1 && coefficients[0] == 0;
+    }
+
+    /**
+     * Adds the residues of the parameter, reduced modulo p first when it is not a ModularPolynomial. Both residues are
+     * below p so their sum is reduced by subtracting p once.
+     *
+     * @param q the non-null polynomial to add to <code>this</code>
+     * @return <code>this + </code>q modulo p
+     * @throws NullPointerException if q is null
+     * @throws IllegalArgumentException if q has another modulus or a negative exponent
+     */
+    @Override
+    public Polynomial add(Polynomial q) {
+        int[] a = coefficients;
+        int[] b = reduce(q).coefficients;
+        int[] newPoly = Arrays.copyOf(a, Math.max(a.length, b.length));
+        for(int i = 0; i < b.length; i++){
+            int sum = newPoly[i] + b[i];
+            newPoly[i] = sum >= modulus ? sum - modulus : sum;
+        }
+        return new ModularPolynomial(newPoly, modulus);
+    }
+
+    /**
+     * Subtracts the residues of the parameter, adding p back once when the difference is negative.
+     *
+     * @param q the non-null polynomial to subtract from <code>this</code>
+     * @return <code>this - </code>q modulo p
+     * @throws NullPointerException if q is null
+     * @throws IllegalArgumentException if q has another modulus or a negative exponent
+     */
+    @Override
+    public Polynomial subtract(Polynomial q) {
+        int[] a = coefficients;
+        int[] b = reduce(q).coefficients;
+        int[] newPoly = Arrays.copyOf(a, Math.max(a.length, b.length));
+        for(int i = 0; i < b.length; i++){
+            int diff = newPoly[i] - b[i];
+            newPoly[i] = diff < 0 ? diff + modulus : diff;
+        }
+        return new ModularPolynomial(newPoly, modulus);
+    }
+
+    /**
+     * @return -this modulo p, where every non-zero residue c becomes p - c
+     */
+    @Override
+    public Polynomial minus() {
+        int[] newPoly = new int[coefficients.length];
+        for(int i = 0; i < newPoly.length; i++)
+            newPoly[i] = coefficients[i] == 0 ? 0 : modulus - coefficients[i];
+        return new ModularPolynomial(newPoly, modulus);
+    }
+
+    /**
+     * Multiplies the residues with the schoolbook method and Montgomery multiplication when either operand is shorter
+     * than NTT_THRESHOLD, and with the transform of NttMultiplier otherwise.
+     *
+     * @param q the polynomial to multiply with <code>this</code>
+     * @return <code>this * </code>q modulo p
+     * @throws NullPointerException if q is null
+     * @throws IllegalArgumentException if q has another modulus or a negative exponent
+     */
+    @Override
+    public Polynomial multiply(Polynomial q) {
+        return new ModularPolynomial(product(coefficients, reduce(q).coefficients), modulus);
+    }
+
+    /**
+     * Multiplies the polynomial with itself. The schoolbook method only computes each product of two different
+     * residues once and doubles it, and the transform is only taken of one operand.
+     *
+     * @return <code>this * this</code> modulo p
+     */
+    @Override
+    public Polynomial square() {
+        return new ModularPolynomial(product(coefficients, coefficients), modulus);
+    }
+
+    /**
+     * Raises the polynomial to the given power with Polynomials.pow().
+     *
+     * @param n the power, at least 0
+     * @return <code>this</code> to the power of n modulo p, which is 1 when n is 0
+     * @throws IllegalArgumentException if n is negative
+     */
+    @Override
+    public Polynomial pow(int n) {
+        if(n == 0)
+            return new ModularPolynomial(new int[]{1}, modulus);
+        return Polynomials.pow(this, n);
+    }
+
+    /**
+     * Multiplies two arrays of residues, see multiply(). Products longer than NttMultiplier.MAX_LENGTH are split into
+     * blocks that the transform can take and the products of the blocks are added up.
+     */
+    private int[] product(int[] a, int[] b){
+        if(Math.min(a.length, b.length) < NTT_THRESHOLD)
+            return a == b ? schoolbookSquare(a) : schoolbook(a, b);
+        if(a.length + b.length - 1 <= NttMultiplier.MAX_LENGTH)
+            return NttMultiplier.multiplyMod(a, a.length, b, b.length, modulus);
+        int block = NttMultiplier.MAX_LENGTH / 2;
+        int[] r = new int[a.length + b.length - 1];
+        for(int i = 0; i < a.length; i += block){
+            int[] x = Arrays.copyOfRange(a, i, Math.min(a.length, i + block));
+            for(int j = 0; j < b.length; j += block){
+                int[] part = product(x, Arrays.copyOfRange(b, j, Math.min(b.length, j + block)));
+                for(int k = 0; k < part.length; k++){
+                    int sum = r[i + j + k] + part[k];
+                    r[i + j + k] = sum >= modulus ? sum - modulus : sum;
+                }
+            }
+        }
+        return r;
+    }
+
+    /**
+     * Multiplies with the schoolbook method. Every coefficient of a is moved into Montgomery form once, so each
+     * product with a coefficient of b is a single montgomery() call that gives its normal form.
+     */
+    private int[] schoolbook(int[] a, int[] b){
+        int[] r = new int[a.length + b.length - 1];
+        for(int i = 0; i < a.length; i++){
+            if(a[i] == 0)
+                continue;
+            long m = toMontgomery(a[i]);
+            for(int j = 0; j < b.length; j++){
+                int sum = r[i + j] + NttMultiplier.montgomery(m, b[j], modulus, pInv);
+                r[i + j] = sum >= modulus ? sum - modulus : sum;
+            }
+        }
+        return r;
+    }
+
+    /**
+     * Squares with the schoolbook method, computing the product of two different coefficients once with the doubled
+     * coefficient in Montgomery form.
+     */
+    private int[] schoolbookSquare(int[] a){
+        int[] r = new int[2 * a.length - 1];
+        for(int i = 0; i < a.length; i++){
+            if(a[i] == 0)
+                continue;
+            long m = toMontgomery(a[i]);
+            int sum = r[2 * i] + NttMultiplier.montgomery(m, a[i], modulus, pInv);
+            r[2 * i] = sum >= modulus ? sum - modulus : sum;
+            int twice = 2 * a[i];
+            long m2 = toMontgomery(twice >= modulus ? twice - modulus : twice);
+            for(int j = i + 1; j < a.length; j++){
+                sum = r[i + j] + NttMultiplier.montgomery(m2, a[j], modulus, pInv);
+                r[i + j] = sum >= modulus ? sum - modulus : sum;
+            }
+        }
+        return r;
+    }
+
+    /**
+     * Divides the polynomial by the parameter. Every non-zero residue has an inverse modulo p, so the quotient always
+     * exists. Short quotients or divisors are found with long division. Otherwise the reversed divisor is inverted as
+     * a power series with Newton's iteration and the quotient is a single multiplication by that inverse, in the same
+     * way as DenseDivision.
+     *
+     * @param q the non-zero polynomial to divide <code>this</code> by
+     * @return an array holding the quotient followed by the remainder
+     * @throws NullPointerException if q is null
+     * @throws ArithmeticException if q is zero modulo p
+     * @throws IllegalArgumentException if q has another modulus or a negative exponent
+     */
+    @Override
+    public Polynomial[] divideAndRemainder(Polynomial q) {
+        int[] b = reduce(q).coefficients;
+        if(b.length == 1 && b[0] == 0)
+            throw new ArithmeticException("Division by the zero polynomial");
+        int[] a = coefficients;
+        int k = a.length - b.length + 1; // Number of coefficients of the quotient
+        if(k <= 0 || isZero())
+            return new Polynomial[]{new ModularPolynomial(new int[1], modulus), this};
+        if(Math.min(k, b.length) <= DenseDivision.NEWTON_THRESHOLD)
+            return longDivision(a, b);
+        int[] revA = new int[k]; // The highest k coefficients of a, reversed
+        for(int i = 0; i < k; i++)
+            revA[i] = a[a.length - 1 - i];
+        int[] revB = new int[Math.min(b.length, k)];
+        for(int i = 0; i < revB.length; i++)
+            revB[i] = b[b.length - 1 - i];
+        int[] revQ = product(revA, inverseSeries(revB, k));
+        int[] quotient = new int[k];
+        for(int i = 0; i < k; i++)
+            quotient[i] = revQ[k - 1 - i];
+        int[] qb = product(quotient, b); // Only the lowest b.length - 1 coefficients are left after subtracting
+        int[] remainder = new int[b.length - 1];
+        for(int i = 0; i < remainder.length; i++){
+            int diff = a[i] - qb[i];
+            remainder[i] = diff < 0 ? diff + modulus : diff;
+        }
+        return new Polynomial[]{new ModularPolynomial(quotient, modulus), new ModularPolynomial(remainder, modulus)};
+    }
+
+    /**
+     * Divides with the schoolbook method, which takes the leading term of the remainder away in every step.
+     */
+    private Polynomial[] longDivision(int[] a, int[] b){
+        int[] rem = a.clone();
+        int[] q = new int[a.length - b.length + 1];
+        long lead = toMontgomery(inverse(b[b.length - 1]));
+        int shift = b.length - 1;
+        for(int i = a.length - 1; i >= shift; i--){
+            if(rem[i] == 0)
+                continue;
+            int c = NttMultiplier.montgomery(rem[i], lead, modulus, pInv);
+            q[i - shift] = c;
+            long m = toMontgomery(c);
+            for(int j = 0; j < b.length; j++){
+                int diff = rem[i - shift + j] - NttMultiplier.montgomery(m, b[j], modulus, pInv);
+                rem[i - shift + j] = diff < 0 ? diff + modulus : diff;
+            }
+        }
+        int[] r = Arrays.copyOf(rem, Math.max(1, shift));
+        return new Polynomial[]{new ModularPolynomial(q, modulus), new ModularPolynomial(r, modulus)};
+    }
+
+    /**
+     * Inverts the series h as a power series, giving its first k coefficients. Every step of Newton's iteration
+     * g = g - g * (h * g - 1) doubles the number of correct coefficients. When g has len correct coefficients h * g
+     * starts with 1 followed by len - 1 zeros, so only the coefficients of h * g from len up are needed.
+     *
+     * @param h the series, whose constant term is not 0
+     * @param k number of coefficients of the inverse to find
+     */
+    private int[] inverseSeries(int[] h, int k){
+        int[] g = {inverse(h[0])};
+        int len = 1;
+        while(len < k){
+            int newLen = Math.min(2 * len, k);
+            int[] hg = product(Arrays.copyOf(h, Math.min(h.length, newLen)), g);
+            int[] e = Arrays.copyOfRange(hg, len, newLen); // Coefficients len .. newLen of h * g, padded with zeros
+            int[] correction = product(Arrays.copyOf(g, Math.min(len, e.length)), e);
+            g = Arrays.copyOf(g, newLen);
+            for(int i = 0; i < e.length; i++)
+                g[len + i] = correction[i] == 0 ? 0 : modulus - correction[i];
+            len = newLen;
+        }
+        return g;
+    }
+
+    /**
+     * @param q the non-zero polynomial to divide <code>this</code> by
+     * @return <code>this mod </code>q
+     * @throws NullPointerException if q is null
+     * @throws ArithmeticException if q is zero modulo p
+     * @throws IllegalArgumentException if q has another modulus or a negative exponent
+     */
+    @Override
+    public Polynomial mod(Polynomial q) {
+        return divideAndRemainder(q)[1];
+    }
+
+    /**
+     * Finds the greatest common divisor with the Euclidean algorithm. The coefficients are in a field, so the result
+     * is made monic. Once the divisor has a degree of at least HALF_GCD_THRESHOLD, halfGcd() jumps over the steps that
+     * halve the degree at once, so a gcd of degree n polynomials takes O(log n) times the work of a multiplication
+     * rather than n steps of long division.
+     *
+     * @param q the non-null polynomial
+     * @return the monic gcd(<code>this</code>, q) modulo p, which is 0 when both are 0
+     * @throws NullPointerException if q is null
+     * @throws IllegalArgumentException if q has another modulus or a negative exponent
+     */
+    @Override
+    public Polynomial gcd(Polynomial q) {
+        ModularPolynomial a = this;
+        ModularPolynomial b = reduce(q);
+        while(!b.isZero()){
+            if(b.degree() >= HALF_GCD_THRESHOLD && a.degree() > b.degree()){
+                ModularPolynomial[] ab = apply(halfGcd(a, b), a, b);
+                a = ab[0];
+                b = ab[1];
+                if(b.isZero())
+                    break;
+            }
+            ModularPolynomial r = (ModularPolynomial) a.mod(b);
+            a = b;
+            b = r;
+        }
+        if(a.isZero())
+            return a;
+        long lead = toMontgomery(inverse(a.coefficients[a.coefficients.length - 1]));
+        int[] monic = new int[a.coefficients.length];
+        for(int i = 0; i < monic.length; i++)
+            monic[i] = NttMultiplier.montgomery(a.coefficients[i], lead, modulus, pInv);
+        return new ModularPolynomial(monic, modulus);
+    }
+
+    /**
+     * Finds the matrix of the Euclidean steps from a and b to the first two consecutive remainders c and d with
+     * deg c &gt;= m &gt; deg d, where m = ceil(deg a / 2). The quotients of those steps only depend on the highest
+     * coefficients of a and b, so the first half of the steps is found from a and b without their lowest m
+     * coefficients, and the second half from the remainders reached after it without their lowest coefficients in the
+     * same way. Each half is a problem of half the degree, and short problems take the steps one by one.
+     *
+     * @param a a polynomial whose degree is higher than the degree of b
+     * @return the matrix {m00, m01, m10, m11} with c = m00 * a + m01 * b and d = m10 * a + m11 * b
+     */
+    private ModularPolynomial[] halfGcd(ModularPolynomial a, ModularPolynomial b){
+        int m = (a.degree() + 1) / 2;
+        ModularPolynomial one = new ModularPolynomial(new int[]{1}, modulus);
+        ModularPolynomial zero = new ModularPolynomial(new int[1], modulus);
+        ModularPolynomial[] r = {one, zero, zero, one};
+        if(b.isZero() || b.degree() < m)
+            return r;
+        if(a.degree() < HALF_GCD_THRESHOLD){
+            while(!b.isZero() && b.degree() >= m){
+                Polynomial[] qr = a.divideAndRemainder(b);
+                r = step((ModularPolynomial) qr[0], r);
+                a = b;
+                b = (ModularPolynomial) qr[1];
+            }
+            return r;
+        }
+        r = halfGcd(a.shiftDown(m), b.shiftDown(m));
+        ModularPolynomial[] cd = apply(r, a, b);
+        ModularPolynomial c = cd[0], d = cd[1];
+        if(d.isZero() || d.degree() < m)
+            return r;
+        Polynomial[] qr = c.divideAndRemainder(d);
+        ModularPolynomial e = (ModularPolynomial) qr[1];
+        r = step((ModularPolynomial) qr[0], r);
+        if(e.isZero() || e.degree() < m)
+            return r;
+        int k = 2 * m - d.degree();
+        ModularPolynomial[] s = halfGcd(d.shiftDown(k), e.shiftDown(k));
+        return new ModularPolynomial[]{
+                (ModularPolynomial) s[0].multiply(r[0]).add(s[1].multiply(r[2])),
+                (ModularPolynomial) s[0].multiply(r[1]).add(s[1].multiply(r[3])),
+                (ModularPolynomial) s[2].multiply(r[0]).add(s[3].multiply(r[2])),
+                (ModularPolynomial) s[2].multiply(r[1]).add(s[3].multiply(r[3]))};
+    }
+
+    /**
+     * @return the matrix r followed by one Euclidean step with the quotient q, {{0, 1}, {1, -q}} * r
+     */
+    private static ModularPolynomial[] step(ModularPolynomial q, ModularPolynomial[] r){
+        return new ModularPolynomial[]{r[2], r[3], (ModularPolynomial) r[0].subtract(q.multiply(r[2])),
+                (ModularPolynomial) r[1].subtract(q.multiply(r[3]))};
+    }
+
+    /**
+     * @return the matrix m applied to the column of a and b
+     */
+    private static ModularPolynomial[] apply(ModularPolynomial[] m, ModularPolynomial a, ModularPolynomial b){
+        return new ModularPolynomial[]{(ModularPolynomial) m[0].multiply(a).add(m[1].multiply(b)),
+                (ModularPolynomial) m[2].multiply(a).add(m[3].multiply(b))};
+    }
+
+    /**
+     * @return the polynomial divided by x^k with the lowest k coefficients left out
+     */
+    private ModularPolynomial shiftDown(int k){
+        if(k >= coefficients.length)
+            return new ModularPolynomial(new int[1], modulus);
+        return new ModularPolynomial(Arrays.copyOfRange(coefficients, k, coefficients.length), modulus);
+    }
+
+    /**
+     * Evaluates the polynomial modulo p with Horner's method, with x in Montgomery form so every step is a single
+     * montgomery() call and an addition.
+     *
+     * @param x the point at which the polynomial is evaluated
+     * @return the value of the polynomial at x modulo p, in [0, p)
+     */
+    @Override
+    public long evaluate(long x) {
+        long m = toMontgomery((int) Math.floorMod(x, (long) modulus));
+        int result = 0;
+        for(int i = coefficients.length - 1; i >= 0; i--){
+            int sum = NttMultiplier.montgomery(result, m, modulus, pInv) + coefficients[i];
+            result = sum >= modulus ? sum - modulus : sum;
+        }
+        return result;
+    }
+
+    /**
+     * Evaluates the polynomial whose coefficients are the residues, as integers, with Horner's method.
+     *
+     * @param x the point at which the polynomial is evaluated
+     * @return the value at x of the polynomial with the residues as its coefficients
+     */
+    @Override
+    public double evaluate(double x) {
+        double result = 0;
+        for(int i = coefficients.length - 1; i >= 0; i--)
+            result = result * x + coefficients[i];
+        return result;
+    }
+
+    /**
+     * Evaluates the polynomial at every point in the same way as evaluate(double).
+     *
+     * @param xs the points at which the polynomial is evaluated
+     * @param out receives the values, it must be at least as long as xs
+     * @throws NullPointerException if xs or out is null
+     * @throws IllegalArgumentException if out is shorter than xs
+     */
+    @Override
+    public void evaluate(double[] xs, double[] out) {
+        if(out.length < xs.length)
+            throw new IllegalArgumentException();
+        for(int i = 0; i < xs.length; i++)
+            out[i] = evaluate(xs[i]);
+    }
+
+    /**
+     * Evaluates the polynomial modulo p at every integer point in the same way as evaluate(long).
+     *
+     * @param points the points at which the polynomial is evaluated
+     * @return a new array holding the value at every point modulo p
+     * @throws NullPointerException if points is null
+     */
+    @Override
+    public int[] evaluate(int[] points) {
+        int[] values = new int[points.length];
+        for(int i = 0; i < points.length; i++)
+            values[i] = (int) evaluate((long) points[i]);
+        return values;
+    }
+
+    /**
+     * Checks the string that was passed in the constructor with the rules of DensePolynomial. Polynomials created by
+     * the operations of the class have no string and always hold the invariant.
+     *
+     * @return {@literal true} if the class invariant holds, and {@literal false} otherwise.
+     */
+    @Override
+    public boolean wellFormed() {
+        if(strPoly == null)
+            return true;
+        return PolynomialParser.errorIndex(strPoly, false) == -1;
+    }
+
+    /**
+     * Writes the residues with PolynomialFormatter in the same format as a DensePolynomial.
+     *
+     * @return the String representation of the polynomial in descending order
+     */
+    @Override
+    public String toString() {
+        return PolynomialFormatter.toString(this, coefficients.length);
+    }
+
+    /**
+     * A ModularPolynomial is only equal to another ModularPolynomial with the same modulus and the same residues.
+     *
+     * @param q any object
+     * @return True or false if the parameter object is equal to the current instance
+     */
+    @Override
+    public boolean equals(Object q){
+        if(this == q)
+            return true;
+        if(!(q instanceof ModularPolynomial))
+            return false;
+        ModularPolynomial m = (ModularPolynomial) q;
+        return modulus == m.modulus && hashCode() == m.hashCode() && Arrays.equals(coefficients, m.coefficients);
+    }
+
+    /**
+     * Adds up the hash codes of the non-zero terms in the same way as the other classes, mixed with the modulus. The
+     * hash code is computed once and kept since the polynomial never changes.
+     *
+     * @return the hash code of the polynomial
+     */
+    @Override
+    public int hashCode(){
+        int h = hash;
+        if(h == 0){
+            h = modulus;
+            for(int i = 0; i < coefficients.length; i++){
+                if(coefficients[i] != 0)
+                    h += Polynomials.termHash(i, coefficients[i]);
+            }
+            hash = h;
+        }
+        return h;
+    }
+}
@@ -0,0 +1,139 @@
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+class ModularPolynomialTest {
+    private static final int P = 1000000007;
+    private static final int NTT_PRIME = 998244353;
+
+    @Test
+    void construct() {
+        ModularPolynomial p = new ModularPolynomial("3x^2 - 5x + 1000000010", P);
+        assertEquals(3, p.getCoefficient(2));
+        assertEquals(P - 5, p.getCoefficient(1));
+        assertEquals(3, p.getCoefficient(0));
+        assertEquals(P, p.getModulus());
+        assertTrue(new ModularPolynomial("1000000007x^3", P).isZero());
+        assertEquals(p, ModularPolynomial.of(new DensePolynomial("3x^2 - 5x + 3"), P));
+        assertEquals(new ModularPolynomial("x^100 + 2", P), ModularPolynomial.of(new SparsePolynomial("x^100 + 2"), P));
+        assertThrows(IllegalArgumentException.class, () -> new ModularPolynomial("x", 15));
+        assertThrows(IllegalArgumentException.class, () -> new ModularPolynomial("x", 2));
+        assertThrows(IllegalArgumentException.class, () -> ModularPolynomial.of(new SparsePolynomial("x^-1"), P));
+        assertThrows(IllegalArgumentException.class, () -> p.add(new ModularPolynomial("x", NTT_PRIME)));
+        assertNotEquals(p, new DensePolynomial("3x^2 - 5x + 3"));
+        assertEquals("3x^2 + 1000000002x + 3", p.toString());
+    }
+
+    @Test
+    void arithmetic() {
+        ModularPolynomial p = new ModularPolynomial("1000000006x^2 + 4", P);
+        ModularPolynomial q = new ModularPolynomial("2x^2 + 1000000005", P);
+        assertEquals(new ModularPolynomial("x^2 + 2", P), p.add(q));
+        assertEquals(new ModularPolynomial("-3x^2 + 6", P), p.subtract(q));
+        assertEquals(new ModularPolynomial("x^2 - 4", P), p.minus());
+        assertTrue(p.add(p.minus()).isZero());
+        assertEquals(new ModularPolynomial("-2x^4 + 10x^2 - 8", P), p.multiply(q));
+        assertEquals(new ModularPolynomial("x^2 + 4", P), p.add(new DensePolynomial("2x^2")));
+    }
+
+    @Test
+    void multiplyLarge() {
+        Random random = new Random(21);
+        for(int p: new int[]{P, NTT_PRIME}){
+            for(int[] size: new int[][]{{10, 7}, {63, 200}, {300, 300}, {2000, 1500}}){
+                int[] a = randomResidues(random, size[0], p);
+                int[] b = randomResidues(random, size[1], p);
+                ModularPolynomial x = ModularPolynomial.of(new DensePolynomial(a), p);
+                ModularPolynomial y = ModularPolynomial.of(new DensePolynomial(b), p);
+                Polynomial product = x.multiply(y);
+                BigInteger mod = BigInteger.valueOf(p);
+                for(int k = 0; k < a.length + b.length - 1; k++){
+                    BigInteger expected = BigInteger.ZERO;
+                    for(int i = Math.max(0, k - b.length + 1); i <= Math.min(k, a.length - 1); i++)
+                        expected = expected.add(BigInteger.valueOf((long) a[i] * b[k - i]));
+                    assertEquals(expected.mod(mod).intValue(), product.getCoefficient(k));
+                }
+                assertEquals(x.multiply(ModularPolynomial.of(new DensePolynomial(a), p)), x.square());
+            }
+        }
+    }
+
+    @Test
+    void divideAndRemainder() {
+        Random random = new Random(22);
+        for(int[] size: new int[][]{{5, 5}, {40, 9}, {500, 200}, {3000, 1100}}){
+            ModularPolynomial a = ModularPolynomial.of(new DensePolynomial(randomResidues(random, size[0], P)), P);
+            ModularPolynomial b = ModularPolynomial.of(new DensePolynomial(randomResidues(random, size[1], P)), P);
+            Polynomial[] qr = a.divideAndRemainder(b);
+            assertEquals(a, qr[0].multiply(b).add(qr[1]));
+            assertTrue(qr[1].isZero() || qr[1].degree() < b.degree());
+            assertEquals(qr[1], a.mod(b));
+            Polynomial product = a.multiply(b);
+            assertEquals(a, product.divideAndRemainder(b)[0]);
+            assertTrue(product.mod(b).isZero());
+        }
+        ModularPolynomial p = new ModularPolynomial("x^2 + 1", P);
+        assertEquals(new ModularPolynomial("3", P), new ModularPolynomial("3", P).divideAndRemainder(p)[1]);
+        assertThrows(ArithmeticException.class, () -> p.divideAndRemainder(new ModularPolynomial("1000000007", P)));
+    }
+
+    @Test
+    void gcd() {
+        Random random = new Random(23);
+        ModularPolynomial g = ModularPolynomial.of(new DensePolynomial(randomResidues(random, 80, P)), P);
+        ModularPolynomial a = ModularPolynomial.of(new DensePolynomial(randomResidues(random, 150, P)), P);
+        ModularPolynomial b = ModularPolynomial.of(new DensePolynomial(randomResidues(random, 120, P)), P);
+        Polynomial gcd = g.multiply(a).gcd(g.multiply(b));
+        assertEquals(1, gcd.getCoefficient(gcd.degree()));
+        assertTrue(gcd.mod(g).isZero());
+        assertTrue(g.mod(gcd).isZero());
+        assertEquals(new ModularPolynomial("x + 1", P),
+                new ModularPolynomial("2x^2 - 2", P).gcd(new ModularPolynomial("3x^2 + 6x + 3", P)));
+    }
+
+    @Test
+    void gcdLarge() {
+        Random random = new Random(29);
+        ModularPolynomial g = ModularPolynomial.of(new DensePolynomial(randomResidues(random, 700, P)), P);
+        ModularPolynomial a = ModularPolynomial.of(new DensePolynomial(randomResidues(random, 3500, P)), P);
+        ModularPolynomial b = ModularPolynomial.of(new DensePolynomial(randomResidues(random, 3300, P)), P);
+        Polynomial gcd = g.multiply(a).gcd(g.multiply(b)); // Takes the half-GCD path
+        assertEquals(g.degree(), gcd.degree());
+        assertEquals(1, gcd.getCoefficient(gcd.degree()));
+        assertTrue(g.mod(gcd).isZero());
+        assertEquals(new ModularPolynomial("1", P), a.gcd(b));
+        Polynomial monic = a.multiply(new ModularPolynomial(Integer.toString(inverse(a.getCoefficient(a.degree()))), P));
+        assertEquals(monic, a.multiply(g).gcd(a));
+        assertEquals(monic, a.gcd(a.multiply(b)));
+    }
+
+    @Test
+    void powAndEvaluate() {
+        ModularPolynomial p = new ModularPolynomial("x + 1", P);
+        Polynomial high = p.pow(1000);
+        BigInteger binomial = BigInteger.ONE;
+        BigInteger mod = BigInteger.valueOf(P);
+        for(int k = 0; k <= 1000; k++){
+            assertEquals(binomial.mod(mod).intValue(), high.getCoefficient(k));
+            binomial = binomial.multiply(BigInteger.valueOf(1000 - k)).divide(BigInteger.valueOf(k + 1));
+        }
+        assertEquals(new ModularPolynomial("1", P), p.pow(0));
+        assertEquals(BigInteger.valueOf(2).modPow(BigInteger.valueOf(1000), mod).longValue(), high.evaluate(1L));
+        assertEquals(P - 1, new ModularPolynomial("x^3 + 7", P).evaluate(-2L));
+        assertArrayEquals(new int[]{7, 8, P - 1}, new ModularPolynomial("x^3 + 7", P).evaluate(new int[]{0, 1, -2}));
+    }
+
+    private static int inverse(int x){
+        return BigInteger.valueOf(x).modInverse(BigInteger.valueOf(P)).intValue();
+    }
+
+    private static int[] randomResidues(Random random, int size, int p){
+        int[] arr = new int[size];
+        for(int i = 0; i < size; i++)
+            arr[i] = random.nextInt(p);
+        arr[size - 1] = 1 + random.nextInt(p - 1);
+        return arr;
+    }
+}
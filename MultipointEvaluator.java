@@ -0,0 +1,157 @@
+/**
+ * Evaluates the coefficient array of a DensePolynomial at many integer points with a subproduct tree.
+ *
+ * The points are split into leaves of at most LEAF points. Every leaf holds the product of (x - a) over its points and
+ * every node above holds the product of its two children, so the root is the product over all the points. The value
+ * of a polynomial at a point a is its remainder divided by (x - a), and the remainder by a node can be found from the
+ * remainder by its parent. Going down the tree the polynomial is divided by every node, which halves the degree at
+ * every level, until the remainders at the leaves are short enough to be evaluated with Horner's method.
+ *
+ * With the fast multiplication of DenseMultiplier and the Newton division of DenseDivision, n points of a degree n
+ * polynomial take O(M(n) log n) time instead of the O(n^2) of Horner's method at every point. All the arithmetic is
+ * on ints, so the values are exact modulo 2^32.
+ */
+final class MultipointEvaluator {
+    /**
+     * Maximum number of points in a leaf of the tree. The remainders at the leaves have fewer coefficients than this
+     * and are evaluated with Horner's method.
+     */
+    static final int LEAF = 64;
+
+    private MultipointEvaluator(){
+    }
+
+    /**
+     * Evaluates the polynomial at every point.
+     *
+     * @param coefficients coefficients of the polynomial from the lowest exponent to the highest
+     * @param points the points at which the polynomial is evaluated
+     * @return a new array holding the value at every point modulo 2^32
+     */
+    static int[] evaluate(int[] coefficients, int[] points){
+        int[] values = new int[points.length];
+        if(points.length == 0)
+            return values;
+        int[][][] tree = build(points);
+        int[] root = tree[tree.length-1][0];
+        int n = root.length - 1;
+        int[] r = reduce(coefficients, coefficients.length, root);
+        // The series of r / root is rev(r) / rev(root) in 1/x, shifted by one since r has degree below n
+        int[] revR = new int[n];
+        int[] revRoot = new int[n + 1];
+        for(int i = 0; i < n; i++)
+            revR[i] = r[n - 1 - i];
+        for(int i = 0; i <= n; i++)
+            revRoot[i] = root[n - i];
+        int[][] series = {DenseMultiplier.multiply(revR, n, DenseDivision.inverse(revRoot, n + 1, n), n)};
+        for(int level = tree.length - 2; level >= 0; level--){
+            int[][] nodes = tree[level];
+            int[][] next = new int[nodes.length][];
+            for(int i = 0; i < nodes.length; i++){
+                int[] parent = series[i / 2];
+                int sibling = i ^ 1;
+                if(sibling < nodes.length)
+                    next[i] = middleProduct(parent, nodes[i].length - 1, nodes[sibling]);
+                else
+                    next[i] = parent; // The node was carried up without a sibling so its parent is itself
+            }
+            series = next;
+        }
+        for(int leaf = 0; leaf < series.length; leaf++){
+            int[] node = tree[0][leaf];
+            int[] u = series[leaf];
+            int d = node.length - 1;
+            int[] rem = new int[d]; // The remainder is the polynomial part of node times the series
+            for(int i = 0; i < d; i++){
+                int sum = 0;
+                for(int j = 1; i + j <= d; j++)
+                    sum += node[i + j] * u[j - 1];
+                rem[i] = sum;
+            }
+            int end = Math.min(points.length, (leaf + 1) * LEAF);
+            for(int i = leaf * LEAF; i < end; i++){
+                int x = points[i];
+                int value = 0;
+                for(int j = d - 1; j >= 0; j--)
+                    value = value * x + rem[j];
+                values[i] = value;
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Builds the subproduct tree. The first level holds the leaves and the last level holds only the root. A node
+     * without a sibling is carried up to the next level as it is.
+     *
+     * @return the levels of the tree, each holding the monic products of its nodes from the lowest exponent up
+     */
+    static int[][][] build(int[] points){
+        int leaves = (points.length + LEAF - 1) / LEAF;
+        int levels = 1;
+        for(int n = leaves; n > 1; n = (n + 1) / 2)
+            levels++;
+        int[][][] tree = new int[levels][][];
+        tree[0] = new int[leaves][];
+        for(int leaf = 0; leaf < leaves; leaf++){
+            int start = leaf * LEAF;
+            int end = Math.min(points.length, start + LEAF);
+            int[] product = new int[end - start + 1];
+            product[0] = 1;
+            for(int i = start; i < end; i++){ // Multiplies the product by (x - a)
+                int a = points[i];
+                for(int j = i - start + 1; j > 0; j--)
+                    product[j] = product[j-1] - a * product[j];
+                product[0] = -a * product[0];
+            }
+            tree[0][leaf] = product;
+        }
+        for(int level = 1; level < levels; level++){
+            int[][] below = tree[level-1];
+            int[][] nodes = new int[(below.length + 1) / 2][];
+            for(int i = 0; i < nodes.length; i++){
+                int[] left = below[2*i];
+                if(2 * i + 1 < below.length){
+                    int[] right = below[2*i+1];
+                    nodes[i] = DenseMultiplier.multiply(left, left.length, right, right.length);
+                }else
+                    nodes[i] = left;
+            }
+            tree[level] = nodes;
+        }
+        return tree;
+    }
+
+    /**
+     * Finds the first length coefficients of the series of a child from the series of its parent. Dividing by the
+     * child is the same as dividing by the parent and multiplying by the sibling, and only the middle of that product
+     * is needed. Coefficient j of the result is the sum of sibling[i] * parent[j + i], which is a coefficient of the
+     * product of the parent with the reversed sibling.
+     *
+     * @param parent the series of the parent
+     * @param length the degree of the child
+     * @param sibling the polynomial of the sibling
+     * @return the series of the child
+     */
+    private static int[] middleProduct(int[] parent, int length, int[] sibling){
+        int d = sibling.length - 1;
+        int[] reversed = new int[d + 1];
+        for(int i = 0; i <= d; i++)
+            reversed[i] = sibling[d - i];
+        // The wrapped coefficients of a cyclic product the size of the parent only reach the first d coefficients
+        int size = NttMultiplier.transformSize(parent.length);
+        int[] product = DenseMultiplier.multiplyCyclic(parent, parent.length, reversed, d + 1, size);
+        int[] result = new int[length];
+        System.arraycopy(product, d, result, 0, length);
+        return result;
+    }
+
+    /**
+     * Finds the remainder of the first aLen coefficients of a divided by the monic node.
+     */
+    private static int[] reduce(int[] a, int aLen, int[] node){
+        while(aLen > 1 && a[aLen-1] == 0)
+            aLen--;
+        return DenseDivision.remainder(a, aLen, node, node.length);
+    }
+}
@@ -0,0 +1,48 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MultipointEvaluatorTest {
+
+    @Test
+    void evaluate() {
+        Random random = new Random(11);
+        int[][] sizes = {{1, 1}, {10, 3}, {65, 200}, {3000, 2500}, {2500, 5000}, {6000, 1500}};
+        for(int[] size: sizes){
+            int[] coefficients = new int[size[0]];
+            for(int i = 0; i < coefficients.length; i++)
+                coefficients[i] = random.nextInt();
+            coefficients[coefficients.length - 1] |= 1;
+            int[] points = new int[size[1]];
+            for(int i = 0; i < points.length; i++)
+                points[i] = i % 7 == 0 ? i : random.nextInt();
+            int[] values = MultipointEvaluator.evaluate(coefficients, points);
+            for(int i = 0; i < points.length; i++){
+                int expected = 0;
+                for(int j = coefficients.length - 1; j >= 0; j--)
+                    expected = expected * points[i] + coefficients[j];
+                assertEquals(expected, values[i]);
+            }
+        }
+        assertEquals(0, MultipointEvaluator.evaluate(new int[]{5}, new int[0]).length);
+    }
+
+    @Test
+    void remainder() {
+        Random random = new Random(12);
+        int[] a = new int[3000];
+        int[] b = new int[1200];
+        for(int i = 0; i < a.length; i++)
+            a[i] = random.nextInt();
+        for(int i = 0; i < b.length; i++)
+            b[i] = random.nextInt();
+        b[b.length - 1] = 3; // Odd leading coefficients are invertible modulo 2^32
+        int[] q = DenseDivision.quotient(a, a.length, b, b.length);
+        int[] r = DenseDivision.remainder(a, a.length, b, b.length);
+        int[] qb = DenseMultiplier.multiply(q, q.length, b, b.length);
+        for(int i = 0; i < a.length; i++)
+            assertEquals(a[i], qb[i] + (i < r.length ? r[i] : 0));
+    }
+}
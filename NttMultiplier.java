@@ -0,0 +1,335 @@
+import java.math.BigInteger;
+import java.util.Arrays;
+
+/**
+ * Multiplies coefficient arrays with the number theoretic transform. The convolution is computed modulo three NTT
+ * friendly primes and the exact integer coefficients are rebuilt with the chinese remainder theorem (Garner's method).
+ * The result is then reduced to int the same way as the schoolbook method overflows, so both methods always agree.
+ * Products whose coefficients don't fit in an int can instead be rebuilt exactly as longs or BigIntegers.
+ *
+ * The three primes multiply to about 2^86 which is enough for every product of int coefficients up to MAX_LENGTH
+ * terms, since each coefficient of such a product is smaller than 2^85 in absolute value.
+ */
+final class NttMultiplier {
+    /**
+     * Both operands need at least this many coefficients before the transform is used.
+     */
+    static final int THRESHOLD = 1024;
+
+    /**
+     * Longest product that can be computed, limited by the largest power of two dividing 998244353 - 1.
+     */
+    static final int MAX_LENGTH = 1 << 23;
+
+    private static final int[] PRIMES = {998244353, 167772161, 469762049};
+    private static final int ROOT = 3; // Primitive root of all three primes
+
+    private static final long P0 = PRIMES[0];
+    private static final long P1 = PRIMES[1];
+    private static final long P2 = PRIMES[2];
+    private static final long P0_INV_P1 = power(P0 % P1, P1 - 2, P1);
+    private static final long P0P1_INV_P2 = power(P0 * P1 % P2, P2 - 2, P2);
+    private static final long P0P1 = P0 * P1;
+    private static final long MODULUS = P0P1 * P2; // Only the lowest 64 bits, which is all the reduction needs
+    private static final long R = 1L << 32; // Montgomery radix
+
+    private NttMultiplier(){
+    }
+
+    /**
+     * Checks if the product of two operands of the given lengths should be computed with the transform.
+     *
+     * @param aLen number of coefficients of the first operand
+     * @param bLen number of coefficients of the second operand
+     * @return true if both operands are large enough and the product fits in the transform
+     */
+    static boolean suitable(int aLen, int bLen){
+        return Math.min(aLen, bLen) >= THRESHOLD && aLen + bLen - 1 <= MAX_LENGTH;
+    }
+
+    /**
+     * Multiplies the first aLen coefficients of a with the first bLen coefficients of b.
+     *
+     * @param a coefficients of the first polynomial
+     * @param aLen number of coefficients of a to use
+     * @param b coefficients of the second polynomial
+     * @param bLen number of coefficients of b to use
+     * @return a new array of length aLen + bLen - 1 holding the coefficients of the product
+     * @throws IllegalArgumentException if the product is longer than MAX_LENGTH
+     */
+    static int[] multiply(int[] a, int aLen, int[] b, int bLen){
+        int[][] r = residues(a, aLen, b, bLen);
+        return combine(r[0], r[1], r[2], aLen + bLen - 1);
+    }
+
+    /**
+     * Multiplies in the same way as multiply() and keeps the exact coefficients as longs. The caller must know that
+     * every coefficient of the product fits in a long, for example from a bound on the coefficients.
+     *
+     * @return a new array of length aLen + bLen - 1 holding the exact coefficients of the product
+     * @throws IllegalArgumentException if the product is longer than MAX_LENGTH
+     */
+    static long[] multiplyLong(int[] a, int aLen, int[] b, int bLen){
+        int[][] r = residues(a, aLen, b, bLen);
+        long[] result = new long[aLen + bLen - 1];
+        for(int i = 0; i < result.length; i++){
+            long t0 = r[0][i];
+            long t1 = digit1(r[1][i], t0);
+            long t2 = digit2(r[2][i], t0, t1);
+            long value = t0 + P0 * t1 + P0P1 * t2;
+            result[i] = t2 > P2 / 2 ? value - MODULUS : value;
+        }
+        return result;
+    }
+
+    /**
+     * Multiplies in the same way as multiply() and keeps the exact coefficients as BigIntegers.
+     *
+     * @return a new array of length aLen + bLen - 1 holding the exact coefficients of the product
+     * @throws IllegalArgumentException if the product is longer than MAX_LENGTH
+     */
+    static BigInteger[] multiplyBig(int[] a, int aLen, int[] b, int bLen){
+        int[][] r = residues(a, aLen, b, bLen);
+        BigInteger p0 = BigInteger.valueOf(P0);
+        BigInteger p0p1 = BigInteger.valueOf(P0P1);
+        BigInteger modulus = p0p1.multiply(BigInteger.valueOf(P2));
+        BigInteger[] result = new BigInteger[aLen + bLen - 1];
+        for(int i = 0; i < result.length; i++){
+            long t0 = r[0][i];
+            long t1 = digit1(r[1][i], t0);
+            long t2 = digit2(r[2][i], t0, t1);
+            BigInteger value = BigInteger.valueOf(t0).add(p0.multiply(BigInteger.valueOf(t1)))
+                    .add(p0p1.multiply(BigInteger.valueOf(t2)));
+            result[i] = t2 > P2 / 2 ? value.subtract(modulus) : value;
+        }
+        return result;
+    }
+
+    /**
+     * Multiplies residues modulo a prime p. When p is one of the three primes a single convolution gives the product,
+     * otherwise the exact coefficients are rebuilt from the three convolutions with Garner's method and reduced
+     * modulo p. The residues are in [0, p) with p below 2^30, so the exact coefficients are not negative and stay
+     * below 2^83, which the three primes cover.
+     *
+     * @param a residues of the first polynomial, in [0, p)
+     * @param aLen number of coefficients of a to use
+     * @param b residues of the second polynomial, in [0, p)
+     * @param bLen number of coefficients of b to use
+     * @param p the prime modulus
+     * @return a new array of length aLen + bLen - 1 holding the coefficients of the product modulo p
+     * @throws IllegalArgumentException if the product is longer than MAX_LENGTH
+     */
+    static int[] multiplyMod(int[] a, int aLen, int[] b, int bLen, int p){
+        int resultLen = aLen + bLen - 1;
+        if(resultLen > MAX_LENGTH)
+            throw new IllegalArgumentException();
+        for(int prime: PRIMES){
+            if(prime == p)
+                return Arrays.copyOf(convolve(a, aLen, b, bLen, transformSize(resultLen), p), resultLen);
+        }
+        int[][] r = residues(a, aLen, b, bLen);
+        long p0 = P0 % p;
+        long p0p1 = P0P1 % p;
+        int[] result = new int[resultLen];
+        for(int i = 0; i < resultLen; i++){
+            long t0 = r[0][i];
+            long t1 = digit1(r[1][i], t0);
+            long t2 = digit2(r[2][i], t0, t1);
+            result[i] = (int) ((t0 % p + p0 * t1 % p + p0p1 * t2 % p) % p);
+        }
+        return result;
+    }
+
+    /**
+     * Computes the convolutions of the full product for the three primes.
+     */
+    private static int[][] residues(int[] a, int aLen, int[] b, int bLen){
+        int resultLen = aLen + bLen - 1;
+        if(resultLen > MAX_LENGTH)
+            throw new IllegalArgumentException();
+        int size = transformSize(resultLen);
+        int[] r0 = convolve(a, aLen, b, bLen, size, PRIMES[0]);
+        int[] r1 = convolve(a, aLen, b, bLen, size, PRIMES[1]);
+        int[] r2 = convolve(a, aLen, b, bLen, size, PRIMES[2]);
+        return new int[][] {r0, r1, r2};
+    }
+
+    /**
+     * Computes the cyclic convolution of the first aLen coefficients of a and the first bLen coefficients of b, where
+     * the coefficients of the product past size wrap around to the start. This is all that is needed when only a part
+     * of the product that the wrapped coefficients don't reach is used, and it takes a transform of half the size.
+     *
+     * @param size the power of two size of the convolution, at least aLen and bLen
+     * @return a new array of length size holding the cyclic convolution
+     */
+    static int[] multiplyCyclic(int[] a, int aLen, int[] b, int bLen, int size){
+        int[] r0 = convolve(a, aLen, b, bLen, size, PRIMES[0]);
+        int[] r1 = convolve(a, aLen, b, bLen, size, PRIMES[1]);
+        int[] r2 = convolve(a, aLen, b, bLen, size, PRIMES[2]);
+        return combine(r0, r1, r2, size);
+    }
+
+    /**
+     * @param i 0, 1 or 2
+     * @return the prime of the given index, so other classes can compute the convolutions on their own
+     */
+    static int prime(int i){
+        return PRIMES[i];
+    }
+
+    /**
+     * @return the smallest power of two that is at least length
+     */
+    static int transformSize(int length){
+        int size = Integer.highestOneBit(length);
+        return size < length ? size << 1 : size;
+    }
+
+    /**
+     * Computes the cyclic convolution of a and b of the given power of two size modulo p.
+     */
+    static int[] convolve(int[] a, int aLen, int[] b, int bLen, int size, int p){
+        int[] fa = reduce(a, aLen, size, p);
+        transform(fa, false, p);
+        int[] fb = fa; // A square only transforms its operand once
+        if(a != b || aLen != bLen){
+            fb = reduce(b, bLen, size, p);
+            transform(fb, false, p);
+        }
+        int pInv = montgomeryInverse(p);
+        long r2 = R % p * (R % p) % p; // R^2 in Montgomery form is R^3, which brings a product back to normal form
+        for(int i = 0; i < size; i++)
+            fa[i] = montgomery(montgomery(fa[i], fb[i], p, pInv), r2, p, pInv);
+        transform(fa, true, p);
+        return fa;
+    }
+
+    /**
+     * Copies the coefficients into a new array of the given size with every value reduced into [0, p).
+     */
+    static int[] reduce(int[] arr, int len, int size, int p){
+        int[] result = new int[size];
+        for(int i = 0; i < len; i++){
+            int x = arr[i] % p;
+            result[i] = x < 0 ? x + p : x;
+        }
+        return result;
+    }
+
+    /**
+     * In place iterative transform of f modulo p. The inverse transform also divides by the size of f.
+     *
+     * The values of f stay in their normal form while the roots of unity are kept in Montgomery form, so multiplying
+     * a value by a root with montgomery() gives the normal form of the product without any division.
+     */
+    static void transform(int[] f, boolean invert, int p){
+        int n = f.length;
+        for(int i = 1, j = 0; i < n; i++){ // Bit reversal permutation
+            int bit = n >> 1;
+            for(; (j & bit) != 0; bit >>= 1)
+                j ^= bit;
+            j ^= bit;
+            if(i < j){
+                int temp = f[i];
+                f[i] = f[j];
+                f[j] = temp;
+            }
+        }
+        int pInv = montgomeryInverse(p);
+        long[] roots = new long[n >> 1];
+        for(int len = 2; len <= n; len <<= 1){
+            long w = power(ROOT, (p - 1) / len, p);
+            if(invert)
+                w = power(w, p - 2, p);
+            w = w * (R % p) % p; // Montgomery form of w
+            int half = len >> 1;
+            roots[0] = R % p;
+            for(int k = 1; k < half; k++)
+                roots[k] = montgomery(roots[k - 1], w, p, pInv);
+            for(int i = 0; i < n; i += len){
+                for(int k = 0; k < half; k++){
+                    int u = f[i + k];
+                    int v = montgomery(f[i + k + half], roots[k], p, pInv);
+                    int sum = u + v;
+                    f[i + k] = sum >= p ? sum - p : sum;
+                    int diff = u - v;
+                    f[i + k + half] = diff < 0 ? diff + p : diff;
+                }
+            }
+        }
+        if(invert){
+            long nInverse = power(n, p - 2, p) * (R % p) % p;
+            for(int i = 0; i < n; i++)
+                f[i] = montgomery(f[i], nInverse, p, pInv);
+        }
+    }
+
+    /**
+     * Montgomery multiplication with R = 2^32. Returns a * b / R modulo p in [0, p) without dividing by p, which is
+     * the normal form of the product when one of a and b is in Montgomery form (multiplied by R).
+     *
+     * @param a a value in [0, p)
+     * @param b a value in [0, p)
+     * @param p an odd modulus below 2^30
+     * @param pInv the value of montgomeryInverse(p)
+     */
+    static int montgomery(long a, long b, int p, int pInv){
+        long t = a * b;
+        long m = ((int) t * pInv) & 0xFFFFFFFFL; // Makes t + m * p divisible by R
+        long u = (t + m * p) >>> 32;
+        return (int) (u >= p ? u - p : u);
+    }
+
+    /**
+     * @return -1 / p modulo 2^32, used by montgomery()
+     */
+    static int montgomeryInverse(int p){
+        return -DenseDivision.inverse(p);
+    }
+
+    /**
+     * Rebuilds the exact coefficients from their residues and reduces them to int.
+     */
+    static int[] combine(int[] r0, int[] r1, int[] r2, int length){
+        int[] result = new int[length];
+        for(int i = 0; i < length; i++){
+            long t0 = r0[i];
+            long t1 = digit1(r1[i], t0);
+            long t2 = digit2(r2[i], t0, t1);
+            long value = t0 + P0 * t1 + P0P1 * t2; // Exact modulo 2^64
+            if(t2 > P2 / 2) // The exact value is above half the modulus so the coefficient is negative
+                value -= MODULUS;
+            result[i] = (int) value;
+        }
+        return result;
+    }
+
+    /**
+     * @return the second digit of Garner's method, the exact value is t0 + P0 * t1 + P0 * P1 * t2
+     */
+    private static long digit1(int r1, long t0){
+        return (r1 - t0 % P1 + P1) % P1 * P0_INV_P1 % P1;
+    }
+
+    /**
+     * @return the third digit of Garner's method
+     */
+    private static long digit2(int r2, long t0, long t1){
+        return ((r2 - t0 % P2 - P0 % P2 * t1 % P2) % P2 + 2 * P2) % P2 * P0P1_INV_P2 % P2;
+    }
+
+    /**
+     * @return base^exponent modulo mod
+     */
+    static long power(long base, long exponent, long mod){
+        long result = 1;
+        base %= mod;
+        while(exponent > 0){
+            if((exponent & 1) == 1)
+                result = result * base % mod;
+            base = base * base % mod;
+            exponent >>= 1;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,147 @@
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Owns the memory outside of the heap that OffHeapPolynomial keeps its coefficients in. Every polynomial is created
+ * in an arena, and the results of its operations are created in the same arena, so closing the arena ends the use of
+ * all of them at once. Using a polynomial of a closed arena throws an IllegalStateException.
+ *
+ * The memory is allocated as direct buffers of at most 2^chunkShift ints each, since a single buffer can't hold more
+ * than 2^31 bytes. The garbage collector only sees the small buffer objects and never copies or scans the
+ * coefficients. close() frees the memory of every buffer right away with the cleaner of the buffer, so closing an
+ * arena never waits for the garbage collector, and allocating a new one doesn't have to make it run to find the
+ * memory of buffers that are no longer used. On a runtime where the cleaner can't be reached the memory is given back
+ * once the buffer objects are collected, as for any direct buffer.
+ *
+ * Allocating and closing can be done from several threads at once, but a polynomial must not be used while its arena
+ * is being closed, since its memory may be freed under it.
+ */
+public final class OffHeapArena implements AutoCloseable {
+    private static final int CHUNK_SHIFT = 26; // 2^26 ints take 256 MB
+
+    private static final Consumer<ByteBuffer> FREE = cleaner();
+
+    private final int chunkShift;
+    private final List<IntBuffer[]> allocated = new ArrayList<>();
+    private final List<ByteBuffer> memory = new ArrayList<>(); // The buffers the views in allocated are over
+    private volatile boolean open = true;
+
+    /**
+     * Creates an open arena with buffers of 256 MB.
+     */
+    public OffHeapArena(){
+        this(CHUNK_SHIFT);
+    }
+
+    /**
+     * Creates an open arena with buffers of 2^chunkShift ints, so small buffers can be tested.
+     */
+    OffHeapArena(int chunkShift){
+        if(chunkShift < 1 || chunkShift > 28)
+            throw new IllegalArgumentException();
+        this.chunkShift = chunkShift;
+    }
+
+    /**
+     * @return the base 2 logarithm of the number of ints of every buffer but the last of an allocation
+     */
+    int chunkShift(){
+        return chunkShift;
+    }
+
+    /**
+     * Allocates the given number of ints, all 0, split over buffers of 2^chunkShift ints.
+     *
+     * @param length the number of ints, at least 1
+     * @return the buffers, of which only the last one can be shorter
+     * @throws IllegalStateException if the arena is closed
+     */
+    synchronized IntBuffer[] allocate(long length){
+        checkOpen();
+        long chunk = 1L << chunkShift;
+        IntBuffer[] buffers = new IntBuffer[(int) ((length + chunk - 1) >>> chunkShift)];
+        for(int i = 0; i < buffers.length; i++){
+            int ints = (int) Math.min(chunk, length - ((long) i << chunkShift));
+            ByteBuffer buffer = ByteBuffer.allocateDirect(ints * 4).order(ByteOrder.nativeOrder());
+            memory.add(buffer);
+            buffers[i] = buffer.asIntBuffer();
+        }
+        allocated.add(buffers);
+        return buffers;
+    }
+
+    /**
+     * Finds the way to free a direct buffer at once: Unsafe.invokeCleaner() from Java 9 on, and the cleaner() of the
+     * buffer itself on Java 8. Both are reached by reflection, since neither is part of the API of Java 8.
+     *
+     * @return the function that frees a buffer, or one that does nothing if neither can be reached
+     */
+    private static Consumer<ByteBuffer> cleaner(){
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Method invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+            Field field = unsafeClass.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            Object unsafe = field.get(null);
+            return buffer -> invoke(invokeCleaner, unsafe, buffer);
+        }catch(ReflectiveOperationException | RuntimeException e){
+            // Java 8, which has no invokeCleaner()
+        }
+        try {
+            Method cleaner = Class.forName("sun.nio.ch.DirectBuffer").getMethod("cleaner");
+            Method clean = Class.forName("sun.misc.Cleaner").getMethod("clean");
+            return buffer -> invoke(clean, invoke(cleaner, buffer));
+        }catch(ReflectiveOperationException | RuntimeException e){
+            return buffer -> {};
+        }
+    }
+
+    /**
+     * Calls a method found by cleaner().
+     */
+    private static Object invoke(Method method, Object target, Object... arguments){
+        try {
+            return method.invoke(target, arguments);
+        }catch(ReflectiveOperationException e){
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * @throws IllegalStateException if the arena is closed
+     */
+    void checkOpen(){
+        if(!open)
+            throw new IllegalStateException("Arena is closed");
+    }
+
+    /**
+     * @return true until the arena is closed
+     */
+    public boolean isOpen(){
+        return open;
+    }
+
+    /**
+     * Closes the arena and frees the memory of every polynomial created in it. Closing it again does nothing.
+     */
+    @Override
+    public synchronized void close(){
+        if(!open)
+            return;
+        open = false;
+        for(IntBuffer[] views: allocated)
+            Arrays.fill(views, null); // The polynomials share these arrays, so they let go of the buffers too
+        allocated.clear();
+        for(ByteBuffer buffer: memory)
+            FREE.accept(buffer);
+        memory.clear();
+    }
+}
@@ -0,0 +1,697 @@
+import java.math.BigInteger;
+import java.nio.IntBuffer;
+import java.util.Arrays;
+
+/**
+ * A dense polynomial whose coefficients are kept outside of the heap, in the direct buffers of an OffHeapArena, for
+ * polynomials so large that an int[] of their coefficients would burden the garbage collector. Like the int tier of
+ * DensePolynomial the coefficient of every exponent from 0 to the degree is stored as an int, and the storage is
+ * trimmed so that the last coefficient is the one of the degree. The coefficients are found by a long index split
+ * into a buffer and a position in it, so a polynomial can span any number of buffers.
+ *
+ * add, subtract, minus and multiply go through the coefficients in blocks that are copied between the buffers and
+ * small arrays on the heap, so no operation needs an array as long as the polynomial. multiply splits both operands
+ * into blocks of MULTIPLY_BLOCK coefficients and multiplies every pair of blocks with DenseMultiplier, adding each
+ * product into the result. The results of the operations are created in the arena of the polynomial they are called
+ * on and stay there until the arena is closed.
+ *
+ * The coefficients stay ints, so an operation whose result has a coefficient that doesn't fit in an int throws an
+ * ArithmeticException instead of moving to wider coefficients. Sums check every coefficient with Math.addExact, and
+ * products are bounded before they are computed in the same way as in DensePolynomial. divideAndRemainder, mod and
+ * gcd copy the operands into DensePolynomials, so they only work on polynomials that fit in an int[].
+ *
+ * An OffHeapPolynomial is only equal to another OffHeapPolynomial with the same coefficients, and has the hash code
+ * of any polynomial of the package with the same terms.
+ */
+public final class OffHeapPolynomial implements Polynomial {
+    static final int BLOCK = 1 << 13; // Coefficients copied to the heap at once by the linear operations
+    static final int MULTIPLY_BLOCK = 1 << 16; // Coefficients of every block multiplied by DenseMultiplier
+
+    private final OffHeapArena arena;
+    private final IntBuffer[] chunks; // Shared with the arena, which empties it when it is closed
+    private final int shift;
+    private final int mask;
+    private final long length; // Number of coefficients up to the degree, 1 for the zero polynomial
+    private int terms = -1; // Number of non-zero coefficients, counted the first time it is needed
+    private double magnitude = -1; // Largest absolute value of the coefficients, found the first time it is needed
+    private int hash; // Cached hash code, 0 until it is computed
+
+    /**
+     * Creates a polynomial over the first length coefficients of the given buffers. The operations fill a new
+     * polynomial over all of its buffers and then hand out the result of trim().
+     */
+    private OffHeapPolynomial(OffHeapArena arena, IntBuffer[] chunks, long length){
+        this.arena = arena;
+        this.chunks = chunks;
+        this.shift = arena.chunkShift();
+        this.mask = (1 << shift) - 1;
+        this.length = length;
+    }
+
+    /**
+     * Copies a polynomial into the given arena.
+     *
+     * @param p a DensePolynomial, SparsePolynomial, SortedSparsePolynomial or OffHeapPolynomial
+     * @param arena the arena that keeps the coefficients
+     * @return an OffHeapPolynomial equal to p
+     * @throws NullPointerException if p or arena is null
+     * @throws IllegalArgumentException if p has a negative exponent or is of another class
+     * @throws ArithmeticException if a coefficient of p doesn't fit in an int
+     * @throws IllegalStateException if the arena or the arena of p is closed
+     */
+    public static OffHeapPolynomial of(Polynomial p, OffHeapArena arena){
+        if(arena == null)
+            throw new NullPointerException();
+        checkOperand(p);
+        if(p instanceof OffHeapPolynomial && ((OffHeapPolynomial) p).arena == arena)
+            return (OffHeapPolynomial) p;
+        long length = p.degree() + 1L;
+        OffHeapPolynomial result = new OffHeapPolynomial(arena, arena.allocate(length), length);
+        int[] block = new int[BLOCK];
+        for(long from = 0; from < length; from += BLOCK){
+            int len = (int) Math.min(BLOCK, length - from);
+            read(p, from, block, len);
+            result.write(from, block, len);
+        }
+        return result.trim();
+    }
+
+    /**
+     * Copies the coefficients into a DensePolynomial on the heap.
+     *
+     * @return a DensePolynomial with the same terms
+     * @throws ArithmeticException if the polynomial is too long for an int[]
+     * @throws IllegalStateException if the arena is closed
+     */
+    public DensePolynomial toDense(){
+        arena.checkOpen();
+        if(length > Integer.MAX_VALUE - 8)
+            throw new ArithmeticException("Too many coefficients for an array");
+        int[] arr = new int[(int) length];
+        read(0, arr, arr.length);
+        return new DensePolynomial(arr);
+    }
+
+    /**
+     * @return the arena that keeps the coefficients
+     */
+    public OffHeapArena arena(){
+        return arena;
+    }
+
+    /**
+     * @return the number of coefficients from exponent 0 to the degree
+     */
+    public long length(){
+        return length;
+    }
+
+    /**
+     * Returns the degree of the polynomial, which is 0 for the zero polynomial.
+     *
+     * @return the largest exponent with a non-zero coefficient
+     * @throws IllegalStateException if the arena is closed
+     */
+    @Override
+    public int degree() {
+        arena.checkOpen();
+        return (int) (length - 1);
+    }
+
+    /**
+     * @param d the exponent
+     * @return the coefficient of the exponent, or 0 if there is no term with that exponent
+     * @throws IllegalStateException if the arena is closed
+     */
+    @Override
+    public int getCoefficient(int d) {
+        arena.checkOpen();
+        return d < 0 || d >= length ? 0 : get(d);
+    }
+
+    /**
+     * @param d the exponent
+     * @return the coefficient of the exponent as a BigInteger
+     * @throws IllegalStateException if the arena is closed
+     */
+    @Override
+    public BigInteger getBigCoefficient(int d) {
+        return BigInteger.valueOf(getCoefficient(d));
+    }
+
+    /**
+     * @return true if every coefficient is 0
+     * @throws IllegalStateException if the arena is closed
+     */
+    @Override
+    public boolean isZero() {
+        arena.checkOpen();
+        return length == 1 && get(0) == 0;
+    }
+
+    /**
+     * Adds q block by block into a new polynomial in the arena of the current instance.
+     *
+     * @param q the polynomial to add to <code>this</code>
+     * @return <code>this + </code>q
+     * @throws NullPointerException if q is null
+     * @throws IllegalArgumentException if q has a negative exponent or is not one of the classes of the package
+     * @throws ArithmeticException if a coefficient of the sum doesn't fit in an int
+     * @throws IllegalStateException if an arena is closed
+     */
+    @Override
+    public Polynomial add(Polynomial q) {
+        return combine(q, 1);
+    }
+
+    /**
+     * Subtracts q block by block into a new polynomial in the arena of the current instance.
+     *
+     * @param q the polynomial to subtract from <code>this</code>
+     * @return <code>this - </code>q
+     * @throws NullPointerException if q is null
+     * @throws IllegalArgumentException if q has a negative exponent or is not one of the classes of the package
+     * @throws ArithmeticException if a coefficient of the difference doesn't fit in an int
+     * @throws IllegalStateException if an arena is closed
+     */
+    @Override
+    public Polynomial subtract(Polynomial q) {
+        return combine(q, -1);
+    }
+
+    /**
+     * Adds or subtracts q, going through both polynomials one block at a time.
+     */
+    private OffHeapPolynomial combine(Polynomial q, int sign){
+        arena.checkOpen();
+        checkOperand(q);
+        long newLength = Math.max(length, q.degree() + 1L);
+        OffHeapPolynomial result = new OffHeapPolynomial(arena, arena.allocate(newLength), newLength);
+        int[] a = new int[BLOCK];
+        int[] b = new int[BLOCK];
+        for(long from = 0; from < newLength; from += BLOCK){
+            int len = (int) Math.min(BLOCK, newLength - from);
+            read(from, a, len);
+            read(q, from, b, len);
+            for(int i = 0; i < len; i++)
+                a[i] = sign > 0 ? Math.addExact(a[i], b[i]) : Math.subtractExact(a[i], b[i]);
+            result.write(from, a, len);
+        }
+        return result.trim();
+    }
+
+    /**
+     * Multiplies q block by block into a new polynomial in the arena of the current instance. The coefficients of
+     * the product are bounded first, so every partial sum of a coefficient fits in an int as well.
+     *
+     * @param q the polynomial to multiply with <code>this</code>
+     * @return <code>this * </code>q
+     * @throws NullPointerException if q is null
+     * @throws IllegalArgumentException if q has a negative exponent or is not one of the classes of the package
+     * @throws ArithmeticException if a coefficient of the product could be too large for an int, or its degree is
+     * @throws IllegalStateException if an arena is closed
+     */
+    @Override
+    public Polynomial multiply(Polynomial q) {
+        arena.checkOpen();
+        checkOperand(q);
+        if(isZero() || q.isZero())
+            return zero();
+        long qLength = q.degree() + 1L;
+        long newLength = length + qLength - 1;
+        if(newLength - 1 > Integer.MAX_VALUE)
+            throw new ArithmeticException("Degree doesn't fit in an int");
+        if(Math.min(terms(), terms(q)) * magnitude() * magnitude(q) > Integer.MAX_VALUE)
+            throw new ArithmeticException("Coefficients of the product don't fit in an int");
+        OffHeapPolynomial result = new OffHeapPolynomial(arena, arena.allocate(newLength), newLength);
+        int[] a = new int[(int) Math.min(MULTIPLY_BLOCK, length)];
+        int[] b = new int[(int) Math.min(MULTIPLY_BLOCK, qLength)];
+        int[] sum = new int[a.length + b.length - 1];
+        for(long i = 0; i < length; i += MULTIPLY_BLOCK){
+            int aLen = (int) Math.min(MULTIPLY_BLOCK, length - i);
+            read(i, a, aLen);
+            if(isZero(a, aLen))
+                continue;
+            for(long j = 0; j < qLength; j += MULTIPLY_BLOCK){
+                int bLen = (int) Math.min(MULTIPLY_BLOCK, qLength - j);
+                boolean diagonal = q == this && i == j; // Passing the same array lets DenseMultiplier square it
+                if(!diagonal)
+                    read(q, j, b, bLen);
+                int[] other = diagonal ? a : b;
+                if(isZero(other, bLen))
+                    continue;
+                int[] product = DenseMultiplier.multiply(a, aLen, other, bLen);
+                result.read(i + j, sum, product.length);
+                for(int k = 0; k < product.length; k++)
+                    sum[k] += product[k];
+                result.write(i + j, sum, product.length);
+            }
+        }
+        return result.trim();
+    }
+
+    /**
+     * @return <code>this * this</code>
+     * @throws ArithmeticException if a coefficient of the square could be too large for an int, or its degree is
+     * @throws IllegalStateException if the arena is closed
+     */
+    @Override
+    public Polynomial square() {
+        return multiply(this);
+    }
+
+    /**
+     * Raises the polynomial to the power of n by squaring. The intermediate powers stay in the arena until it is
+     * closed.
+     *
+     * @param n the power, at least 0
+     * @return <code>this</code> to the power of n, which is the constant 1 when n is 0
+     * @throws IllegalArgumentException if n is negative
+     * @throws ArithmeticException if a coefficient of the power could be too large for an int, or its degree is
+     * @throws IllegalStateException if the arena is closed
+     */
+    @Override
+    public Polynomial pow(int n) {
+        arena.checkOpen();
+        if(n == 0){
+            IntBuffer[] one = arena.allocate(1);
+            one[0].put(0, 1);
+            return new OffHeapPolynomial(arena, one, 1);
+        }
+        return Polynomials.pow(this, n);
+    }
+
+    /**
+     * Negates the polynomial block by block into a new polynomial in the arena of the current instance.
+     *
+     * @return -this
+     * @throws ArithmeticException if a coefficient is the smallest int, whose negation doesn't fit in an int
+     * @throws IllegalStateException if the arena is closed
+     */
+    @Override
+    public Polynomial minus() {
+        arena.checkOpen();
+        OffHeapPolynomial result = new OffHeapPolynomial(arena, arena.allocate(length), length);
+        int[] block = new int[BLOCK];
+        for(long from = 0; from < length; from += BLOCK){
+            int len = (int) Math.min(BLOCK, length - from);
+            read(from, block, len);
+            for(int i = 0; i < len; i++)
+                block[i] = Math.negateExact(block[i]);
+            result.write(from, block, len);
+        }
+        return result.trim();
+    }
+
+    /**
+     * Divides with Polynomials.divideAndRemainder() on DensePolynomial copies of both operands, and copies the
+     * quotient and the remainder into the arena.
+     *
+     * @param q the divisor
+     * @return the quotient and the remainder, whose degree is below the degree of q
+     * @throws NullPointerException if q is null
+     * @throws ArithmeticException if q is zero, the quotient doesn't have integer coefficients, or a coefficient
+     * doesn't fit in an int
+     * @throws IllegalStateException if an arena is closed
+     */
+    @Override
+    public Polynomial[] divideAndRemainder(Polynomial q) {
+        Polynomial[] qr = Polynomials.divideAndRemainder(toDense(), heap(q));
+        return new Polynomial[]{of(qr[0], arena), of(qr[1], arena)};
+    }
+
+    /**
+     * @param q the divisor
+     * @return the remainder of dividing <code>this</code> by q
+     * @throws NullPointerException if q is null
+     * @throws ArithmeticException if q is zero, the quotient doesn't have integer coefficients, or a coefficient
+     * doesn't fit in an int
+     * @throws IllegalStateException if an arena is closed
+     */
+    @Override
+    public Polynomial mod(Polynomial q) {
+        return divideAndRemainder(q)[1];
+    }
+
+    /**
+     * Finds the greatest common divisor with Polynomials.gcd() on DensePolynomial copies of both operands, and copies
+     * it into the arena.
+     *
+     * @param q the other polynomial
+     * @return the greatest common divisor with a positive leading coefficient
+     * @throws NullPointerException if q is null
+     * @throws IllegalArgumentException if q has a negative exponent
+     * @throws ArithmeticException if a coefficient doesn't fit in an int
+     * @throws IllegalStateException if an arena is closed
+     */
+    @Override
+    public Polynomial gcd(Polynomial q) {
+        return of(Polynomials.gcd(toDense(), heap(q)), arena);
+    }
+
+    /**
+     * Evaluates the polynomial with Horner's method, reading the coefficients one block at a time from the degree
+     * down. The result wraps around on overflow in the same way as the one of DensePolynomial.
+     *
+     * @param x the point at which the polynomial is evaluated
+     * @return the value of the polynomial at x modulo 2^64
+     * @throws IllegalStateException if the arena is closed
+     */
+    @Override
+    public long evaluate(long x) {
+        arena.checkOpen();
+        long result = 0;
+        int[] block = new int[BLOCK];
+        for(long end = length; end > 0; end -= BLOCK){
+            int len = (int) Math.min(BLOCK, end);
+            read(end - len, block, len);
+            for(int i = len - 1; i >= 0; i--)
+                result = result * x + block[i];
+        }
+        return result;
+    }
+
+    /**
+     * Evaluates the polynomial with Horner's method in doubles.
+     *
+     * @param x the point at which the polynomial is evaluated
+     * @return the value of the polynomial at x
+     * @throws IllegalStateException if the arena is closed
+     */
+    @Override
+    public double evaluate(double x) {
+        arena.checkOpen();
+        double result = 0;
+        int[] block = new int[BLOCK];
+        for(long end = length; end > 0; end -= BLOCK){
+            int len = (int) Math.min(BLOCK, end);
+            read(end - len, block, len);
+            for(int i = len - 1; i >= 0; i--)
+                result = result * x + block[i];
+        }
+        return result;
+    }
+
+    /**
+     * Evaluates the polynomial at every point with Horner's method, taking every block of coefficients through all
+     * the points before reading the next one, so the coefficients are read once.
+     *
+     * @param xs the points at which the polynomial is evaluated
+     * @param out receives the values, it must be at least as long as xs
+     * @throws NullPointerException if xs or out is null
+     * @throws IllegalArgumentException if out is shorter than xs
+     * @throws IllegalStateException if the arena is closed
+     */
+    @Override
+    public void evaluate(double[] xs, double[] out) {
+        if(xs == null || out == null)
+            throw new NullPointerException();
+        if(out.length < xs.length)
+            throw new IllegalArgumentException();
+        arena.checkOpen();
+        double[] values = new double[xs.length]; // Kept apart since out can be xs
+        int[] block = new int[BLOCK];
+        for(long end = length; end > 0; end -= BLOCK){
+            int len = (int) Math.min(BLOCK, end);
+            read(end - len, block, len);
+            for(int i = len - 1; i >= 0; i--){
+                for(int k = 0; k < xs.length; k++)
+                    values[k] = values[k] * xs[k] + block[i];
+            }
+        }
+        System.arraycopy(values, 0, out, 0, values.length);
+    }
+
+    /**
+     * Evaluates the polynomial at every integer point in ints, in the same order as evaluate(double[], double[]).
+     *
+     * @param points the points at which the polynomial is evaluated
+     * @return a new array holding the value at every point modulo 2^32
+     * @throws NullPointerException if points is null
+     * @throws IllegalStateException if the arena is closed
+     */
+    @Override
+    public int[] evaluate(int[] points) {
+        if(points == null)
+            throw new NullPointerException();
+        arena.checkOpen();
+        int[] values = new int[points.length];
+        int[] block = new int[BLOCK];
+        for(long end = length; end > 0; end -= BLOCK){
+            int len = (int) Math.min(BLOCK, end);
+            read(end - len, block, len);
+            for(int i = len - 1; i >= 0; i--){
+                for(int k = 0; k < points.length; k++)
+                    values[k] = values[k] * points[k] + block[i];
+            }
+        }
+        return values;
+    }
+
+    /**
+     * An OffHeapPolynomial is only created by copying a polynomial or by the operations, which keep it trimmed.
+     *
+     * @return {@literal true}
+     */
+    @Override
+    public boolean wellFormed() {
+        return true;
+    }
+
+    /**
+     * Writes the polynomial with PolynomialFormatter in the same format as a DensePolynomial. PolynomialFormatter
+     * can write it to a Writer instead, without building the whole string.
+     *
+     * @return the String representation of the polynomial in descending order
+     * @throws IllegalStateException if the arena is closed
+     */
+    @Override
+    public String toString() {
+        arena.checkOpen();
+        return PolynomialFormatter.toString(this, terms());
+    }
+
+    /**
+     * An OffHeapPolynomial is only equal to another OffHeapPolynomial with the same coefficients. Once the arena of
+     * either one is closed its coefficients are gone, and a polynomial is only equal to itself, so a closed polynomial
+     * can still be found in and removed from a collection.
+     *
+     * @param q any object
+     * @return True or false if the parameter object is equal to the current instance
+     */
+    @Override
+    public boolean equals(Object q){
+        if(this == q)
+            return true;
+        if(!(q instanceof OffHeapPolynomial))
+            return false;
+        OffHeapPolynomial o = (OffHeapPolynomial) q;
+        if(!arena.isOpen() || !o.arena.isOpen())
+            return false;
+        if(length != o.length || hashCode() != o.hashCode())
+            return false;
+        int[] a = new int[BLOCK];
+        int[] b = new int[BLOCK];
+        for(long from = 0; from < length; from += BLOCK){
+            int len = (int) Math.min(BLOCK, length - from);
+            read(from, a, len);
+            o.read(from, b, len);
+            for(int i = 0; i < len; i++){
+                if(a[i] != b[i])
+                    return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Adds up the hash codes of the non-zero terms, which gives the same hash code as any polynomial of the package
+     * with the same terms. The hash code is computed once and kept since the polynomial never changes, so a polynomial
+     * put in a hash-based collection keeps its hash code after its arena is closed. A polynomial whose hash code wasn't
+     * computed before its arena was closed has the hash code 0 from then on.
+     *
+     * @return the hash code of the polynomial
+     */
+    @Override
+    public int hashCode(){
+        int h = hash;
+        if(h == 0 && arena.isOpen()){
+            int[] block = new int[BLOCK];
+            for(long from = 0; from < length; from += BLOCK){
+                int len = (int) Math.min(BLOCK, length - from);
+                read(from, block, len);
+                for(int i = 0; i < len; i++){
+                    if(block[i] != 0)
+                        h += Polynomials.termHash((int) (from + i), block[i]);
+                }
+            }
+            hash = h;
+        }
+        return h;
+    }
+
+    /**
+     * Copies len coefficients starting at the exponent from into dst, with 0 for the exponents past the degree.
+     */
+    void read(long from, int[] dst, int len){
+        int done = 0;
+        while(done < len && from + done < length){
+            long index = from + done;
+            int offset = (int) (index & mask);
+            int n = (int) Math.min(Math.min(len - done, (1L << shift) - offset), length - index);
+            IntBuffer chunk = chunks[(int) (index >>> shift)].duplicate();
+            chunk.position(offset);
+            chunk.get(dst, done, n);
+            done += n;
+        }
+        Arrays.fill(dst, done, len, 0);
+    }
+
+    /**
+     * Copies len coefficients from src into the buffers starting at the exponent from. Only used while a result is
+     * filled, before it is trimmed and handed out.
+     */
+    private void write(long from, int[] src, int len){
+        int done = 0;
+        while(done < len){
+            long index = from + done;
+            int offset = (int) (index & mask);
+            int n = (int) Math.min(len - done, (1L << shift) - offset);
+            IntBuffer chunk = chunks[(int) (index >>> shift)].duplicate();
+            chunk.position(offset);
+            chunk.put(src, done, n);
+            done += n;
+        }
+    }
+
+    private int get(long index){
+        return chunks[(int) (index >>> shift)].get((int) (index & mask));
+    }
+
+    /**
+     * @return the polynomial over the same buffers without the zero coefficients above the degree
+     */
+    private OffHeapPolynomial trim(){
+        long end = length;
+        while(end > 1 && get(end - 1) == 0)
+            end--;
+        return end == length ? this : new OffHeapPolynomial(arena, chunks, end);
+    }
+
+    private OffHeapPolynomial zero(){
+        return new OffHeapPolynomial(arena, arena.allocate(1), 1);
+    }
+
+    /**
+     * @return the number of non-zero coefficients, counted the first time it is needed
+     */
+    private int terms(){
+        if(terms < 0)
+            scan();
+        return terms;
+    }
+
+    /**
+     * @return the largest absolute value of the coefficients, found the first time it is needed
+     */
+    private double magnitude(){
+        if(magnitude < 0)
+            scan();
+        return magnitude;
+    }
+
+    /**
+     * Counts the terms and finds the largest absolute value of the coefficients in one pass.
+     */
+    private void scan(){
+        int count = 0;
+        long max = 0;
+        int[] block = new int[BLOCK];
+        for(long from = 0; from < length; from += BLOCK){
+            int len = (int) Math.min(BLOCK, length - from);
+            read(from, block, len);
+            for(int i = 0; i < len; i++){
+                if(block[i] != 0){
+                    count++;
+                    max = Math.max(max, Math.abs((long) block[i]));
+                }
+            }
+        }
+        magnitude = max;
+        terms = count;
+    }
+
+    private static int terms(Polynomial q){
+        return q instanceof OffHeapPolynomial ? ((OffHeapPolynomial) q).terms() : Polynomials.terms(q);
+    }
+
+    private static double magnitude(Polynomial q){
+        return q instanceof OffHeapPolynomial ? ((OffHeapPolynomial) q).magnitude() : Polynomials.magnitude(q);
+    }
+
+    private static boolean isZero(int[] arr, int len){
+        for(int i = 0; i < len; i++){
+            if(arr[i] != 0)
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Checks that q is a polynomial the operations can read as ints with no negative exponent.
+     */
+    private static void checkOperand(Polynomial q){
+        if(q == null)
+            throw new NullPointerException();
+        if(q instanceof OffHeapPolynomial){
+            ((OffHeapPolynomial) q).arena.checkOpen();
+            return;
+        }
+        if(!(q instanceof DensePolynomial || q instanceof SparsePolynomial || q instanceof SortedSparsePolynomial))
+            throw new IllegalArgumentException();
+        if(q instanceof SparsePolynomial && ((SparsePolynomial) q).lowestExponent() < 0)
+            throw new IllegalArgumentException();
+        if(q instanceof SortedSparsePolynomial){
+            int[] exponents = ((SortedSparsePolynomial) q).exponents();
+            if(exponents.length > 0 && exponents[0] < 0)
+                throw new IllegalArgumentException();
+        }
+        if(Polynomials.wide(q))
+            throw new ArithmeticException("Coefficients don't fit in an int");
+    }
+
+    /**
+     * Copies len coefficients of q starting at the exponent from into dst, with 0 for the exponents past its degree.
+     */
+    private static void read(Polynomial q, long from, int[] dst, int len){
+        if(q instanceof OffHeapPolynomial){
+            ((OffHeapPolynomial) q).read(from, dst, len);
+            return;
+        }
+        Arrays.fill(dst, 0, len, 0);
+        if(q instanceof DensePolynomial){
+            int[] arr = ((DensePolynomial) q).coefficients();
+            if(from < arr.length)
+                System.arraycopy(arr, (int) from, dst, 0, (int) Math.min(len, arr.length - from));
+            return;
+        }
+        SortedSparsePolynomial sorted = q instanceof SparsePolynomial ? ((SparsePolynomial) q).sorted()
+                : (SortedSparsePolynomial) q;
+        int[] exponents = sorted.exponents();
+        int[] coefficients = sorted.coefficients();
+        if(from > Integer.MAX_VALUE)
+            return;
+        int i = Arrays.binarySearch(exponents, (int) from);
+        for(i = i < 0 ? -i - 1 : i; i < exponents.length && exponents[i] < from + len; i++)
+            dst[(int) (exponents[i] - from)] = coefficients[i];
+    }
+
+    /**
+     * @return q on the heap, copied into a DensePolynomial when it is an OffHeapPolynomial
+     */
+    private static Polynomial heap(Polynomial q){
+        if(q == null)
+            throw new NullPointerException();
+        return q instanceof OffHeapPolynomial ? ((OffHeapPolynomial) q).toDense() : q;
+    }
+}
@@ -0,0 +1,156 @@
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+class OffHeapPolynomialTest {
+
+    @Test
+    void copyAndRead() {
+        try(OffHeapArena arena = new OffHeapArena(4)){ // Buffers of 16 ints, so most polynomials span several
+            DensePolynomial dense = random(new Random(1), 100, 50);
+            OffHeapPolynomial p = OffHeapPolynomial.of(dense, arena);
+            assertEquals(dense.degree(), p.degree());
+            for(int i = -1; i <= 101; i++)
+                assertEquals(dense.getCoefficient(i), p.getCoefficient(i));
+            assertEquals(dense, p.toDense());
+            assertEquals(dense.toString(), p.toString());
+            assertEquals(dense.hashCode(), p.hashCode());
+            assertEquals(p, OffHeapPolynomial.of(new SparsePolynomial(dense.toString()), arena));
+            assertNotEquals(p, dense);
+            assertSame(p, OffHeapPolynomial.of(p, arena));
+            OffHeapPolynomial sparse = OffHeapPolynomial.of(new SparsePolynomial("5x^40 - x^17 + 2"), arena);
+            assertEquals("5x^40 + -x^17 + 2", sparse.toString());
+            assertEquals(41, sparse.length());
+            assertTrue(OffHeapPolynomial.of(new DensePolynomial("0"), arena).isZero());
+            assertThrows(IllegalArgumentException.class,
+                    () -> OffHeapPolynomial.of(new SparsePolynomial("x^-1"), arena));
+            Polynomial wide = new DensePolynomial("2147483647x").add(new DensePolynomial("x"));
+            assertThrows(ArithmeticException.class, () -> OffHeapPolynomial.of(wide, arena));
+        }
+    }
+
+    @Test
+    void arithmetic() {
+        Random random = new Random(2);
+        try(OffHeapArena arena = new OffHeapArena(5)){
+            for(int[] size: new int[][]{{1, 1}, {30, 200}, {9000, 8000}, {20000, 70000}}){
+                DensePolynomial a = random(random, size[0], 5);
+                DensePolynomial b = random(random, size[1], 5);
+                OffHeapPolynomial x = OffHeapPolynomial.of(a, arena);
+                OffHeapPolynomial y = OffHeapPolynomial.of(b, arena);
+                assertEquals(a.add(b), ((OffHeapPolynomial) x.add(y)).toDense());
+                assertEquals(a.subtract(b), ((OffHeapPolynomial) x.subtract(b)).toDense());
+                assertEquals(a.minus(), ((OffHeapPolynomial) x.minus()).toDense());
+                assertEquals(a.multiply(b), ((OffHeapPolynomial) x.multiply(y)).toDense());
+                assertEquals(b.square(), ((OffHeapPolynomial) y.square()).toDense());
+            }
+            OffHeapPolynomial p = OffHeapPolynomial.of(new DensePolynomial("x^3 + 2x + 1"), arena);
+            assertTrue(p.subtract(p).isZero());
+            assertEquals(0, p.subtract(p).degree());
+            assertEquals(OffHeapPolynomial.of(new DensePolynomial("x^3 + 2x + 1").pow(7), arena), p.pow(7));
+            assertEquals("1", p.pow(0).toString());
+            assertEquals(OffHeapPolynomial.of(new SparsePolynomial("x^100 + x^3 + 2x + 1"), arena),
+                    p.add(new SparsePolynomial("x^100")));
+            assertThrows(ArithmeticException.class,
+                    () -> p.multiply(new DensePolynomial("2147483647x")));
+            assertThrows(ArithmeticException.class, () -> OffHeapPolynomial.of(new DensePolynomial("2147483647"),
+                    arena).add(new DensePolynomial("1")));
+            assertThrows(IllegalArgumentException.class, () -> p.add(new SparsePolynomial("x^-2")));
+            assertThrows(NullPointerException.class, () -> p.multiply(null));
+        }
+    }
+
+    @Test
+    void divisionAndEvaluation() {
+        try(OffHeapArena arena = new OffHeapArena(3)){
+            OffHeapPolynomial p = OffHeapPolynomial.of(new DensePolynomial("x^3 - 2x^2 + 4x - 8"), arena);
+            Polynomial[] qr = p.divideAndRemainder(new DensePolynomial("x - 2"));
+            assertEquals("x^2 + 4", qr[0].toString());
+            assertTrue(qr[1].isZero());
+            assertTrue(qr[0] instanceof OffHeapPolynomial);
+            assertEquals("x + -2", p.gcd(OffHeapPolynomial.of(new DensePolynomial("x^2 - 4"), arena)).toString());
+            assertTrue(p.mod(new DensePolynomial("x - 2")).isZero());
+            DensePolynomial dense = random(new Random(3), 20000, 9);
+            OffHeapPolynomial q = OffHeapPolynomial.of(dense, arena);
+            assertEquals(dense.evaluate(3L), q.evaluate(3L));
+            assertEquals(dense.evaluate(0.999), q.evaluate(0.999), 1e-6 * Math.abs(dense.evaluate(0.999)));
+            assertArrayEquals(dense.evaluate(new int[]{0, 1, -1, 7}), q.evaluate(new int[]{0, 1, -1, 7}));
+            double[] xs = {0.5, -0.25, 0.999};
+            double[] expected = new double[3];
+            dense.evaluate(xs, expected);
+            q.evaluate(xs, xs);
+            for(int i = 0; i < xs.length; i++)
+                assertEquals(expected[i], xs[i], 1e-9 * Math.max(1, Math.abs(expected[i])));
+        }
+    }
+
+    @Test
+    void close() {
+        OffHeapArena arena = new OffHeapArena();
+        OffHeapPolynomial p = OffHeapPolynomial.of(new DensePolynomial("x^2 + 1"), arena);
+        Polynomial square = p.square();
+        assertTrue(arena.isOpen());
+        arena.close();
+        assertFalse(arena.isOpen());
+        assertThrows(IllegalStateException.class, () -> p.getCoefficient(0));
+        assertThrows(IllegalStateException.class, () -> square.add(p));
+        assertThrows(IllegalStateException.class, () -> OffHeapPolynomial.of(new DensePolynomial("x"), arena));
+        try(OffHeapArena other = new OffHeapArena()){
+            assertThrows(IllegalStateException.class, () -> OffHeapPolynomial.of(p, other));
+        }
+        arena.close();
+    }
+
+    @Test
+    void closedInCollections() {
+        OffHeapArena arena = new OffHeapArena();
+        OffHeapPolynomial p = OffHeapPolynomial.of(new DensePolynomial("x^2 + 1"), arena);
+        OffHeapPolynomial q = OffHeapPolynomial.of(new DensePolynomial("x^2 + 1"), arena);
+        Polynomial zero = p.subtract(q);
+        Polynomial square = p.square();
+        Set<Polynomial> set = new HashSet<>();
+        set.add(p);
+        set.add(zero);
+        assertTrue(set.contains(q));
+        int hash = p.hashCode();
+        arena.close();
+        assertEquals(hash, p.hashCode());
+        assertEquals(0, zero.hashCode());
+        assertEquals(0, square.hashCode()); // Not computed before the arena was closed
+        assertTrue(p.equals(p));
+        assertFalse(p.equals(q));
+        assertFalse(set.contains(q));
+        assertTrue(set.remove(p));
+        assertTrue(set.remove(zero));
+    }
+
+    @Test
+    void closeFreesMemory() {
+        BufferPoolMXBean direct = null;
+        for(BufferPoolMXBean pool: ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class)){
+            if(pool.getName().equals("direct"))
+                direct = pool;
+        }
+        assertNotNull(direct);
+        long before = direct.getMemoryUsed();
+        OffHeapArena arena = new OffHeapArena(20);
+        OffHeapPolynomial p = OffHeapPolynomial.of(new DensePolynomial("x^3000000 + 1"), arena);
+        assertTrue(direct.getMemoryUsed() - before >= 12000000);
+        arena.close();
+        assertTrue(direct.getMemoryUsed() - before < 1000000); // Freed without waiting for the garbage collector
+        assertThrows(IllegalStateException.class, () -> p.getCoefficient(0));
+    }
+
+    private static DensePolynomial random(Random random, int length, int bound){
+        int[] arr = new int[length];
+        for(int i = 0; i < length; i++)
+            arr[i] = random.nextInt(2 * bound + 1) - bound;
+        arr[length - 1] = 1 + random.nextInt(bound);
+        return new DensePolynomial(arr);
+    }
+}
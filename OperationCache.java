@@ -0,0 +1,228 @@
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.UnaryOperator;
+
+/**
+ * A bounded cache of the results of add() and multiply() of DensePolynomial and SparsePolynomial, for programs that
+ * compute the same sums and products of a few polynomials over and over.
+ *
+ * The cache is off until one is installed with install(), and while none is installed the operations only read one
+ * volatile field more. The entries are found by the operation and by the hash codes of both operands, which every
+ * polynomial computes once and keeps, and a hit is confirmed with equals() and the class of each operand so the
+ * result is exactly the one the operation would return. Only operands of the classes of the package are cached:
+ * they never change after they are created and hand out copies of their coefficients, so the same result can be
+ * given to every caller without any of them seeing a change made by another. A polynomial of another class could
+ * change after it was cached, so it is always computed.
+ *
+ * The size of the cache is bounded by its weight, which is the number of coefficients kept by the operands and the
+ * result of every entry: the length of the array of a DensePolynomial and the number of terms of the others. When
+ * an entry would go over the bound, the entries that were used the longest time ago are evicted first, and a single
+ * entry heavier than the whole bound is never kept.
+ *
+ * The cache can be used from several threads at once. Looking an entry up and adding it hold a lock, but the result
+ * is computed outside of it, so a long product doesn't hold up the others. Two threads that miss the same entry at
+ * once both compute it. The counters can be read from any thread at any time.
+ */
+public final class OperationCache {
+
+    /**
+     * The operations that go through the cache.
+     */
+    enum Operation {ADD, MULTIPLY}
+
+    private static volatile OperationCache installed;
+
+    private final long maxWeight;
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true); // In order of access
+    private long weight; // Guarded by entries
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * Creates an empty cache, which isn't used until it is installed.
+     *
+     * @param maxWeight the most coefficients the operands and results of all the entries keep together
+     * @throws IllegalArgumentException if maxWeight is less than 1
+     */
+    public OperationCache(long maxWeight){
+        if(maxWeight < 1)
+            throw new IllegalArgumentException("Weight must be at least 1");
+        this.maxWeight = maxWeight;
+    }
+
+    /**
+     * Makes the operations of every thread go through the given cache from now on, in place of the one installed
+     * before if any. The entries of a cache stay in it when another one is installed.
+     *
+     * @param cache the cache to use, or null to turn caching off
+     */
+    public static void install(OperationCache cache){
+        installed = cache;
+    }
+
+    /**
+     * @return the cache the operations go through, or null when caching is off
+     */
+    public static OperationCache installed(){
+        return installed;
+    }
+
+    /**
+     * Returns the cached result of p op q, or computes it and keeps it.
+     *
+     * @param operation the operation, which decides the entry together with the operands
+     * @param p the polynomial the operation is called on
+     * @param q the parameter of the operation
+     * @param compute computes the operation of p with its parameter without the cache
+     * @return p op q
+     */
+    Polynomial get(Operation operation, Polynomial p, Polynomial q, UnaryOperator<Polynomial> compute){
+        if(!cacheable(q))
+            return compute.apply(q); // Also throws for a null q in the same way as without the cache
+        Key key = new Key(operation, p, q);
+        synchronized(entries){
+            Entry entry = entries.get(key);
+            if(entry != null){
+                hits.incrementAndGet();
+                return entry.result;
+            }
+        }
+        misses.incrementAndGet();
+        Polynomial result = compute.apply(q);
+        long w = (long) weight(p) + weight(q) + weight(result);
+        if(w > maxWeight || !cacheable(result))
+            return result;
+        synchronized(entries){
+            Entry old = entries.put(key, new Entry(result, w));
+            weight += old == null ? w : w - old.weight;
+            Iterator<Entry> eldest = entries.values().iterator();
+            while(weight > maxWeight){
+                weight -= eldest.next().weight;
+                eldest.remove();
+                evictions.incrementAndGet();
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Removes every entry. The counters keep counting from where they are.
+     */
+    public void clear(){
+        synchronized(entries){
+            entries.clear();
+            weight = 0;
+        }
+    }
+
+    /**
+     * @return the number of operations whose result was found in the cache
+     */
+    public long hits(){
+        return hits.get();
+    }
+
+    /**
+     * @return the number of operations that were computed since their result wasn't in the cache
+     */
+    public long misses(){
+        return misses.get();
+    }
+
+    /**
+     * @return the number of entries that were removed to keep the weight under the bound
+     */
+    public long evictions(){
+        return evictions.get();
+    }
+
+    /**
+     * @return the number of entries in the cache
+     */
+    public int size(){
+        synchronized(entries){
+            return entries.size();
+        }
+    }
+
+    /**
+     * @return the number of coefficients kept by the entries of the cache
+     */
+    public long weight(){
+        synchronized(entries){
+            return weight;
+        }
+    }
+
+    /**
+     * @return the most coefficients the entries of the cache can keep
+     */
+    public long maxWeight(){
+        return maxWeight;
+    }
+
+    /**
+     * @return true if p is of a class whose instances never change
+     */
+    private static boolean cacheable(Polynomial p){
+        return p instanceof DensePolynomial || p instanceof SparsePolynomial || p instanceof SortedSparsePolynomial;
+    }
+
+    /**
+     * @return the length of the array of a DensePolynomial, and the number of terms of the others
+     */
+    private static int weight(Polynomial p){
+        return p instanceof DensePolynomial ? p.degree() + 1 : Math.max(1, Polynomials.terms(p));
+    }
+
+    /**
+     * An operation and its operands. Operands of different classes are different keys even when they are equal,
+     * since the class of the result can depend on them.
+     */
+    private static final class Key {
+        private final Operation operation;
+        private final Polynomial p;
+        private final Polynomial q;
+        private final int hash;
+
+        private Key(Operation operation, Polynomial p, Polynomial q){
+            this.operation = operation;
+            this.p = p;
+            this.q = q;
+            this.hash = Objects.hash(operation, p, q);
+        }
+
+        @Override
+        public boolean equals(Object o){
+            if(!(o instanceof Key))
+                return false;
+            Key k = (Key) o;
+            return operation == k.operation && hash == k.hash && same(p, k.p) && same(q, k.q);
+        }
+
+        private static boolean same(Polynomial a, Polynomial b){
+            return a == b || (a.getClass() == b.getClass() && a.equals(b));
+        }
+
+        @Override
+        public int hashCode(){
+            return hash;
+        }
+    }
+
+    /**
+     * A result with the weight of its entry.
+     */
+    private static final class Entry {
+        private final Polynomial result;
+        private final long weight;
+
+        private Entry(Polynomial result, long weight){
+            this.result = result;
+            this.weight = weight;
+        }
+    }
+}
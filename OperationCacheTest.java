@@ -0,0 +1,125 @@
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+class OperationCacheTest {
+
+    @Test
+    void hitsAndMisses() {
+        OperationCache cache = new OperationCache(1000);
+        OperationCache.install(cache);
+        try {
+            Polynomial p = new DensePolynomial("3x^2 + 2x + 1");
+            Polynomial q = new SparsePolynomial("x^50 - 1");
+            Polynomial product = p.multiply(q);
+            assertEquals(0, cache.hits());
+            assertEquals(1, cache.misses());
+            assertSame(product, new DensePolynomial("3x^2 + 2x + 1").multiply(new SparsePolynomial("x^50 - 1")));
+            assertEquals(1, cache.hits());
+            Polynomial sum = q.add(p);
+            assertSame(sum, q.add(p));
+            assertEquals(2, cache.hits());
+            assertEquals(2, cache.misses());
+            assertEquals(2, cache.size());
+            assertEquals(new SparsePolynomial("x^50 + 3x^2 + 2x"), sum);
+            assertNotSame(product, p.multiply(DensePolynomial.of(q))); // An equal operand of another class
+            assertEquals(product, p.multiply(DensePolynomial.of(q)));
+            int[] coefficients = ((DensePolynomial) p.multiply(p)).getIntPoly();
+            coefficients[0] = 100;
+            assertEquals(1, p.multiply(p).getCoefficient(0));
+            assertEquals(new DensePolynomial("9x^4 + 12x^3 + 10x^2 + 4x + 1"), p.multiply(p));
+        }finally {
+            OperationCache.install(null);
+        }
+    }
+
+    @Test
+    void classOfOperands() {
+        OperationCache cache = new OperationCache(1000);
+        OperationCache.install(cache);
+        try {
+            Polynomial dense = new DensePolynomial("x + 1");
+            Polynomial sparse = new SparsePolynomial("x + 1");
+            assertTrue(dense.multiply(dense) instanceof DensePolynomial);
+            assertTrue(sparse.multiply(new SparsePolynomial("x^1000")) instanceof SparsePolynomial);
+            assertTrue(dense.multiply(new SparsePolynomial("x^1000")) instanceof SparsePolynomial);
+            assertEquals(0, cache.hits());
+            assertEquals(dense.subtract(dense), new DensePolynomial("0"));
+            assertEquals(3, cache.size());
+            assertThrows(NullPointerException.class, () -> dense.add(null));
+            assertThrows(IllegalArgumentException.class, () -> dense.add(new SparsePolynomial("x^-1")));
+        }finally {
+            OperationCache.install(null);
+        }
+    }
+
+    @Test
+    void eviction() {
+        OperationCache cache = new OperationCache(30);
+        OperationCache.install(cache);
+        try {
+            Polynomial p = new DensePolynomial("x^4 + 1");
+            Polynomial[] q = new Polynomial[4];
+            for(int i = 0; i < q.length; i++){
+                q[i] = new DensePolynomial("x^2 + " + (i + 1)); // Every entry weighs 5 + 3 + 7
+                p.multiply(q[i]);
+            }
+            assertEquals(2, cache.size());
+            assertEquals(30, cache.weight());
+            assertEquals(2, cache.evictions());
+            p.multiply(q[2]); // Now the entry of q[3] is the one used the longest time ago
+            p.multiply(q[0]);
+            assertEquals(1, cache.hits());
+            assertEquals(3, cache.evictions());
+            p.multiply(q[2]);
+            assertEquals(2, cache.hits());
+            p.multiply(new DensePolynomial("x^30 + 1"));
+            assertEquals(2, cache.size());
+            cache.clear();
+            assertEquals(0, cache.size());
+            assertEquals(0, cache.weight());
+            assertThrows(IllegalArgumentException.class, () -> new OperationCache(0));
+        }finally {
+            OperationCache.install(null);
+        }
+    }
+
+    @Test
+    void concurrent() throws Exception {
+        OperationCache cache = new OperationCache(100000);
+        OperationCache.install(cache);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Polynomial[] basis = new Polynomial[8];
+            for(int i = 0; i < basis.length; i++)
+                basis[i] = new DensePolynomial("x^" + (i + 2) + " + " + (i + 2) + "x + 1");
+            List<Future<Boolean>> futures = new ArrayList<>();
+            for(int t = 0; t < 16; t++){
+                futures.add(executor.submit(() -> {
+                    boolean same = true;
+                    for(int i = 0; i < basis.length; i++){
+                        for(int j = 0; j < basis.length; j++){
+                            Polynomial expected = ((DensePolynomial) basis[i]).product(basis[j], null, 0);
+                            same &= expected.equals(basis[i].multiply(basis[j]));
+                            same &= ((DensePolynomial) basis[i]).sum(basis[j]).equals(basis[i].add(basis[j]));
+                        }
+                    }
+                    return same;
+                }));
+            }
+            for(Future<Boolean> future: futures)
+                assertTrue(future.get());
+            assertEquals(128, cache.size());
+            assertEquals(16 * 128, cache.hits() + cache.misses());
+            assertTrue(cache.misses() >= 128);
+        }finally {
+            executor.shutdown();
+            OperationCache.install(null);
+        }
+    }
+}
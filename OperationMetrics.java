@@ -0,0 +1,408 @@
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Counts the operations of DensePolynomial and SparsePolynomial with the time they took and the size of their
+ * operands, to find out which operations and sizes dominate a real workload.
+ *
+ * The metrics are off unless the JVM is started with -Dpolynomials.metrics=true. The switch is read once into a
+ * static final field, so while it is off the JIT compiler removes the instrumentation from the operations and they
+ * cost nothing more than without it. While it is on, every completed add, subtract, multiply, minus, toString and
+ * parse, both with the string constructors and with Polynomials.parse(), adds its time to a histogram of its
+ * operation and class. Operations that throw are not counted. subtract() negates its parameter with minus(), which is
+ * counted as a minus as well.
+ *
+ * The histograms are arrays of LongAdder, which threads can add to at once without contending for a single counter.
+ * The times are put in buckets of a quarter of a power of two, so a percentile is known within 25%, and the operand
+ * sizes are put in buckets of a power of two. The size of a polynomial is the length of the array of a
+ * DensePolynomial and the number of terms of the others, summed over both operands, and the size of a parse is the
+ * length of the string.
+ *
+ * snapshot() and snapshots() copy the current values, and register() makes them visible over JMX through
+ * OperationMetricsMXBean.
+ */
+public final class OperationMetrics {
+    /**
+     * True if the JVM was started with -Dpolynomials.metrics=true.
+     */
+    public static final boolean ENABLED = Boolean.getBoolean("polynomials.metrics");
+
+    /**
+     * The name the MXBean is registered under.
+     */
+    public static final String OBJECT_NAME = "polynomials:type=OperationMetrics";
+
+    /**
+     * The operations that are counted.
+     */
+    public enum Operation {ADD, SUBTRACT, MULTIPLY, MINUS, TO_STRING, PARSE}
+
+    private static final int SUB_BUCKETS = 4; // Buckets of the times for every power of two
+    private static final int TIME_BUCKETS = SUB_BUCKETS * 62;
+    private static final int SIZE_BUCKETS = 65;
+    private static final Class<?>[] TYPES = {DensePolynomial.class, SparsePolynomial.class};
+    private static final Recorder[][] RECORDERS = ENABLED ? recorders() : null;
+
+    private OperationMetrics(){
+    }
+
+    /**
+     * Counts an operation of p with q that started at the given time and ended now. Only called when ENABLED is true.
+     *
+     * @param operation the operation
+     * @param p the polynomial the operation was called on
+     * @param q the parameter of the operation, or null if it has none
+     * @param start the System.nanoTime() when the operation started
+     */
+    static void record(Operation operation, Polynomial p, Polynomial q, long start){
+        record(operation, p, start, (long) size(p) + size(q));
+    }
+
+    /**
+     * Counts an operation that started at the given time and ended now. Only called when ENABLED is true.
+     *
+     * @param operation the operation
+     * @param p the polynomial the operation was called on, or the result of Polynomials.parse()
+     * @param start the System.nanoTime() when the operation started
+     * @param size the size of the operands
+     */
+    static void record(Operation operation, Polynomial p, long start, long size){
+        long nanos = System.nanoTime() - start;
+        RECORDERS[p instanceof DensePolynomial ? 0 : 1][operation.ordinal()].record(Math.max(0, nanos), size);
+    }
+
+    /**
+     * @return the size of p as it is counted in the histograms of the operand sizes
+     */
+    static int size(Polynomial p){
+        if(p instanceof SparsePolynomial)
+            return ((SparsePolynomial) p).size();
+        if(p instanceof SortedSparsePolynomial)
+            return ((SortedSparsePolynomial) p).exponents().length;
+        return p == null ? 0 : p.degree() + 1;
+    }
+
+    /**
+     * Copies the metrics of one operation of one class.
+     *
+     * @param type DensePolynomial.class or SparsePolynomial.class
+     * @param operation the operation
+     * @return the counts so far
+     * @throws NullPointerException if type or operation is null
+     * @throws IllegalArgumentException if type is another class
+     * @throws IllegalStateException if the metrics are off
+     */
+    public static Snapshot snapshot(Class<? extends Polynomial> type, Operation operation){
+        if(type == null || operation == null)
+            throw new NullPointerException();
+        if(!ENABLED)
+            throw new IllegalStateException("Metrics are off, start with -Dpolynomials.metrics=true");
+        for(int i = 0; i < TYPES.length; i++){
+            if(TYPES[i] == type)
+                return RECORDERS[i][operation.ordinal()].snapshot(type, operation);
+        }
+        throw new IllegalArgumentException(type.getName());
+    }
+
+    /**
+     * Copies the metrics of every operation of both classes.
+     *
+     * @return the counts so far, or an empty list if the metrics are off
+     */
+    public static List<Snapshot> snapshots(){
+        List<Snapshot> list = new ArrayList<>();
+        if(!ENABLED)
+            return list;
+        for(int i = 0; i < TYPES.length; i++){
+            for(Operation operation: Operation.values())
+                list.add(RECORDERS[i][operation.ordinal()].snapshot(TYPES[i], operation));
+        }
+        return list;
+    }
+
+    /**
+     * Sets every count back to zero. Operations that run at the same time may be counted partly.
+     */
+    public static void reset(){
+        if(!ENABLED)
+            return;
+        for(Recorder[] recorders: RECORDERS){
+            for(Recorder recorder: recorders)
+                recorder.reset();
+        }
+    }
+
+    /**
+     * Registers the MXBean of the metrics with the platform MBean server under OBJECT_NAME. Nothing is registered
+     * while the metrics are off, since there is nothing to show.
+     *
+     * @return the name of the MXBean
+     * @throws JMException if the MXBean can't be registered, for example when it already is
+     */
+    public static ObjectName register() throws JMException {
+        ObjectName name = new ObjectName(OBJECT_NAME);
+        if(!ENABLED)
+            return name;
+        ManagementFactory.getPlatformMBeanServer().registerMBean(new Bean(), name);
+        return name;
+    }
+
+    private static Recorder[][] recorders(){
+        Recorder[][] recorders = new Recorder[TYPES.length][Operation.values().length];
+        for(Recorder[] row: recorders){
+            for(int j = 0; j < row.length; j++)
+                row[j] = new Recorder();
+        }
+        return recorders;
+    }
+
+    /**
+     * @return the bucket of a time, 0 to 3 for the times below 4 and then SUB_BUCKETS for every power of two
+     */
+    static int timeBucket(long nanos){
+        if(nanos < SUB_BUCKETS)
+            return (int) nanos;
+        int power = 63 - Long.numberOfLeadingZeros(nanos);
+        int sub = (int) (nanos >>> (power - 2)) & (SUB_BUCKETS - 1);
+        return SUB_BUCKETS * (power - 1) + sub;
+    }
+
+    /**
+     * @return the smallest time in a bucket
+     */
+    static long timeBucketStart(int bucket){
+        if(bucket < SUB_BUCKETS)
+            return bucket;
+        int power = bucket / SUB_BUCKETS + 1;
+        return (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << (power - 2);
+    }
+
+    /**
+     * The counters of one operation of one class.
+     */
+    private static final class Recorder {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+        private final LongAdder[] times = adders(TIME_BUCKETS);
+        private final LongAdder[] sizes = adders(SIZE_BUCKETS);
+
+        private void record(long time, long size){
+            count.increment();
+            nanos.add(time);
+            times[timeBucket(time)].increment();
+            sizes[64 - Long.numberOfLeadingZeros(size)].increment();
+        }
+
+        private Snapshot snapshot(Class<?> type, Operation operation){
+            return new Snapshot(type.getSimpleName(), operation, count.sum(), nanos.sum(), sums(times), sums(sizes));
+        }
+
+        private void reset(){
+            count.reset();
+            nanos.reset();
+            for(LongAdder adder: times)
+                adder.reset();
+            for(LongAdder adder: sizes)
+                adder.reset();
+        }
+
+        private static LongAdder[] adders(int n){
+            LongAdder[] adders = new LongAdder[n];
+            for(int i = 0; i < n; i++)
+                adders[i] = new LongAdder();
+            return adders;
+        }
+
+        private static long[] sums(LongAdder[] adders){
+            long[] sums = new long[adders.length];
+            for(int i = 0; i < adders.length; i++)
+                sums[i] = adders[i].sum();
+            return sums;
+        }
+    }
+
+    /**
+     * The metrics of one operation of one class at one point in time.
+     */
+    public static final class Snapshot {
+        private final String type;
+        private final Operation operation;
+        private final long count;
+        private final long totalNanos;
+        private final long[] times;
+        private final long[] sizes;
+
+        Snapshot(String type, Operation operation, long count, long totalNanos, long[] times, long[] sizes){
+            this.type = type;
+            this.operation = operation;
+            this.count = count;
+            this.totalNanos = totalNanos;
+            this.times = times;
+            this.sizes = sizes;
+        }
+
+        /**
+         * @return the simple name of the class, DensePolynomial or SparsePolynomial
+         */
+        public String type(){
+            return type;
+        }
+
+        /**
+         * @return the operation
+         */
+        public Operation operation(){
+            return operation;
+        }
+
+        /**
+         * @return the number of operations
+         */
+        public long count(){
+            return count;
+        }
+
+        /**
+         * @return the time of all the operations together in nanoseconds
+         */
+        public long totalNanos(){
+            return totalNanos;
+        }
+
+        /**
+         * Finds the time that the given share of the operations took at most, rounded up to the end of its bucket.
+         *
+         * @param quantile the share of the operations, such as 0.5 for the median or 0.99
+         * @return the time in nanoseconds, or 0 when nothing was counted
+         * @throws IllegalArgumentException if quantile is not between 0 and 1
+         */
+        public long percentileNanos(double quantile){
+            int bucket = percentile(times, quantile);
+            if(bucket < 0)
+                return 0;
+            return bucket == TIME_BUCKETS - 1 ? Long.MAX_VALUE : timeBucketStart(bucket + 1) - 1;
+        }
+
+        /**
+         * Finds the operand size that the given share of the operations had at most, rounded up to a power of two.
+         *
+         * @param quantile the share of the operations, such as 0.5 for the median or 0.99
+         * @return the size, or 0 when nothing was counted
+         * @throws IllegalArgumentException if quantile is not between 0 and 1
+         */
+        public long percentileSize(double quantile){
+            int bucket = percentile(sizes, quantile);
+            return bucket <= 0 ? 0 : bucket == SIZE_BUCKETS - 1 ? Long.MAX_VALUE : (1L << bucket) - 1;
+        }
+
+        /**
+         * @return the number of operations for every power of two of the operand size, where the entry at i counts
+         * the sizes from 2^(i - 1) to 2^i - 1 and the entry at 0 counts the size 0
+         */
+        public long[] sizeCounts(){
+            return sizes.clone();
+        }
+
+        /**
+         * @return the bucket that holds the given share of the counts, or -1 if they are all 0
+         */
+        private static int percentile(long[] counts, double quantile){
+            if(!(quantile >= 0 && quantile <= 1))
+                throw new IllegalArgumentException("Quantile must be between 0 and 1");
+            long total = 0;
+            for(long c: counts)
+                total += c;
+            if(total == 0)
+                return -1;
+            long rank = Math.max(1, (long) Math.ceil(quantile * total));
+            long seen = 0;
+            for(int i = 0; i < counts.length; i++){
+                seen += counts[i];
+                if(seen >= rank)
+                    return i;
+            }
+            return counts.length - 1;
+        }
+
+        @Override
+        public String toString(){
+            return type + "." + operation + ": count=" + count + ", totalNanos=" + totalNanos + ", p50="
+                    + percentileNanos(0.5) + "ns, p99=" + percentileNanos(0.99) + "ns, p50Size="
+                    + percentileSize(0.5);
+        }
+    }
+
+    /**
+     * The MXBean, which reads every attribute from a new set of snapshots.
+     */
+    private static final class Bean implements OperationMetricsMXBean {
+
+        @Override
+        public boolean isEnabled(){
+            return ENABLED;
+        }
+
+        @Override
+        public Map<String, Long> getCounts(){
+            Map<String, Long> map = new TreeMap<>();
+            for(Snapshot s: snapshots())
+                map.put(key(s), s.count());
+            return map;
+        }
+
+        @Override
+        public Map<String, Long> getTotalNanos(){
+            Map<String, Long> map = new TreeMap<>();
+            for(Snapshot s: snapshots())
+                map.put(key(s), s.totalNanos());
+            return map;
+        }
+
+        @Override
+        public Map<String, Long> getMedianNanos(){
+            return percentiles(0.5, false);
+        }
+
+        @Override
+        public Map<String, Long> getP99Nanos(){
+            return percentiles(0.99, false);
+        }
+
+        @Override
+        public Map<String, Long> getP999Nanos(){
+            return percentiles(0.999, false);
+        }
+
+        @Override
+        public Map<String, Long> getMedianOperandSize(){
+            return percentiles(0.5, true);
+        }
+
+        @Override
+        public Map<String, Long> getP99OperandSize(){
+            return percentiles(0.99, true);
+        }
+
+        @Override
+        public void reset(){
+            OperationMetrics.reset();
+        }
+
+        private static Map<String, Long> percentiles(double quantile, boolean size){
+            Map<String, Long> map = new TreeMap<>();
+            for(Snapshot s: snapshots())
+                map.put(key(s), size ? s.percentileSize(quantile) : s.percentileNanos(quantile));
+            return map;
+        }
+
+        private static String key(Snapshot s){
+            return s.type() + "." + s.operation();
+        }
+    }
+}
@@ -0,0 +1,54 @@
+import java.util.Map;
+
+/**
+ * The metrics of OperationMetrics over JMX. Every map has an entry for every operation of both classes, under a key
+ * such as "DensePolynomial.MULTIPLY", and is empty while the metrics are off.
+ */
+public interface OperationMetricsMXBean {
+
+    /**
+     * @return true if the JVM was started with -Dpolynomials.metrics=true
+     */
+    boolean isEnabled();
+
+    /**
+     * @return the number of operations
+     */
+    Map<String, Long> getCounts();
+
+    /**
+     * @return the time of all the operations together in nanoseconds
+     */
+    Map<String, Long> getTotalNanos();
+
+    /**
+     * @return the median time in nanoseconds, within 25%
+     */
+    Map<String, Long> getMedianNanos();
+
+    /**
+     * @return the time in nanoseconds that 99% of the operations took at most, within 25%
+     */
+    Map<String, Long> getP99Nanos();
+
+    /**
+     * @return the time in nanoseconds that 99.9% of the operations took at most, within 25%
+     */
+    Map<String, Long> getP999Nanos();
+
+    /**
+     * @return the median size of the operands, rounded up to one less than a power of two
+     */
+    Map<String, Long> getMedianOperandSize();
+
+    /**
+     * @return the size of the operands that 99% of the operations had at most, rounded up to one less than a power
+     * of two
+     */
+    Map<String, Long> getP99OperandSize();
+
+    /**
+     * Sets every count back to zero.
+     */
+    void reset();
+}
@@ -0,0 +1,103 @@
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import javax.management.JMX;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+class OperationMetricsTest {
+
+    @Test
+    void buckets() {
+        for(long nanos: new long[]{0, 1, 3, 4, 5, 7, 8, 9, 15, 16, 1000, 123456789, 1L << 40, Long.MAX_VALUE}){
+            int bucket = OperationMetrics.timeBucket(nanos);
+            assertTrue(OperationMetrics.timeBucketStart(bucket) <= nanos);
+            if(nanos < Long.MAX_VALUE / 2)
+                assertTrue(OperationMetrics.timeBucketStart(bucket + 1) > nanos);
+            if(nanos >= 4)
+                assertTrue(nanos - OperationMetrics.timeBucketStart(bucket) < nanos / 4 + 1);
+        }
+        assertEquals(4, OperationMetrics.timeBucket(4));
+        assertEquals(8, OperationMetrics.timeBucket(8));
+        assertEquals(OperationMetrics.timeBucket(10), OperationMetrics.timeBucket(11));
+    }
+
+    @Test
+    void percentiles() {
+        long[] times = new long[4 * 62];
+        times[OperationMetrics.timeBucket(100)] = 90;
+        times[OperationMetrics.timeBucket(10000)] = 10;
+        long[] sizes = new long[65];
+        sizes[3] = 50;
+        sizes[11] = 50;
+        OperationMetrics.Snapshot s = new OperationMetrics.Snapshot("DensePolynomial",
+                OperationMetrics.Operation.ADD, 100, 190000, times, sizes);
+        assertTrue(s.percentileNanos(0.5) >= 100 && s.percentileNanos(0.5) < 125);
+        assertTrue(s.percentileNanos(0.9) < 125);
+        assertTrue(s.percentileNanos(0.99) >= 10000 && s.percentileNanos(0.99) < 12500);
+        assertEquals(7, s.percentileSize(0.5));
+        assertEquals(2047, s.percentileSize(0.51));
+        s.sizeCounts()[3] = 0;
+        assertEquals(50, s.sizeCounts()[3]);
+        assertThrows(IllegalArgumentException.class, () -> s.percentileNanos(1.5));
+        assertEquals(0, new OperationMetrics.Snapshot("SparsePolynomial", OperationMetrics.Operation.MINUS, 0, 0,
+                new long[4 * 62], new long[65]).percentileNanos(0.5));
+    }
+
+    @Test
+    void operations() throws Exception {
+        if(!OperationMetrics.ENABLED){ // The run of the build without -Dpolynomials.metrics=true
+            Polynomial p = new DensePolynomial("3x^3 + 2x + 1");
+            p.multiply(new SparsePolynomial("x^100 - 1")).add(p).subtract(p).minus().toString();
+            assertTrue(OperationMetrics.snapshots().isEmpty());
+            assertThrows(IllegalStateException.class,
+                    () -> OperationMetrics.snapshot(DensePolynomial.class, OperationMetrics.Operation.ADD));
+            ObjectName name = OperationMetrics.register();
+            assertEquals(OperationMetrics.OBJECT_NAME, name.toString());
+            assertFalse(ManagementFactory.getPlatformMBeanServer().isRegistered(name));
+            OperationMetrics.register(); // Doesn't fail as registering twice would
+            return;
+        }
+        OperationMetrics.reset();
+        Polynomial p = new DensePolynomial("3x^3 + 2x + 1");
+        Polynomial q = new SparsePolynomial("x^100 - 1");
+        p.multiply(q);
+        p.multiply(p);
+        q.add(q);
+        p.subtract(p);
+        q.minus();
+        p.toString();
+        Polynomials.parse("x^2 + 1");
+        assertEquals(2, OperationMetrics.snapshot(DensePolynomial.class, OperationMetrics.Operation.MULTIPLY).count());
+        assertEquals(1, OperationMetrics.snapshot(SparsePolynomial.class, OperationMetrics.Operation.ADD).count());
+        assertEquals(1, OperationMetrics.snapshot(DensePolynomial.class, OperationMetrics.Operation.SUBTRACT).count());
+        assertEquals(2, OperationMetrics.snapshot(DensePolynomial.class, OperationMetrics.Operation.MINUS).count()
+                + OperationMetrics.snapshot(SparsePolynomial.class, OperationMetrics.Operation.MINUS).count());
+        assertEquals(1, OperationMetrics.snapshot(DensePolynomial.class, OperationMetrics.Operation.TO_STRING).count());
+        assertEquals(2, OperationMetrics.snapshot(DensePolynomial.class, OperationMetrics.Operation.PARSE).count());
+        assertEquals(1, OperationMetrics.snapshot(SparsePolynomial.class, OperationMetrics.Operation.PARSE).count());
+        OperationMetrics.Snapshot add = OperationMetrics.snapshot(SparsePolynomial.class,
+                OperationMetrics.Operation.ADD);
+        assertEquals(1, add.sizeCounts()[3]); // Two operands of 2 terms
+        assertEquals(7, add.percentileSize(0.5));
+        assertEquals(12, OperationMetrics.snapshots().size());
+        assertThrows(IllegalArgumentException.class,
+                () -> OperationMetrics.snapshot(SortedSparsePolynomial.class, OperationMetrics.Operation.ADD));
+
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = OperationMetrics.register();
+        try {
+            assertEquals(true, server.getAttribute(name, "Enabled"));
+            assertNotNull(server.getAttribute(name, "Counts"));
+            OperationMetricsMXBean bean = JMX.newMXBeanProxy(server, name, OperationMetricsMXBean.class);
+            Map<String, Long> counts = bean.getCounts();
+            assertEquals(Long.valueOf(2), counts.get("DensePolynomial.MULTIPLY"));
+            bean.reset();
+            assertEquals(Long.valueOf(0), bean.getCounts().get("DensePolynomial.MULTIPLY"));
+        }finally {
+            server.unregisterMBean(name);
+        }
+    }
+}
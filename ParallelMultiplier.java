@@ -0,0 +1,157 @@
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Multiplies coefficient arrays on the threads of a ForkJoinPool. The top of the recursion of Karatsuba's method is
+ * split into tasks: the low, high and middle products of a balanced split are computed at the same time, and the
+ * halves of the longer operand of an unbalanced split as well. Below that the products are computed by
+ * DenseMultiplier, and products that use the number theoretic transform compute the convolutions for the three primes
+ * of NttMultiplier at the same time.
+ *
+ * Every level of Karatsuba's method on top of the transform adds work, so the recursion is only split until there are
+ * about as many tasks as threads in the pool. Operands shorter than the threshold are never split.
+ *
+ * The coefficients are ints that wrap around on overflow, which is exact arithmetic modulo 2^32, so the result is
+ * exactly the same as the sequential one no matter how the products are split or in what order they are added.
+ */
+final class ParallelMultiplier {
+    /**
+     * Default minimum length of both operands before the product is split into tasks.
+     *
+     * Measured on one core with both operands of n random coefficients, against DenseMultiplier with the same operands:
+     * with 3 threads, where only the three convolutions of the transform are separate tasks, the tasks add 5 us at
+     * n = 2^10 and 20 us at n = 2^14, out of 360 us and 7.5 ms. With 4 threads the extra level of Karatsuba's method
+     * makes the total work 1.4 times larger from n = 2^11 on (7.5 ms against 10.7 ms at n = 2^14), which only pays off
+     * when the threads really run at the same time. At 2^14 the cost of the tasks is below 0.3% of the product, so
+     * splitting can't make a product noticeably slower when the cores are busy. ParallelMultiplyBenchmark in the jmh
+     * project compares thresholds on a machine with several cores.
+     */
+    static final int THRESHOLD = 1 << 14;
+
+    private ParallelMultiplier(){
+    }
+
+    /**
+     * Multiplies the first aLen coefficients of a with the first bLen coefficients of b on the threads of the pool.
+     *
+     * @param a coefficients of the first polynomial
+     * @param aLen number of coefficients of a to use, must be at least 1
+     * @param b coefficients of the second polynomial
+     * @param bLen number of coefficients of b to use, must be at least 1
+     * @param pool the pool that runs the tasks
+     * @param threshold products where an operand is shorter than this are computed sequentially
+     * @return a new array of length aLen + bLen - 1 holding the coefficients of the product
+     */
+    static int[] multiply(int[] a, int aLen, int[] b, int bLen, ForkJoinPool pool, int threshold){
+        int parallelism = pool.getParallelism();
+        if(Math.min(aLen, bLen) < threshold || parallelism == 1)
+            return DenseMultiplier.multiply(a, aLen, b, bLen);
+        int depth = 0; // Levels of the recursion that are split, the transform itself gives three tasks
+        for(int tasks = 3; tasks < parallelism; tasks *= 3)
+            depth++;
+        return pool.invoke(new Product(a, 0, aLen, b, 0, bLen, depth, threshold));
+    }
+
+    /**
+     * The product of a[ao .. ao+al) and b[bo .. bo+bl).
+     */
+    private static final class Product extends RecursiveTask<int[]> {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] a, b;
+        private final int ao, al, bo, bl;
+        private final int depth;
+        private final int threshold;
+
+        Product(int[] a, int ao, int al, int[] b, int bo, int bl, int depth, int threshold){
+            if(al < bl){ // Keeps a as the longer operand
+                this.a = b;
+                this.ao = bo;
+                this.al = bl;
+                this.b = a;
+                this.bo = ao;
+                this.bl = al;
+            }else{
+                this.a = a;
+                this.ao = ao;
+                this.al = al;
+                this.b = b;
+                this.bo = bo;
+                this.bl = bl;
+            }
+            this.depth = depth;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected int[] compute(){
+            if(depth == 0 || bl < 2 * threshold)
+                return leaf();
+            int m = (al + 1) / 2;
+            int[] r = new int[al + bl - 1];
+            if(bl <= m){ // Unbalanced operands, multiplies b with both halves of a
+                Product low = new Product(a, ao, m, b, bo, bl, depth - 1, threshold);
+                Product high = new Product(a, ao + m, al - m, b, bo, bl, depth - 1, threshold);
+                invokeAll(low, high);
+                add(low.join(), r, 0);
+                add(high.join(), r, m);
+                return r;
+            }
+            int a1Len = al - m;
+            int b1Len = bl - m;
+            int[] aSum = new int[m];
+            int[] bSum = new int[m];
+            for(int i = 0; i < m; i++){
+                aSum[i] = a[ao + i] + (i < a1Len ? a[ao + m + i] : 0);
+                bSum[i] = b[bo + i] + (i < b1Len ? b[bo + m + i] : 0);
+            }
+            Product low = new Product(a, ao, m, b, bo, m, depth - 1, threshold);
+            Product high = new Product(a, ao + m, a1Len, b, bo + m, b1Len, depth - 1, threshold);
+            Product sum = new Product(aSum, 0, m, bSum, 0, m, depth - 1, threshold);
+            invokeAll(low, high, sum);
+            int[] lowProduct = low.join();
+            int[] highProduct = high.join();
+            int[] middle = sum.join();
+            for(int i = 0; i < lowProduct.length; i++)
+                middle[i] -= lowProduct[i];
+            for(int i = 0; i < highProduct.length; i++)
+                middle[i] -= highProduct[i];
+            add(lowProduct, r, 0);
+            add(highProduct, r, 2 * m);
+            add(middle, r, m);
+            return r;
+        }
+
+        /**
+         * Computes the product without splitting the recursion, running the three convolutions of the transform as
+         * separate tasks.
+         */
+        private int[] leaf(){
+            int[] x = ao == 0 ? a : Arrays.copyOfRange(a, ao, ao + al);
+            int[] y = bo == 0 ? b : Arrays.copyOfRange(b, bo, bo + bl);
+            if(!NttMultiplier.suitable(al, bl))
+                return DenseMultiplier.multiply(x, al, y, bl);
+            int length = al + bl - 1;
+            int size = NttMultiplier.transformSize(length);
+            ForkJoinTask<int[]> r0 = convolution(x, y, size, 0);
+            ForkJoinTask<int[]> r1 = convolution(x, y, size, 1);
+            ForkJoinTask<int[]> r2 = convolution(x, y, size, 2);
+            invokeAll(r0, r1, r2);
+            return NttMultiplier.combine(r0.join(), r1.join(), r2.join(), length);
+        }
+
+        private ForkJoinTask<int[]> convolution(int[] x, int[] y, int size, int prime){
+            return ForkJoinTask.adapt(() -> NttMultiplier.convolve(x, al, y, bl, size, NttMultiplier.prime(prime)));
+        }
+
+        /**
+         * Adds the product into r starting at position offset.
+         */
+        private static void add(int[] product, int[] r, int offset){
+            for(int i = 0; i < product.length; i++)
+                r[offset + i] += product[i];
+        }
+    }
+}
@@ -1,3 +1,5 @@
+import java.math.BigInteger;
+
 public interface Polynomial {
     /**
      * Returns the degree of the polynomial.
@@ -12,9 +14,19 @@ public interface Polynomial {
      *
      * @param d the exponent whose coefficient is returned.
      * @return the coefficient of the term of whose exponent is d.
+     * @throws ArithmeticException if the coefficient doesn't fit in an int
      */
     int getCoefficient(int d);
 
+    /**
+     * Returns the exact coefficient corresponding to the given exponent, which can be larger than an int once an
+     * operation has overflowed the int coefficients. Returns 0 if there is no term with that exponent.
+     *
+     * @param d the exponent whose coefficient is returned.
+     * @return the coefficient of the term of whose exponent is d.
+     */
+    BigInteger getBigCoefficient(int d);
+
     /**
      * @return true if the polynomial represents the zero constant
      */
@@ -57,6 +69,98 @@ public interface Polynomial {
      */
     Polynomial minus();
 
+    /**
+     * Returns a polynomial by multiplying the current instance with itself. The current instance is not modified.
+     *
+     * @return <code>this * this</code>
+     */
+    Polynomial square();
+
+    /**
+     * Returns a polynomial by raising the current instance to the given power with repeated squaring. The current
+     * instance is not modified.
+     *
+     * @param n the power, at least 0
+     * @return <code>this</code> to the power of n, which is 1 when n is 0
+     * @throws IllegalArgumentException if n is negative
+     */
+    Polynomial pow(int n);
+
+    /**
+     * Returns the quotient and the remainder of dividing the current instance by the parameter, so that
+     * <code>this = quotient * q + remainder</code> and the remainder has a lower degree than q. Neither the current
+     * instance nor the parameter are modified.
+     *
+     * @param q the non-zero polynomial to divide <code>this</code> by
+     * @return an array holding the quotient followed by the remainder
+     * @throws NullPointerException if q is null
+     * @throws ArithmeticException if q is zero or the quotient doesn't have integer coefficients
+     */
+    Polynomial[] divideAndRemainder(Polynomial q);
+
+    /**
+     * Returns the remainder of dividing the current instance by the parameter. Neither the current instance nor the
+     * parameter are modified.
+     *
+     * @param q the non-zero polynomial to divide <code>this</code> by
+     * @return <code>this mod </code>q, which has a lower degree than q
+     * @throws NullPointerException if q is null
+     * @throws ArithmeticException if q is zero or the quotient doesn't have integer coefficients
+     */
+    Polynomial mod(Polynomial q);
+
+    /**
+     * Returns the greatest common divisor of the current instance and the parameter over the integers, which is the
+     * polynomial of the highest degree and then the largest content that divides both, with a positive leading
+     * coefficient. Neither the current instance nor the parameter are modified.
+     *
+     * @param q the non-null polynomial
+     * @return gcd(<code>this</code>, q), which is 0 when both are 0
+     * @throws NullPointerException if q is null
+     * @throws IllegalArgumentException if either polynomial has a negative exponent
+     */
+    Polynomial gcd(Polynomial q);
+
+    /**
+     * Returns the value of the polynomial at the given integer. The arithmetic wraps around on overflow in the same
+     * way as the long arithmetic of Java, so the result is exact modulo 2^64.
+     *
+     * @param x the point at which the polynomial is evaluated
+     * @return the value of the polynomial at x
+     * @throws ArithmeticException if the polynomial has a negative exponent, since its value isn't an integer
+     */
+    long evaluate(long x);
+
+    /**
+     * Returns the value of the polynomial at the given point.
+     *
+     * @param x the point at which the polynomial is evaluated
+     * @return the value of the polynomial at x
+     */
+    double evaluate(double x);
+
+    /**
+     * Evaluates the polynomial at every point of xs and writes the value at xs[i] into out[i]. The two arrays can be
+     * the same array.
+     *
+     * @param xs the points at which the polynomial is evaluated
+     * @param out receives the values, it must be at least as long as xs
+     * @throws NullPointerException if xs or out is null
+     * @throws IllegalArgumentException if out is shorter than xs
+     */
+    void evaluate(double[] xs, double[] out);
+
+    /**
+     * Evaluates the polynomial at every integer point. The arithmetic is on ints, so the values are exact modulo 2^32
+     * and each one is the same as the lowest 32 bits of evaluate(long) at the point.
+     *
+     * @param points the points at which the polynomial is evaluated
+     * @return a new array holding the value at every point
+     * @throws NullPointerException if points is null
+     * @throws ArithmeticException if the polynomial has a negative exponent
+     */
+    int[] evaluate(int[] points);
+
     /**
      * Checks if the class invariant holds for the current instance.
      *
@@ -0,0 +1,322 @@
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * A mutable polynomial for summing many polynomials. Every add() of the polynomial classes creates a new polynomial,
+ * so summing n polynomials one by one copies the partial sum n times. The builder adds every polynomial into a single
+ * buffer instead, and build() turns the buffer into a DensePolynomial or SparsePolynomial at the end.
+ *
+ * The terms are kept in an int array indexed by the exponent while they are dense enough for it, and the array grows
+ * to twice its size when a larger exponent is added. They are moved to an IntIntMap once they are too spread out for
+ * the array or a negative exponent is added, following the same rule as Polynomials.of(). build() hands the array or
+ * the map over to the polynomial. The map is never copied, and the array is only copied once to cut off the unused
+ * positions at its end.
+ *
+ * The builder keeps a bound on the largest coefficient of the buffer, so the int coefficients are added without
+ * checking every sum for overflow. When an addition could overflow, the terms are moved into a map of exact BigInteger
+ * coefficients sorted by exponent, and every following polynomial is added into that map term by term. Neither
+ * buffer is ever copied to add a polynomial, and the builder only calls the kernels of the polynomial classes, so its
+ * work is not seen by OperationCache or OperationMetrics.
+ *
+ * A builder is not safe to use from several threads at the same time.
+ */
+public final class PolynomialBuilder {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final int capacity; // Length of the array when the builder is empty
+
+    private int[] dense; // Coefficient of every exponent while the terms are dense, null once they are in the map
+    private int length; // One more than the largest exponent in the array
+    private IntIntMap sparse; // Terms that are too spread out for the array or have a negative exponent
+    private TreeMap<Integer, BigInteger> wide; // Terms once an int coefficient could overflow, null before that
+    private double bound; // At least the largest absolute value of a coefficient of the array or the map
+
+    /**
+     * Creates an empty builder.
+     */
+    public PolynomialBuilder(){
+        this(INITIAL_CAPACITY - 1);
+    }
+
+    /**
+     * Creates an empty builder with room in its array for the terms up to the given degree.
+     *
+     * @param degree the expected degree of the sum
+     * @throws IllegalArgumentException if degree is negative
+     */
+    public PolynomialBuilder(int degree){
+        if(degree < 0)
+            throw new IllegalArgumentException("Negative degree " + degree);
+        capacity = degree + 1;
+        dense = new int[capacity];
+    }
+
+    /**
+     * Adds q to the polynomial of the builder.
+     *
+     * @param q a DensePolynomial, SparsePolynomial or SortedSparsePolynomial
+     * @return this builder
+     * @throws NullPointerException if q is null
+     */
+    public PolynomialBuilder addInPlace(Polynomial q){
+        return add(q, 1);
+    }
+
+    /**
+     * Subtracts q from the polynomial of the builder.
+     *
+     * @param q a DensePolynomial, SparsePolynomial or SortedSparsePolynomial
+     * @return this builder
+     * @throws NullPointerException if q is null
+     */
+    public PolynomialBuilder subtractInPlace(Polynomial q){
+        return add(q, -1);
+    }
+
+    /**
+     * Adds the term coefficient * x^exponent to the polynomial of the builder.
+     *
+     * @param coefficient the coefficient of the term
+     * @param exponent the exponent of the term, which may be negative
+     * @return this builder
+     */
+    public PolynomialBuilder addScaledTerm(int coefficient, int exponent){
+        if(coefficient == 0)
+            return this;
+        double m = Math.abs((double) coefficient);
+        if(wide == null && fits(m)){
+            if(reserve(exponent, exponent, 1))
+                dense[exponent] += coefficient;
+            else
+                sparse.add(exponent, coefficient);
+            bound += m;
+            return this;
+        }
+        toWide();
+        addWide(exponent, BigInteger.valueOf(coefficient));
+        return this;
+    }
+
+    /**
+     * Adds the product of p and q to the polynomial of the builder. The product of two int DensePolynomials that are
+     * too short for the number theoretic transform is added straight into the array of the builder, without creating
+     * the product as a polynomial.
+     *
+     * @param p a DensePolynomial, SparsePolynomial or SortedSparsePolynomial
+     * @param q a DensePolynomial, SparsePolynomial or SortedSparsePolynomial
+     * @return this builder
+     * @throws NullPointerException if p or q is null
+     * @throws IllegalArgumentException if p.multiply(q) throws it
+     */
+    public PolynomialBuilder addProduct(Polynomial p, Polynomial q){
+        if(p == null || q == null)
+            throw new NullPointerException();
+        if(p.isZero() || q.isZero())
+            return this;
+        if(wide == null && p instanceof DensePolynomial && q instanceof DensePolynomial){
+            int[] a = ((DensePolynomial) p).coefficients();
+            int[] b = ((DensePolynomial) q).coefficients();
+            if(a != null && b != null && !NttMultiplier.suitable(a.length, b.length)){
+                double m = Polynomials.productBound(p, q);
+                long terms = Math.min((long) a.length * b.length, a.length + b.length - 1);
+                if(fits(m) && reserve(0, a.length + b.length - 2, terms)){
+                    DenseMultiplier.multiplyAdd(a, 0, a.length, b, 0, b.length, dense, 0);
+                    bound += m;
+                    return this;
+                }
+            }
+        }
+        return addInPlace(product(p, q));
+    }
+
+    /**
+     * Multiplies p and q with the kernel of the class of p, without going through OperationCache or OperationMetrics.
+     * DensePolynomial doesn't take an operand with negative exponents, so a sparse q goes first instead.
+     */
+    private static Polynomial product(Polynomial p, Polynomial q){
+        if(p instanceof DensePolynomial && !(q instanceof DensePolynomial))
+            return product(q, p);
+        if(p instanceof DensePolynomial)
+            return ((DensePolynomial) p).product(q, null, 0);
+        if(p instanceof SparsePolynomial)
+            return ((SparsePolynomial) p).product(q);
+        return p.multiply(q);
+    }
+
+    /**
+     * Turns the builder into a polynomial, stored as a DensePolynomial or a SparsePolynomial by the same rule as
+     * Polynomials.of(). The buffer of the builder is handed over to the polynomial, and the builder starts again from
+     * an empty polynomial with the array of the size it was created with.
+     *
+     * @return the polynomial of the builder
+     */
+    public Polynomial build(){
+        Polynomial result;
+        if(wide != null){
+            int[] exponents = new int[wide.size()];
+            BigInteger[] coefficients = new BigInteger[wide.size()];
+            int i = 0;
+            for(Map.Entry<Integer, BigInteger> term: wide.entrySet()){
+                exponents[i] = term.getKey();
+                coefficients[i] = term.getValue();
+                i++;
+            }
+            result = Polynomials.of(new SparsePolynomial(new WideTerms(exponents, coefficients)));
+        }else if(dense != null)
+            result = Polynomials.of(new DensePolynomial(dense));
+        else
+            result = Polynomials.of(new SparsePolynomial(sparse));
+        dense = new int[capacity];
+        length = 0;
+        sparse = null;
+        wide = null;
+        bound = 0;
+        return result;
+    }
+
+    /**
+     * Adds q multiplied by sign, without checking for overflow while the bound shows that no sum can overflow.
+     */
+    private PolynomialBuilder add(Polynomial q, int sign){
+        if(q == null)
+            throw new NullPointerException();
+        if(wide != null || Polynomials.wide(q) || !fits(Polynomials.magnitude(q))){
+            toWide();
+            WideTerms terms = WideTerms.of(q);
+            for(int i = 0; i < terms.exponents.length; i++)
+                addWide(terms.exponents[i], sign > 0 ? terms.coefficients[i] : terms.coefficients[i].negate());
+            return this;
+        }
+        double m = Polynomials.magnitude(q);
+        if(q instanceof DensePolynomial){
+            int[] arr = ((DensePolynomial) q).coefficients();
+            if(reserve(0, arr.length - 1, Polynomials.terms(q))){
+                if(sign > 0){
+                    for(int i = 0; i < arr.length; i++)
+                        dense[i] += arr[i];
+                }else{
+                    for(int i = 0; i < arr.length; i++)
+                        dense[i] -= arr[i];
+                }
+            }else{
+                for(int i = 0; i < arr.length; i++)
+                    sparse.add(i, sign * arr[i]);
+            }
+        }else if(q instanceof SparsePolynomial){
+            SparsePolynomial s = (SparsePolynomial) q;
+            IntIntMap terms = s.terms();
+            boolean inArray = reserve(s.lowestExponent(), q.degree(), terms.size());
+            for(int slot = 0; slot < terms.capacity(); slot++){
+                if(!terms.isUsed(slot))
+                    continue;
+                if(inArray)
+                    dense[terms.keyAt(slot)] += sign * terms.valueAt(slot);
+                else
+                    sparse.add(terms.keyAt(slot), sign * terms.valueAt(slot));
+            }
+        }else{
+            SortedSparsePolynomial s = (SortedSparsePolynomial) q;
+            int[] exponents = s.exponents();
+            int[] coefficients = s.coefficients();
+            int lowest = exponents.length == 0 ? 0 : Math.min(0, exponents[0]);
+            if(reserve(lowest, q.degree(), exponents.length)){
+                for(int i = 0; i < exponents.length; i++)
+                    dense[exponents[i]] += sign * coefficients[i];
+            }else{
+                for(int i = 0; i < exponents.length; i++)
+                    sparse.add(exponents[i], sign * coefficients[i]);
+            }
+        }
+        bound += m;
+        return this;
+    }
+
+    /**
+     * Checks if a coefficient of absolute value m can be added to every coefficient of the buffer without overflow.
+     * The bound only grows while adding, so it is made exact again before giving up.
+     */
+    private boolean fits(double m){
+        if(bound + m <= Integer.MAX_VALUE)
+            return true;
+        bound = dense != null ? Polynomials.magnitude(dense) : Polynomials.magnitude(sparse);
+        return bound + m <= Integer.MAX_VALUE;
+    }
+
+    /**
+     * Makes room in the array for the exponents from lowest to degree, or moves the terms to the map if they would be
+     * too spread out for the array.
+     *
+     * @param terms the number of terms that are going to be added
+     * @return true if the terms go into the array, false if they go into the map
+     */
+    private boolean reserve(int lowest, int degree, long terms){
+        if(dense == null)
+            return false;
+        if(lowest >= 0 && degree < dense.length){
+            length = Math.max(length, degree + 1);
+            return true;
+        }
+        if(lowest >= 0 && Polynomials.prefersDense(0, degree, count() + terms)){
+            int size = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(degree + 1L, 2L * dense.length));
+            dense = Arrays.copyOf(dense, size);
+            length = degree + 1;
+            return true;
+        }
+        sparse = new IntIntMap(count() + (int) Math.min(terms, Integer.MAX_VALUE / 2));
+        for(int i = 0; i < length; i++){
+            if(dense[i] != 0)
+                sparse.put(i, dense[i]);
+        }
+        dense = null;
+        length = 0;
+        return false;
+    }
+
+    /**
+     * @return the number of non-zero coefficients in the array
+     */
+    private int count(){
+        int count = 0;
+        for(int i = 0; i < length; i++){
+            if(dense[i] != 0)
+                count++;
+        }
+        return count;
+    }
+
+    /**
+     * Moves the terms of the array or the map into the map of exact coefficients, unless they are there already.
+     */
+    private void toWide(){
+        if(wide != null)
+            return;
+        wide = new TreeMap<>();
+        if(dense != null){
+            for(int i = 0; i < length; i++){
+                if(dense[i] != 0)
+                    wide.put(i, BigInteger.valueOf(dense[i]));
+            }
+        }else{
+            for(int slot = 0; slot < sparse.capacity(); slot++){
+                if(sparse.isUsed(slot))
+                    wide.put(sparse.keyAt(slot), BigInteger.valueOf(sparse.valueAt(slot)));
+            }
+        }
+        dense = null;
+        length = 0;
+        sparse = null;
+        bound = 0;
+    }
+
+    /**
+     * Adds a term to the map of exact coefficients, removing the exponent when its coefficient becomes 0.
+     */
+    private void addWide(int exponent, BigInteger coefficient){
+        wide.merge(exponent, coefficient, (a, b) -> {
+            BigInteger sum = a.add(b);
+            return sum.signum() == 0 ? null : sum;
+        });
+    }
+}
@@ -0,0 +1,95 @@
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+class PolynomialBuilderTest {
+
+    @Test
+    void addInPlace() {
+        Random random = new Random(15);
+        PolynomialBuilder builder = new PolynomialBuilder();
+        Polynomial sum = new DensePolynomial("0");
+        for(int n = 0; n < 200; n++){
+            StringBuilder str = new StringBuilder();
+            int degree = random.nextInt(300);
+            for(int i = degree; i >= 0; i -= 1 + random.nextInt(4))
+                str.append(" + ").append(2 + random.nextInt(1000)).append(i > 1 ? "x^" + i : i == 1 ? "x" : "");
+            Polynomial q = n % 3 == 0 ? new SparsePolynomial(str.substring(3)) : new DensePolynomial(str.substring(3));
+            if(n % 4 == 0){
+                builder.subtractInPlace(q);
+                sum = sum.subtract(q);
+            }else{
+                builder.addInPlace(q);
+                sum = sum.add(q);
+            }
+        }
+        Polynomial built = builder.build();
+        assertTrue(built instanceof DensePolynomial);
+        assertEquals(sum, built);
+        assertTrue(builder.build().isZero());
+    }
+
+    @Test
+    void addScaledTerm() {
+        PolynomialBuilder builder = new PolynomialBuilder();
+        builder.addScaledTerm(3, 2).addScaledTerm(-1, 0).addScaledTerm(4, 2).addScaledTerm(0, 5);
+        assertEquals(new DensePolynomial("7x^2 - 1"), builder.build());
+        builder.addScaledTerm(1, 1000000).addScaledTerm(2, -3);
+        Polynomial sparse = builder.build();
+        assertTrue(sparse instanceof SparsePolynomial);
+        assertEquals(new SparsePolynomial("x^1000000 + 2x^-3"), sparse);
+        builder.addInPlace(new SortedSparsePolynomial("5x^3 + x^-1")).addScaledTerm(-1, -1);
+        assertEquals(new DensePolynomial("5x^3"), builder.build());
+    }
+
+    @Test
+    void addProduct() {
+        Polynomial p = new DensePolynomial("3x^4 - 2x^2 + x + 7");
+        Polynomial q = new DensePolynomial("x^3 + 5x - 1");
+        Polynomial s = new SparsePolynomial("x^500 - x^-2");
+        PolynomialBuilder builder = new PolynomialBuilder(2);
+        builder.addProduct(p, q).addProduct(q, q).addProduct(s, p);
+        assertEquals(s.multiply(p).add(p.multiply(q)).add(q.multiply(q)), builder.build());
+        builder.addProduct(p, s).addProduct(p, new SortedSparsePolynomial("2x^-3")); // Dense first, negative exponents
+        assertEquals(s.multiply(p).add(new SparsePolynomial("6x - 4x^-1 + 2x^-2 + 14x^-3")), builder.build());
+        assertThrows(NullPointerException.class, () -> builder.addProduct(p, null));
+        assertThrows(NullPointerException.class, () -> builder.addInPlace(null));
+    }
+
+    @Test
+    void overflow() {
+        PolynomialBuilder builder = new PolynomialBuilder();
+        Polynomial max = new DensePolynomial(Integer.MAX_VALUE + "x^2 + 1");
+        builder.addInPlace(max).addInPlace(max).addScaledTerm(Integer.MAX_VALUE, 2);
+        Polynomial sum = builder.build();
+        assertEquals(BigInteger.valueOf(Integer.MAX_VALUE).multiply(BigInteger.valueOf(3)), sum.getBigCoefficient(2));
+        assertEquals(2, sum.getCoefficient(0));
+        builder.addInPlace(max).addInPlace(max).subtractInPlace(max);
+        Polynomial back = builder.build();
+        assertEquals(max, back);
+        assertEquals(Integer.MAX_VALUE, back.getCoefficient(2));
+    }
+
+    @Test
+    void wideBypassesCache() {
+        OperationCache cache = new OperationCache(1000);
+        OperationCache.install(cache);
+        try {
+            PolynomialBuilder builder = new PolynomialBuilder();
+            Polynomial max = new SparsePolynomial(Integer.MAX_VALUE + "x^3 - x^-2");
+            builder.addInPlace(max).addInPlace(max).addScaledTerm(5, -2).subtractInPlace(new DensePolynomial("x^3"));
+            builder.addProduct(max, new DensePolynomial("x + 1"));
+            Polynomial sum = builder.build();
+            BigInteger big = BigInteger.valueOf(Integer.MAX_VALUE);
+            assertEquals(big.multiply(BigInteger.valueOf(3)).subtract(BigInteger.ONE), sum.getBigCoefficient(3));
+            assertEquals(big, sum.getBigCoefficient(4));
+            assertEquals(2, sum.getCoefficient(-2));
+            assertEquals(-1, sum.getCoefficient(-1));
+            assertEquals(0, cache.hits() + cache.misses());
+        }finally {
+            OperationCache.install(null);
+        }
+    }
+}
@@ -0,0 +1,397 @@
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads and writes polynomials in a compact binary format, which is much smaller and faster to load than the string
+ * of a polynomial of large degree.
+ *
+ * Every number is little-endian. The file starts with a header of 16 bytes:
+ *
+ *     int  magic    0x594C4F50, the bytes "POLY"
+ *     byte version  1
+ *     byte kind     0 for dense, 1 for sparse
+ *     2 bytes       0, reserved
+ *     int  width    bytes of every coefficient: 4 for ints, 8 for longs, otherwise a two's complement BigInteger
+ *     int  count    number of coefficients of a dense polynomial or number of terms of a sparse one
+ *
+ * A dense polynomial follows with its count coefficients from exponent 0 to the degree, so the coefficients of ints
+ * are one block that is copied into the array of a DensePolynomial at once. A sparse polynomial follows with count
+ * pairs of an int exponent and its coefficient, in ascending order of the exponent and without 0 coefficients.
+ *
+ * read() returns a DensePolynomial for a dense file and a SparsePolynomial for a sparse one, which are equal to the
+ * polynomial that was written. map() maps a file into memory without loading it into the heap, and reads single
+ * coefficients from the mapping on demand, finding the terms of a sparse file with a binary search.
+ */
+public final class PolynomialFile {
+    static final int MAGIC = 0x594C4F50;
+    static final byte VERSION = 1;
+    static final int HEADER = 16;
+    private static final byte DENSE = 0;
+    private static final byte SPARSE = 1;
+    private static final int BUFFER = 1 << 16; // Bytes written to the channel at once
+    private static final int WINDOW = 1 << 30; // Most bytes mapped at once while reading
+    private static final int MAX_WIDTH = 1 << 24; // Largest width accepted by the reader
+
+    private final boolean dense;
+    private final int width;
+    private final int count;
+    private ByteBuffer data; // The coefficients or terms after the header, null until they are mapped
+
+    private PolynomialFile(boolean dense, int width, int count){
+        this.dense = dense;
+        this.width = width;
+        this.count = count;
+    }
+
+    /**
+     * Writes p at the current position of the channel and moves the position past it.
+     *
+     * @param p a DensePolynomial, SparsePolynomial or SortedSparsePolynomial
+     * @param channel a channel open for writing
+     * @throws NullPointerException if p or channel is null
+     * @throws IOException if writing to the channel fails
+     */
+    public static void write(Polynomial p, FileChannel channel) throws IOException{
+        if(p == null || channel == null)
+            throw new NullPointerException();
+        int[] exponents = null, ints = null;
+        long[] longs = null;
+        BigInteger[] bigs = null;
+        if(p instanceof DensePolynomial){
+            DensePolynomial d = (DensePolynomial) p;
+            ints = d.coefficients();
+            if(ints == null)
+                longs = d.storedLongs();
+            if(ints == null && longs == null){
+                bigs = new BigInteger[d.degree() + 1];
+                for(int i = 0; i < bigs.length; i++)
+                    bigs[i] = d.getBigCoefficient(i);
+            }
+        }else if(Polynomials.wide(p)){
+            WideTerms terms = WideTerms.of(p);
+            exponents = terms.exponents;
+            bigs = terms.coefficients;
+        }else{
+            SortedSparsePolynomial s = p instanceof SparsePolynomial ? ((SparsePolynomial) p).sorted()
+                    : (SortedSparsePolynomial) p;
+            exponents = s.exponents();
+            ints = s.coefficients();
+        }
+        int width = ints != null ? 4 : longs != null ? 8 : byteLength(bigs);
+        int count = exponents != null ? exponents.length : ints != null ? ints.length
+                : longs != null ? longs.length : bigs.length;
+        int entry = (exponents != null ? 4 : 0) + width;
+        ByteBuffer buf = ByteBuffer.allocateDirect(Math.max(BUFFER, HEADER + entry)).order(ByteOrder.LITTLE_ENDIAN);
+        buf.putInt(MAGIC).put(VERSION).put(exponents != null ? SPARSE : DENSE).putShort((short) 0);
+        buf.putInt(width).putInt(count);
+        for(int i = 0; i < count; i++){
+            if(buf.remaining() < entry)
+                flush(buf, channel);
+            if(exponents != null)
+                buf.putInt(exponents[i]);
+            if(ints != null)
+                buf.putInt(ints[i]);
+            else if(longs != null)
+                buf.putLong(longs[i]);
+            else
+                putBig(buf, bigs[i], width);
+        }
+        flush(buf, channel);
+    }
+
+    /**
+     * Writes p into the file at the given path, replacing the file if it exists.
+     *
+     * @param p a DensePolynomial, SparsePolynomial or SortedSparsePolynomial
+     * @param path the file to write
+     * @throws NullPointerException if p or path is null
+     * @throws IOException if writing the file fails
+     */
+    public static void write(Polynomial p, Path path) throws IOException{
+        if(p == null)
+            throw new NullPointerException();
+        try(FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)){
+            write(p, channel);
+        }
+    }
+
+    /**
+     * Reads a polynomial from the current position of the channel and moves the position past it. The data is
+     * mapped from the file and copied straight into the arrays of the polynomial.
+     *
+     * @param channel a channel open for reading
+     * @return a DensePolynomial or SparsePolynomial equal to the polynomial that was written
+     * @throws NullPointerException if channel is null
+     * @throws IOException if reading the channel fails or it doesn't hold a polynomial in this format
+     */
+    public static Polynomial read(FileChannel channel) throws IOException{
+        long start = channel.position();
+        ByteBuffer header = ByteBuffer.allocate(HEADER).order(ByteOrder.LITTLE_ENDIAN);
+        while(header.hasRemaining()){
+            if(channel.read(header, start + header.position()) < 0)
+                throw new IOException("Truncated polynomial file");
+        }
+        PolynomialFile file = header(header, channel.size() - start - HEADER);
+        Terms terms = file.new Terms();
+        int entry = file.entry();
+        int perWindow = WINDOW / entry;
+        long position = start + HEADER;
+        for(int i = 0; i < file.count; i += perWindow){
+            int k = Math.min(perWindow, file.count - i);
+            ByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position, (long) k * entry);
+            terms.read(window.order(ByteOrder.LITTLE_ENDIAN), i, k);
+            position += (long) k * entry;
+        }
+        channel.position(position);
+        return terms.toPolynomial();
+    }
+
+    /**
+     * Reads the polynomial in the file at the given path.
+     *
+     * @param path the file to read
+     * @return a DensePolynomial or SparsePolynomial equal to the polynomial that was written
+     * @throws NullPointerException if path is null
+     * @throws IOException if reading the file fails or it doesn't hold a polynomial in this format
+     */
+    public static Polynomial read(Path path) throws IOException{
+        try(FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)){
+            return read(channel);
+        }
+    }
+
+    /**
+     * Maps the file at the given path into memory. Nothing is read into the heap until a coefficient is asked for,
+     * and the operating system only loads the pages of the file that are used.
+     *
+     * @param path the file to map
+     * @return the mapped file
+     * @throws NullPointerException if path is null
+     * @throws IOException if mapping the file fails, the file is larger than 2 GB or it doesn't hold a polynomial in
+     * this format
+     */
+    public static PolynomialFile map(Path path) throws IOException{
+        try(FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)){
+            long size = channel.size();
+            if(size > Integer.MAX_VALUE)
+                throw new IOException("Polynomial file is too large to map");
+            ByteBuffer buf = channel.map(FileChannel.MapMode.READ_ONLY, 0, size).order(ByteOrder.LITTLE_ENDIAN);
+            PolynomialFile file = header(buf, size - HEADER);
+            buf.position(HEADER);
+            file.data = buf.slice().order(ByteOrder.LITTLE_ENDIAN);
+            if(file.dense && file.count > 1 && file.value(file.count - 1).signum() == 0)
+                throw new IOException("Dense polynomial file ends with a 0 coefficient");
+            return file;
+        }
+    }
+
+    /**
+     * @return true if the file holds a dense polynomial, false if it holds a sparse one
+     */
+    public boolean isDense(){
+        return dense;
+    }
+
+    /**
+     * @return the number of coefficients of a dense polynomial or the number of terms of a sparse one
+     */
+    public int size(){
+        return count;
+    }
+
+    /**
+     * @return the degree of the polynomial in the file
+     */
+    public int degree(){
+        if(dense)
+            return count - 1;
+        return count == 0 ? 0 : data.getInt((count - 1) * entry());
+    }
+
+    /**
+     * Reads the coefficient of the term with exponent d from the mapped file.
+     *
+     * @param d the exponent
+     * @return the coefficient of x^d, which is 0 when there is no such term
+     * @throws ArithmeticException if the coefficient doesn't fit in an int
+     */
+    public int getCoefficient(int d){
+        return getBigCoefficient(d).intValueExact();
+    }
+
+    /**
+     * Reads the exact coefficient of the term with exponent d from the mapped file.
+     *
+     * @param d the exponent
+     * @return the coefficient of x^d, which is 0 when there is no such term
+     */
+    public BigInteger getBigCoefficient(int d){
+        if(dense)
+            return d < 0 || d >= count ? BigInteger.ZERO : value(d);
+        int entry = entry();
+        int low = 0, high = count - 1;
+        while(low <= high){
+            int mid = (low + high) >>> 1;
+            int exponent = data.getInt(mid * entry);
+            if(exponent < d)
+                low = mid + 1;
+            else if(exponent > d)
+                high = mid - 1;
+            else
+                return value(mid);
+        }
+        return BigInteger.ZERO;
+    }
+
+    /**
+     * Loads the whole polynomial from the mapped file into the heap.
+     *
+     * @return a DensePolynomial or SparsePolynomial equal to the polynomial that was written
+     * @throws IOException if the terms of a sparse file are not in ascending order or have a 0 coefficient
+     */
+    public Polynomial toPolynomial() throws IOException{
+        Terms terms = new Terms();
+        terms.read(data.duplicate().order(ByteOrder.LITTLE_ENDIAN), 0, count);
+        return terms.toPolynomial();
+    }
+
+    /**
+     * Checks the header at the start of buf.
+     *
+     * @param available the number of bytes after the header
+     */
+    private static PolynomialFile header(ByteBuffer buf, long available) throws IOException{
+        if(buf.limit() < HEADER || buf.getInt(0) != MAGIC)
+            throw new IOException("Not a polynomial file");
+        if(buf.get(4) != VERSION)
+            throw new IOException("Unsupported polynomial file version " + buf.get(4));
+        byte kind = buf.get(5);
+        int width = buf.getInt(8);
+        int count = buf.getInt(12);
+        if((kind != DENSE && kind != SPARSE) || width < 1 || width > MAX_WIDTH || count < (kind == DENSE ? 1 : 0))
+            throw new IOException("Malformed polynomial file header");
+        PolynomialFile file = new PolynomialFile(kind == DENSE, width, count);
+        if(available < (long) count * file.entry())
+            throw new IOException("Truncated polynomial file");
+        return file;
+    }
+
+    /**
+     * @return the number of bytes of a coefficient, or of a term of a sparse polynomial
+     */
+    private int entry(){
+        return dense ? width : 4 + width;
+    }
+
+    /**
+     * @return the coefficient of the i-th entry of the mapped data
+     */
+    private BigInteger value(int i){
+        return getBig(data, dense ? i * width : i * (4 + width) + 4, width);
+    }
+
+    /**
+     * Writes the bytes of the buffer to the channel and clears the buffer.
+     */
+    private static void flush(ByteBuffer buf, FileChannel channel) throws IOException{
+        buf.flip();
+        while(buf.hasRemaining())
+            channel.write(buf);
+        buf.clear();
+    }
+
+    /**
+     * @return the number of bytes of the two's complement of the largest coefficient
+     */
+    private static int byteLength(BigInteger[] arr){
+        int bits = 0;
+        for(BigInteger x: arr)
+            bits = Math.max(bits, x.bitLength());
+        return bits / 8 + 1;
+    }
+
+    /**
+     * Puts x into width bytes in little-endian two's complement.
+     */
+    private static void putBig(ByteBuffer buf, BigInteger x, int width){
+        byte[] bytes = x.toByteArray(); // Big-endian
+        byte fill = (byte) (x.signum() < 0 ? -1 : 0);
+        for(int k = 0; k < width; k++)
+            buf.put(k < bytes.length ? bytes[bytes.length - 1 - k] : fill);
+    }
+
+    /**
+     * @return the number of width bytes at the given position, read as ints and longs when they are 4 or 8 bytes
+     */
+    private static BigInteger getBig(ByteBuffer buf, int position, int width){
+        if(width == 4)
+            return BigInteger.valueOf(buf.getInt(position));
+        if(width == 8)
+            return BigInteger.valueOf(buf.getLong(position));
+        byte[] bytes = new byte[width];
+        for(int k = 0; k < width; k++)
+            bytes[width - 1 - k] = buf.get(position + k);
+        return new BigInteger(bytes);
+    }
+
+    /**
+     * The arrays that the entries of a file are read into, one window of the file at a time.
+     */
+    private final class Terms {
+        private final int[] exponents = dense ? null : new int[count];
+        private final int[] ints = width == 4 ? new int[count] : null;
+        private final long[] longs = dense && width == 8 ? new long[count] : null;
+        private final BigInteger[] bigs = ints == null && longs == null ? new BigInteger[count] : null;
+
+        /**
+         * Reads the entries from first to first + k - 1, which start at the beginning of buf.
+         */
+        void read(ByteBuffer buf, int first, int k) throws IOException{
+            if(dense && ints != null)
+                buf.asIntBuffer().get(ints, first, k);
+            else if(dense && longs != null)
+                buf.asLongBuffer().get(longs, first, k);
+            else{
+                int entry = entry();
+                for(int i = 0; i < k; i++){
+                    int position = i * entry;
+                    if(!dense){
+                        exponents[first + i] = buf.getInt(position);
+                        position += 4;
+                        if(first + i > 0 && exponents[first + i] <= exponents[first + i - 1])
+                            throw new IOException("Sparse polynomial file is not in ascending order");
+                    }
+                    if(ints != null)
+                        ints[first + i] = buf.getInt(position);
+                    else
+                        bigs[first + i] = getBig(buf, position, width);
+                    if(!dense && (ints != null ? ints[first + i] == 0 : bigs[first + i].signum() == 0))
+                        throw new IOException("Sparse polynomial file has a 0 coefficient");
+                }
+            }
+        }
+
+        /**
+         * @return the polynomial of the entries, with its coefficients in the narrowest tier they fit in
+         */
+        Polynomial toPolynomial(){
+            if(dense){
+                if(ints != null)
+                    return new DensePolynomial(ints);
+                return longs != null ? new DensePolynomial(longs) : new DensePolynomial(bigs);
+            }
+            if(ints == null)
+                return new SparsePolynomial(new WideTerms(exponents, bigs));
+            IntIntMap map = new IntIntMap(count);
+            for(int i = 0; i < count; i++)
+                map.put(exponents[i], ints[i]);
+            return new SparsePolynomial(map);
+        }
+    }
+}
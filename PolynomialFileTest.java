@@ -0,0 +1,104 @@
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Random;
+
+class PolynomialFileTest {
+
+    @Test
+    void roundTrip(@TempDir Path dir) throws IOException {
+        int[] coefficients = new int[100000];
+        Random random = new Random(16);
+        for(int i = 0; i < coefficients.length; i++)
+            coefficients[i] = random.nextInt();
+        coefficients[coefficients.length - 1] = 1;
+        Polynomial big = new DensePolynomial(coefficients);
+        Polynomial wide = new DensePolynomial(Integer.MAX_VALUE + "x^2 + 1").multiply(
+                new DensePolynomial(Integer.MAX_VALUE + "x + 7"));
+        Polynomial[] polynomials = {
+                new DensePolynomial("0"),
+                new DensePolynomial("3x^4 - 2x^2 + x + 7"),
+                big,
+                wide,
+                wide.multiply(wide).multiply(wide),
+                new SparsePolynomial("0"),
+                new SparsePolynomial("x^1000000 - 5x^3 + x^-7"),
+                new SparsePolynomial(Integer.MAX_VALUE + "x^1000000 - 1").multiply(
+                        new SparsePolynomial(Integer.MAX_VALUE + "x^1000000 + 1")),
+                new SortedSparsePolynomial("5x^20 + x^-1")
+        };
+        for(Polynomial p: polynomials){
+            Path file = dir.resolve("p.bin");
+            PolynomialFile.write(p, file);
+            Polynomial read = PolynomialFile.read(file);
+            assertEquals(p, read);
+            assertEquals(p.hashCode(), read.hashCode());
+            assertEquals(p instanceof DensePolynomial, read instanceof DensePolynomial);
+            assertEquals(p, PolynomialFile.map(file).toPolynomial());
+        }
+        assertTrue(Files.size(dir.resolve("p.bin")) < 64);
+    }
+
+    @Test
+    void channel(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("many.bin");
+        Polynomial p = new DensePolynomial("x^3 + 2x + 1");
+        Polynomial q = new SparsePolynomial("x^5000 - x");
+        try(FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE)){
+            PolynomialFile.write(p, channel);
+            PolynomialFile.write(q, channel);
+        }
+        try(FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)){
+            assertEquals(p, PolynomialFile.read(channel));
+            assertEquals(q, PolynomialFile.read(channel));
+            assertEquals(channel.size(), channel.position());
+        }
+    }
+
+    @Test
+    void map(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("p.bin");
+        PolynomialFile.write(new SparsePolynomial("x^1000000 - 5x^3 + 2x^-7"), file);
+        PolynomialFile sparse = PolynomialFile.map(file);
+        assertFalse(sparse.isDense());
+        assertEquals(3, sparse.size());
+        assertEquals(1000000, sparse.degree());
+        assertEquals(-5, sparse.getCoefficient(3));
+        assertEquals(2, sparse.getCoefficient(-7));
+        assertEquals(0, sparse.getCoefficient(4));
+
+        Polynomial wide = new DensePolynomial(Integer.MAX_VALUE + "x^2 + 1").multiply(
+                new DensePolynomial(Integer.MAX_VALUE + "x^2 - 1"));
+        PolynomialFile.write(wide, file);
+        PolynomialFile dense = PolynomialFile.map(file);
+        assertTrue(dense.isDense());
+        assertEquals(4, dense.degree());
+        assertEquals(BigInteger.valueOf(Integer.MAX_VALUE).pow(2), dense.getBigCoefficient(4));
+        assertEquals(-1, dense.getCoefficient(0));
+        assertEquals(0, dense.getCoefficient(5));
+        assertThrows(ArithmeticException.class, () -> dense.getCoefficient(4));
+    }
+
+    @Test
+    void malformed(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("bad.bin");
+        Files.write(file, "x^2 + 1".getBytes());
+        assertThrows(IOException.class, () -> PolynomialFile.read(file));
+        PolynomialFile.write(new DensePolynomial("x^3 + 1"), file);
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 1));
+        assertThrows(IOException.class, () -> PolynomialFile.read(file));
+        bytes[4] = 2;
+        Files.write(file, bytes);
+        assertThrows(IOException.class, () -> PolynomialFile.map(file));
+        assertThrows(NullPointerException.class, () -> PolynomialFile.write(null, file));
+    }
+}
@@ -0,0 +1,28 @@
+/**
+ * Thrown when the string given to the constructor of a polynomial does not hold the class invariant. The index of the
+ * character where the string stopped being valid is kept so it can be reported back to the user.
+ */
+public class PolynomialFormatException extends IllegalArgumentException {
+    private static final long serialVersionUID = 1L;
+
+    private final int errorIndex;
+
+    /**
+     * Creates the exception for the given string and position.
+     *
+     * @param str the string that was being read
+     * @param errorIndex the index of the first character that could not be accepted
+     */
+    public PolynomialFormatException(CharSequence str, int errorIndex){
+        super("Malformed polynomial at index " + errorIndex + ": \"" + str + "\"");
+        this.errorIndex = errorIndex;
+    }
+
+    /**
+     * @return the index of the first character that could not be accepted, or the length of the string if it ended
+     * too early
+     */
+    public int getErrorIndex(){
+        return errorIndex;
+    }
+}
@@ -0,0 +1,183 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigInteger;
+
+/**
+ * Writes polynomials as strings directly to an Appendable, such as a StringBuilder or a Writer, so large polynomials
+ * can be streamed to a file or a socket without building the whole string first. When writing to a Writer it should
+ * be buffered since every number and separator is appended separately.
+ *
+ * The terms are written in descending order of the exponent separated by " + ", in the same format that toString()
+ * has always used. Coefficients of 1 and -1 are left out in front of x, x^1 is written as x and a polynomial with no
+ * terms is written as 0. SparsePolynomial and SortedSparsePolynomial write x^1 out in full when it is their last term.
+ */
+public final class PolynomialFormatter {
+    private static final String SEPARATOR = " + ";
+    private static final int CHARS_PER_TERM = 12; // Rough length of one term, used to presize the builder
+
+    private PolynomialFormatter(){
+    }
+
+    /**
+     * Writes the given polynomial to the Appendable.
+     *
+     * @param p the polynomial to write
+     * @param out where the polynomial is written
+     * @throws IOException if out throws it
+     * @throws NullPointerException if p or out is null
+     * @throws IllegalArgumentException if p is not one of the polynomial classes of the package
+     */
+    public static void format(Polynomial p, Appendable out) throws IOException {
+        if(out == null)
+            throw new NullPointerException();
+        if(Polynomials.wide(p))
+            formatWide(WideTerms.of(p), p instanceof SparsePolynomial, out);
+        else if(p instanceof DensePolynomial)
+            formatDense(((DensePolynomial) p).coefficients(), out);
+        else if(p instanceof ModularPolynomial)
+            formatDense(((ModularPolynomial) p).coefficients(), out);
+        else if(p instanceof OffHeapPolynomial)
+            formatOffHeap((OffHeapPolynomial) p, out);
+        else if(p instanceof SparsePolynomial){
+            SortedSparsePolynomial sorted = ((SparsePolynomial) p).sorted();
+            formatSparse(sorted.exponents(), sorted.coefficients(), out);
+        }else if(p instanceof SortedSparsePolynomial)
+            formatSparse(((SortedSparsePolynomial) p).exponents(), ((SortedSparsePolynomial) p).coefficients(), out);
+        else if(p == null)
+            throw new NullPointerException();
+        else
+            throw new IllegalArgumentException();
+    }
+
+    /**
+     * Writes the given polynomial into a StringBuilder presized for the number of terms.
+     *
+     * @param p the polynomial to write
+     * @param terms the number of terms of the polynomial
+     * @return the string representation of the polynomial
+     */
+    static String toString(Polynomial p, int terms){
+        StringBuilder str = new StringBuilder(Math.max(1, terms) * CHARS_PER_TERM);
+        try {
+            format(p, str);
+        }catch(IOException e){ // A StringBuilder never throws it
+            throw new UncheckedIOException(e);
+        }
+        return str.toString();
+    }
+
+    /**
+     * Writes the coefficients of a dense polynomial, where the position of each coefficient is its exponent.
+     */
+    static void formatDense(int[] coefficients, Appendable out) throws IOException {
+        boolean first = true;
+        for(int i = coefficients.length - 1; i >= 0; i--){
+            if(coefficients[i] == 0)
+                continue;
+            if(!first)
+                out.append(SEPARATOR);
+            appendTerm(coefficients[i], i, true, out);
+            first = false;
+        }
+        if(first)
+            out.append('0');
+    }
+
+    /**
+     * Writes the coefficients of an off-heap polynomial in the same way as formatDense(), reading them one block at a
+     * time from the degree down.
+     */
+    static void formatOffHeap(OffHeapPolynomial p, Appendable out) throws IOException {
+        boolean first = true;
+        int[] block = new int[OffHeapPolynomial.BLOCK];
+        for(long end = p.length(); end > 0; end -= block.length){
+            int len = (int) Math.min(block.length, end);
+            p.read(end - len, block, len);
+            for(int i = len - 1; i >= 0; i--){
+                if(block[i] == 0)
+                    continue;
+                if(!first)
+                    out.append(SEPARATOR);
+                appendTerm(block[i], (int) (end - len + i), true, out);
+                first = false;
+            }
+        }
+        if(first)
+            out.append('0');
+    }
+
+    /**
+     * Writes the terms of a sparse polynomial given in ascending order of the exponent, with no 0 coefficients.
+     */
+    static void formatSparse(int[] exponents, int[] coefficients, Appendable out) throws IOException {
+        for(int i = exponents.length - 1; i >= 0; i--){
+            if(i != exponents.length - 1)
+                out.append(SEPARATOR);
+            appendTerm(coefficients[i], exponents[i], i != 0, out);
+        }
+        if(exponents.length == 0)
+            out.append('0');
+    }
+
+    /**
+     * Writes terms with coefficients that don't fit in an int, given in ascending order of the exponent.
+     *
+     * @param sparse true if x^1 is written out in full when it is the last term
+     */
+    static void formatWide(WideTerms terms, boolean sparse, Appendable out) throws IOException {
+        int[] exponents = terms.exponents;
+        for(int i = exponents.length - 1; i >= 0; i--){
+            if(i != exponents.length - 1)
+                out.append(SEPARATOR);
+            BigInteger coef = terms.coefficients[i];
+            if(exponents[i] == 0)
+                out.append(coef.toString());
+            else{
+                if(coef.equals(BigInteger.ONE.negate()))
+                    out.append('-');
+                else if(!coef.equals(BigInteger.ONE))
+                    out.append(coef.toString());
+                appendPower(exponents[i], i != 0 || !sparse, out);
+            }
+        }
+        if(exponents.length == 0)
+            out.append('0');
+    }
+
+    /**
+     * Writes one term.
+     *
+     * @param linear true if an exponent of 1 is written as x instead of x^1
+     */
+    private static void appendTerm(int coef, int exponent, boolean linear, Appendable out) throws IOException {
+        if(exponent == 0){
+            appendInt(coef, out);
+            return;
+        }
+        if(coef == -1)
+            out.append('-');
+        else if(coef != 1)
+            appendInt(coef, out);
+        appendPower(exponent, linear, out);
+    }
+
+    /**
+     * Writes x and its exponent.
+     *
+     * @param linear true if an exponent of 1 is written as x instead of x^1
+     */
+    private static void appendPower(int exponent, boolean linear, Appendable out) throws IOException {
+        out.append('x');
+        if(exponent != 1 || !linear){
+            out.append('^');
+            appendInt(exponent, out);
+        }
+    }
+
+    private static void appendInt(int value, Appendable out) throws IOException {
+        if(out instanceof StringBuilder)
+            ((StringBuilder) out).append(value); // Avoids creating a string for every number
+        else
+            out.append(Integer.toString(value));
+    }
+}
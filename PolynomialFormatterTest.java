@@ -0,0 +1,43 @@
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PolynomialFormatterTest {
+
+    @Test
+    void denseToString() {
+        String[][] strings = {{"0", "0"}, {"5", "5"}, {"-1", "-1"}, {"x", "x"}, {"-x", "-x"}, {"3x", "3x"},
+                {"-x^2 + x", "-x^2 + x"}, {"2x^10 + 5x^7 - 1", "2x^10 + 5x^7 + -1"},
+                {"-2x^10 - 5x^7 - x - 1", "-2x^10 + -5x^7 + -x + -1"},
+                {"x^50 + 3x^40 + x^35 + 65x^10 + 75x + 100", "x^50 + 3x^40 + x^35 + 65x^10 + 75x + 100"}};
+        for(String[] str: strings)
+            assertEquals(str[1], new DensePolynomial(str[0]).toString());
+        assertEquals("x^2 + -x", new DensePolynomial("-x^2 + x").minus().toString());
+        assertEquals("0", new DensePolynomial("x^2").subtract(new DensePolynomial("x^2")).toString());
+    }
+
+    @Test
+    void sparseToString() {
+        String[][] strings = {{"0", "0"}, {"5", "5"}, {"x", "x^1"}, {"-x", "-x^1"}, {"x^2 + 3x", "x^2 + 3x^1"},
+                {"-x^-1 + -3x^-5", "-x^-1 + -3x^-5"}, {"2x^10 + 5x^7 - x^-2 - x^-3", "2x^10 + 5x^7 + -x^-2 + -x^-3"},
+                {"x^2 + x + 1", "x^2 + x + 1"}, {"-4 + x^-1", "-4 + x^-1"}};
+        for(String[] str: strings){
+            assertEquals(str[1], new SparsePolynomial(str[0]).toString());
+            assertEquals(str[1], new SortedSparsePolynomial(str[0]).toString());
+        }
+        assertEquals("-x^2 + -x + -1", new SparsePolynomial("x^2 + x + 1").minus().toString());
+    }
+
+    @Test
+    void format() throws IOException {
+        StringWriter writer = new StringWriter();
+        PolynomialFormatter.format(new DensePolynomial("2x^10 + 5x^7 - 1"), writer);
+        writer.append('\n');
+        PolynomialFormatter.format(new SparsePolynomial("2x^10 - x^-2"), writer);
+        assertEquals("2x^10 + 5x^7 + -1\n2x^10 + -x^-2", writer.toString());
+        assertThrows(NullPointerException.class, () -> PolynomialFormatter.format(null, writer));
+    }
+}
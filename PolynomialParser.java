@@ -0,0 +1,160 @@
+/**
+ * Reads a polynomial written as a string in a single pass, checking the class invariant of the polynomial while the
+ * terms are read. Each term is handed to a TermConsumer as soon as it is accepted, so the classes can fill their own
+ * storage without splitting the string or creating substrings.
+ *
+ * The string holds terms in strictly descending order of the exponent separated by " + " or " - ". A term is an
+ * optional coefficient followed by x and an optional exponent after ^, or a constant. The coefficient in front of x
+ * can't be 0 or 1, an exponent of 0 has to be written as a constant and a constant of 0 is only valid when it is the
+ * only term. A minus sign followed by a space separates two terms, a minus sign without the space is part of the
+ * number it is written in front of. Spaces are otherwise ignored.
+ */
+final class PolynomialParser {
+
+    /**
+     * Receives the terms read by the parser in descending order of the exponent.
+     */
+    interface TermConsumer {
+        /**
+         * @param exponent the exponent of the term
+         * @param coefficient the coefficient of the term, which is only 0 for the zero constant
+         */
+        void term(int exponent, int coefficient);
+    }
+
+    private PolynomialParser(){
+    }
+
+    /**
+     * Reads the string and gives every term to the consumer.
+     *
+     * @param str the polynomial written as a string
+     * @param negativeExponents true if negative exponents are allowed
+     * @param consumer receives the terms of the polynomial
+     * @throws PolynomialFormatException if the string doesn't hold the class invariant
+     * @throws NullPointerException if str is null
+     */
+    static void parse(CharSequence str, boolean negativeExponents, TermConsumer consumer){
+        int errorIndex = scan(str, negativeExponents, consumer);
+        if(errorIndex != -1)
+            throw new PolynomialFormatException(str, errorIndex);
+    }
+
+    /**
+     * Checks the string without keeping any of the terms.
+     *
+     * @param str the polynomial written as a string
+     * @param negativeExponents true if negative exponents are allowed
+     * @return -1 if the string holds the class invariant, otherwise the index of the first invalid character
+     */
+    static int errorIndex(CharSequence str, boolean negativeExponents){
+        return scan(str, negativeExponents, null);
+    }
+
+    /**
+     * Reads the string, giving the terms to the consumer when it is not null.
+     *
+     * @return -1 if the string is valid, otherwise the index of the first invalid character
+     */
+    private static int scan(CharSequence str, boolean negativeExponents, TermConsumer consumer){
+        int length = str.length();
+        int pos = skipSpaces(str, 0);
+        long previousExponent = Long.MAX_VALUE;
+        boolean zeroConstant = false; // A constant of 0 has been read so no other term is allowed
+        boolean negativeTerm = false; // The term comes after " - "
+        while(true){
+            int termStart = pos;
+            if(zeroConstant)
+                return termStart;
+            int sign = 1;
+            if(pos < length && str.charAt(pos) == '-'){
+                if(negativeTerm || pos + 1 >= length || Character.isWhitespace(str.charAt(pos + 1)))
+                    return pos; // The sign can't be doubled or separated from its number
+                sign = -1;
+                pos++;
+            }
+            if(negativeTerm)
+                sign = -1;
+            long coef = 0;
+            int digitsStart = pos;
+            while(pos < length && isDigit(str.charAt(pos))){
+                coef = coef * 10 + (str.charAt(pos) - '0');
+                if(coef > Integer.MAX_VALUE + 1L)
+                    return digitsStart;
+                pos++;
+            }
+            boolean hasDigits = pos > digitsStart;
+            if(hasDigits && sign == 1 && coef > Integer.MAX_VALUE)
+                return digitsStart;
+            pos = skipSpaces(str, pos);
+            long exponent;
+            if(pos < length && str.charAt(pos) == 'x'){
+                if(hasDigits && (coef == 0 || (coef == 1 && sign == 1)))
+                    return digitsStart; // 0 and 1 can't be written in front of x
+                if(!hasDigits)
+                    coef = 1;
+                pos = skipSpaces(str, pos + 1);
+                if(pos < length && str.charAt(pos) == '^'){
+                    pos = skipSpaces(str, pos + 1);
+                    int exponentStart = pos;
+                    int exponentSign = 1;
+                    if(pos < length && str.charAt(pos) == '-'){
+                        exponentSign = -1;
+                        pos++;
+                    }
+                    exponent = 0;
+                    int exponentDigits = pos;
+                    while(pos < length && isDigit(str.charAt(pos))){
+                        exponent = exponent * 10 + (str.charAt(pos) - '0');
+                        if(exponent > Integer.MAX_VALUE + 1L)
+                            return exponentDigits;
+                        pos++;
+                    }
+                    if(pos == exponentDigits)
+                        return pos;
+                    exponent *= exponentSign;
+                    if(exponent > Integer.MAX_VALUE)
+                        return exponentDigits;
+                    if(exponent == 0 || (exponent < 0 && !negativeExponents))
+                        return exponentStart;
+                }else
+                    exponent = 1;
+            }else{
+                if(!hasDigits)
+                    return pos; // Empty term
+                exponent = 0;
+                if(coef == 0){
+                    if(previousExponent != Long.MAX_VALUE)
+                        return termStart;
+                    zeroConstant = true;
+                }
+            }
+            if(exponent >= previousExponent)
+                return termStart; // Exponents have to be in descending order
+            previousExponent = exponent;
+            if(consumer != null)
+                consumer.term((int) exponent, (int) (sign * coef));
+            pos = skipSpaces(str, pos);
+            if(pos == length)
+                return -1;
+            char separator = str.charAt(pos);
+            if(separator == '+')
+                negativeTerm = false;
+            else if(separator == '-' && pos + 1 < length && Character.isWhitespace(str.charAt(pos + 1)))
+                negativeTerm = true;
+            else
+                return pos;
+            pos = skipSpaces(str, pos + 1);
+        }
+    }
+
+    private static boolean isDigit(char c){
+        return c >= '0' && c <= '9';
+    }
+
+    private static int skipSpaces(CharSequence str, int pos){
+        while(pos < str.length() && Character.isWhitespace(str.charAt(pos)))
+            pos++;
+        return pos;
+    }
+}
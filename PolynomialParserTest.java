@@ -0,0 +1,46 @@
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PolynomialParserTest {
+
+    @Test
+    void parse() {
+        StringBuilder terms = new StringBuilder();
+        PolynomialParser.parse("-2x^10 - x^7 + 3x - 5", false,
+                (exponent, coef) -> terms.append(coef).append('@').append(exponent).append(' '));
+        assertEquals("-2@10 -1@7 3@1 -5@0 ", terms.toString());
+        terms.setLength(0);
+        PolynomialParser.parse("x^50 + -x^-2", true,
+                (exponent, coef) -> terms.append(coef).append('@').append(exponent).append(' '));
+        assertEquals("1@50 -1@-2 ", terms.toString());
+    }
+
+    @Test
+    void errorIndex() {
+        assertEquals(-1, PolynomialParser.errorIndex("0", false));
+        assertEquals(-1, PolynomialParser.errorIndex("x^2147483 + 2147483647x - 2147483648", false));
+        assertEquals(-1, PolynomialParser.errorIndex("2x^10 + 5x^7 - x^-2 - x^-3", true));
+        assertEquals(1, PolynomialParser.errorIndex(" ", false));
+        assertEquals(6, PolynomialParser.errorIndex("x^2 + 1x", false));
+        assertEquals(6, PolynomialParser.errorIndex("x^2 - 0x", false));
+        assertEquals(6, PolynomialParser.errorIndex("x^2 + x^3", false));
+        assertEquals(8, PolynomialParser.errorIndex("x^2 + x^-1", false));
+        assertEquals(8, PolynomialParser.errorIndex("x^2 + x^0", true));
+        assertEquals(6, PolynomialParser.errorIndex("x^2 + 0", true));
+        assertEquals(4, PolynomialParser.errorIndex("0 + x^-1", true));
+        assertEquals(1, PolynomialParser.errorIndex("2.5x", false));
+        assertEquals(4, PolynomialParser.errorIndex("x^2 -3", false));
+        assertEquals(6, PolynomialParser.errorIndex("x^2 - -3", false));
+        assertEquals(6, PolynomialParser.errorIndex("x^2 + ", false));
+        assertEquals(0, PolynomialParser.errorIndex("2147483648x", false));
+    }
+
+    @Test
+    void errorPosition() {
+        PolynomialFormatException e = assertThrows(PolynomialFormatException.class,
+                () -> new DensePolynomial("x^50 + 3x^40 + x^35 + 65x^10 + 75x - 100 + x^-1"));
+        assertEquals(45, e.getErrorIndex());
+        assertThrows(IllegalArgumentException.class, () -> new SparsePolynomial("x^-2 + x^-3 + x^-3"));
+    }
+}
@@ -0,0 +1,189 @@
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Shares one instance among equal polynomials, for programs that keep many copies of the same polynomials such as
+ * constants, powers of x and small factors that come up again and again.
+ *
+ * intern() returns the shared instance of the class of its parameter, which is the parameter itself the first time
+ * an equal polynomial is interned. The pool only keeps weak references to the instances, so an instance that is no
+ * longer used anywhere else is collected as usual and leaves the pool. Polynomials never change after they are
+ * created, so the same instance can be handed to every caller.
+ *
+ * Two interned polynomials of the same class are equal exactly when they are the same instance, so equals() of
+ * interned polynomials returns without comparing any terms. A DensePolynomial and a SparsePolynomial with the same
+ * terms are still equal but are interned separately, since the class decides how the operations work on them.
+ *
+ * The constants 0, 1 and -1 and the powers x^k and -x^k with 0 &lt; k &lt; MONOMIALS are interned for both classes
+ * when the pool is loaded and are never collected. minus() and Polynomials.parse() return these instances when their
+ * result is one of them, without looking anything up in the pool.
+ *
+ * The pool can be used from several threads at once.
+ */
+public final class PolynomialPool {
+    /**
+     * Powers of x below this exponent are interned in advance.
+     */
+    static final int MONOMIALS = 64;
+
+    /**
+     * The polynomial 0 in the representation Polynomials.parse() gives it.
+     */
+    public static final Polynomial ZERO;
+
+    /**
+     * The polynomial 1 in the representation Polynomials.parse() gives it.
+     */
+    public static final Polynomial ONE;
+
+    /**
+     * The polynomial -1 in the representation Polynomials.parse() gives it.
+     */
+    public static final Polynomial MINUS_ONE;
+
+    // The zero polynomial, then x^k and -x^k for every k below MONOMIALS
+    private static final DensePolynomial[] DENSE = new DensePolynomial[1 + 2 * MONOMIALS];
+    private static final SparsePolynomial[] SPARSE = new SparsePolynomial[1 + 2 * MONOMIALS];
+
+    private static final Map<Polynomial, WeakReference<Polynomial>> densePool = new WeakHashMap<>();
+    private static final Map<Polynomial, WeakReference<Polynomial>> sparsePool = new WeakHashMap<>();
+
+    static {
+        DENSE[0] = new DensePolynomial(new int[1]);
+        SPARSE[0] = new SparsePolynomial(new IntIntMap());
+        for(int k = 0; k < MONOMIALS; k++){
+            for(int sign = 0; sign < 2; sign++){
+                int coefficient = sign == 0 ? 1 : -1;
+                int[] arr = new int[k + 1];
+                arr[k] = coefficient;
+                IntIntMap map = new IntIntMap(1);
+                map.put(k, coefficient);
+                DENSE[index(k, coefficient)] = new DensePolynomial(arr);
+                SPARSE[index(k, coefficient)] = new SparsePolynomial(map);
+            }
+        }
+        for(int i = 0; i < DENSE.length; i++){
+            DENSE[i].markInterned();
+            SPARSE[i].markInterned();
+        }
+        ZERO = SPARSE[0]; // Polynomials.of() keeps a polynomial without terms as sparse
+        ONE = DENSE[index(0, 1)];
+        MINUS_ONE = DENSE[index(0, -1)];
+    }
+
+    private PolynomialPool(){
+    }
+
+    /**
+     * Returns the shared instance of the polynomials equal to p and of the same class. p becomes the shared instance
+     * when there is none yet.
+     *
+     * @param p a DensePolynomial or a SparsePolynomial
+     * @return the shared instance equal to p
+     * @throws NullPointerException if p is null
+     * @throws IllegalArgumentException if p is of another class
+     */
+    public static Polynomial intern(Polynomial p){
+        if(p == null)
+            throw new NullPointerException();
+        Map<Polynomial, WeakReference<Polynomial>> pool;
+        if(p instanceof DensePolynomial)
+            pool = densePool;
+        else if(p instanceof SparsePolynomial)
+            pool = sparsePool;
+        else
+            throw new IllegalArgumentException();
+        Polynomial common = common(p);
+        if(common != p || interned(p))
+            return common;
+        synchronized(pool){
+            WeakReference<Polynomial> ref = pool.get(p);
+            Polynomial shared = ref == null ? null : ref.get();
+            if(shared != null)
+                return shared;
+            if(p instanceof DensePolynomial)
+                ((DensePolynomial) p).markInterned();
+            else
+                ((SparsePolynomial) p).markInterned();
+            pool.put(p, new WeakReference<>(p));
+            return p;
+        }
+    }
+
+    /**
+     * Returns x^exponent in the representation Polynomials.parse() gives it, which is shared for the exponents from 0
+     * to MONOMIALS - 1.
+     *
+     * @param exponent the exponent of x, which may be negative
+     * @return x^exponent
+     */
+    public static Polynomial monomial(int exponent){
+        if(exponent >= 0 && exponent < MONOMIALS) // The same choice as Polynomials.prefersDense() with one term
+            return exponent < Polynomials.SPARSE_RATIO ? DENSE[index(exponent, 1)] : SPARSE[index(exponent, 1)];
+        IntIntMap map = new IntIntMap(1);
+        map.put(exponent, 1);
+        return Polynomials.of(new SparsePolynomial(map));
+    }
+
+    /**
+     * @return the number of polynomials in the pool besides the ones interned in advance
+     */
+    public static int size(){
+        synchronized(densePool){
+            synchronized(sparsePool){
+                return densePool.size() + sparsePool.size();
+            }
+        }
+    }
+
+    /**
+     * Finds the instance interned in advance that is equal to p and of the same class. Only polynomials with at most
+     * one term and a degree below MONOMIALS are looked at, so this is cheap enough to call on every result of minus()
+     * and parse().
+     *
+     * @param p any polynomial
+     * @return the shared instance equal to p, or p itself if there is none
+     */
+    static Polynomial common(Polynomial p){
+        if(p instanceof DensePolynomial){
+            DensePolynomial d = (DensePolynomial) p;
+            int degree = d.degree();
+            int[] arr = d.coefficients();
+            if(degree >= MONOMIALS || arr == null || d.terms() > 1)
+                return p;
+            return common(DENSE, degree, arr[degree], p);
+        }
+        if(p instanceof SparsePolynomial){
+            SparsePolynomial s = (SparsePolynomial) p;
+            if(s.size() == 0)
+                return SPARSE[0];
+            int degree = s.degree();
+            if(s.size() > 1 || s.terms() == null || degree < 0 || degree >= MONOMIALS)
+                return p;
+            return common(SPARSE, degree, s.getCoefficient(degree), p);
+        }
+        return p;
+    }
+
+    /**
+     * @return true if p is the shared instance of its class
+     */
+    static boolean interned(Polynomial p){
+        if(p instanceof DensePolynomial)
+            return ((DensePolynomial) p).interned();
+        return p instanceof SparsePolynomial && ((SparsePolynomial) p).interned();
+    }
+
+    private static Polynomial common(Polynomial[] table, int degree, int coefficient, Polynomial p){
+        if(coefficient == 0)
+            return table[0];
+        if(coefficient != 1 && coefficient != -1)
+            return p;
+        return table[index(degree, coefficient)];
+    }
+
+    private static int index(int exponent, int coefficient){
+        return 1 + 2 * exponent + (coefficient < 0 ? 1 : 0);
+    }
+}
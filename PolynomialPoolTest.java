@@ -0,0 +1,45 @@
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+class PolynomialPoolTest {
+
+    @Test
+    void intern() {
+        Polynomial a = new DensePolynomial("3x^5 + 2x + 7");
+        Polynomial b = new DensePolynomial("3x^5 + 2x + 7");
+        assertSame(a, PolynomialPool.intern(a));
+        assertSame(a, PolynomialPool.intern(b));
+        assertSame(a, PolynomialPool.intern(a.add(new DensePolynomial("0"))));
+        Polynomial sparse = SparsePolynomial.of(b);
+        Polynomial shared = PolynomialPool.intern(sparse);
+        assertSame(sparse, shared);
+        assertEquals(a, shared); // Equal but interned separately
+        assertSame(shared, PolynomialPool.intern(new SparsePolynomial("3x^5 + 2x + 7")));
+        Polynomial c = PolynomialPool.intern(new DensePolynomial("3x^5 + 2x + 8"));
+        assertEquals(a.hashCode(), PolynomialPool.intern(new DensePolynomial("3x^5 + 2x + 7")).hashCode());
+        assertNotEquals(a, c);
+        assertEquals(a, b);
+        assertThrows(NullPointerException.class, () -> PolynomialPool.intern(null));
+        assertThrows(IllegalArgumentException.class, () -> PolynomialPool.intern(new SortedSparsePolynomial("x")));
+    }
+
+    @Test
+    void constants() {
+        assertSame(PolynomialPool.ZERO, Polynomials.parse("0"));
+        assertSame(PolynomialPool.ONE, Polynomials.parse("1"));
+        assertSame(PolynomialPool.MINUS_ONE, Polynomials.parse("-1"));
+        assertSame(PolynomialPool.MINUS_ONE, PolynomialPool.ONE.minus());
+        assertSame(PolynomialPool.ONE, PolynomialPool.intern(new DensePolynomial("1")));
+        assertSame(PolynomialPool.ZERO, new SparsePolynomial("x^2").subtract(new SparsePolynomial("x^2")).minus());
+        assertSame(PolynomialPool.monomial(3), Polynomials.parse("x^3"));
+        assertSame(PolynomialPool.monomial(40), Polynomials.parse("x^40"));
+        assertTrue(PolynomialPool.monomial(3) instanceof DensePolynomial);
+        assertTrue(PolynomialPool.monomial(40) instanceof SparsePolynomial);
+        assertSame(Polynomials.parse("-x^40"), Polynomials.parse("x^40").minus());
+        assertEquals(new SparsePolynomial("x^-2"), PolynomialPool.monomial(-2));
+        assertEquals(new SparsePolynomial("x^100"), PolynomialPool.monomial(100));
+        assertNotSame(PolynomialPool.monomial(100), PolynomialPool.monomial(100));
+        assertEquals(new DensePolynomial("-x^3"), new DensePolynomial("x^3").minus());
+        assertEquals("-x^3", PolynomialPool.monomial(3).minus().toString());
+    }
+}
@@ -0,0 +1,450 @@
+import java.math.BigInteger;
+import java.util.Arrays;
+
+/**
+ * Factories that pick the representation of a polynomial, and methods shared by the polynomial classes so that
+ * polynomials with the same terms are equal and have the same hash code no matter which class stores them. This lets
+ * a DensePolynomial and a SparsePolynomial be used as the same key of a HashMap.
+ *
+ * A DensePolynomial takes 4 bytes for every exponent up to its degree while a SparsePolynomial takes about 16 to 32
+ * bytes for every term, and the dense kernels are much faster than the sparse ones. So parse() and of() store a
+ * polynomial as dense when its degree is less than SPARSE_RATIO times its number of terms, and as sparse otherwise or
+ * when it has a negative exponent. The add, subtract and multiply operations of the two classes pick the type of
+ * their result with the same rule when they mix dense and sparse operands or multiply sparse ones, so the terms of
+ * x^1000000 + 1 are never spread over an array.
+ *
+ * The hash code of a polynomial is the sum of the hash codes of its non-zero terms. A sum doesn't depend on the order
+ * the terms are visited in, so every class can add up its terms in the order it stores them. The hash code of a term
+ * only depends on the value of its coefficient and not on how it is stored, so a coefficient kept as an int, a long or
+ * a BigInteger hashes the same.
+ */
+public final class Polynomials {
+    /**
+     * Polynomials whose degree is at least this many times their number of terms are stored as sparse.
+     */
+    static final int SPARSE_RATIO = 8;
+
+    private Polynomials(){
+    }
+
+    /**
+     * Reads a polynomial written the same way as for SparsePolynomial, so negative exponents are allowed, and stores
+     * it as a DensePolynomial or a SparsePolynomial depending on how many of its exponents have a term. Constants and
+     * powers of x that PolynomialPool interns in advance are returned as its shared instances.
+     *
+     * @param str a polynomial written as a string
+     * @return the polynomial in the representation that suits it
+     * @throws NullPointerException if str is null
+     * @throws IllegalArgumentException if the string doesn't hold the class invariant of SparsePolynomial
+     */
+    public static Polynomial parse(String str){
+        if(str == null)
+            throw new NullPointerException();
+        long start = OperationMetrics.ENABLED ? System.nanoTime() : 0;
+        Polynomial p = PolynomialPool.common(of(new SortedSparsePolynomial(str)));
+        if(OperationMetrics.ENABLED)
+            OperationMetrics.record(OperationMetrics.Operation.PARSE, p, start, str.length());
+        return p;
+    }
+
+    /**
+     * Converts a polynomial into the representation that suits its degree and number of terms. The parameter is
+     * returned when it already has that representation.
+     *
+     * @param p a DensePolynomial, SparsePolynomial or SortedSparsePolynomial
+     * @return a DensePolynomial or a SparsePolynomial equal to p
+     * @throws NullPointerException if p is null
+     * @throws IllegalArgumentException if p is not one of the polynomial classes of the package
+     */
+    public static Polynomial of(Polynomial p){
+        if(p == null)
+            throw new NullPointerException();
+        if(!(p instanceof DensePolynomial || p instanceof SparsePolynomial || p instanceof SortedSparsePolynomial))
+            throw new IllegalArgumentException();
+        if(prefersDense(lowestExponent(p), p.degree(), terms(p)))
+            return DensePolynomial.of(p);
+        return SparsePolynomial.of(p);
+    }
+
+    /**
+     * Decides if a polynomial is stored as dense.
+     *
+     * @param lowest the lowest exponent of the polynomial, or any exponent below it
+     * @param degree the degree of the polynomial
+     * @param terms the number of terms of the polynomial, or an estimate of it
+     * @return true if the polynomial has no negative exponent and its degree is below SPARSE_RATIO times its terms
+     */
+    static boolean prefersDense(long lowest, long degree, long terms){
+        return lowest >= 0 && degree < SPARSE_RATIO * terms;
+    }
+
+    /**
+     * Decides the representation of a sum, which has at most the degree and the terms of both operands together.
+     *
+     * @return true if the sum of p and q is stored as dense
+     */
+    static boolean sumPrefersDense(Polynomial p, Polynomial q){
+        long lowest = Math.min(lowestExponent(p), lowestExponent(q));
+        return prefersDense(lowest, Math.max(p.degree(), q.degree()), (long) terms(p) + terms(q));
+    }
+
+    /**
+     * Decides the representation of a product, which has at most the product of the terms of the operands and at
+     * most one term for every exponent up to its degree.
+     *
+     * @return true if the product of p and q is stored as dense
+     */
+    static boolean productPrefersDense(Polynomial p, Polynomial q){
+        long lowest = Math.min(lowestExponent(p), lowestExponent(q));
+        long degree = (long) p.degree() + q.degree();
+        return prefersDense(lowest, degree, Math.min((long) terms(p) * terms(q), degree + 1));
+    }
+
+    /**
+     * @return the lowest exponent of p when it is negative, otherwise 0
+     */
+    static int lowestExponent(Polynomial p){
+        if(p instanceof SparsePolynomial)
+            return ((SparsePolynomial) p).lowestExponent();
+        if(p instanceof SortedSparsePolynomial){
+            int[] exponents = ((SortedSparsePolynomial) p).exponents();
+            return exponents.length == 0 ? 0 : Math.min(0, exponents[0]);
+        }
+        return 0;
+    }
+
+    /**
+     * Negates p with exact coefficients. A SortedSparsePolynomial wraps around on overflow, so it is negated into a
+     * SparsePolynomial that keeps the negation of Integer.MIN_VALUE. The other classes are negated with minus().
+     *
+     * @param p any polynomial
+     * @return -p
+     */
+    static Polynomial negate(Polynomial p){
+        if(p instanceof SortedSparsePolynomial)
+            return new SparsePolynomial(WideTerms.of(p).negate());
+        return p.minus();
+    }
+
+    /**
+     * Mixes the exponent and the coefficient of one term so that terms that differ in a few bits spread over the
+     * whole int.
+     *
+     * @param exponent the exponent of the term
+     * @param coefficient the non-zero coefficient of the term
+     * @return the hash code of the term
+     */
+    static int termHash(int exponent, long coefficient){
+        int h = exponent * 0x9E3779B9 + (int) (coefficient ^ (coefficient >>> 32));
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        h *= 0xC2B2AE35;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Hashes a term with a coefficient of any size, giving the same hash code as termHash(int, long) when the
+     * coefficient fits in a long.
+     *
+     * @param exponent the exponent of the term
+     * @param coefficient the non-zero coefficient of the term
+     * @return the hash code of the term
+     */
+    static int termHash(int exponent, BigInteger coefficient){
+        if(coefficient.bitLength() < 64)
+            return termHash(exponent, coefficient.longValue());
+        return termHash(exponent, coefficient.hashCode());
+    }
+
+    /**
+     * Raises p to the power of n by squaring, going through the bits of n from the highest one down. The result is
+     * squared for every bit and multiplied by p for every bit that is set, so p is always the smaller operand.
+     *
+     * @param p a polynomial of one of the classes of the package
+     * @param n the power, at least 0
+     * @return p to the power of n, which is the constant 1 when n is 0
+     * @throws IllegalArgumentException if n is negative
+     */
+    static Polynomial pow(Polynomial p, int n){
+        if(n < 0)
+            throw new IllegalArgumentException("Negative power " + n);
+        if(n == 0)
+            return new DensePolynomial(new int[]{1});
+        Polynomial result = p;
+        for(int bit = Integer.highestOneBit(n) >> 1; bit > 0; bit >>= 1){
+            result = result.square();
+            if((n & bit) != 0)
+                result = result.multiply(p);
+        }
+        return result;
+    }
+
+    /**
+     * Divides p by q so that p = quotient * q + remainder, where the remainder has a lower degree than q. A dividend
+     * that suits a dense array is divided with Newton's iteration on the reversed divisor, so the division takes a few
+     * multiplications:
+     *
+     * - With an odd leading coefficient in the divisor the int kernels of DenseDivision find the quotient modulo 2^32.
+     * - Otherwise, or when that quotient doesn't fit in an int, ModularPolynomial finds it modulo the primes of
+     *   NttMultiplier, where every leading coefficient the prime doesn't divide has an inverse. The residues are
+     *   combined with the Chinese remainder theorem until one more prime doesn't change them.
+     *
+     * The exact remainder p - quotient * q only has a lower degree than q when the quotient is the exact one, so a
+     * single multiplication checks it. The check uses the kernels of DensePolynomial, so it is neither cached by an
+     * installed OperationCache nor counted by OperationMetrics. Quotients that no prime finds, quotients that don't
+     * have integer coefficients and sparse polynomials are divided exactly by SparseDivision instead.
+     *
+     * @param p a polynomial of one of the classes of the package
+     * @param q the divisor, a polynomial of one of the classes of the package
+     * @return the quotient and the remainder, each in the representation that suits it
+     * @throws NullPointerException if q is null
+     * @throws ArithmeticException if q is zero or the quotient doesn't have integer coefficients
+     */
+    static Polynomial[] divideAndRemainder(Polynomial p, Polynomial q){
+        if(q == null)
+            throw new NullPointerException();
+        if(q.isZero())
+            throw new ArithmeticException("Division by the zero polynomial");
+        if(p.isZero() || p.degree() < q.degree())
+            return new Polynomial[]{new DensePolynomial(new int[1]), p};
+        if(lowestExponent(q) == 0 && prefersDense(lowestExponent(p), p.degree(), terms(p))){
+            DensePolynomial a = DensePolynomial.of(p);
+            DensePolynomial b = DensePolynomial.of(q);
+            int[] x = a.coefficients();
+            int[] y = b.coefficients();
+            Polynomial[] qr = null;
+            if(x != null && y != null && (y[y.length - 1] & 1) != 0)
+                qr = confirm(a, b, new DensePolynomial(DenseDivision.quotient(x, x.length, y, y.length)));
+            if(qr == null)
+                qr = divideModular(a, b);
+            if(qr != null)
+                return qr;
+        }
+        WideTerms[] qr = SparseDivision.divide(WideTerms.of(p), WideTerms.of(q));
+        return new Polynomial[]{of(new SparsePolynomial(qr[0])), of(new SparsePolynomial(qr[1]))};
+    }
+
+    /**
+     * Finds the quotient of a divided by b modulo every prime of NttMultiplier that doesn't divide the leading
+     * coefficient of b, and combines the residues into the quotient with the smallest absolute values. Once a prime
+     * leaves that quotient as it was, it is checked against the exact remainder.
+     *
+     * @return the quotient and the remainder, or null if no combination of the primes gives the exact quotient
+     */
+    private static Polynomial[] divideModular(DensePolynomial a, DensePolynomial b){
+        BigInteger lead = b.getBigCoefficient(b.degree());
+        BigInteger modulus = BigInteger.ONE;
+        BigInteger[] quotient = null;
+        boolean checked = false;
+        for(int i = 0; i < 3; i++){
+            int prime = NttMultiplier.prime(i);
+            if(lead.mod(BigInteger.valueOf(prime)).signum() == 0)
+                continue;
+            ModularPolynomial m = (ModularPolynomial) ModularPolynomial.of(a, prime)
+                    .divideAndRemainder(ModularPolynomial.of(b, prime))[0];
+            int[] residues = Arrays.copyOf(m.coefficients(), a.degree() - b.degree() + 1);
+            boolean changed = quotient == null;
+            if(quotient == null){
+                quotient = new BigInteger[residues.length];
+                for(int k = 0; k < residues.length; k++)
+                    quotient[k] = BigInteger.valueOf(residues[k] > prime / 2 ? residues[k] - prime : residues[k]);
+            }else
+                changed = combine(quotient, modulus, residues, prime);
+            modulus = modulus.multiply(BigInteger.valueOf(prime));
+            checked = !changed;
+            if(checked){
+                Polynomial[] qr = confirm(a, b, new DensePolynomial(quotient.clone()));
+                if(qr != null)
+                    return qr;
+            }
+        }
+        return quotient == null || checked ? null : confirm(a, b, new DensePolynomial(quotient));
+    }
+
+    /**
+     * Adds the residues modulo prime to the quotient, which holds the values with the smallest absolute values for
+     * the product of the earlier primes, so it holds them for the product with prime.
+     *
+     * @return true if a coefficient changed
+     */
+    private static boolean combine(BigInteger[] quotient, BigInteger modulus, int[] residues, int prime){
+        BigInteger p = BigInteger.valueOf(prime);
+        long inverse = modulus.mod(p).modInverse(p).longValue();
+        BigInteger half = modulus.multiply(p).shiftRight(1);
+        boolean changed = false;
+        for(int k = 0; k < quotient.length; k++){
+            long difference = Math.floorMod(residues[k] - quotient[k].mod(p).longValue(), (long) prime);
+            if(difference == 0)
+                continue;
+            BigInteger c = quotient[k].add(modulus.multiply(BigInteger.valueOf(difference * inverse % prime)));
+            quotient[k] = c.compareTo(half) > 0 ? c.subtract(modulus.multiply(p)) : c;
+            changed = true;
+        }
+        return changed;
+    }
+
+    /**
+     * Computes the exact remainder of a divided by b for the given quotient with the kernels of DensePolynomial.
+     *
+     * @return the quotient and the remainder, or null if the remainder doesn't have a lower degree than b
+     */
+    private static Polynomial[] confirm(DensePolynomial a, DensePolynomial b, DensePolynomial quotient){
+        Polynomial remainder = a.sum(((DensePolynomial) quotient.product(b, null, 0)).negate());
+        if(remainder.isZero() || remainder.degree() < b.degree())
+            return new Polynomial[]{quotient, remainder};
+        return null;
+    }
+
+    /**
+     * Finds the greatest common divisor of p and q with the primitive remainder sequence of SparseDivision, which
+     * keeps every coefficient an integer whatever the leading coefficients are.
+     *
+     * @param p a polynomial of one of the classes of the package
+     * @param q a polynomial of one of the classes of the package
+     * @return the greatest common divisor with a positive leading coefficient, which is 0 when both are 0
+     * @throws NullPointerException if q is null
+     * @throws IllegalArgumentException if p or q has a negative exponent
+     */
+    static Polynomial gcd(Polynomial p, Polynomial q){
+        if(q == null)
+            throw new NullPointerException();
+        if(lowestExponent(p) < 0 || lowestExponent(q) < 0)
+            throw new IllegalArgumentException();
+        return of(new SparsePolynomial(SparseDivision.gcd(WideTerms.of(p), WideTerms.of(q))));
+    }
+
+    /**
+     * @param p a polynomial of one of the classes of the package
+     * @return the number of non-zero terms of p
+     */
+    static int terms(Polynomial p){
+        if(p instanceof DensePolynomial)
+            return ((DensePolynomial) p).terms();
+        if(p instanceof SparsePolynomial)
+            return ((SparsePolynomial) p).size();
+        return ((SortedSparsePolynomial) p).exponents().length;
+    }
+
+    /**
+     * @param p a polynomial of one of the classes of the package
+     * @return true if a coefficient of p doesn't fit in an int
+     */
+    static boolean wide(Polynomial p){
+        if(p instanceof DensePolynomial)
+            return ((DensePolynomial) p).coefficients() == null;
+        if(p instanceof SparsePolynomial)
+            return ((SparsePolynomial) p).terms() == null;
+        return false;
+    }
+
+    /**
+     * Finds the largest absolute value of the coefficients of p, which bounds the coefficients of a product before it
+     * is computed. The product of polynomials with n and m terms has coefficients of at most min(n, m) times the
+     * product of their magnitudes.
+     *
+     * @param p a polynomial of one of the classes of the package
+     * @return the largest absolute value of the coefficients, rounded up for coefficients that don't fit in a long
+     */
+    static double magnitude(Polynomial p){
+        if(p instanceof DensePolynomial)
+            return ((DensePolynomial) p).magnitude();
+        if(p instanceof SparsePolynomial)
+            return ((SparsePolynomial) p).magnitude();
+        return magnitude(((SortedSparsePolynomial) p).coefficients());
+    }
+
+    /**
+     * @return the largest absolute value in the array
+     */
+    static long magnitude(int[] arr){
+        long max = 0;
+        for(int x: arr)
+            max = Math.max(max, Math.abs((long) x));
+        return max;
+    }
+
+    /**
+     * @return the largest absolute value of the map
+     */
+    static long magnitude(IntIntMap map){
+        long max = 0;
+        for(int slot = 0; slot < map.capacity(); slot++){
+            if(map.isUsed(slot))
+                max = Math.max(max, Math.abs((long) map.valueAt(slot)));
+        }
+        return max;
+    }
+
+    /**
+     * Bounds the absolute value of the coefficients of the product of p and q.
+     *
+     * @return a bound that is at least the largest absolute value of a coefficient of p * q
+     */
+    static double productBound(Polynomial p, Polynomial q){
+        return Math.min(terms(p), terms(q)) * magnitude(p) * magnitude(q);
+    }
+
+    /**
+     * Checks if the polynomial and the object have the same terms. The number of terms, the degree and the cached
+     * hash codes are compared first so most unequal polynomials are told apart without comparing any terms. Two
+     * polynomials of the same class interned by PolynomialPool are only compared by reference.
+     *
+     * @param p the polynomial that equals() was called on
+     * @param o any object
+     * @return true if o is a polynomial of the package with the same terms as p
+     */
+    static boolean equals(Polynomial p, Object o){
+        if(p == o)
+            return true;
+        if(o != null && p.getClass() == o.getClass() && PolynomialPool.interned(p)
+                && PolynomialPool.interned((Polynomial) o))
+            return false; // Equal interned polynomials of the same class are the same instance
+        if(!(o instanceof DensePolynomial || o instanceof SparsePolynomial || o instanceof SortedSparsePolynomial))
+            return false;
+        Polynomial q = (Polynomial) o;
+        if(p.degree() != q.degree() || terms(p) != terms(q) || p.hashCode() != q.hashCode())
+            return false;
+        if(p instanceof DensePolynomial && q instanceof DensePolynomial)
+            return ((DensePolynomial) p).sameCoefficients((DensePolynomial) q);
+        if(wide(p) || wide(q)) // Compares the exact coefficients
+            return WideTerms.of(p).equals(WideTerms.of(q));
+        if(p instanceof SortedSparsePolynomial && q instanceof SortedSparsePolynomial){
+            SortedSparsePolynomial a = (SortedSparsePolynomial) p, b = (SortedSparsePolynomial) q;
+            return Arrays.equals(a.exponents(), b.exponents()) && Arrays.equals(a.coefficients(), b.coefficients());
+        }
+        if(q instanceof SortedSparsePolynomial)
+            return containsTerms(q, p); // Looks the terms up in p instead of searching the sorted arrays
+        return containsTerms(p, q);
+    }
+
+    /**
+     * Checks if every term of p has the same coefficient in q. When both have the same number of terms this means
+     * that they are equal.
+     */
+    private static boolean containsTerms(Polynomial p, Polynomial q){
+        if(p instanceof DensePolynomial){
+            int[] arr = ((DensePolynomial) p).coefficients();
+            for(int i = 0; i < arr.length; i++){
+                if(arr[i] != 0 && q.getCoefficient(i) != arr[i])
+                    return false;
+            }
+            return true;
+        }
+        if(p instanceof SparsePolynomial){
+            IntIntMap map = ((SparsePolynomial) p).terms();
+            for(int slot = 0; slot < map.capacity(); slot++){
+                if(map.isUsed(slot) && q.getCoefficient(map.keyAt(slot)) != map.valueAt(slot))
+                    return false;
+            }
+            return true;
+        }
+        int[] exponents = ((SortedSparsePolynomial) p).exponents();
+        int[] coefficients = ((SortedSparsePolynomial) p).coefficients();
+        for(int i = 0; i < exponents.length; i++){
+            if(q.getCoefficient(exponents[i]) != coefficients[i])
+                return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,60 @@
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+class PolynomialsTest {
+
+    @Test
+    void parse() {
+        Polynomial p = Polynomials.parse("x^10 + 3x^8 + x^7 + 65x^3 + 75x + 100");
+        assertTrue(p instanceof DensePolynomial);
+        assertEquals(new DensePolynomial("x^10 + 3x^8 + x^7 + 65x^3 + 75x + 100"), p);
+        Polynomial q = Polynomials.parse("x^1000000 + 1");
+        assertTrue(q instanceof SparsePolynomial);
+        assertEquals(1000000, q.degree());
+        Polynomial s = Polynomials.parse("2x^3 + x^-2");
+        assertTrue(s instanceof SparsePolynomial);
+        assertEquals(1, s.getCoefficient(-2));
+        assertTrue(Polynomials.parse("0").isZero());
+        assertThrows(NullPointerException.class, () -> Polynomials.parse(null));
+        assertThrows(IllegalArgumentException.class, () -> Polynomials.parse("x^2 + 0x"));
+    }
+
+    @Test
+    void of() {
+        Polynomial p = new SparsePolynomial("x^3 + 2x^2 + 3x + 4");
+        assertTrue(Polynomials.of(p) instanceof DensePolynomial);
+        assertEquals(p, Polynomials.of(p));
+        Polynomial q = new DensePolynomial("x^100 + 1");
+        assertTrue(Polynomials.of(q) instanceof SparsePolynomial);
+        assertEquals(q, Polynomials.of(q));
+        Polynomial s = new SortedSparsePolynomial("5x^2 + x^-1");
+        assertTrue(Polynomials.of(s) instanceof SparsePolynomial);
+        assertEquals(s, Polynomials.of(s));
+        Polynomial d = new DensePolynomial("2x + 1");
+        assertSame(d, Polynomials.of(d));
+        assertThrows(NullPointerException.class, () -> Polynomials.of(null));
+    }
+
+    @Test
+    void mixedResults() {
+        Polynomial dense = new DensePolynomial("3x^2 + 2x + 1");
+        Polynomial sparse = new SparsePolynomial("x^1000000 + 1");
+        Polynomial sum = dense.add(sparse);
+        assertTrue(sum instanceof SparsePolynomial);
+        assertEquals(new SparsePolynomial("x^1000000 + 3x^2 + 2x + 2"), sum);
+        assertTrue(dense.subtract(sparse) instanceof SparsePolynomial);
+        Polynomial product = dense.multiply(sparse);
+        assertTrue(product instanceof SparsePolynomial);
+        assertEquals(new SparsePolynomial("3x^1000002 + 2x^1000001 + x^1000000 + 3x^2 + 2x + 1"), product);
+        assertEquals(product, sparse.multiply(dense));
+        assertThrows(IllegalArgumentException.class, () -> dense.add(new SparsePolynomial("x^1000 + x^-1")));
+
+        Polynomial full = new SparsePolynomial("x^4 + x^3 + x^2 + x + 1");
+        assertTrue(full.add(dense) instanceof DensePolynomial);
+        assertEquals(new DensePolynomial("x^4 + x^3 + 4x^2 + 3x + 2"), full.add(dense));
+        assertTrue(full.multiply(full) instanceof DensePolynomial);
+        assertEquals(new DensePolynomial("x^8 + 2x^7 + 3x^6 + 4x^5 + 5x^4 + 4x^3 + 3x^2 + 2x + 1"),
+                full.multiply(full));
+        assertTrue(full.multiply(new SparsePolynomial("x^-1")) instanceof SparsePolynomial);
+    }
+}
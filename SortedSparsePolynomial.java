@@ -0,0 +1,562 @@
+import java.math.BigInteger;
+import java.util.Arrays;
+
+/**
+ * A sparse polynomial stored as two arrays sorted by exponent. Unlike DensePolynomial and SparsePolynomial the
+ * coefficients always stay ints, which wrap around on overflow, so the arithmetic is exact modulo 2^32.
+ */
+public class SortedSparsePolynomial implements Polynomial {
+    private final int[] exponents;
+    private final int[] coefficients;
+    private int hash; // Cached hash code, 0 until it is computed
+    private static final int BLOCK = 256; // Number of points evaluated together by the batch evaluate
+
+    /**
+     * Constructor of the class. Creates a SortedSparsePolynomial object with the given string in the parameter. The
+     * string follows the same rules as the string of a SparsePolynomial, so negative exponents are allowed.
+     *
+     * The exponents are kept in ascending order in one array and the coefficient of each exponent is kept at the same
+     * position in a second array. Terms with a coefficient of 0 are not stored.
+     *
+     * @param str Takes in a polynomial written as a string
+     * @throws IllegalArgumentException when the class invariant doesn't hold true.
+     */
+    public SortedSparsePolynomial (String str){
+        TermList terms = new TermList();
+        PolynomialParser.parse(str, true, terms);
+        int size = terms.size;
+        exponents = new int[size];
+        coefficients = new int[size];
+        for(int i = 0; i < size; i++){ // The parser gives the terms in descending order
+            exponents[i] = terms.exponents[size - 1 - i];
+            coefficients[i] = terms.coefficients[size - 1 - i];
+        }
+    }
+
+    /**
+     * Constructor of the class used by the other classes of the package. Initializes the arrays with the given arrays
+     * in the parameter to construct a polynomial.
+     *
+     * @param exp Takes in the exponents of the polynomial in ascending order
+     * @param coef Takes in the non-zero coefficients of the polynomial, in the same order as the exponents
+     */
+    SortedSparsePolynomial (int[] exp, int[] coef){
+        exponents = exp;
+        coefficients = coef;
+    }
+
+    /**
+     * @return a copy of the exponents in ascending order
+     */
+    public int[] getExponents(){
+        return exponents.clone();
+    }
+
+    /**
+     * @return a copy of the coefficients, in the same order as the exponents
+     */
+    public int[] getCoefficients(){
+        return coefficients.clone();
+    }
+
+    /**
+     * @return the exponents without copying them, which the caller must not modify
+     */
+    int[] exponents(){
+        return exponents;
+    }
+
+    /**
+     * @return the coefficients without copying them, which the caller must not modify
+     */
+    int[] coefficients(){
+        return coefficients;
+    }
+
+    /**
+     * Converts the given polynomial into a SortedSparsePolynomial. The parameter is returned when it already is one and
+     * a SparsePolynomial returns the sorted terms it keeps.
+     *
+     * @param q the polynomial to convert
+     * @return a SortedSparsePolynomial equal to q
+     * @throws NullPointerException if q is null
+     * @throws ArithmeticException if a coefficient of q doesn't fit in an int
+     */
+    static SortedSparsePolynomial of(Polynomial q){
+        if(q == null)
+            throw new NullPointerException();
+        if(q instanceof SortedSparsePolynomial)
+            return (SortedSparsePolynomial) q;
+        if(q instanceof SparsePolynomial)
+            return ((SparsePolynomial) q).sorted();
+        int[] arr = ((DensePolynomial) q).coefficients();
+        if(arr == null)
+            throw new ArithmeticException("Coefficient doesn't fit in an int");
+        int count = 0;
+        for(int x: arr){
+            if(x != 0)
+                count++;
+        }
+        int[] exp = new int[count];
+        int[] coef = new int[count];
+        count = 0;
+        for(int i = 0; i < arr.length; i++){
+            if(arr[i] != 0){
+                exp[count] = i;
+                coef[count] = arr[i];
+                count++;
+            }
+        }
+        return new SortedSparsePolynomial(exp, coef);
+    }
+
+    /**
+     * Returns the last exponent of the array since the exponents are sorted.
+     *
+     * @return the largest exponent with a non-zero coefficient.  If all terms have zero exponents, it returns 0.
+     */
+    @Override
+    public int degree() {
+        if(exponents.length == 0)
+            return 0;
+        return exponents[exponents.length-1];
+    }
+
+    /**
+     * Finds the exponent given in the parameter with a binary search and returns the coefficient at the same position.
+     * Returns 0 if there is no term with that exponent in the polynomial.
+     *
+     * @param d the exponent whose coefficient is returned.
+     * @return the coefficient of the term of whose exponent is d.
+     */
+    @Override
+    public int getCoefficient(int d) {
+        int position = Arrays.binarySearch(exponents, d);
+        if(position < 0)
+            return 0;
+        return coefficients[position];
+    }
+
+    /**
+     * Returns the coefficient of the given exponent as a BigInteger. The coefficients are ints so it always fits in
+     * getCoefficient() as well.
+     *
+     * @param d the exponent whose coefficient is returned.
+     * @return the coefficient of the term of whose exponent is d.
+     */
+    @Override
+    public BigInteger getBigCoefficient(int d) {
+        return BigInteger.valueOf(getCoefficient(d));
+    }
+
+    /**
+     * Since terms with a 0 coefficient are never stored the polynomial is zero when there are no terms.
+     *
+     * @return true if the polynomial represents the zero constant otherwise false.
+     */
+    @Override
+    public boolean isZero() {
+        return exponents.length == 0;
+    }
+
+    /**
+     * Takes in a polynomial in the parameter and merges its terms with the terms of the current instance in a single
+     * pass over both sorted arrays. DensePolynomial and SparsePolynomial parameters are first converted into sorted
+     * arrays.
+     *
+     * Returns a polynomial by adding the parameter to the current instance. Neither the current instance nor the
+     * parameter are modified.
+     *
+     * @param q the non-null polynomial to add to <code>this</code>
+     * @return <code>this + </code>q as a SortedSparsePolynomial object
+     * @throws NullPointerException if q is null
+     */
+    @Override
+    public Polynomial add(Polynomial q) {
+        return merge(of(q), 1);
+    }
+
+    /**
+     * Takes in a polynomial in the parameter and multiplies the terms of the two instances with the heap of
+     * SparseMultiplier, which gives the products in ascending order of the exponent and combines the like terms as it
+     * goes.
+     *
+     * Returns a polynomial by multiplying the parameter with the current instance.  Neither the current instance nor
+     * the parameter are modified.
+     *
+     * @param q the polynomial to multiply with <code>this</code>
+     * @return <code>this * </code>q as a SortedSparsePolynomial object
+     * @throws NullPointerException if q is null
+     */
+    @Override
+    public Polynomial multiply(Polynomial q) {
+        SortedSparsePolynomial other = of(q);
+        return SparseMultiplier.multiply(exponents, coefficients, other.exponents, other.coefficients);
+    }
+
+    /**
+     * Squares the terms with SparseMultiplier.square(), which only computes the product of two different terms once
+     * and doubles it.
+     *
+     * Returns a polynomial by multiplying the current instance with itself. The current instance is not modified.
+     *
+     * @return <code>this * this</code> as a SortedSparsePolynomial object
+     */
+    @Override
+    public Polynomial square() {
+        return SparseMultiplier.square(exponents, coefficients);
+    }
+
+    /**
+     * Raises the current instance to the given power with Polynomials.pow().
+     *
+     * @param n the power, at least 0
+     * @return <code>this</code> to the power of n, which is 1 when n is 0
+     * @throws IllegalArgumentException if n is negative
+     */
+    @Override
+    public Polynomial pow(int n) {
+        if(n == 0)
+            return new SortedSparsePolynomial(new int[]{0}, new int[]{1});
+        return Polynomials.pow(this, n);
+    }
+
+    /**
+     * Divides the current instance by the parameter with Polynomials.divideAndRemainder() and sorts the quotient and
+     * the remainder into SortedSparsePolynomial objects.
+     *
+     * @param q the non-zero polynomial to divide <code>this</code> by
+     * @return an array holding the quotient followed by the remainder
+     * @throws NullPointerException if q is null
+     * @throws ArithmeticException if q is zero, the quotient doesn't have integer coefficients or a coefficient of
+     * the result doesn't fit in an int
+     */
+    @Override
+    public Polynomial[] divideAndRemainder(Polynomial q) {
+        Polynomial[] qr = Polynomials.divideAndRemainder(this, q);
+        return new Polynomial[]{of(qr[0]), of(qr[1])};
+    }
+
+    /**
+     * Returns the remainder of divideAndRemainder(q).
+     *
+     * @param q the non-zero polynomial to divide <code>this</code> by
+     * @return <code>this mod </code>q as a SortedSparsePolynomial object
+     * @throws NullPointerException if q is null
+     * @throws ArithmeticException if q is zero, the quotient doesn't have integer coefficients or a coefficient of
+     * the result doesn't fit in an int
+     */
+    @Override
+    public Polynomial mod(Polynomial q) {
+        return of(Polynomials.divideAndRemainder(this, q)[1]);
+    }
+
+    /**
+     * Finds the greatest common divisor with Polynomials.gcd().
+     *
+     * @param q the non-null polynomial
+     * @return gcd(<code>this</code>, q) as a SortedSparsePolynomial object
+     * @throws NullPointerException if q is null
+     * @throws IllegalArgumentException if either polynomial has a negative exponent
+     * @throws ArithmeticException if a coefficient of the result doesn't fit in an int
+     */
+    @Override
+    public Polynomial gcd(Polynomial q) {
+        return of(Polynomials.gcd(this, q));
+    }
+
+    /**
+     * Takes in a polynomial in the parameter and merges its negated terms with the terms of the current instance in a
+     * single pass, so the parameter is never negated into a new polynomial first.
+     *
+     * Returns a  polynomial by subtracting the parameter from the current instance. Neither the current instance nor
+     * the parameter are modified.
+     *
+     * @param q the non-null polynomial to subtract from <code>this</code>
+     * @return <code>this - </code>q
+     * @throws NullPointerException if q is null
+     */
+    @Override
+    public Polynomial subtract(Polynomial q) {
+        return merge(of(q), -1);
+    }
+
+    /**
+     * Takes the current instance and negates the whole polynomial, creating a new polynomial with it. The exponents
+     * array is shared since neither instance modifies it.
+     * Returns a polynomial by negating the current instance. The current instance is not modified.
+     *
+     * @return -this
+     */
+    @Override
+    public Polynomial minus() {
+        int[] coef = new int[coefficients.length];
+        for(int i = 0; i < coef.length; i++)
+            coef[i] = coefficients[i] * -1;
+        return new SortedSparsePolynomial(exponents, coef);
+    }
+
+    /**
+     * Evaluates the polynomial with Horner's method over the terms, starting from the largest exponent. Between two
+     * terms the result is multiplied by x to the power of the gap between their exponents, found by squaring. The
+     * power is kept while the gaps stay the same, so evenly spaced terms only compute it once. At the end the result is
+     * multiplied by x to the power of the smallest exponent.
+     *
+     * @param x the point at which the polynomial is evaluated
+     * @return the value of the polynomial at x modulo 2^64
+     * @throws ArithmeticException if the polynomial has a negative exponent
+     */
+    @Override
+    public long evaluate(long x) {
+        if(exponents.length == 0)
+            return 0;
+        if(exponents[0] < 0)
+            throw new ArithmeticException("Negative exponent x^" + exponents[0]);
+        int last = exponents.length - 1;
+        long result = coefficients[last];
+        long gap = 0, power = 1;
+        for(int i = last - 1; i >= 0; i--){
+            long g = (long) exponents[i+1] - exponents[i];
+            if(g != gap){
+                gap = g;
+                power = power(x, g);
+            }
+            result = result * power + coefficients[i];
+        }
+        return result * power(x, exponents[0]);
+    }
+
+    /**
+     * Evaluates the polynomial in the same way as evaluate(long). A negative smallest exponent is applied by dividing
+     * by x to the power of its absolute value.
+     *
+     * @param x the point at which the polynomial is evaluated
+     * @return the value of the polynomial at x
+     */
+    @Override
+    public double evaluate(double x) {
+        if(exponents.length == 0)
+            return 0;
+        int last = exponents.length - 1;
+        double result = coefficients[last];
+        long gap = 0;
+        double power = 1;
+        for(int i = last - 1; i >= 0; i--){
+            long g = (long) exponents[i+1] - exponents[i];
+            if(g != gap){
+                gap = g;
+                power = power(x, g);
+            }
+            result = result * power + coefficients[i];
+        }
+        return result * power(x, exponents[0]);
+    }
+
+    /**
+     * Evaluates the polynomial at every point in the same way as evaluate(double). The points are taken in blocks and
+     * every term is applied to the whole block before moving to the next one. The powers of the points for the current
+     * gap are kept in an array for the block, so they are only computed again when the gap changes.
+     *
+     * @param xs the points at which the polynomial is evaluated
+     * @param out receives the values, it must be at least as long as xs
+     * @throws NullPointerException if xs or out is null
+     * @throws IllegalArgumentException if out is shorter than xs
+     */
+    @Override
+    public void evaluate(double[] xs, double[] out) {
+        if(out.length < xs.length)
+            throw new IllegalArgumentException();
+        if(exponents.length == 0){
+            Arrays.fill(out, 0, xs.length, 0);
+            return;
+        }
+        double[] acc = new double[Math.min(BLOCK, xs.length)];
+        double[] powers = new double[acc.length];
+        int last = exponents.length - 1;
+        for(int start = 0; start < xs.length; start += BLOCK){
+            int size = Math.min(BLOCK, xs.length - start);
+            Arrays.fill(acc, 0, size, coefficients[last]);
+            long gap = 0;
+            for(int i = last - 1; i >= 0; i--){
+                long g = (long) exponents[i+1] - exponents[i];
+                if(g != gap){
+                    gap = g;
+                    for(int j = 0; j < size; j++)
+                        powers[j] = power(xs[start + j], g);
+                }
+                double coef = coefficients[i];
+                for(int j = 0; j < size; j++)
+                    acc[j] = acc[j] * powers[j] + coef;
+            }
+            if(exponents[0] != 0){
+                for(int j = 0; j < size; j++)
+                    acc[j] *= power(xs[start + j], exponents[0]);
+            }
+            System.arraycopy(acc, 0, out, start, size);
+        }
+    }
+
+    /**
+     * Evaluates the polynomial at every integer point with evaluate(long), keeping the lowest 32 bits of each value.
+     * Sparse polynomials can have a degree much larger than their number of terms, so evaluating each point on its own
+     * is faster than a subproduct tree over the degree.
+     *
+     * @param points the points at which the polynomial is evaluated
+     * @return a new array holding the value at every point modulo 2^32
+     * @throws NullPointerException if points is null
+     * @throws ArithmeticException if the polynomial has a negative exponent
+     */
+    @Override
+    public int[] evaluate(int[] points) {
+        int[] values = new int[points.length];
+        for(int i = 0; i < points.length; i++)
+            values[i] = (int) evaluate((long) points[i]);
+        return values;
+    }
+
+    /**
+     * Raises x to a non-negative power by repeated squaring.
+     */
+    static long power(long x, long exponent){
+        long result = 1;
+        while(exponent > 0){
+            if((exponent & 1) != 0)
+                result *= x;
+            x *= x;
+            exponent >>= 1;
+        }
+        return result;
+    }
+
+    /**
+     * Raises x to a power by repeated squaring. A negative power is the reciprocal of the positive power.
+     */
+    static double power(double x, long exponent){
+        if(exponent < 0)
+            return 1 / power(x, -exponent);
+        double result = 1;
+        while(exponent > 0){
+            if((exponent & 1) != 0)
+                result *= x;
+            x *= x;
+            exponent >>= 1;
+        }
+        return result;
+    }
+
+    /**
+     * Merges the terms of the current instance and the terms of q multiplied by sign, dropping the terms that add up
+     * to 0.
+     */
+    private SortedSparsePolynomial merge(SortedSparsePolynomial q, int sign){
+        int[] qExp = q.exponents;
+        int[] qCoef = q.coefficients;
+        int[] exp = new int[exponents.length + qExp.length];
+        int[] coef = new int[exp.length];
+        int i = 0, j = 0, size = 0;
+        while(i < exponents.length || j < qExp.length){
+            int e, c;
+            if(j == qExp.length || (i < exponents.length && exponents[i] < qExp[j])){
+                e = exponents[i];
+                c = coefficients[i++];
+            }else if(i == exponents.length || qExp[j] < exponents[i]){
+                e = qExp[j];
+                c = sign * qCoef[j++];
+            }else{
+                e = exponents[i];
+                c = coefficients[i++] + sign * qCoef[j++];
+            }
+            if(c != 0){
+                exp[size] = e;
+                coef[size] = c;
+                size++;
+            }
+        }
+        if(size < exp.length){
+            exp = Arrays.copyOf(exp, size);
+            coef = Arrays.copyOf(coef, size);
+        }
+        return new SortedSparsePolynomial(exp, coef);
+    }
+
+    /**
+     * Checks if the class invariant holds for the current instance. The exponents must be in strictly ascending order,
+     * every exponent must have a coefficient and none of the coefficients can be 0. The string given to the constructor
+     * is checked with the rules of SparsePolynomial before the arrays are created.
+     *
+     * @return {@literal true} if the class invariant holds, and {@literal false} otherwise.
+     */
+    @Override
+    public boolean wellFormed() {
+        if(exponents == null || coefficients == null || exponents.length != coefficients.length)
+            return false;
+        for(int i = 0; i < exponents.length; i++){
+            if(coefficients[i] == 0)
+                return false;
+            if(i > 0 && exponents[i-1] >= exponents[i])
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * The current instance is written out as a string the same way as a SparsePolynomial. The terms are already
+     * sorted so PolynomialFormatter reads the arrays from the end.
+     *
+     * @return a string representation of the polynomial in descending order of the exponent
+     */
+    @Override
+    public String toString() {
+        return PolynomialFormatter.toString(this, exponents.length);
+    }
+
+    /**
+     * This method checks if the object passed in the parameter has the same exponents and coefficients. A
+     * DensePolynomial or a SparsePolynomial with the same terms is equal as well.
+     *
+     * @param q Any object but more specifically a SortedSparsePolynomial
+     * @return True or false if the parameter is equal to the current instance
+     */
+    @Override
+    public boolean equals(Object q){
+        return Polynomials.equals(this, q);
+    }
+
+    /**
+     * Adds up the hash codes of the terms, which gives the same hash code as any equal polynomial of the other classes.
+     *
+     * @return the hash code of the polynomial
+     */
+    @Override
+    public int hashCode(){
+        int h = hash;
+        if(h == 0){
+            for(int i = 0; i < exponents.length; i++)
+                h += Polynomials.termHash(exponents[i], coefficients[i]);
+            hash = h;
+        }
+        return h;
+    }
+
+    /**
+     * Collects the non-zero terms given by the parser into arrays that grow as needed.
+     */
+    private static final class TermList implements PolynomialParser.TermConsumer {
+        private int[] exponents = new int[8];
+        private int[] coefficients = new int[8];
+        private int size;
+
+        @Override
+        public void term(int exponent, int coefficient){
+            if(coefficient == 0)
+                return;
+            if(size == exponents.length){
+                exponents = Arrays.copyOf(exponents, size * 2);
+                coefficients = Arrays.copyOf(coefficients, size * 2);
+            }
+            exponents[size] = exponent;
+            coefficients[size] = coefficient;
+            size++;
+        }
+    }
+}
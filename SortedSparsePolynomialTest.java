@@ -0,0 +1,135 @@
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SortedSparsePolynomialTest {
+
+    @Test
+    void degree() {
+        Polynomial p = new SortedSparsePolynomial("0");
+        assertEquals(0, p.degree());
+        Polynomial q = new SortedSparsePolynomial("x^50 + 3x^40 + x^35 + 65x^10 + 75x + 100");
+        assertEquals(50, q.degree());
+        Polynomial v = new SortedSparsePolynomial("x^-1 + x^-2");
+        assertEquals(-1, v.degree());
+    }
+
+    @Test
+    void getCoefficient() {
+        Polynomial q = new SortedSparsePolynomial("x^50 + 3x^40 + x^35 + 65x^10 + 75x + 100 + -x^-2");
+        assertEquals(100, q.getCoefficient(0));
+        assertEquals(0, q.getCoefficient(15));
+        assertEquals(1, q.getCoefficient(50));
+        assertEquals(0, q.getCoefficient(999999));
+        assertEquals(-1, q.getCoefficient(-2));
+        assertEquals(0, q.getCoefficient(-5));
+    }
+
+    @Test
+    void isZero() {
+        Polynomial p = new SortedSparsePolynomial("0");
+        assertTrue(p.isZero());
+        Polynomial q = new SortedSparsePolynomial("x^50 + 3x^40 + x^35 + 65x^10 + 75x + 100");
+        assertFalse(q.isZero());
+    }
+
+    @Test
+    void add() {
+        Polynomial p = new SortedSparsePolynomial("0");
+        Polynomial q = new SortedSparsePolynomial("x^50 + 3x^40 + x^35 + 65x^10 + 75x + 100");
+        Polynomial v = new SortedSparsePolynomial("x^50 + 3x^40 + x^35 + 65x^10 + 75x + 100 + x^-2 + x^-5");
+        Polynomial w = new SortedSparsePolynomial("2x^50 + 6x^40 + 2x^35 + 130x^10 + 150x + 200 + x^-2 + x^-5");
+        Polynomial s = new DensePolynomial("x^2147483");
+        Polynomial t = new SortedSparsePolynomial("x^2147483 + x^50 + 3x^40 + x^35 + 65x^10 + 75x + 100 + x^-2 + x^-5");
+        Polynomial u = new SparsePolynomial("-x^50 - 3x^40 - x^35 - 65x^10 - 75x - 100");
+        assertThrows(NullPointerException.class, () -> p.add(null));
+        assertEquals(q, p.add(q));
+        assertEquals(w, q.add(v));
+        assertEquals(t, v.add(s));
+        assertEquals(p, q.add(u));
+    }
+
+    @Test
+    void multiply() {
+        Polynomial p = new SortedSparsePolynomial("0");
+        Polynomial q = new SortedSparsePolynomial("x^50 + 3x^40 + x^35 + 65x^10 + 75x + 100");
+        Polynomial s = new DensePolynomial("2x^10 + 5x^7");
+        Polynomial t = new SortedSparsePolynomial("x^-2");
+        Polynomial x = new SortedSparsePolynomial("2x^8 + 5x^5");
+        Polynomial z = new SortedSparsePolynomial("1");
+        Polynomial a = new SortedSparsePolynomial("x^48 + 3x^38 + x^33 + 65x^8 + 75x^-1 + 100x^-2");
+        Polynomial b = new SortedSparsePolynomial("x^2 - 1");
+        Polynomial c = new SparsePolynomial("x^2 + 1");
+        Polynomial d = new SortedSparsePolynomial("x^4 - 1");
+        assertEquals(p, p.multiply(q));
+        assertEquals(x, t.multiply(s));
+        assertEquals(t, t.multiply(z));
+        assertEquals(a, q.multiply(t));
+        assertEquals(d, b.multiply(c));
+    }
+
+    @Test
+    void subtract() {
+        Polynomial p = new SortedSparsePolynomial("0");
+        Polynomial q = new SortedSparsePolynomial("x^50 + 3x^40 + x^35 + 65x^10 + 75x + 100");
+        Polynomial s = new SortedSparsePolynomial("2x^10 + 5x^7 - x^-2 - x^-3");
+        Polynomial z = new SparsePolynomial("1 - x^-2");
+        Polynomial a = new SortedSparsePolynomial("2x^10 + 5x^7 - 1 - x^-3");
+        assertThrows(NullPointerException.class, () -> p.subtract(null));
+        assertEquals(p, q.subtract(q));
+        assertEquals(q, q.subtract(p));
+        assertEquals(a, s.subtract(z));
+    }
+
+    @Test
+    void minus() {
+        Polynomial p = new SortedSparsePolynomial("0");
+        Polynomial a = new SortedSparsePolynomial("2x^10 + 5x^7 - x^-2 - x^-3");
+        Polynomial b = new SortedSparsePolynomial("-2x^10 - 5x^7 + x^-2 + x^-3");
+        assertEquals(p, p.minus());
+        assertEquals(b, a.minus());
+    }
+
+    @Test
+    void evaluate() {
+        Polynomial q = new SortedSparsePolynomial("x^100 + 3x^50 - 2");
+        Polynomial c = new SortedSparsePolynomial("2x^10 + 5x^7 - x^-2 - x^-3");
+        assertEquals(new DensePolynomial("x^100 + 3x^50 - 2").evaluate(3L), q.evaluate(3L));
+        assertEquals(0, new SortedSparsePolynomial("0").evaluate(3.0));
+        assertThrows(ArithmeticException.class, () -> c.evaluate(2L));
+        assertEquals(2 * 1024 + 5 * 128 - 0.25 - 0.125, c.evaluate(2.0), 1e-9);
+        double[] xs = {-2, -1, -0.5, 0.5, 1, 2};
+        double[] out = new double[xs.length];
+        c.evaluate(xs, out);
+        for(int i = 0; i < xs.length; i++)
+            assertEquals(new SparsePolynomial("2x^10 + 5x^7 - x^-2 - x^-3").evaluate(xs[i]), out[i], 1e-9);
+    }
+
+    @Test
+    void wellFormed() {
+        Polynomial a = new SortedSparsePolynomial("2x^10 + 5x^7 - x^-2 - x^-3");
+        assertTrue(a.wellFormed());
+        assertTrue(a.add(a.minus()).wellFormed());
+        assertThrows(IllegalArgumentException.class, () -> new SortedSparsePolynomial("x^-2 + x^-3 + x^-3"));
+        assertThrows(IllegalArgumentException.class, () -> new SortedSparsePolynomial(" "));
+    }
+
+    @Test
+    void testToString() {
+        String[] strings = {"0", "x^50 + 3x^40 + x^35 + 65x^10 + 75x + 100", "2x^10 + 5x^7 - x^-2 - x^-3",
+                "-x^2 + 3x", "-4 + x^-1"};
+        for(String str: strings)
+            assertEquals(new SparsePolynomial(str).toString(), new SortedSparsePolynomial(str).toString());
+    }
+
+    @Test
+    void testEquals() {
+        Polynomial q = new SortedSparsePolynomial("x^50 + 3x^40 + x^35 + 65x^10 + 75x + 100");
+        Polynomial x = new SortedSparsePolynomial("x^50 + 3x^40 + x^35 + 65x^10 + 75x + 100");
+        Polynomial c = new SortedSparsePolynomial("2x^10 + 5x^7 - x^-2 - x^-3");
+        Polynomial b = new SortedSparsePolynomial("-2x^10 - 5x^7 + x^-2 + x^-3");
+        assertTrue(q.equals(x));
+        assertFalse(q.equals(c));
+        assertTrue(c.equals(b.minus()));
+    }
+}
@@ -0,0 +1,217 @@
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Exact division and greatest common divisors of polynomials with integer coefficients, on their terms kept as
+ * WideTerms. Only the non-zero terms are visited so this suits sparse polynomials, and it is the exact fallback of the
+ * dense division of Polynomials when the int kernels of DenseDivision can't give the answer.
+ *
+ * A quotient with integer coefficients only exists when the leading coefficient of the divisor divides the leading
+ * coefficient of every remainder on the way, which is always the case for a divisor whose leading coefficient is 1 or
+ * -1. The greatest common divisor is found with the primitive remainder sequence, which takes pseudo-remainders so
+ * that no division of coefficients is needed and keeps their size down by dividing every remainder by its content.
+ */
+final class SparseDivision {
+
+    private SparseDivision(){
+    }
+
+    /**
+     * Divides a by b with long division, taking the leading term of the remainder away in every step. The remainder is
+     * updated in place, in an array over its exponents when those suit a dense array and in a sorted map otherwise, so
+     * every step only touches the terms of b.
+     *
+     * @param a the terms of the dividend
+     * @param b the terms of the divisor, at least one
+     * @return the terms of the quotient and of the remainder, whose degree is below the degree of b
+     * @throws ArithmeticException if the quotient doesn't have integer coefficients
+     */
+    static WideTerms[] divide(WideTerms a, WideTerms b){
+        int bDegree = b.exponents[b.exponents.length - 1];
+        if(a.exponents.length == 0 || a.exponents[a.exponents.length - 1] < bDegree)
+            return new WideTerms[]{WideTerms.EMPTY, a};
+        int low = Math.min(a.exponents[0], b.exponents[0]); // No term of the remainder goes below this
+        int high = a.exponents[a.exponents.length - 1];
+        if(Polynomials.prefersDense(0, (long) high - low, a.exponents.length))
+            return divideDense(a, b, low, high);
+        return divideSparse(a, b);
+    }
+
+    /**
+     * Long division on an array of the coefficients of the remainder, where position i holds exponent low + i.
+     */
+    private static WideTerms[] divideDense(WideTerms a, WideTerms b, int low, int high){
+        int bLast = b.exponents.length - 1;
+        int bDegree = b.exponents[bLast];
+        BigInteger lead = b.coefficients[bLast];
+        BigInteger[] r = new BigInteger[high - low + 1];
+        Arrays.fill(r, BigInteger.ZERO);
+        for(int i = 0; i < a.exponents.length; i++)
+            r[a.exponents[i] - low] = a.coefficients[i];
+        BigInteger[] q = new BigInteger[high - bDegree + 1];
+        int size = 0;
+        for(int e = high; e >= bDegree; e--){
+            BigInteger c = r[e - low];
+            if(c.signum() == 0)
+                continue;
+            BigInteger[] qr = c.divideAndRemainder(lead);
+            if(qr[1].signum() != 0)
+                throw new ArithmeticException("Quotient doesn't have integer coefficients");
+            int shift = e - bDegree;
+            q[shift] = qr[0];
+            size++;
+            r[e - low] = BigInteger.ZERO;
+            for(int j = 0; j < bLast; j++){ // The leading term of b cancels c
+                int position = shift + b.exponents[j] - low;
+                r[position] = r[position].subtract(qr[0].multiply(b.coefficients[j]));
+            }
+        }
+        int[] exp = new int[size];
+        BigInteger[] coef = new BigInteger[size];
+        size = 0;
+        for(int i = 0; i < q.length; i++){
+            if(q[i] != null){
+                exp[size] = i;
+                coef[size++] = q[i];
+            }
+        }
+        return new WideTerms[]{new WideTerms(exp, coef), terms(r, low, bDegree - low)};
+    }
+
+    /**
+     * @return the non-zero coefficients among the first length positions of arr, where position i holds exponent
+     * low + i
+     */
+    private static WideTerms terms(BigInteger[] arr, int low, int length){
+        int size = 0;
+        for(int i = 0; i < length; i++)
+            size += arr[i].signum() != 0 ? 1 : 0;
+        int[] exp = new int[size];
+        BigInteger[] coef = new BigInteger[size];
+        size = 0;
+        for(int i = 0; i < length; i++){
+            if(arr[i].signum() != 0){
+                exp[size] = low + i;
+                coef[size++] = arr[i];
+            }
+        }
+        return new WideTerms(exp, coef);
+    }
+
+    /**
+     * Long division on a sorted map from the exponents of the remainder to their non-zero coefficients.
+     */
+    private static WideTerms[] divideSparse(WideTerms a, WideTerms b){
+        int bLast = b.exponents.length - 1;
+        int bDegree = b.exponents[bLast];
+        BigInteger lead = b.coefficients[bLast];
+        TreeMap<Integer, BigInteger> r = new TreeMap<>();
+        for(int i = 0; i < a.exponents.length; i++)
+            r.put(a.exponents[i], a.coefficients[i]);
+        int[] qExp = new int[4];
+        BigInteger[] qCoef = new BigInteger[4];
+        int size = 0;
+        while(!r.isEmpty() && r.lastKey() >= bDegree){
+            Map.Entry<Integer, BigInteger> top = r.pollLastEntry();
+            BigInteger[] qr = top.getValue().divideAndRemainder(lead);
+            if(qr[1].signum() != 0)
+                throw new ArithmeticException("Quotient doesn't have integer coefficients");
+            int shift = top.getKey() - bDegree;
+            if(size == qExp.length){
+                qExp = Arrays.copyOf(qExp, size * 2);
+                qCoef = Arrays.copyOf(qCoef, size * 2);
+            }
+            qExp[size] = shift;
+            qCoef[size] = qr[0];
+            size++;
+            for(int j = 0; j < bLast; j++){
+                r.merge(shift + b.exponents[j], qr[0].multiply(b.coefficients[j]).negate(), (x, y) -> {
+                    BigInteger sum = x.add(y);
+                    return sum.signum() == 0 ? null : sum; // A term that cancels leaves the map
+                });
+            }
+        }
+        int[] exp = new int[size]; // The terms of the quotient were found from the highest exponent down
+        BigInteger[] coef = new BigInteger[size];
+        for(int i = 0; i < size; i++){
+            exp[i] = qExp[size - 1 - i];
+            coef[i] = qCoef[size - 1 - i];
+        }
+        int[] rExp = new int[r.size()];
+        BigInteger[] rCoef = new BigInteger[r.size()];
+        int i = 0;
+        for(Map.Entry<Integer, BigInteger> term: r.entrySet()){
+            rExp[i] = term.getKey();
+            rCoef[i++] = term.getValue();
+        }
+        return new WideTerms[]{new WideTerms(exp, coef), new WideTerms(rExp, rCoef)};
+    }
+
+    /**
+     * Finds the greatest common divisor of a and b, which is the product of the greatest common divisor of their
+     * contents and of the last non-zero remainder of the primitive remainder sequence of their primitive parts.
+     *
+     * @param a the terms of the first polynomial, with no negative exponent
+     * @param b the terms of the second polynomial, with no negative exponent
+     * @return the terms of the greatest common divisor with a positive leading coefficient, or no terms if both a and
+     * b have none
+     */
+    static WideTerms gcd(WideTerms a, WideTerms b){
+        if(a.exponents.length == 0)
+            return normalize(b);
+        if(b.exponents.length == 0)
+            return normalize(a);
+        BigInteger ca = a.content();
+        BigInteger cb = b.content();
+        BigInteger content = ca.gcd(cb);
+        a = a.divide(ca);
+        b = b.divide(cb);
+        if(degree(a) < degree(b)){
+            WideTerms t = a;
+            a = b;
+            b = t;
+        }
+        while(b.exponents.length > 0){
+            WideTerms r = pseudoRemainder(a, b);
+            a = b;
+            b = r.divide(r.content());
+        }
+        return normalize(a.multiply(0, content));
+    }
+
+    /**
+     * Finds a non-zero constant multiple of the remainder of a divided by b. Every step multiplies the remainder by
+     * the leading coefficient of b over their common factor with the leading coefficient of the remainder, so the
+     * leading term can be taken away with integer coefficients.
+     */
+    private static WideTerms pseudoRemainder(WideTerms a, WideTerms b){
+        int bLast = b.exponents.length - 1;
+        int bDegree = b.exponents[bLast];
+        BigInteger lead = b.coefficients[bLast];
+        WideTerms r = a;
+        while(r.exponents.length > 0 && r.exponents[r.exponents.length - 1] >= bDegree){
+            int last = r.exponents.length - 1;
+            BigInteger rLead = r.coefficients[last];
+            BigInteger g = rLead.gcd(lead);
+            r = r.multiply(0, lead.divide(g)).merge(b.multiply(r.exponents[last] - bDegree, rLead.divide(g)), -1);
+        }
+        return r;
+    }
+
+    /**
+     * @return the largest exponent, which is 0 when there are no terms
+     */
+    private static int degree(WideTerms a){
+        return a.exponents.length == 0 ? 0 : a.exponents[a.exponents.length - 1];
+    }
+
+    /**
+     * @return the terms negated when the leading coefficient is negative, otherwise the terms themselves
+     */
+    private static WideTerms normalize(WideTerms a){
+        int last = a.exponents.length - 1;
+        return last >= 0 && a.coefficients[last].signum() < 0 ? a.negate() : a;
+    }
+}
@@ -0,0 +1,319 @@
+import java.math.BigInteger;
+import java.util.Arrays;
+
+/**
+ * Multiplies sparse polynomials whose terms are sorted by ascending exponent, the way SortedSparsePolynomial keeps
+ * them. The products are taken out of a binary heap in exponent order (Johnson's algorithm) so like terms come out
+ * one after the other and are added together right away, without any intermediate polynomial or map.
+ *
+ * The heap holds at most one entry per term of the first operand. Entry (i, j) stands for the product of term i of
+ * the first operand with term j of the second one. Following Monagan and Pearce, (i + 1, 0) is only pushed once
+ * (i, 0) has been taken out, which keeps the heap small when the products come out in order.
+ *
+ * The int coefficients wrap around on overflow like the products of DenseMultiplier. The same heap also multiplies
+ * WideTerms with exact BigInteger coefficients, which SparsePolynomial uses when a product could overflow an int.
+ */
+final class SparseMultiplier {
+
+    private SparseMultiplier(){
+    }
+
+    /**
+     * Multiplies the terms of the two polynomials.
+     *
+     * @param aExp exponents of the first polynomial in ascending order
+     * @param aCoef coefficients of the first polynomial
+     * @param bExp exponents of the second polynomial in ascending order
+     * @param bCoef coefficients of the second polynomial
+     * @return the product with its terms in ascending order of the exponent
+     */
+    static SortedSparsePolynomial multiply(int[] aExp, int[] aCoef, int[] bExp, int[] bCoef){
+        if(aExp.length > bExp.length) // The heap is as large as the first operand
+            return multiply(bExp, bCoef, aExp, aCoef);
+        int n = aExp.length;
+        int m = bExp.length;
+        if(n == 0)
+            return new SortedSparsePolynomial(new int[0], new int[0]);
+        int[] heapExp = new int[n];
+        int[] heapI = new int[n];
+        int[] heapJ = new int[n];
+        int capacity = Math.max(16, n + m);
+        int[] exp = new int[capacity];
+        int[] coef = new int[capacity];
+        int size = 0;
+
+        heapExp[0] = aExp[0] + bExp[0]; // Starts with the product of the two lowest terms
+        int heapSize = 1;
+        int currentExp = heapExp[0];
+        int currentCoef = 0;
+        while(heapSize > 0){
+            int e = heapExp[0];
+            int i = heapI[0];
+            int j = heapJ[0];
+            heapSize = pop(heapExp, heapI, heapJ, heapSize);
+
+            if(e != currentExp){ // All the products of the previous exponent have been added
+                if(currentCoef != 0){
+                    if(size == capacity){
+                        capacity *= 2;
+                        exp = Arrays.copyOf(exp, capacity);
+                        coef = Arrays.copyOf(coef, capacity);
+                    }
+                    exp[size] = currentExp;
+                    coef[size] = currentCoef;
+                    size++;
+                }
+                currentExp = e;
+                currentCoef = 0;
+            }
+            currentCoef += aCoef[i] * bCoef[j];
+
+            if(j == 0 && i + 1 < n)
+                heapSize = push(heapExp, heapI, heapJ, heapSize, aExp[i + 1] + bExp[0], i + 1, 0);
+            if(j + 1 < m)
+                heapSize = push(heapExp, heapI, heapJ, heapSize, aExp[i] + bExp[j + 1], i, j + 1);
+        }
+        if(currentCoef != 0){
+            if(size == capacity){
+                exp = Arrays.copyOf(exp, capacity + 1);
+                coef = Arrays.copyOf(coef, capacity + 1);
+            }
+            exp[size] = currentExp;
+            coef[size] = currentCoef;
+            size++;
+        }
+        return new SortedSparsePolynomial(Arrays.copyOf(exp, size), Arrays.copyOf(coef, size));
+    }
+
+    /**
+     * Multiplies terms with exact coefficients in the same order as multiply(), adding the products of each exponent
+     * as BigIntegers.
+     *
+     * @param a the terms of the first polynomial
+     * @param b the terms of the second polynomial
+     * @return the product
+     */
+    static WideTerms multiply(WideTerms a, WideTerms b){
+        if(a.exponents.length > b.exponents.length) // The heap is as large as the first operand
+            return multiply(b, a);
+        int[] aExp = a.exponents;
+        int[] bExp = b.exponents;
+        int n = aExp.length;
+        int m = bExp.length;
+        if(n == 0)
+            return WideTerms.EMPTY;
+        int[] heapExp = new int[n];
+        int[] heapI = new int[n];
+        int[] heapJ = new int[n];
+        int[] exp = new int[n + m];
+        BigInteger[] coef = new BigInteger[n + m];
+        int size = 0;
+
+        heapExp[0] = aExp[0] + bExp[0];
+        int heapSize = 1;
+        int currentExp = heapExp[0];
+        BigInteger currentCoef = BigInteger.ZERO;
+        while(true){
+            boolean done = heapSize == 0;
+            int e = heapExp[0];
+            if(done || e != currentExp){ // All the products of the previous exponent have been added
+                if(currentCoef.signum() != 0){
+                    if(size == exp.length){
+                        exp = Arrays.copyOf(exp, size * 2);
+                        coef = Arrays.copyOf(coef, size * 2);
+                    }
+                    exp[size] = currentExp;
+                    coef[size] = currentCoef;
+                    size++;
+                }
+                if(done)
+                    break;
+                currentExp = e;
+                currentCoef = BigInteger.ZERO;
+            }
+            int i = heapI[0];
+            int j = heapJ[0];
+            heapSize = pop(heapExp, heapI, heapJ, heapSize);
+            currentCoef = currentCoef.add(a.coefficients[i].multiply(b.coefficients[j]));
+
+            if(j == 0 && i + 1 < n)
+                heapSize = push(heapExp, heapI, heapJ, heapSize, aExp[i + 1] + bExp[0], i + 1, 0);
+            if(j + 1 < m)
+                heapSize = push(heapExp, heapI, heapJ, heapSize, aExp[i] + bExp[j + 1], i, j + 1);
+        }
+        return new WideTerms(Arrays.copyOf(exp, size), Arrays.copyOf(coef, size));
+    }
+
+    /**
+     * Squares the terms of a polynomial with the same heap as multiply(). The product of terms i and j is the same as
+     * the product of terms j and i, so only the entries (i, j) with j >= i are visited and the ones with j > i are
+     * counted twice. Row i + 1 starts at (i + 1, i + 1), which is pushed once (i, i) has been taken out, so the heap
+     * still holds at most one entry per term and about half as many products go through it.
+     *
+     * @param exp exponents of the polynomial in ascending order
+     * @param coef coefficients of the polynomial
+     * @return the square with its terms in ascending order of the exponent
+     */
+    static SortedSparsePolynomial square(int[] exp, int[] coef){
+        int n = exp.length;
+        if(n == 0)
+            return new SortedSparsePolynomial(new int[0], new int[0]);
+        int[] heapExp = new int[n];
+        int[] heapI = new int[n];
+        int[] heapJ = new int[n];
+        int capacity = Math.max(16, 2 * n);
+        int[] resultExp = new int[capacity];
+        int[] resultCoef = new int[capacity];
+        int size = 0;
+
+        heapExp[0] = 2 * exp[0];
+        int heapSize = 1;
+        int currentExp = heapExp[0];
+        int currentCoef = 0;
+        while(heapSize > 0){
+            int e = heapExp[0];
+            int i = heapI[0];
+            int j = heapJ[0];
+            heapSize = pop(heapExp, heapI, heapJ, heapSize);
+
+            if(e != currentExp){ // All the products of the previous exponent have been added
+                if(currentCoef != 0){
+                    if(size == capacity){
+                        capacity *= 2;
+                        resultExp = Arrays.copyOf(resultExp, capacity);
+                        resultCoef = Arrays.copyOf(resultCoef, capacity);
+                    }
+                    resultExp[size] = currentExp;
+                    resultCoef[size] = currentCoef;
+                    size++;
+                }
+                currentExp = e;
+                currentCoef = 0;
+            }
+            int product = coef[i] * coef[j];
+            currentCoef += i == j ? product : 2 * product;
+
+            if(j == i && i + 1 < n)
+                heapSize = push(heapExp, heapI, heapJ, heapSize, 2 * exp[i + 1], i + 1, i + 1);
+            if(j + 1 < n)
+                heapSize = push(heapExp, heapI, heapJ, heapSize, exp[i] + exp[j + 1], i, j + 1);
+        }
+        if(currentCoef != 0){
+            if(size == capacity){
+                resultExp = Arrays.copyOf(resultExp, capacity + 1);
+                resultCoef = Arrays.copyOf(resultCoef, capacity + 1);
+            }
+            resultExp[size] = currentExp;
+            resultCoef[size] = currentCoef;
+            size++;
+        }
+        return new SortedSparsePolynomial(Arrays.copyOf(resultExp, size), Arrays.copyOf(resultCoef, size));
+    }
+
+    /**
+     * Squares terms with exact coefficients in the same order as square(), adding the products of each exponent as
+     * BigIntegers.
+     *
+     * @param a the terms of the polynomial
+     * @return the square
+     */
+    static WideTerms square(WideTerms a){
+        int[] aExp = a.exponents;
+        int n = aExp.length;
+        if(n == 0)
+            return WideTerms.EMPTY;
+        int[] heapExp = new int[n];
+        int[] heapI = new int[n];
+        int[] heapJ = new int[n];
+        int[] exp = new int[2 * n];
+        BigInteger[] coef = new BigInteger[2 * n];
+        int size = 0;
+
+        heapExp[0] = 2 * aExp[0];
+        int heapSize = 1;
+        int currentExp = heapExp[0];
+        BigInteger currentCoef = BigInteger.ZERO;
+        while(true){
+            boolean done = heapSize == 0;
+            int e = heapExp[0];
+            if(done || e != currentExp){ // All the products of the previous exponent have been added
+                if(currentCoef.signum() != 0){
+                    if(size == exp.length){
+                        exp = Arrays.copyOf(exp, size * 2);
+                        coef = Arrays.copyOf(coef, size * 2);
+                    }
+                    exp[size] = currentExp;
+                    coef[size] = currentCoef;
+                    size++;
+                }
+                if(done)
+                    break;
+                currentExp = e;
+                currentCoef = BigInteger.ZERO;
+            }
+            int i = heapI[0];
+            int j = heapJ[0];
+            heapSize = pop(heapExp, heapI, heapJ, heapSize);
+            BigInteger product = a.coefficients[i].multiply(a.coefficients[j]);
+            currentCoef = currentCoef.add(i == j ? product : product.shiftLeft(1));
+
+            if(j == i && i + 1 < n)
+                heapSize = push(heapExp, heapI, heapJ, heapSize, 2 * aExp[i + 1], i + 1, i + 1);
+            if(j + 1 < n)
+                heapSize = push(heapExp, heapI, heapJ, heapSize, aExp[i] + aExp[j + 1], i, j + 1);
+        }
+        return new WideTerms(Arrays.copyOf(exp, size), Arrays.copyOf(coef, size));
+    }
+
+    /**
+     * Removes the top entry of the heap by moving the last entry to the top and sifting it down.
+     *
+     * @return the new size of the heap
+     */
+    private static int pop(int[] heapExp, int[] heapI, int[] heapJ, int heapSize){
+        heapSize--;
+        int lastExp = heapExp[heapSize];
+        int lastI = heapI[heapSize];
+        int lastJ = heapJ[heapSize];
+        int position = 0;
+        while(true){
+            int child = 2 * position + 1;
+            if(child >= heapSize)
+                break;
+            if(child + 1 < heapSize && heapExp[child + 1] < heapExp[child])
+                child++;
+            if(heapExp[child] >= lastExp)
+                break;
+            heapExp[position] = heapExp[child];
+            heapI[position] = heapI[child];
+            heapJ[position] = heapJ[child];
+            position = child;
+        }
+        heapExp[position] = lastExp;
+        heapI[position] = lastI;
+        heapJ[position] = lastJ;
+        return heapSize;
+    }
+
+    /**
+     * Adds the entry to the heap and sifts it up.
+     *
+     * @return the new size of the heap
+     */
+    private static int push(int[] heapExp, int[] heapI, int[] heapJ, int heapSize, int e, int i, int j){
+        int position = heapSize;
+        while(position > 0){
+            int parent = (position - 1) / 2;
+            if(heapExp[parent] <= e)
+                break;
+            heapExp[position] = heapExp[parent];
+            heapI[position] = heapI[parent];
+            heapJ[position] = heapJ[parent];
+            position = parent;
+        }
+        heapExp[position] = e;
+        heapI[position] = i;
+        heapJ[position] = j;
+        return heapSize + 1;
+    }
+}
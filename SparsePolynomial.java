@@ -1,170 +1,345 @@
-import java.util.Arrays;
-import java.util.HashMap;
-import java.util.Set;
+import java.math.BigInteger;
 
+/**
+ * A polynomial stored as a map from the exponents to the coefficients, holding only the non-zero terms.
+ *
+ * The coefficients are kept in an IntIntMap while they all fit in an int. Once an operation detects that a coefficient
+ * of its result doesn't, with the Math.*Exact methods while adding or with a bound on the coefficients before
+ * multiplying, the terms are kept as WideTerms with exact BigInteger coefficients instead. Exactly one of the two is
+ * set, and results that fit in an int again go back to the map.
+ */
 public class SparsePolynomial implements Polynomial{
     private String strPoly;
-    private HashMap<Integer, Integer> intPoly;
+    private IntIntMap intPoly; // null once a coefficient doesn't fit in an int
+    private WideTerms wide; // The terms when a coefficient doesn't fit in an int, null otherwise
+    private int degree; // Largest exponent, found when the polynomial is created
+    private double magnitude = -1; // Largest absolute value of the coefficients, found the first time it is needed
+    private int hash; // Cached hash code, 0 until it is computed
+    private boolean interned; // True for the instance PolynomialPool shares among the equal polynomials
+    private SortedSparsePolynomial sorted; // The terms sorted by exponent, created the first time they are needed
 
     /**
      * Constructor of the class. Create a Sparsepolynomial object with the given string in the parameter and put it
-     * in the private hashmap intPoly separating the exponent and coefficients of the polynomial.
+     * in the private map intPoly separating the exponent and coefficients of the polynomial.
      *
-     * The exponent would be the key of the map and coefficient would be the value.
+     * The exponent would be the key of the map and coefficient would be the value. Terms with a coefficient of 0 are
+     * not stored in the map.
      *
-     * Calls on wellformed to check the invariant of the string to see if the string is value. Throws an
-     * illeqalargument exception when the class invariant doesn't hold true.
+     * The string is read once by PolynomialParser, which checks the class invariant while reading. Throws a
+     * PolynomialFormatException, which is an illeqalargument exception with the position of the error, when the class
+     * invariant doesn't hold true.
      *
      * @param str Takes in a polynomial written as a string
      * @throws IllegalArgumentException when the class invariant doesn't hold true.
      */
     public SparsePolynomial (String str){
-        str = str.replaceAll("- ", "+-");
-        str = str.replaceAll("\\s", "");
+        long start = OperationMetrics.ENABLED ? System.nanoTime() : 0;
         strPoly = str;
-        if(!wellFormed())
-            throw new IllegalArgumentException();
-        intPoly = new HashMap<Integer, Integer>();
-        String[] newArrPoly = strPoly.split("\\+");
-        int xPosition, carrotPosition, coef, exponent;
-        for(String temp: newArrPoly){
-            xPosition = temp.indexOf("x");
-            if(xPosition != -1){
-                carrotPosition = temp.indexOf("^");
-                if(carrotPosition != -1)
-                    exponent = Integer.parseInt(temp.substring(carrotPosition+1));
-                else
-                    exponent = 1;
-                if(xPosition == 0)
-                    coef = 1;
-                else if(temp.substring(0,xPosition).equals("-"))
-                    coef = -1;
-                else
-                    coef = Integer.parseInt(temp.substring(0, xPosition));
-            }else{
-                coef = Integer.parseInt(temp);
-                exponent = 0;
+        intPoly = new IntIntMap();
+        PolynomialParser.parse(str, true, intPoly::put);
+        degree = largestExponent(intPoly);
+        if(OperationMetrics.ENABLED)
+            OperationMetrics.record(OperationMetrics.Operation.PARSE, this, start, str.length());
+    }
+
+    /**
+     * Constructor used by the other classes of the package. Initializes the private map with the given map in the
+     * parameter to construct a polynomial. The map is not copied, so the caller must not modify it afterwards.
+     *
+     * @param map Takes in a map of polynomial with the exponent as the key and the coefficient as the value
+     */
+    SparsePolynomial(IntIntMap map){
+        intPoly = map;
+        degree = largestExponent(map);
+    }
+
+    /**
+     * Constructor used by the other classes of the package for terms with coefficients of any size. The terms are put
+     * in a map when all of their coefficients fit in an int.
+     *
+     * @param terms Takes in the terms in ascending order of the exponent
+     */
+    SparsePolynomial(WideTerms terms){
+        if(terms.fitsInt()){
+            intPoly = new IntIntMap(terms.exponents.length);
+            for(int i = 0; i < terms.exponents.length; i++)
+                intPoly.put(terms.exponents[i], terms.coefficients[i].intValue());
+        }else
+            wide = terms;
+        degree = terms.exponents.length == 0 ? 0 : terms.exponents[terms.exponents.length - 1];
+    }
+
+    /**
+     * Converts the given polynomial into a SparsePolynomial. The parameter is returned when it already is one.
+     *
+     * @param q the polynomial to convert
+     * @return a SparsePolynomial equal to q
+     * @throws NullPointerException if q is null
+     */
+    static SparsePolynomial of(Polynomial q){
+        if(q == null)
+            throw new NullPointerException();
+        if(q instanceof SparsePolynomial)
+            return (SparsePolynomial) q;
+        if(Polynomials.wide(q))
+            return new SparsePolynomial(WideTerms.of(q));
+        SortedSparsePolynomial sorted = SortedSparsePolynomial.of(q);
+        int[] exponents = sorted.exponents();
+        int[] coefficients = sorted.coefficients();
+        IntIntMap map = new IntIntMap(exponents.length);
+        for(int i = 0; i < exponents.length; i++)
+            map.put(exponents[i], coefficients[i]);
+        SparsePolynomial p = new SparsePolynomial(map);
+        p.sorted = sorted;
+        return p;
+    }
+
+    /**
+     * @return a copy of the map from the exponents to the coefficients
+     * @throws ArithmeticException if a coefficient doesn't fit in an int
+     */
+    public IntIntMap getIntPoly(){
+        if(intPoly == null)
+            throw new ArithmeticException("Coefficient doesn't fit in an int");
+        return new IntIntMap(intPoly);
+    }
+
+    /**
+     * @return the map of the polynomial without copying it, which the caller must not modify, or null if a
+     * coefficient doesn't fit in an int
+     */
+    IntIntMap terms(){
+        return intPoly;
+    }
+
+    /**
+     * @return true if this is the instance PolynomialPool shares among the equal sparse polynomials
+     */
+    boolean interned(){
+        return interned;
+    }
+
+    /**
+     * Marks this as the instance PolynomialPool shares, which is only done once no equal instance is shared.
+     */
+    void markInterned(){
+        interned = true;
+    }
+
+    /**
+     * @return the number of terms
+     */
+    int size(){
+        return intPoly != null ? intPoly.size() : wide.exponents.length;
+    }
+
+    /**
+     * @return the terms with their exact coefficients in ascending order of the exponent
+     */
+    WideTerms wideTerms(){
+        if(wide != null)
+            return wide;
+        SortedSparsePolynomial s = sorted();
+        return new WideTerms(s.exponents(), WideTerms.toBig(s.coefficients()));
+    }
+
+    /**
+     * @return the lowest exponent when it is negative, otherwise 0
+     */
+    int lowestExponent(){
+        if(wide != null)
+            return Math.min(0, wide.exponents[0]);
+        int lowest = 0;
+        for(int slot = 0; slot < intPoly.capacity(); slot++){
+            if(intPoly.isUsed(slot))
+                lowest = Math.min(lowest, intPoly.keyAt(slot));
+        }
+        return lowest;
+    }
+
+    /**
+     * Finds the largest absolute value of the coefficients the first time it is called. Coefficients that don't fit
+     * in an int are rounded up to the next power of two.
+     *
+     * @return the largest absolute value of the coefficients
+     */
+    double magnitude(){
+        if(magnitude < 0){
+            double max = 0;
+            if(intPoly != null)
+                max = Polynomials.magnitude(intPoly);
+            else{
+                for(BigInteger x: wide.coefficients)
+                    max = Math.max(max, Math.scalb(1.0, x.bitLength()));
             }
-            intPoly.put(exponent, coef);
+            magnitude = max;
         }
+        return magnitude;
     }
 
     /**
-     * Private constructor of the class. Initializes the private hashmap with the given hashmap in the parameter to
-     * construct a polynomial.
+     * Sorts the terms into a SortedSparsePolynomial the first time it is called. The polynomial never changes so the
+     * sorted terms are kept for the following calls. The arrays of a SortedSparsePolynomial are final fields, so a
+     * thread that reads the field while another one sets it sees either null or the complete arrays.
      *
-     * @param hmap Takes in a map of polynomial with the exponent as the key and the coefficient as the value
+     * @return the terms of the polynomial in ascending order of the exponent
+     * @throws ArithmeticException if a coefficient doesn't fit in an int
      */
-    private SparsePolynomial(HashMap<Integer, Integer> hmap){
-        intPoly = hmap;
+    SortedSparsePolynomial sorted(){
+        SortedSparsePolynomial s = sorted;
+        if(s == null){
+            if(intPoly == null)
+                throw new ArithmeticException("Coefficient doesn't fit in an int");
+            int[] exp = intPoly.sortedKeys();
+            int[] coef = new int[exp.length];
+            for(int i = 0; i < exp.length; i++)
+                coef[i] = intPoly.get(exp[i]);
+            s = new SortedSparsePolynomial(exp, coef);
+            sorted = s;
+        }
+        return s;
     }
 
-    public HashMap<Integer, Integer> getIntPoly(){
-        return intPoly;
+    /**
+     * Finds the largest key of the map, which is 0 when the map is empty.
+     */
+    private static int largestExponent(IntIntMap map){
+        if(map.isEmpty())
+            return 0;
+        int greatest = Integer.MIN_VALUE;
+        for(int slot = 0; slot < map.capacity(); slot++){
+            if(map.isUsed(slot))
+                greatest = Math.max(greatest, map.keyAt(slot));
+        }
+        return greatest;
     }
 
     /**
-     * Takes the current instance and finds the largest exponent of the polynomial.
-     * Returns the highest degree of the polynomial.
+     * Returns the highest degree of the polynomial, which is found once when the polynomial is created.
      *
      * @return the largest exponent with a non-zero coefficient.  If all terms have zero exponents, it returns 0.
      */
     @Override
     public int degree() {
-        int greatest = Integer.MIN_VALUE;
-        Set<Integer> key = intPoly.keySet();
-        for(int i : key){
-            if(greatest < i){
-                greatest = i;
-            }
-        }
-        return greatest;
+        return degree;
     }
 
     /**
      * Takes the exponent given in the parameter and find the coefficient that corresponds with the exponent.
      * Returns the coefficient corresponding to the given exponent. Returns 0 if there is no term with that exponent
-     * in the polynomial. In this case the hashmap would return null so 0 is return as a result.
+     * in the polynomial. In this case the map would return 0 as the result.
      *
      * @param d the exponent whose coefficient is returned.
      * @return the coefficient of the term of whose exponent is d.
+     * @throws ArithmeticException if the coefficient doesn't fit in an int
      */
     @Override
     public int getCoefficient(int d) {
-        if(intPoly.get(d) == null)
-            return 0;
+        if(intPoly == null)
+            return wide.get(d).intValueExact();
         return intPoly.get(d);
     }
 
     /**
-     * Takes the current instances and checks if the all the coefficients in the polynomial are all zeros. If they are
-     * all zeros then return true otherwise false.
+     * Returns the exact coefficient of the given exponent, found with a binary search when the coefficients don't fit
+     * in an int.
+     *
+     * @param d the exponent whose coefficient is returned.
+     * @return the coefficient of the term of whose exponent is d.
+     */
+    @Override
+    public BigInteger getBigCoefficient(int d) {
+        if(intPoly == null)
+            return wide.get(d);
+        return BigInteger.valueOf(intPoly.get(d));
+    }
+
+    /**
+     * Takes the current instances and checks if the all the coefficients in the polynomial are all zeros. Since terms
+     * with a 0 coefficient are never stored this is true when the map is empty.
      *
      * @return true if the polynomial represents the zero constant otherwise false.
      */
     @Override
     public boolean isZero() {
-        Set<Integer> key = intPoly.keySet();
-        for(int i : key){
-            if(intPoly.get(i) != 0){
-                return false;
-            }
-        }
-        return true;
+        return intPoly != null && intPoly.isEmpty();
     }
 
     /**
      * Takes in a polynomial in the parameter and adds the coefficient of the two polynomial instance based on their
-     * exponents. This is added into a new hashmap which is used to create a new polynomial instance.
+     * exponents. This is added into a copy of the map which is used to create a new polynomial instance.
      * This method is able to add a DensePolynomial with a SparsePolynomial and return a new SparsePolynomial
-     * of the two instances added together in the end.
+     * of the two instances added together in the end. When a sum doesn't fit in an int the terms are merged again
+     * with exact coefficients. When the DensePolynomial is dense enough that the sum suits a dense array, as decided
+     * by Polynomials.sumPrefersDense(), the sum is computed and returned as a DensePolynomial instead.
      *
      * Returns a polynomial by adding the parameter to the current instance. Neither the current instance nor the
-     * parameter are modified.
+     * parameter are modified. While an OperationCache is installed the sum is looked up in it first.
      *
      * @param q the non-null polynomial to add to <code>this</code>
-     * @return <code>this + </code>q as a SparsePolynomial object
+     * @return <code>this + </code>q as a SparsePolynomial object, or a DensePolynomial when q is a dense one
      * @throws NullPointerException if q is null
      */
     @Override
     public Polynomial add(Polynomial q) {
+        long start = OperationMetrics.ENABLED ? System.nanoTime() : 0;
+        OperationCache cache = OperationCache.installed();
+        Polynomial sum = cache != null ? cache.get(OperationCache.Operation.ADD, this, q, this::sum) : sum(q);
+        if(OperationMetrics.ENABLED)
+            OperationMetrics.record(OperationMetrics.Operation.ADD, this, q, start);
+        return sum;
+    }
+
+    /**
+     * Adds q without going through the OperationCache.
+     */
+    Polynomial sum(Polynomial q) {
         if (q == null)
             throw new NullPointerException();
-        HashMap<Integer, Integer> newPoly = new HashMap<>();
-        if(q instanceof SparsePolynomial){
-            newPoly.putAll(intPoly);
-            HashMap<Integer, Integer> tempPoly = ((SparsePolynomial) q).getIntPoly();
-            Set<Integer> tempSet = tempPoly.keySet();
-            for(int i: tempSet){
-                if(newPoly.get(i) == null){
-                    newPoly.put(i, q.getCoefficient(i));
-                }else
-                    newPoly.put(i, intPoly.get(i) + q.getCoefficient(i));
-            }
-        }else {
-            newPoly.putAll(intPoly);
-            int[] tempPoly = ((DensePolynomial) q).getIntPoly();
-            int qSize = 0;
-            for(int i: tempPoly){
-                if(i != 0 && newPoly.get(qSize) == null){
-                    newPoly.put(qSize, i);
-                }else if(i != 0 && newPoly.get(qSize) != null){
-                    newPoly.put(qSize, i+newPoly.get(qSize));
-                }qSize++;
+        if(q instanceof DensePolynomial && Polynomials.sumPrefersDense(this, q))
+            return DensePolynomial.of(this).sum(q);
+        if(intPoly == null || Polynomials.wide(q))
+            return new SparsePolynomial(wideTerms().merge(WideTerms.of(q), 1));
+        IntIntMap newPoly = new IntIntMap(intPoly);
+        try {
+            if(q instanceof SparsePolynomial){
+                IntIntMap tempPoly = ((SparsePolynomial) q).intPoly;
+                for(int slot = 0; slot < tempPoly.capacity(); slot++){
+                    if(tempPoly.isUsed(slot)){
+                        int exponent = tempPoly.keyAt(slot);
+                        newPoly.put(exponent, Math.addExact(newPoly.get(exponent), tempPoly.valueAt(slot)));
+                    }
+                }
+            }else if(q instanceof SortedSparsePolynomial){
+                int[] exponents = ((SortedSparsePolynomial) q).exponents();
+                int[] coefficients = ((SortedSparsePolynomial) q).coefficients();
+                for(int i = 0; i < exponents.length; i++)
+                    newPoly.put(exponents[i], Math.addExact(newPoly.get(exponents[i]), coefficients[i]));
+            }else {
+                int[] tempPoly = ((DensePolynomial) q).coefficients();
+                for(int i = 0; i < tempPoly.length; i++){
+                    if(tempPoly[i] != 0)
+                        newPoly.put(i, Math.addExact(newPoly.get(i), tempPoly[i]));
+                }
             }
+        }catch(ArithmeticException e){ // The sum of two coefficients doesn't fit in an int
+            return new SparsePolynomial(wideTerms().merge(WideTerms.of(q), 1));
         }
         return new SparsePolynomial(newPoly);
     }
 
     /**
-     * Takes in a polynomial in the parameter and iterating through the map to get the coefficients of the two polynomial
-     * and multiplies the coefficients then adds the exponent before inputting it into a new map. Then calling the add
-     * method to combine any like terms.
+     * Takes in a polynomial in the parameter and sorts the terms of the two polynomials by their exponents. Then the
+     * terms are multiplied with the heap of SparseMultiplier, which gives the products in ascending order of the
+     * exponent so the like terms are combined right away and no intermediate polynomials are created.
      * This method is able to multiply a SparsePolynomial object with a DensePolynomial object and return the a new
-     * SparsePolynomial object of the two instances multiplied together.
+     * SparsePolynomial object of the two instances multiplied together. The coefficients of the product are bounded
+     * first, and a product that could overflow an int is computed with exact coefficients instead.
+     * A product with few enough exponents between its terms, as decided by Polynomials.productPrefersDense(), is
+     * computed by the dense kernels instead and returned as a DensePolynomial.
      *
      * Returns a polynomial by multiplying the parameter with the current instance.  Neither the current instance nor
-     * the parameter are modified.
+     * the parameter are modified. While an OperationCache is installed the product is looked up in it first.
      *
      * @param q the polynomial to multiply with <code>this</code>
      * @return <code>this * </code>q
@@ -172,40 +347,120 @@ public class SparsePolynomial implements Polynomial{
      */
     @Override
     public Polynomial multiply(Polynomial q) {
+        long start = OperationMetrics.ENABLED ? System.nanoTime() : 0;
+        OperationCache cache = OperationCache.installed();
+        Polynomial product = cache != null
+                ? cache.get(OperationCache.Operation.MULTIPLY, this, q, this::product)
+                : product(q);
+        if(OperationMetrics.ENABLED)
+            OperationMetrics.record(OperationMetrics.Operation.MULTIPLY, this, q, start);
+        return product;
+    }
+
+    /**
+     * Multiplies q without going through the OperationCache.
+     */
+    Polynomial product(Polynomial q) {
         if(q == null)
             throw new NullPointerException();
-        HashMap<Integer, Integer> tempPoly = new HashMap<>();
-        Polynomial newSparsePoly = new SparsePolynomial(tempPoly);
-        if(q instanceof SparsePolynomial){ // Double For each loop
-            Set<Integer> qExponent = ((SparsePolynomial) q).getIntPoly().keySet();
-            Set<Integer> pExponent = intPoly.keySet();
-            for(int i: pExponent){
-                HashMap<Integer, Integer> temp = new HashMap<>();
-                for(int j: qExponent){
-                    int coef = intPoly.get(i) * q.getCoefficient(j);
-                    int exponent = i + j;
-                    temp.put(exponent, coef);
-                }
-                Polynomial tempSparse = new SparsePolynomial(temp);
-                newSparsePoly = newSparsePoly.add(tempSparse);
-            }
-        }else{//Basically the same as the method in multiply from dense. similar but working withs maps
-            int[] tempArr = ((DensePolynomial)q).getIntPoly();
-            int qSize = tempArr.length-1;
-            Set<Integer> pExponent = intPoly.keySet();
-            for(int i: pExponent){
-                HashMap<Integer, Integer> temp = new HashMap<>();
-                for(int j = 0; j<= qSize; j++){
-                    int exponent = i + j;
-                    int coef = intPoly.get(i) * tempArr[j];
-                    if(coef != 0)
-                        temp.put(exponent, coef);
-                }
-                Polynomial tempSparse = new SparsePolynomial(temp);
-                newSparsePoly = newSparsePoly.add(tempSparse);
-            }
-        }
-        return newSparsePoly;
+        if(isZero() || q.isZero())
+            return new SparsePolynomial(new IntIntMap());
+        if(!(q instanceof SortedSparsePolynomial) && Polynomials.productPrefersDense(this, q))
+            return DensePolynomial.of(this).product(q, null, 0);
+        if(intPoly == null || Polynomials.productBound(this, q) > Integer.MAX_VALUE)
+            return new SparsePolynomial(SparseMultiplier.multiply(wideTerms(), WideTerms.of(q)));
+        SortedSparsePolynomial p = sorted();
+        SortedSparsePolynomial other = SortedSparsePolynomial.of(q);
+        SortedSparsePolynomial product = SparseMultiplier.multiply(p.exponents(), p.coefficients(),
+                other.exponents(), other.coefficients());
+        int[] exponents = product.exponents();
+        int[] coefficients = product.coefficients();
+        IntIntMap newPoly = new IntIntMap(exponents.length);
+        for(int i = 0; i < exponents.length; i++)
+            newPoly.put(exponents[i], coefficients[i]);
+        return new SparsePolynomial(newPoly);
+    }
+
+    /**
+     * Squares the terms sorted by exponent with SparseMultiplier.square(), which only computes the product of two
+     * different terms once and doubles it. A square with few enough exponents between its terms, as decided by
+     * Polynomials.productPrefersDense(), is computed as a DensePolynomial instead, and a square that could overflow an
+     * int is computed with exact coefficients.
+     *
+     * Returns a polynomial by multiplying the current instance with itself. The current instance is not modified.
+     *
+     * @return <code>this * this</code>
+     */
+    @Override
+    public Polynomial square() {
+        if(isZero())
+            return new SparsePolynomial(new IntIntMap());
+        if(Polynomials.productPrefersDense(this, this))
+            return DensePolynomial.of(this).square();
+        if(intPoly == null || Polynomials.productBound(this, this) > Integer.MAX_VALUE)
+            return new SparsePolynomial(SparseMultiplier.square(wideTerms()));
+        SortedSparsePolynomial p = sorted();
+        SortedSparsePolynomial product = SparseMultiplier.square(p.exponents(), p.coefficients());
+        int[] exponents = product.exponents();
+        int[] coefficients = product.coefficients();
+        IntIntMap newPoly = new IntIntMap(exponents.length);
+        for(int i = 0; i < exponents.length; i++)
+            newPoly.put(exponents[i], coefficients[i]);
+        return new SparsePolynomial(newPoly);
+    }
+
+    /**
+     * Raises the current instance to the given power with Polynomials.pow(), which squares once for every bit of n
+     * and multiplies by the current instance for every bit that is set.
+     *
+     * @param n the power, at least 0
+     * @return <code>this</code> to the power of n, which is 1 when n is 0
+     * @throws IllegalArgumentException if n is negative
+     */
+    @Override
+    public Polynomial pow(int n) {
+        return Polynomials.pow(this, n);
+    }
+
+    /**
+     * Divides the current instance by the parameter with Polynomials.divideAndRemainder(), which uses long division
+     * over the terms so that only the non-zero terms are visited. Negative exponents are allowed, the degree of the
+     * remainder is still below the degree of q.
+     *
+     * @param q the non-zero polynomial to divide <code>this</code> by
+     * @return an array holding the quotient followed by the remainder
+     * @throws NullPointerException if q is null
+     * @throws ArithmeticException if q is zero or the quotient doesn't have integer coefficients
+     */
+    @Override
+    public Polynomial[] divideAndRemainder(Polynomial q) {
+        return Polynomials.divideAndRemainder(this, q);
+    }
+
+    /**
+     * Returns the remainder of divideAndRemainder(q).
+     *
+     * @param q the non-zero polynomial to divide <code>this</code> by
+     * @return <code>this mod </code>q
+     * @throws NullPointerException if q is null
+     * @throws ArithmeticException if q is zero or the quotient doesn't have integer coefficients
+     */
+    @Override
+    public Polynomial mod(Polynomial q) {
+        return divideAndRemainder(q)[1];
+    }
+
+    /**
+     * Finds the greatest common divisor with Polynomials.gcd().
+     *
+     * @param q the non-null polynomial
+     * @return gcd(<code>this</code>, q)
+     * @throws NullPointerException if q is null
+     * @throws IllegalArgumentException if either polynomial has a negative exponent
+     */
+    @Override
+    public Polynomial gcd(Polynomial q) {
+        return Polynomials.gcd(this, q);
     }
 
     /**
@@ -224,25 +479,114 @@ public class SparsePolynomial implements Polynomial{
     public Polynomial subtract(Polynomial q) {
         if(q == null)
             throw new NullPointerException();
-        return this.add(q.minus());
+        long start = OperationMetrics.ENABLED ? System.nanoTime() : 0;
+        Polynomial difference = sum(Polynomials.negate(q)); // Subtracting doesn't go through the OperationCache
+        if(OperationMetrics.ENABLED)
+            OperationMetrics.record(OperationMetrics.Operation.SUBTRACT, this, q, start);
+        return difference;
     }
 
     /**
      *
      * Takes the current instance and negates the whole polynomial, creating a new polynomial with it.
      * Returns a polynomial by negating the current instance. The current instance is not modified.
+     * The negation of the smallest int doesn't fit in an int, so the result keeps exact coefficients.
      *
      * @return -this
      */
     @Override
     public Polynomial minus() {
-        HashMap<Integer, Integer> newMap = new HashMap<>();
-        Set<Integer> keyset = intPoly.keySet();
-        for(int i: keyset){
-            int coef = intPoly.get(i);
-            newMap.put(i, coef*-1);
+        long start = OperationMetrics.ENABLED ? System.nanoTime() : 0;
+        Polynomial negation = negate();
+        if(OperationMetrics.ENABLED)
+            OperationMetrics.record(OperationMetrics.Operation.MINUS, this, null, start);
+        return negation;
+    }
+
+    /**
+     * Negates the coefficients, with exact ones when the negation doesn't fit in an int.
+     */
+    private Polynomial negate() {
+        if(intPoly == null)
+            return new SparsePolynomial(wide.negate());
+        IntIntMap newMap = new IntIntMap(intPoly);
+        try {
+            for(int slot = 0; slot < intPoly.capacity(); slot++){
+                if(intPoly.isUsed(slot))
+                    newMap.put(intPoly.keyAt(slot), Math.negateExact(intPoly.valueAt(slot)));
+            }
+        }catch(ArithmeticException e){ // A coefficient is Integer.MIN_VALUE
+            return new SparsePolynomial(wideTerms().negate());
+        }
+        return PolynomialPool.common(new SparsePolynomial(newMap));
+    }
+
+    /**
+     * Evaluates the polynomial over its terms sorted by exponent, multiplying by the power of x of the gap between two
+     * exponents as described in SortedSparsePolynomial. The sorted terms are kept so they are only sorted once.
+     * Coefficients that don't fit in an int are evaluated in the same way by WideTerms.
+     *
+     * @param x the point at which the polynomial is evaluated
+     * @return the value of the polynomial at x modulo 2^64
+     * @throws ArithmeticException if the polynomial has a negative exponent
+     */
+    @Override
+    public long evaluate(long x) {
+        if(intPoly == null)
+            return wide.evaluate(x);
+        return sorted().evaluate(x);
+    }
+
+    /**
+     * Evaluates the polynomial over its terms sorted by exponent, negative exponents included.
+     *
+     * @param x the point at which the polynomial is evaluated
+     * @return the value of the polynomial at x
+     */
+    @Override
+    public double evaluate(double x) {
+        if(intPoly == null)
+            return wide.evaluate(x);
+        return sorted().evaluate(x);
+    }
+
+    /**
+     * Evaluates the polynomial at every point over its terms sorted by exponent, a block of points at a time.
+     *
+     * @param xs the points at which the polynomial is evaluated
+     * @param out receives the values, it must be at least as long as xs
+     * @throws NullPointerException if xs or out is null
+     * @throws IllegalArgumentException if out is shorter than xs
+     */
+    @Override
+    public void evaluate(double[] xs, double[] out) {
+        if(intPoly == null){
+            if(out.length < xs.length)
+                throw new IllegalArgumentException();
+            for(int i = 0; i < xs.length; i++)
+                out[i] = wide.evaluate(xs[i]);
+            return;
+        }
+        sorted().evaluate(xs, out);
+    }
+
+    /**
+     * Evaluates the polynomial at every integer point over its terms sorted by exponent.
+     *
+     * @param points the points at which the polynomial is evaluated
+     * @return a new array holding the value at every point modulo 2^32
+     * @throws NullPointerException if points is null
+     * @throws ArithmeticException if the polynomial has a negative exponent
+     */
+    @Override
+    public int[] evaluate(int[] points) {
+        if(intPoly == null){
+            int[] values = new int[points.length];
+            for(int i = 0; i < points.length; i++)
+                values[i] = (int) wide.evaluate((long) points[i]);
+            return values;
         }
-        return new SparsePolynomial(newMap);
+        return sorted().evaluate(points);
     }
 
     /**
@@ -250,153 +594,69 @@ public class SparsePolynomial implements Polynomial{
      * in the constructor parameter for is the exponents are in descending order and if there are any 0 or 1 in front of
      * the variable "x". Additionally, it checks for if there are any 0 coefficient added in the polynomial. If there are
      * 0 or 1 coefficient in front of the variable or 0 coefficients or exponent isn't in descending order then it would
-     * return false. Additionally it checks for if there are any repeated exponents or any 0 or 1 in the exponent.
-     * Otherwise true since the string held true to the class invariant.
+     * return false. Additionally it checks for if there are any repeated exponents or any 0 in the exponent.
+     * Otherwise true since the string held true to the class invariant. Polynomials created by the operations of the
+     * class have no string and always hold the invariant.
      *
-     * This is unable to verify fractions as integer even if the fraction does divide perfectly into an integer.
-     * This numbers in the string must be integers and double or else it would false to hold the class invariant.
+     * The string is checked by PolynomialParser with the same rules that the constructor uses.
      *
      * @return {@literal true} if the class invariant holds, and {@literal false} otherwise.
      */
     @Override
     public boolean wellFormed() {
-        if(strPoly.contains(".")) // If there is double
-            return false;
-        String[] newArrPoly = strPoly.split("\\+");
-        String temp = newArrPoly[0];
-        int indexofCarrot = 0;
-        int StartingExponentValue = 0;
-        if(temp.contains("x")){
-            indexofCarrot = temp.indexOf("^");
-            if(indexofCarrot == -1)
-                StartingExponentValue = 1;
-            else
-                StartingExponentValue = Integer.parseInt(temp.substring(indexofCarrot+1)); // Gets the Exponent Value of the first character
-        }
-        int ExponentValue = 0;
-        for(int i = 1; i < newArrPoly.length; i++){ // Going through the rest of the values to check if the exponents are in descending order
-            temp = newArrPoly[i];
-            if(temp.contains("x")){
-                indexofCarrot = temp.indexOf("^");
-                if(indexofCarrot == -1 )
-                    ExponentValue = 1;
-                else
-                    ExponentValue = Integer.parseInt(temp.substring(indexofCarrot+1));
-                if(ExponentValue == 0){
-                    return false;
-                }
-            }else
-                ExponentValue = 0;
-            if(ExponentValue >= StartingExponentValue)
-                return false;
-            else
-                StartingExponentValue = ExponentValue;
-        }try{
-            for(String str: newArrPoly){ //Checking the coefficient of the variables
-                int indexOfX = str.indexOf("x");
-                if(indexOfX != -1){
-                    if(indexOfX != 0){
-                        String tempString = str.substring(0, indexOfX);
-                        if(tempString.equals("-"))
-                            continue;
-                        int coef = Integer.parseInt(tempString);
-                        if(coef == 0 || coef == 1)
-                            return false;
-                    }
-                }else{ // If it is just an coefficient
-                    int coef = Integer.parseInt(str);
-                    if(coef == 0 && str.length() != 1)
-                        return false;
-                }
-            }
-        }catch(Exception e) {
-            return false;
-        }
-        return true;
+        if(strPoly == null)
+            return true;
+        return PolynomialParser.errorIndex(strPoly, true) == -1;
     }
 
     /**
      * The current instance is written out as a string. Then returns the string representation of the polynomial.
+     * The terms are written by PolynomialFormatter into a StringBuilder presized for the number of terms.
      *
-     * @return a string representation of the polynomial in the hashmap in descending order of the exponent
+     * @return a string representation of the polynomial in the map in descending order of the exponent
      */
     @Override
     public String toString() {
-        String str = "";
-        Set<Integer> tempSet = intPoly.keySet();
-        Integer[] arr = new Integer[tempSet.size()];
-        tempSet.toArray(arr);
-        Arrays.sort(arr);
-        int size = arr.length-1;
-        for(int i = tempSet.size()-1; i >= 0; i--){
-            if(intPoly.get(arr[i]) != 0){
-                if(size == 0 && arr[i] == 0)
-                    str = str + intPoly.get(arr[i]);
-                else if(size == 0 && arr[i] != 0){
-                    if(intPoly.get(arr[i]) != -1 && intPoly.get(arr[i]) != 1)
-                        str = str + intPoly.get(arr[i]) + "x^" + arr[i];
-                    else if(intPoly.get(arr[i]) == 1)
-                        str = str + "x^" + arr[i];
-                    else
-                        str = str + "-x^" + arr[i];
-                }else if(arr[i] == 0)
-                    str = str + intPoly.get(arr[i]) + " + ";
-                else if(arr[i] == 1 && intPoly.get(arr[i]) == 1)
-                    str =str + "x" + " + ";
-                else if(arr[i] == 1 && intPoly.get(arr[i]) == -1)
-                    str =str + "-x" + " + ";
-                else if(arr[i] == -1 && intPoly.get(arr[i]) == -1)
-                    str =str + "-x^" + arr[i] + " + ";
-                else if(arr[i] == -1 && intPoly.get(arr[i]) == 1)
-                    str =str + "x^" + arr[i] + " + ";
-                else if(intPoly.get(arr[i]) == -1)
-                    str =str + "-x^" + arr[i] + " + ";
-                else if(arr[i] == 1)
-                    str = str + intPoly.get(arr[i]) + "x" + " + ";
-                else if(intPoly.get(arr[i]) != 1)
-                    str = str + intPoly.get(arr[i]) + "x^" + arr[i] + " + ";
-                else if(intPoly.get(arr[i]) == 1)
-                    str = str + "x^" + arr[i] + " + ";
-            }
-            size--;
-        }if(str.isEmpty()){
-            str = "0";
-        }if(str.length() > 3) {
-            String temp = str.substring(str.length() - 2);
-            String tempFront = str.substring(0, 2);
-            if (temp.contains("+"))
-                str = str.substring(0, str.length() - 3);
-            else if(tempFront.contains("+"))
-                str = str.substring(3);
-        }
+        long start = OperationMetrics.ENABLED ? System.nanoTime() : 0;
+        String str = PolynomialFormatter.toString(this, size());
+        if(OperationMetrics.ENABLED)
+            OperationMetrics.record(OperationMetrics.Operation.TO_STRING, this, null, start);
         return str;
     }
 
     /**
-     * This method checks if the object passed in the parameter is an instance of Sparsepolynomial and the content in
-     * the parameter. If they are the same type and the contents are equal then true otherwise false.
+     * This method checks if the object passed in the parameter has the same terms as the current instance. A
+     * DensePolynomial or a SortedSparsePolynomial with the same terms is equal as well. The degree, the number of terms
+     * and the hash codes are compared before the terms.
      *
      * @param q Any object but more specifically a Densepolynomial or a Sparsepolynomial
      * @return True or false if the parameter is equal to the current instance
      */
+    @Override
     public boolean equals(Object q){
-        if(q instanceof SparsePolynomial){
-            HashMap<Integer, Integer> tempMap = ((SparsePolynomial) q).getIntPoly();
-            HashMap<Integer, Integer> trackerMap = new HashMap<>();
-            Set<Integer> qSet = tempMap.keySet();
-            Set<Integer> pSet = intPoly.keySet();
-            for(int i: pSet) {
-                trackerMap.put(i,this.getCoefficient(i));
-                if (qSet.contains(i) && this.getCoefficient(i) != ((SparsePolynomial) q).getCoefficient(i))
-                    return false;
-            }for(int j: qSet){
-                if(!trackerMap.containsKey(j)){
-                    if(((SparsePolynomial) q).getCoefficient(j) != 0)
-                        return false;
+        return Polynomials.equals(this, q);
+    }
+
+    /**
+     * Adds up the hash codes of the terms, which gives the same hash code as any equal polynomial of the other classes.
+     * The hash code is computed once and kept since the polynomial never changes.
+     *
+     * @return the hash code of the polynomial
+     */
+    @Override
+    public int hashCode(){
+        int h = hash;
+        if(h == 0){
+            if(wide != null)
+                h = wide.hashCode();
+            else{
+                for(int slot = 0; slot < intPoly.capacity(); slot++){
+                    if(intPoly.isUsed(slot))
+                        h += Polynomials.termHash(intPoly.keyAt(slot), intPoly.valueAt(slot));
                 }
             }
-            return true;
+            hash = h;
         }
-        return false;
+        return h;
     }
 }
@@ -1,5 +1,9 @@
 import org.junit.jupiter.api.Test;
 
+import java.math.BigInteger;
+import java.util.HashMap;
+import java.util.Random;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class SparsePolynomialTest {
@@ -48,6 +52,9 @@ class SparsePolynomialTest {
         assertEquals(q, p.add(q));
         assertEquals(w, q.add(v));
         assertEquals(t, v.add(s));
+        Polynomial u = new SparsePolynomial("x^5 + 1");
+        assertEquals(new SparsePolynomial("x^5 + 3x^2 + 1"), u.add(new SortedSparsePolynomial("3x^2")));
+        assertEquals(new SparsePolynomial("x^5 + 1 + x^-3"), u.add(new SortedSparsePolynomial("x^-3")));
     }
 
     @Test
@@ -67,6 +74,117 @@ class SparsePolynomialTest {
         assertEquals(a, q.multiply(t));
     }
 
+    @Test
+    void multiplyLarge() {
+        Random random = new Random(5);
+        for(int size: new int[]{1, 7, 60, 400}){
+            int[][] a = randomTerms(random, size);
+            int[][] b = randomTerms(random, size / 2 + 1);
+            HashMap<Integer, Integer> expected = new HashMap<>();
+            for(int i = 0; i < a[0].length; i++){
+                for(int j = 0; j < b[0].length; j++)
+                    expected.merge(a[0][i] + b[0][j], a[1][i] * b[1][j], Integer::sum);
+            }
+            Polynomial product = toSparse(a).multiply(toSparse(b));
+            for(int exponent: expected.keySet())
+                assertEquals((int) expected.get(exponent), product.getCoefficient(exponent));
+            assertEquals(product, toSparse(b).multiply(toSparse(a)));
+        }
+    }
+
+    @Test
+    void square() {
+        Random random = new Random(9);
+        for(int size: new int[]{1, 7, 60, 400}){
+            int[][] a = randomTerms(random, size);
+            assertEquals(toSparse(a).multiply(toSparse(a)), toSparse(a).square());
+        }
+        Polynomial p = new SparsePolynomial("3x^1000000 + 2x^1000 - 5x^-7");
+        Polynomial square = p.square();
+        assertTrue(square instanceof SparsePolynomial);
+        assertEquals(new SparsePolynomial("9x^2000000 + 12x^1001000 - 30x^999993 + 4x^2000 - 20x^993 + 25x^-14"),
+                square);
+        Polynomial wide = new SparsePolynomial("2147483647x^100 + 5x^-1").add(new SparsePolynomial("x^100"));
+        assertEquals(wide.multiply(wide), wide.square());
+        assertTrue(new SparsePolynomial("0").square().isZero());
+    }
+
+    @Test
+    void pow() {
+        Polynomial p = new SparsePolynomial("x^1000 - x^-1");
+        Polynomial expected = new SparsePolynomial("1");
+        for(int n = 0; n <= 20; n++){
+            assertEquals(expected, p.pow(n));
+            expected = expected.multiply(p);
+        }
+        assertEquals(new SparsePolynomial("x^30000"), new SparsePolynomial("x^1000").pow(30));
+        assertThrows(IllegalArgumentException.class, () -> p.pow(-1));
+    }
+
+    @Test
+    void divideAndRemainder() {
+        Polynomial p = new SparsePolynomial("x^1000000 - 1");
+        Polynomial q = new SparsePolynomial("x^1000 - 1");
+        Polynomial[] qr = p.divideAndRemainder(q);
+        assertTrue(qr[1].isZero());
+        assertEquals(1000, Polynomials.terms(qr[0]));
+        assertEquals(p, qr[0].multiply(q));
+        Polynomial r = new SparsePolynomial("3x^5000 + 2x^20 + x^-3");
+        Polynomial s = new SparsePolynomial("x^2000 - 7x^-1");
+        Polynomial[] rs = r.divideAndRemainder(s);
+        assertEquals(r, rs[0].multiply(s).add(rs[1]));
+        assertTrue(rs[1].degree() < s.degree());
+        assertEquals(new SparsePolynomial("x^500"), new SparsePolynomial("x^502").mod(new SparsePolynomial("x^2 - 1"))
+                .add(new SparsePolynomial("x^500 - 1")));
+        assertThrows(ArithmeticException.class, () -> r.divideAndRemainder(new SparsePolynomial("2x^7")));
+        assertEquals(new SparsePolynomial("x^1000 - 1"), p.gcd(new SparsePolynomial("x^3000 - 1")));
+        assertThrows(IllegalArgumentException.class, () -> r.gcd(s));
+    }
+
+    @Test
+    void overflow() {
+        Polynomial p = new SparsePolynomial("2147483647x^100 + 5x^-1");
+        Polynomial q = new SparsePolynomial("x^100 + 1");
+        Polynomial sum = p.add(q);
+        assertEquals(BigInteger.valueOf(2147483648L), sum.getBigCoefficient(100));
+        assertThrows(ArithmeticException.class, () -> sum.getCoefficient(100));
+        assertEquals(5, sum.getCoefficient(-1));
+        assertEquals("2147483648x^100 + 1 + 5x^-1", sum.toString());
+        assertEquals(p, sum.subtract(q));
+
+        Polynomial product = sum.multiply(sum);
+        assertEquals(BigInteger.valueOf(2147483648L).pow(2), product.getBigCoefficient(200));
+        assertEquals(BigInteger.valueOf(2 * 5 * 2147483648L), product.getBigCoefficient(99));
+        assertEquals(25, product.getCoefficient(-2));
+        assertEquals(product, sum.multiply(sum.minus()).minus());
+        Polynomial big = new SparsePolynomial("65536x^3").multiply(new SparsePolynomial("65536x^2"));
+        assertEquals(BigInteger.ONE.shiftLeft(32), big.getBigCoefficient(5));
+        assertEquals(big, new DensePolynomial("65536x^3").multiply(new DensePolynomial("65536x^2")));
+        assertEquals(1L << 37, big.evaluate(2L));
+
+        Polynomial min = new SparsePolynomial("-2147483648x^7");
+        assertEquals(BigInteger.valueOf(2147483648L), min.minus().getBigCoefficient(7));
+        assertEquals(min, min.minus().minus());
+    }
+
+    private static int[][] randomTerms(Random random, int size){
+        int[][] terms = new int[2][size];
+        int exponent = 5000;
+        for(int i = 0; i < size; i++){ // Exponents in descending order
+            exponent -= 1 + random.nextInt(20);
+            terms[0][i] = exponent;
+            terms[1][i] = random.nextInt(1000) + 2;
+        }
+        return terms;
+    }
+
+    private static Polynomial toSparse(int[][] terms){
+        IntIntMap map = new IntIntMap(terms[0].length);
+        for(int i = 0; i < terms[0].length; i++)
+            map.put(terms[0][i], terms[1][i]);
+        return new SparsePolynomial(map);
+    }
+
     @Test
     void subtract() {
         Polynomial p = new SparsePolynomial("0");
@@ -81,6 +199,13 @@ class SparsePolynomialTest {
         assertEquals(q, q.subtract(p));
         assertEquals(a, s.subtract(z));
         assertEquals(b, s.subtract(y));
+        Polynomial u = new SparsePolynomial("x^5 + 1");
+        assertEquals(new SparsePolynomial("x^5 - 3x^2 + 1"), u.subtract(new SortedSparsePolynomial("3x^2")));
+        assertEquals(new SparsePolynomial("1"), u.subtract(new SortedSparsePolynomial("x^5")));
+        Polynomial min = new SortedSparsePolynomial(new int[]{-2, 3}, new int[]{1, Integer.MIN_VALUE});
+        Polynomial difference = p.subtract(min); // Negated exactly, not modulo 2^32
+        assertEquals(BigInteger.valueOf(2147483648L), difference.getBigCoefficient(3));
+        assertEquals(-1, difference.getCoefficient(-2));
     }
 
     @Test
@@ -96,6 +221,34 @@ class SparsePolynomialTest {
         assertThrows(ArithmeticException.class, () -> new DensePolynomial("-2x^10 - 5x^7 + x^-2 + x^-3"));
     }
 
+    @Test
+    void evaluate() {
+        Polynomial p = new SparsePolynomial("0");
+        Polynomial q = new SparsePolynomial("2x^10 + 5x^7 - x - 1");
+        Polynomial c = new SparsePolynomial("2x^10 + 5x^7 - x^-2 - x^-3");
+        assertEquals(0, p.evaluate(7L));
+        assertEquals(2 * 1024 + 5 * 128 - 2 - 1, q.evaluate(2L));
+        assertEquals(2 - 5 + 1 - 1, q.evaluate(-1L));
+        assertThrows(ArithmeticException.class, () -> c.evaluate(2L));
+        assertEquals(2 * 1024 + 5 * 128 - 0.25 - 0.125, c.evaluate(2.0), 1e-9);
+        assertEquals(2 * Math.pow(0.5, 10) + 5 * Math.pow(0.5, 7) - 4 - 8, c.evaluate(0.5), 1e-9);
+        double[] xs = new double[1000];
+        for(int i = 0; i < xs.length; i++)
+            xs[i] = (i - 500) / 250.0 + 0.001;
+        double[] out = new double[xs.length];
+        c.evaluate(xs, out);
+        for(int i = 0; i < xs.length; i++)
+            assertEquals(c.evaluate(xs[i]), out[i], Math.abs(out[i]) * 1e-12);
+        assertThrows(IllegalArgumentException.class, () -> c.evaluate(new double[2], new double[1]));
+    }
+
+    @Test
+    void evaluatePoints() {
+        Polynomial q = new SparsePolynomial("2x^1000 + 5x^7 - x - 1");
+        assertArrayEquals(new int[]{(int) q.evaluate(3L), -3, -1, 5}, q.evaluate(new int[]{3, -1, 0, 1}));
+        assertThrows(ArithmeticException.class, () -> new SparsePolynomial("x^2 + x^-1").evaluate(new int[]{2}));
+    }
+
     @Test
     void wellFormed() {
         Polynomial a = new SparsePolynomial("2x^10 + 5x^7 - x^-2 - x^-3");
@@ -116,7 +269,7 @@ class SparsePolynomialTest {
         Polynomial c = new SparsePolynomial("2x^10 + 5x^7 - x^-2 - x^-3");
         Polynomial b = new SparsePolynomial("-2x^10 - 5x^7 + x^-2 + x^-3");
         assertFalse(q.equals(a));
-        assertFalse(q.equals(y));
+        assertTrue(q.equals(y));
         assertTrue(q.equals(x));
         assertTrue(c.equals(b.minus()));
     }
@@ -0,0 +1,217 @@
+import java.math.BigInteger;
+import java.util.Arrays;
+
+/**
+ * The terms of a polynomial with exact BigInteger coefficients, kept in ascending order of the exponent with no 0
+ * coefficients. SparsePolynomial stores its terms this way once one of its coefficients doesn't fit in an int, and the
+ * operations of the package use it for the terms of any polynomial when an int result would overflow.
+ *
+ * This is the slow path of the arithmetic, so it is written for clarity. The int coefficients of the polynomial classes
+ * are only turned into WideTerms when an operation has detected that its result doesn't fit in an int.
+ */
+final class WideTerms {
+    static final WideTerms EMPTY = new WideTerms(new int[0], new BigInteger[0]);
+
+    final int[] exponents;
+    final BigInteger[] coefficients;
+
+    /**
+     * @param exponents the exponents in ascending order
+     * @param coefficients the non-zero coefficients, in the same order as the exponents
+     */
+    WideTerms(int[] exponents, BigInteger[] coefficients){
+        this.exponents = exponents;
+        this.coefficients = coefficients;
+    }
+
+    /**
+     * Reads the terms of a polynomial of the package with their exact coefficients.
+     *
+     * @param p a DensePolynomial, SparsePolynomial or SortedSparsePolynomial
+     * @return the terms of p
+     */
+    static WideTerms of(Polynomial p){
+        if(p instanceof SparsePolynomial)
+            return ((SparsePolynomial) p).wideTerms();
+        if(p instanceof SortedSparsePolynomial){
+            SortedSparsePolynomial s = (SortedSparsePolynomial) p;
+            return new WideTerms(s.exponents(), toBig(s.coefficients()));
+        }
+        int degree = p.degree();
+        int[] exp = new int[Polynomials.terms(p)];
+        BigInteger[] coef = new BigInteger[exp.length];
+        int size = 0;
+        for(int i = 0; i <= degree && size < exp.length; i++){
+            BigInteger c = p.getBigCoefficient(i);
+            if(c.signum() != 0){
+                exp[size] = i;
+                coef[size] = c;
+                size++;
+            }
+        }
+        return new WideTerms(exp, coef);
+    }
+
+    /**
+     * @return the coefficients as BigIntegers
+     */
+    static BigInteger[] toBig(int[] arr){
+        BigInteger[] result = new BigInteger[arr.length];
+        for(int i = 0; i < arr.length; i++)
+            result[i] = BigInteger.valueOf(arr[i]);
+        return result;
+    }
+
+    /**
+     * @return true if every coefficient fits in an int
+     */
+    boolean fitsInt(){
+        for(BigInteger c: coefficients){
+            if(c.bitLength() > 31)
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * @return the coefficient of the given exponent, which is 0 when there is no such term
+     */
+    BigInteger get(int exponent){
+        int position = Arrays.binarySearch(exponents, exponent);
+        return position < 0 ? BigInteger.ZERO : coefficients[position];
+    }
+
+    /**
+     * Merges these terms with the terms of q multiplied by sign, dropping the terms that add up to 0.
+     *
+     * @param sign 1 to add q or -1 to subtract it
+     */
+    WideTerms merge(WideTerms q, int sign){
+        int[] exp = new int[exponents.length + q.exponents.length];
+        BigInteger[] coef = new BigInteger[exp.length];
+        int i = 0, j = 0, size = 0;
+        while(i < exponents.length || j < q.exponents.length){
+            int e;
+            BigInteger c;
+            if(j == q.exponents.length || (i < exponents.length && exponents[i] < q.exponents[j])){
+                e = exponents[i];
+                c = coefficients[i++];
+            }else if(i == exponents.length || q.exponents[j] < exponents[i]){
+                e = q.exponents[j];
+                c = sign < 0 ? q.coefficients[j++].negate() : q.coefficients[j++];
+            }else{
+                e = exponents[i];
+                BigInteger other = q.coefficients[j++];
+                c = sign < 0 ? coefficients[i++].subtract(other) : coefficients[i++].add(other);
+            }
+            if(c.signum() != 0){
+                exp[size] = e;
+                coef[size] = c;
+                size++;
+            }
+        }
+        return new WideTerms(Arrays.copyOf(exp, size), Arrays.copyOf(coef, size));
+    }
+
+    /**
+     * @return the terms multiplied by factor * x^shift, where factor is not 0
+     */
+    WideTerms multiply(int shift, BigInteger factor){
+        int[] exp = new int[exponents.length];
+        BigInteger[] coef = new BigInteger[exponents.length];
+        for(int i = 0; i < exp.length; i++){
+            exp[i] = exponents[i] + shift;
+            coef[i] = coefficients[i].multiply(factor);
+        }
+        return new WideTerms(exp, coef);
+    }
+
+    /**
+     * @return the greatest common divisor of the coefficients, which is 0 when there are no terms
+     */
+    BigInteger content(){
+        BigInteger gcd = BigInteger.ZERO;
+        for(int i = 0; i < coefficients.length && !gcd.equals(BigInteger.ONE); i++)
+            gcd = gcd.gcd(coefficients[i]);
+        return gcd;
+    }
+
+    /**
+     * @return the terms with every coefficient divided by d, which must divide all of them
+     */
+    WideTerms divide(BigInteger d){
+        if(d.equals(BigInteger.ONE))
+            return this;
+        BigInteger[] coef = new BigInteger[coefficients.length];
+        for(int i = 0; i < coef.length; i++)
+            coef[i] = coefficients[i].divide(d);
+        return new WideTerms(exponents, coef);
+    }
+
+    /**
+     * @return the terms with every coefficient negated
+     */
+    WideTerms negate(){
+        BigInteger[] coef = new BigInteger[coefficients.length];
+        for(int i = 0; i < coef.length; i++)
+            coef[i] = coefficients[i].negate();
+        return new WideTerms(exponents, coef);
+    }
+
+    /**
+     * Evaluates the terms in the same way as SortedSparsePolynomial, using the lowest 64 bits of every coefficient.
+     *
+     * @return the value at x modulo 2^64
+     * @throws ArithmeticException if there is a negative exponent
+     */
+    long evaluate(long x){
+        if(exponents.length == 0)
+            return 0;
+        if(exponents[0] < 0)
+            throw new ArithmeticException("Negative exponent x^" + exponents[0]);
+        int last = exponents.length - 1;
+        long result = coefficients[last].longValue();
+        for(int i = last - 1; i >= 0; i--)
+            result = result * SortedSparsePolynomial.power(x, (long) exponents[i+1] - exponents[i])
+                    + coefficients[i].longValue();
+        return result * SortedSparsePolynomial.power(x, exponents[0]);
+    }
+
+    /**
+     * Evaluates the terms in the same way as SortedSparsePolynomial, with the coefficients rounded to doubles.
+     *
+     * @return the value at x
+     */
+    double evaluate(double x){
+        if(exponents.length == 0)
+            return 0;
+        int last = exponents.length - 1;
+        double result = coefficients[last].doubleValue();
+        for(int i = last - 1; i >= 0; i--)
+            result = result * SortedSparsePolynomial.power(x, (long) exponents[i+1] - exponents[i])
+                    + coefficients[i].doubleValue();
+        return result * SortedSparsePolynomial.power(x, exponents[0]);
+    }
+
+    /**
+     * @return true if o holds the same terms
+     */
+    @Override
+    public boolean equals(Object o){
+        if(!(o instanceof WideTerms))
+            return false;
+        WideTerms w = (WideTerms) o;
+        return Arrays.equals(exponents, w.exponents) && Arrays.equals(coefficients, w.coefficients);
+    }
+
+    /**
+     * @return the sum of the hash codes of the terms, the same as the one of the polynomial classes
+     */
+    @Override
+    public int hashCode(){
+        int h = 0;
+        for(int i = 0; i < exponents.length; i++)
+            h += Polynomials.termHash(exponents[i], coefficients[i]);
+        return h;
+    }
+}
@@ -0,0 +1,71 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Operations between two polynomials of the same degree and density, for every combination of dense and sparse
+ * operands.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BinaryBenchmark {
+    @Param({"DENSE", "SPARSE"})
+    public String left;
+
+    @Param({"DENSE", "SPARSE"})
+    public String right;
+
+    @Param({"100", "10000"})
+    public int degree;
+
+    @Param({"1.0", "0.05"})
+    public double density;
+
+    private Object p;
+    private Object q;
+    private Object pCopy;
+
+    @Setup
+    public void setup() throws Throwable {
+        String str = PolynomialHandles.randomPolynomial(degree, density, 1);
+        p = PolynomialHandles.create(left, str);
+        pCopy = PolynomialHandles.create(right, str);
+        q = PolynomialHandles.create(right, PolynomialHandles.randomPolynomial(degree, density, 2));
+    }
+
+    @Benchmark
+    public Object add() throws Throwable {
+        return (Object) PolynomialHandles.ADD.invokeExact(p, q);
+    }
+
+    @Benchmark
+    public Object subtract() throws Throwable {
+        return (Object) PolynomialHandles.SUBTRACT.invokeExact(p, q);
+    }
+
+    @Benchmark
+    public Object multiply() throws Throwable {
+        return (Object) PolynomialHandles.MULTIPLY.invokeExact(p, q);
+    }
+
+    @Benchmark
+    public boolean equalsBenchmark() throws Throwable {
+        return (boolean) PolynomialHandles.EQUALS.invokeExact(p, pCopy);
+    }
+}
@@ -0,0 +1,67 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Evaluates a polynomial at many points, once with a call of evaluate(double) per point and once with the batch
+ * evaluate(double[], double[]).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EvaluateBenchmark {
+    @Param({"DENSE", "SPARSE"})
+    public String representation;
+
+    @Param({"10", "1000"})
+    public int degree;
+
+    @Param({"1.0", "0.05"})
+    public double density;
+
+    @Param({"100000"})
+    public int points;
+
+    private Object p;
+    private double[] xs;
+    private double[] out;
+
+    @Setup
+    public void setup() throws Throwable {
+        p = PolynomialHandles.create(representation, PolynomialHandles.randomPolynomial(degree, density, 1));
+        Random random = new Random(2);
+        xs = new double[points];
+        for(int i = 0; i < points; i++)
+            xs[i] = random.nextDouble() * 2 - 1;
+        out = new double[points];
+    }
+
+    @Benchmark
+    public double[] scalar() throws Throwable {
+        for(int i = 0; i < xs.length; i++)
+            out[i] = (double) PolynomialHandles.EVALUATE.invokeExact(p, xs[i]);
+        return out;
+    }
+
+    @Benchmark
+    public double[] batch() throws Throwable {
+        PolynomialHandles.EVALUATE_BATCH.invokeExact(p, xs, out);
+        return out;
+    }
+}
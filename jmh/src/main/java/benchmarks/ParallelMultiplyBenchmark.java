@@ -0,0 +1,60 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Multiplies two dense polynomials of the same degree on a ForkJoinPool with several thresholds, to find the length
+ * from which splitting the product into tasks is faster than computing it on one thread. A threshold larger than the
+ * degree computes the product sequentially.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParallelMultiplyBenchmark {
+    @Param({"1024", "4096", "16384", "65536"})
+    public int degree;
+
+    @Param({"1024", "4096", "16384", "2147483647"})
+    public int threshold;
+
+    @Param({"4"})
+    public int threads;
+
+    private Object p;
+    private Object q;
+    private ForkJoinPool pool;
+
+    @Setup
+    public void setup() throws Throwable {
+        p = PolynomialHandles.create("DENSE", PolynomialHandles.randomPolynomial(degree, 1.0, 1));
+        q = PolynomialHandles.create("DENSE", PolynomialHandles.randomPolynomial(degree, 1.0, 2));
+        pool = new ForkJoinPool(threads);
+    }
+
+    @TearDown
+    public void tearDown(){
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public Object multiply() throws Throwable {
+        return (Object) PolynomialHandles.MULTIPLY_PARALLEL.invokeExact(p, q, pool, threshold);
+    }
+}
@@ -0,0 +1,103 @@
+package benchmarks;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Method handles on the polynomial classes. The library lives in the default package, which can't be imported from
+ * a named package and JMH refuses to generate benchmarks in the default package, so the benchmarks reach the library
+ * through these handles. Handles held in static final fields are constant folded by the JIT, so calling them costs
+ * the same as a direct interface call.
+ */
+final class PolynomialHandles {
+    static final MethodHandle NEW_DENSE;
+    static final MethodHandle NEW_SPARSE;
+    static final MethodHandle ADD;
+    static final MethodHandle SUBTRACT;
+    static final MethodHandle MULTIPLY;
+    static final MethodHandle MULTIPLY_PARALLEL;
+    static final MethodHandle MINUS;
+    static final MethodHandle EQUALS;
+    static final MethodHandle TO_STRING;
+    static final MethodHandle EVALUATE;
+    static final MethodHandle EVALUATE_BATCH;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+            Class<?> polynomial = Class.forName("Polynomial");
+            MethodType parse = MethodType.methodType(Object.class, String.class);
+            MethodType binary = MethodType.methodType(Object.class, Object.class, Object.class);
+            MethodType unary = MethodType.methodType(Object.class, Object.class);
+            NEW_DENSE = lookup.findConstructor(Class.forName("DensePolynomial"),
+                    MethodType.methodType(void.class, String.class)).asType(parse);
+            NEW_SPARSE = lookup.findConstructor(Class.forName("SparsePolynomial"),
+                    MethodType.methodType(void.class, String.class)).asType(parse);
+            MethodType operation = MethodType.methodType(polynomial, polynomial);
+            ADD = lookup.findVirtual(polynomial, "add", operation).asType(binary);
+            SUBTRACT = lookup.findVirtual(polynomial, "subtract", operation).asType(binary);
+            MULTIPLY = lookup.findVirtual(polynomial, "multiply", operation).asType(binary);
+            MULTIPLY_PARALLEL = lookup.findVirtual(Class.forName("DensePolynomial"), "multiply",
+                    MethodType.methodType(polynomial, polynomial, ForkJoinPool.class, int.class))
+                    .asType(MethodType.methodType(Object.class, Object.class, Object.class, ForkJoinPool.class,
+                            int.class));
+            MINUS = lookup.findVirtual(polynomial, "minus", MethodType.methodType(polynomial)).asType(unary);
+            EQUALS = lookup.findVirtual(Object.class, "equals", MethodType.methodType(boolean.class, Object.class));
+            TO_STRING = lookup.findVirtual(Object.class, "toString", MethodType.methodType(String.class));
+            EVALUATE = lookup.findVirtual(polynomial, "evaluate", MethodType.methodType(double.class, double.class))
+                    .asType(MethodType.methodType(double.class, Object.class, double.class));
+            EVALUATE_BATCH = lookup.findVirtual(polynomial, "evaluate",
+                    MethodType.methodType(void.class, double[].class, double[].class))
+                    .asType(MethodType.methodType(void.class, Object.class, double[].class, double[].class));
+        }catch(ReflectiveOperationException e){
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private PolynomialHandles(){
+    }
+
+    /**
+     * Creates a polynomial of the given representation.
+     *
+     * @param representation DENSE or SPARSE
+     * @param str the polynomial written as a string
+     * @return the new polynomial
+     */
+    static Object create(String representation, String str) throws Throwable {
+        if(representation.equals("DENSE"))
+            return (Object) NEW_DENSE.invokeExact(str);
+        return (Object) NEW_SPARSE.invokeExact(str);
+    }
+
+    /**
+     * Writes a random polynomial of the given degree. Every lower exponent has a term with the probability given by
+     * density, and the coefficients are between 2 and 1000 with a random sign.
+     *
+     * @param degree the degree of the polynomial
+     * @param density the fraction of the exponents that have a term
+     * @param seed the seed of the random coefficients
+     * @return the polynomial written as a string
+     */
+    static String randomPolynomial(int degree, double density, long seed){
+        Random random = new Random(seed);
+        StringBuilder str = new StringBuilder();
+        for(int i = degree; i >= 0; i--){
+            if(i != degree && random.nextDouble() >= density)
+                continue;
+            int coef = 2 + random.nextInt(999);
+            boolean negative = random.nextBoolean();
+            if(str.length() > 0)
+                str.append(negative ? " - " : " + ");
+            else if(negative)
+                str.append('-');
+            str.append(coef);
+            if(i > 0)
+                str.append("x^").append(i);
+        }
+        return str.toString();
+    }
+}
@@ -0,0 +1,59 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Operations on a single polynomial: parsing its string, negating it and writing it back out.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UnaryBenchmark {
+    @Param({"DENSE", "SPARSE"})
+    public String representation;
+
+    @Param({"100", "10000"})
+    public int degree;
+
+    @Param({"1.0", "0.05"})
+    public double density;
+
+    private String str;
+    private Object p;
+
+    @Setup
+    public void setup() throws Throwable {
+        str = PolynomialHandles.randomPolynomial(degree, density, 1);
+        p = PolynomialHandles.create(representation, str);
+    }
+
+    @Benchmark
+    public Object parse() throws Throwable {
+        return PolynomialHandles.create(representation, str);
+    }
+
+    @Benchmark
+    public Object minus() throws Throwable {
+        return (Object) PolynomialHandles.MINUS.invokeExact(p);
+    }
+
+    @Benchmark
+    public String toStringBenchmark() throws Throwable {
+        return (String) PolynomialHandles.TO_STRING.invokeExact(p);
+    }
+}